@@ -25,18 +25,25 @@ import net.fhirfactory.pegacorn.core.interfaces.auditing.PetasosAuditEventServic
 import net.fhirfactory.pegacorn.core.interfaces.auditing.PetasosAuditEventServiceBrokerInterface;
 import net.fhirfactory.pegacorn.core.interfaces.auditing.PetasosAuditEventServiceProviderNameInterface;
 import net.fhirfactory.pegacorn.services.audit.cache.AsynchronousWriterAuditEventCache;
+import net.fhirfactory.pegacorn.services.audit.cache.spool.AuditEventSpool;
 import net.fhirfactory.pegacorn.util.FHIRContextUtility;
+import net.fhirfactory.pegacorn.util.PegacornEnvironmentProperties;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
+import org.apache.commons.lang3.StringUtils;
 import org.hl7.fhir.r4.model.AuditEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 
 @ApplicationScoped
 public class LocalAuditEventServiceClientEventManager implements PetasosAuditEventServiceAgentInterface {
@@ -53,6 +60,16 @@ public class LocalAuditEventServiceClientEventManager implements PetasosAuditEve
     private static Long AUDIT_EVENT_ASYNCHRONOUS_WRITER_INITIALISE_WAIT = 30000L;
     private static int MAX_ASYNCHRONOUS_LIST_SIZE = 500;
 
+    private static final String AUDIT_EVENT_SPOOL_DIRECTORY_PROPERTY = "AUDIT_EVENT_SPOOL_DIRECTORY";
+    private static final String AUDIT_EVENT_SPOOL_ENABLED_PROPERTY = "AUDIT_EVENT_SPOOL_ENABLED";
+    private static final int AUDIT_EVENT_SPOOL_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int AUDIT_EVENT_SPOOL_MAXIMUM_SEGMENT_COUNT = 64;
+
+    private AuditEventSpool eventSpool;
+
+    @Inject
+    private PegacornEnvironmentProperties environmentProperties;
+
     @Inject
     private PetasosAuditEventServiceBrokerInterface auditEventService;
 
@@ -62,6 +79,9 @@ public class LocalAuditEventServiceClientEventManager implements PetasosAuditEve
     @Inject
     private PetasosAuditEventServiceProviderNameInterface auditEventServiceProvider;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // ConstructorPetasosAuditEventServiceClientWriterInterface
     //
@@ -85,12 +105,54 @@ public class LocalAuditEventServiceClientEventManager implements PetasosAuditEve
             getLogger().info(".initialise(): [Schedule Asynchronous Writer Task] Start");
             scheduleAsynchronousWriterTask();
             getLogger().info(".initialise(): [Schedule Asynchronous Writer Task] Finish");
+            getLogger().info(".initialise(): [Open AuditEvent Spool] Start");
+            openEventSpool();
+            getLogger().info(".initialise(): [Open AuditEvent Spool] Finish");
             this.initialised = true;
             getLogger().info(".initialise(): Done...");
         }
         getLogger().debug(".initialise(): Exit");
     }
 
+    @PreDestroy
+    public void shutdown(){
+        getLogger().debug(".shutdown(): Entry");
+        if(getEventSpool() != null){
+            getEventSpool().close();
+        }
+        getLogger().debug(".shutdown(): Exit");
+    }
+
+    /**
+     * Opens the durable spool used for asynchronously written AuditEvents. The spool lives in AUDIT_EVENT_SPOOL_DIRECTORY
+     * (which should be on a persistent volume if events are to survive the loss of the pod), defaulting to a
+     * per-pod directory under java.io.tmpdir. If the spool cannot be opened, events are held in memory instead.
+     */
+    protected void openEventSpool(){
+        getLogger().debug(".openEventSpool(): Entry");
+        if(!environmentProperties.getBooleanProperty(AUDIT_EVENT_SPOOL_ENABLED_PROPERTY, true)){
+            getLogger().info(".openEventSpool(): Exit, AuditEvent spool is disabled");
+            return;
+        }
+        String spoolDirectoryName = environmentProperties.getProperty(AUDIT_EVENT_SPOOL_DIRECTORY_PROPERTY, null);
+        Path spoolDirectory = null;
+        if(StringUtils.isNotBlank(spoolDirectoryName)){
+            spoolDirectory = Paths.get(spoolDirectoryName);
+        } else {
+            String podName = environmentProperties.getProperty("MY_POD_NAME", "default");
+            spoolDirectory = Paths.get(System.getProperty("java.io.tmpdir"), "pegacorn-audit-spool", podName);
+        }
+        AuditEventSpool spool = new AuditEventSpool(spoolDirectory, AUDIT_EVENT_SPOOL_SEGMENT_SIZE, AUDIT_EVENT_SPOOL_MAXIMUM_SEGMENT_COUNT);
+        try {
+            spool.open();
+            this.eventSpool = spool;
+            getLogger().info(".openEventSpool(): AuditEvent spool opened, directory->{}, pendingEvents->{}", spoolDirectory, spool.getPendingRecordCount());
+        } catch (IOException ex){
+            getLogger().warn(".openEventSpool(): Cannot open AuditEvent spool, events will be held in memory, directory->{}, error->{}", spoolDirectory, ex.getMessage());
+        }
+        getLogger().debug(".openEventSpool(): Exit");
+    }
+
     //
     // Getters (and Setters)
     //
@@ -127,6 +189,10 @@ public class LocalAuditEventServiceClientEventManager implements PetasosAuditEve
         return(fhirContextUtility);
     }
 
+    protected AuditEventSpool getEventSpool(){
+        return(eventSpool);
+    }
+
     //
     // Audit Event Service
     //
@@ -160,6 +226,10 @@ public class LocalAuditEventServiceClientEventManager implements PetasosAuditEve
             getLogger().debug(".addToWriteQueue(): Exit, auditEvent is null");
             return;
         }
+        if(spoolAuditEvent(auditEvent)){
+            getLogger().debug(".addToWriteQueue(): Exit, auditEvent spooled");
+            return;
+        }
         if(eventCache.getNumberOfEntries() > MAX_ASYNCHRONOUS_LIST_SIZE){
             getLogger().warn(".addToWriteQueue(): Queue is full, cannot add new AuditEvent, Printing Here!");
             printAuditEvent(auditEvent);
@@ -169,6 +239,20 @@ public class LocalAuditEventServiceClientEventManager implements PetasosAuditEve
     }
 
 
+    protected boolean spoolAuditEvent(AuditEvent auditEvent){
+        AuditEventSpool spool = getEventSpool();
+        if(spool == null){
+            return(false);
+        }
+        try {
+            String auditEventAsString = getFhirContextUtility().encodeToJsonString(auditEvent);
+            return(spool.append(auditEventAsString.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception ex){
+            getLogger().warn(".spoolAuditEvent(): Cannot spool AuditEvent, error->{}", ex.getMessage());
+            return(false);
+        }
+    }
+
     //
     // Asynchronous Writer Task
     //
@@ -178,24 +262,19 @@ public class LocalAuditEventServiceClientEventManager implements PetasosAuditEve
         if(isWriterScheduled()){
             // do nothing
         } else {
-            TimerTask AsynchronousAuditEventWriterTask = new TimerTask() {
-                public void run() {
-                    getLogger().debug(".ITOpsCacheSynchronisationCheck(): Entry");
-                    writeQueuedAuditEvents();
-                    getLogger().debug(".ITOpsCacheSynchronisationCheck(): Exit");
-                }
-            };
-            String timerName = "AsynchronousAuditEventWriterTask";
-            Timer timer = new Timer(timerName);
-            timer.schedule(AsynchronousAuditEventWriterTask, getAuditEventAsynchronousWriterInitialiseWait(), getAuditEventAsynchronousWriterCheckPeriod());
+            sharedScheduler.schedule("AsynchronousAuditEventWriterTask", () -> {
+                getLogger().debug(".ITOpsCacheSynchronisationCheck(): Entry");
+                writeQueuedAuditEvents();
+                getLogger().debug(".ITOpsCacheSynchronisationCheck(): Exit");
+            }, getAuditEventAsynchronousWriterInitialiseWait(), getAuditEventAsynchronousWriterCheckPeriod());
             this.writerScheduled = true;
         }
         getLogger().debug(".scheduleITOpsBackgroundSynchronisationTask(): Exit");
     }
 
-    // TODO We should batch up the writing of the events (i.e. support "n" events at a time)
     protected void writeQueuedAuditEvents(){
         getLogger().debug(".writeQueuedAuditEvents(): Entry");
+        writeSpooledAuditEvents();
         boolean thisWriteWasSuccessful = false;
         try {
             while (eventCache.hasEntries()) {
@@ -246,10 +325,55 @@ public class LocalAuditEventServiceClientEventManager implements PetasosAuditEve
         getLogger().debug(".writeQueuedAuditEvents(): Exit");
     }
 
+    /**
+     * Sends the spooled AuditEvents to the audit service in batches, acknowledging (and so releasing) each batch only
+     * once the service has accepted it. If the service is unavailable the events stay in the spool for the next run.
+     */
+    protected void writeSpooledAuditEvents(){
+        getLogger().debug(".writeSpooledAuditEvents(): Entry");
+        AuditEventSpool spool = getEventSpool();
+        if(spool == null){
+            getLogger().debug(".writeSpooledAuditEvents(): Exit, no spool");
+            return;
+        }
+        spool.sync();
+        int writtenCount = 0;
+        try {
+            while (spool.getPendingRecordCount() > 0) {
+                AuditEventSpool.SpoolBatch batch = spool.readBatch(MAX_ASYNCHRONOUS_LIST_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<AuditEvent> auditEventList = new ArrayList<>();
+                for (byte[] currentRecord : batch.getRecords()) {
+                    String auditEventAsString = new String(currentRecord, StandardCharsets.UTF_8);
+                    try {
+                        auditEventList.add(getFhirContextUtility().parseJson(AuditEvent.class, auditEventAsString));
+                    } catch (Exception ex) {
+                        getLogger().warn(".writeSpooledAuditEvents(): Cannot parse spooled AuditEvent, discarding, AuditEvent->{}", auditEventAsString);
+                    }
+                }
+                Boolean success = true;
+                if (!auditEventList.isEmpty()) {
+                    success = auditEventService.logAuditEvent(auditEventServiceProvider.getPetasosAuditEventServiceProviderName(), auditEventList);
+                }
+                if (success == null || !success) {
+                    getLogger().warn(".writeSpooledAuditEvents(): Audit service did not accept batch, will retry, pendingEvents->{}", spool.getPendingRecordCount());
+                    break;
+                }
+                spool.acknowledge(batch);
+                writtenCount += auditEventList.size();
+            }
+        } catch (Exception ex){
+            getLogger().warn(".writeSpooledAuditEvents(): Cannot write spooled audit events, Message->{}", ex.getMessage());
+        }
+        getLogger().debug(".writeSpooledAuditEvents(): Exit, writtenCount->{}", writtenCount);
+    }
+
     protected void printAuditEvent(AuditEvent auditEvent){
         String auditEventAsString = null;
         try {
-            auditEventAsString = getFhirContextUtility().getJsonParser().encodeResourceToString(auditEvent);
+            auditEventAsString = getFhirContextUtility().encodeToJsonString(auditEvent);
         } catch( Exception ex){
             getLogger().warn(".printAuditEvent(): Cannot convert AuditEvent to String, error->{}", ex.getMessage());
             auditEventAsString = "Unprintable";
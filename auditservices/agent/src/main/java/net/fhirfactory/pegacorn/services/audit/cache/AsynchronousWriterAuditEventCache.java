@@ -4,11 +4,13 @@ import org.hl7.fhir.r4.model.AuditEvent;
 
 import javax.enterprise.context.ApplicationScoped;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ApplicationScoped
 public class AsynchronousWriterAuditEventCache {
 
     private ConcurrentLinkedQueue<AuditEvent> eventQueue;
+    private AtomicInteger eventCount;
 
     //
     // Constructor
@@ -16,6 +18,7 @@ public class AsynchronousWriterAuditEventCache {
 
     public AsynchronousWriterAuditEventCache(){
         this.eventQueue = new ConcurrentLinkedQueue<>();
+        this.eventCount = new AtomicInteger(0);
     }
 
     //
@@ -33,6 +36,7 @@ public class AsynchronousWriterAuditEventCache {
 
     public void addAuditEvent(AuditEvent auditEvent){
         getEventQueue().offer(auditEvent);
+        eventCount.incrementAndGet();
     }
 
     public AuditEvent peekAuditEvent(){
@@ -42,11 +46,15 @@ public class AsynchronousWriterAuditEventCache {
 
     public AuditEvent pollAuditEvent(){
         AuditEvent nextEvent = getEventQueue().poll();
+        if(nextEvent != null){
+            eventCount.decrementAndGet();
+        }
         return(nextEvent);
     }
-    
+
+    // ConcurrentLinkedQueue.size() walks the whole queue, so keep our own count
     public int getNumberOfEntries(){
-        return(eventQueue.size());
+        return(eventCount.get());
     }
 
     public boolean hasEntries(){
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.audit.cache.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * A durable, segmented, append-only spool of opaque records, backed by memory-mapped files.
+ *
+ * Each segment is a fixed-size file holding a run of records, each laid out as [length][crc32][payload]. The length
+ * is written last, so a record torn by a crash reads as a zero length (the end of the segment) and a record whose
+ * CRC does not match its payload is treated the same way. When a record does not fit in the current segment a new
+ * segment is started.
+ *
+ * Records are read in batches from the acknowledged position; reading does not consume them. Once a batch has been
+ * delivered, acknowledge() moves the acknowledged position past it, persists that position in a small checkpoint
+ * file and deletes any segments that are now fully acknowledged. On restart (open()) the spool replays everything
+ * after the checkpoint.
+ *
+ * All operations are serialised on a single lock: appends are a bounded memory copy, so producers are never held up
+ * by delivery to the consumer.
+ */
+public class AuditEventSpool {
+    private static final Logger LOG = LoggerFactory.getLogger(AuditEventSpool.class);
+
+    private static final String SEGMENT_FILE_PREFIX = "audit-spool-";
+    private static final String SEGMENT_FILE_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE_NAME = "audit-spool.checkpoint";
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int CHECKPOINT_SIZE = 16;
+
+    private final Path spoolDirectory;
+    private final int segmentSize;
+    private final int maximumSegmentCount;
+    private final TreeMap<Long, SpoolSegment> segments;
+    private final Object spoolLock;
+    private FileChannel checkpointChannel;
+    private SpoolSegment writeSegment;
+    private long acknowledgedSegmentSequence;
+    private int acknowledgedOffset;
+    private long pendingRecordCount;
+    private boolean open;
+
+    //
+    // Constructor(s)
+    //
+
+    public AuditEventSpool(Path spoolDirectory, int segmentSize, int maximumSegmentCount){
+        if(segmentSize <= RECORD_HEADER_SIZE){
+            throw new IllegalArgumentException("segmentSize must be larger than the record header (" + RECORD_HEADER_SIZE + " bytes)");
+        }
+        if(maximumSegmentCount < 1){
+            throw new IllegalArgumentException("maximumSegmentCount must be at least 1");
+        }
+        this.spoolDirectory = spoolDirectory;
+        this.segmentSize = segmentSize;
+        this.maximumSegmentCount = maximumSegmentCount;
+        this.segments = new TreeMap<>();
+        this.spoolLock = new Object();
+        this.open = false;
+    }
+
+    //
+    // Open/Close
+    //
+
+    /**
+     * Opens (or creates) the spool, recovering the acknowledged position from the checkpoint and the write position
+     * from the content of the last segment.
+     *
+     * @throws IOException if the spool directory or its files cannot be accessed
+     */
+    public void open() throws IOException {
+        getLogger().debug(".open(): Entry, spoolDirectory->{}", spoolDirectory);
+        synchronized (spoolLock) {
+            if (open) {
+                getLogger().debug(".open(): Exit, already open");
+                return;
+            }
+            Files.createDirectories(spoolDirectory);
+            try (DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(spoolDirectory, SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX)) {
+                for (Path currentFile : segmentFiles) {
+                    Long sequence = parseSegmentSequence(currentFile);
+                    if (sequence == null) {
+                        getLogger().warn(".open(): Ignoring unrecognised spool file->{}", currentFile);
+                        continue;
+                    }
+                    segments.put(sequence, mapSegment(sequence, currentFile));
+                }
+            }
+            this.checkpointChannel = FileChannel.open(spoolDirectory.resolve(CHECKPOINT_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (!readCheckpoint()) {
+                this.acknowledgedSegmentSequence = segments.isEmpty() ? 0L : segments.firstKey();
+                this.acknowledgedOffset = 0;
+            }
+            // Segments before the checkpoint were fully delivered before the last shutdown
+            while (!segments.isEmpty() && segments.firstKey() < acknowledgedSegmentSequence) {
+                deleteSegment(segments.pollFirstEntry().getValue());
+            }
+            if (segments.isEmpty()) {
+                this.acknowledgedOffset = 0;
+                segments.put(acknowledgedSegmentSequence, createSegment(acknowledgedSegmentSequence));
+            } else if (segments.firstKey() > acknowledgedSegmentSequence) {
+                this.acknowledgedSegmentSequence = segments.firstKey();
+                this.acknowledgedOffset = 0;
+            }
+            for (SpoolSegment currentSegment : segments.values()) {
+                currentSegment.writeOffset = scanForEnd(currentSegment);
+            }
+            this.writeSegment = segments.lastEntry().getValue();
+            clearTail(writeSegment);
+            this.pendingRecordCount = countPendingRecords();
+            this.open = true;
+            getLogger().info(".open(): Spool opened, segments->{}, pendingRecords->{}", segments.size(), pendingRecordCount);
+        }
+        getLogger().debug(".open(): Exit");
+    }
+
+    public void close(){
+        getLogger().debug(".close(): Entry");
+        synchronized (spoolLock) {
+            if (!open) {
+                return;
+            }
+            sync();
+            try {
+                checkpointChannel.close();
+            } catch (IOException e) {
+                getLogger().warn(".close(): Could not close checkpoint file, error->{}", e.getMessage());
+            }
+            segments.clear();
+            writeSegment = null;
+            open = false;
+        }
+        getLogger().debug(".close(): Exit");
+    }
+
+    //
+    // Business Methods
+    //
+
+    /**
+     * Appends a record to the spool.
+     *
+     * @param payload the record content
+     * @return true if the record was spooled, false if the spool is closed, full, or the record is larger than a
+     * segment
+     */
+    public boolean append(byte[] payload){
+        if(payload == null){
+            return(false);
+        }
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if(recordSize > segmentSize){
+            getLogger().warn(".append(): Record is larger than a spool segment, recordSize->{}, segmentSize->{}", recordSize, segmentSize);
+            return(false);
+        }
+        synchronized (spoolLock) {
+            if (!open) {
+                return (false);
+            }
+            if (writeSegment.writeOffset + recordSize > segmentSize) {
+                if (segments.size() >= maximumSegmentCount) {
+                    getLogger().warn(".append(): Spool is full, segments->{}", segments.size());
+                    return (false);
+                }
+                try {
+                    long nextSequence = writeSegment.sequence + 1;
+                    SpoolSegment nextSegment = createSegment(nextSequence);
+                    segments.put(nextSequence, nextSegment);
+                    writeSegment.buffer.force();
+                    writeSegment = nextSegment;
+                } catch (IOException e) {
+                    getLogger().warn(".append(): Could not create a new spool segment, error->{}", e.getMessage());
+                    return (false);
+                }
+            }
+            ByteBuffer buffer = writeSegment.buffer;
+            int recordOffset = writeSegment.writeOffset;
+            buffer.position(recordOffset + RECORD_HEADER_SIZE);
+            buffer.put(payload);
+            buffer.putInt(recordOffset + 4, checksum(payload));
+            buffer.putInt(recordOffset, payload.length);
+            writeSegment.writeOffset = recordOffset + recordSize;
+            pendingRecordCount += 1;
+        }
+        return(true);
+    }
+
+    /**
+     * Reads (without consuming) up to maximumRecordCount records from the acknowledged position.
+     *
+     * @param maximumRecordCount the maximum number of records to return
+     * @return the batch, which is empty if there is nothing pending
+     */
+    public SpoolBatch readBatch(int maximumRecordCount){
+        synchronized (spoolLock) {
+            List<byte[]> records = new ArrayList<>();
+            if (!open) {
+                return (new SpoolBatch(records, acknowledgedSegmentSequence, acknowledgedOffset));
+            }
+            long currentSequence = acknowledgedSegmentSequence;
+            int currentOffset = acknowledgedOffset;
+            while (records.size() < maximumRecordCount) {
+                SpoolSegment currentSegment = segments.get(currentSequence);
+                if (currentSegment == null) {
+                    break;
+                }
+                if (currentOffset < currentSegment.writeOffset) {
+                    ByteBuffer buffer = currentSegment.buffer.duplicate();
+                    int length = buffer.getInt(currentOffset);
+                    byte[] payload = new byte[length];
+                    buffer.position(currentOffset + RECORD_HEADER_SIZE);
+                    buffer.get(payload);
+                    records.add(payload);
+                    currentOffset += RECORD_HEADER_SIZE + length;
+                } else {
+                    Long nextSequence = segments.higherKey(currentSequence);
+                    if (nextSequence == null) {
+                        break;
+                    }
+                    currentSequence = nextSequence;
+                    currentOffset = 0;
+                }
+            }
+            return (new SpoolBatch(records, currentSequence, currentOffset));
+        }
+    }
+
+    /**
+     * Marks the records of a batch (and any before it) as delivered, persists the new position and deletes segments
+     * which no longer hold undelivered records.
+     *
+     * @param batch a batch returned by readBatch()
+     */
+    public void acknowledge(SpoolBatch batch){
+        if(batch == null || batch.isEmpty()){
+            return;
+        }
+        synchronized (spoolLock) {
+            if (!open) {
+                return;
+            }
+            if (batch.getEndSegmentSequence() < acknowledgedSegmentSequence || (batch.getEndSegmentSequence() == acknowledgedSegmentSequence && batch.getEndOffset() <= acknowledgedOffset)) {
+                getLogger().debug(".acknowledge(): Batch already acknowledged");
+                return;
+            }
+            this.acknowledgedSegmentSequence = batch.getEndSegmentSequence();
+            this.acknowledgedOffset = batch.getEndOffset();
+            this.pendingRecordCount = Math.max(0L, pendingRecordCount - batch.size());
+            writeCheckpoint();
+            while (!segments.isEmpty() && segments.firstKey() < acknowledgedSegmentSequence) {
+                deleteSegment(segments.pollFirstEntry().getValue());
+            }
+        }
+    }
+
+    /**
+     * Forces the content of the current segment (and the checkpoint) to storage.
+     */
+    public void sync(){
+        synchronized (spoolLock) {
+            if (!open) {
+                return;
+            }
+            writeSegment.buffer.force();
+            try {
+                checkpointChannel.force(false);
+            } catch (IOException e) {
+                getLogger().warn(".sync(): Could not force checkpoint file, error->{}", e.getMessage());
+            }
+        }
+    }
+
+    public long getPendingRecordCount(){
+        synchronized (spoolLock) {
+            return (pendingRecordCount);
+        }
+    }
+
+    public int getSegmentCount(){
+        synchronized (spoolLock) {
+            return (segments.size());
+        }
+    }
+
+    public boolean isOpen(){
+        synchronized (spoolLock) {
+            return (open);
+        }
+    }
+
+    //
+    // Segment Management
+    //
+
+    private SpoolSegment createSegment(long sequence) throws IOException {
+        Path segmentPath = spoolDirectory.resolve(segmentFileName(sequence));
+        return(mapSegment(sequence, segmentPath));
+    }
+
+    private SpoolSegment mapSegment(long sequence, Path segmentPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return (new SpoolSegment(sequence, segmentPath, buffer));
+        }
+    }
+
+    private void deleteSegment(SpoolSegment segment){
+        try {
+            Files.deleteIfExists(segment.path);
+            getLogger().debug(".deleteSegment(): Deleted spool segment->{}", segment.path);
+        } catch (IOException e) {
+            getLogger().warn(".deleteSegment(): Could not delete spool segment->{}, error->{}", segment.path, e.getMessage());
+        }
+    }
+
+    private int scanForEnd(SpoolSegment segment){
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int offset = 0;
+        while (offset + RECORD_HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.position(offset + RECORD_HEADER_SIZE);
+            buffer.get(payload);
+            if (buffer.getInt(offset + 4) != checksum(payload)) {
+                getLogger().warn(".scanForEnd(): Checksum mismatch in spool segment->{}, offset->{}, discarding the remainder of the segment", segment.path, offset);
+                break;
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        return(offset);
+    }
+
+    private void clearTail(SpoolSegment segment){
+        ByteBuffer buffer = segment.buffer;
+        for (int offset = segment.writeOffset; offset < segmentSize; offset++) {
+            buffer.put(offset, (byte) 0);
+        }
+    }
+
+    private long countPendingRecords(){
+        long count = 0;
+        for (Map.Entry<Long, SpoolSegment> currentEntry : segments.entrySet()) {
+            SpoolSegment currentSegment = currentEntry.getValue();
+            int offset = currentEntry.getKey() == acknowledgedSegmentSequence ? acknowledgedOffset : 0;
+            while (offset < currentSegment.writeOffset) {
+                offset += RECORD_HEADER_SIZE + currentSegment.buffer.getInt(offset);
+                count += 1;
+            }
+        }
+        return(count);
+    }
+
+    //
+    // Checkpoint
+    //
+
+    private boolean readCheckpoint() throws IOException {
+        if (checkpointChannel.size() < CHECKPOINT_SIZE) {
+            return (false);
+        }
+        ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE);
+        checkpointChannel.read(checkpoint, 0);
+        long sequence = checkpoint.getLong(0);
+        int offset = checkpoint.getInt(8);
+        int storedChecksum = checkpoint.getInt(12);
+        byte[] checkpointContent = new byte[12];
+        checkpoint.position(0);
+        checkpoint.get(checkpointContent);
+        if (storedChecksum != checksum(checkpointContent) || sequence < 0 || offset < 0 || offset > segmentSize) {
+            getLogger().warn(".readCheckpoint(): Spool checkpoint is corrupt, replaying all segments");
+            return (false);
+        }
+        this.acknowledgedSegmentSequence = sequence;
+        this.acknowledgedOffset = offset;
+        return (true);
+    }
+
+    private void writeCheckpoint(){
+        ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE);
+        checkpoint.putLong(acknowledgedSegmentSequence);
+        checkpoint.putInt(acknowledgedOffset);
+        byte[] checkpointContent = new byte[12];
+        checkpoint.position(0);
+        checkpoint.get(checkpointContent);
+        checkpoint.putInt(12, checksum(checkpointContent));
+        checkpoint.position(0);
+        try {
+            checkpointChannel.write(checkpoint, 0);
+        } catch (IOException e) {
+            getLogger().warn(".writeCheckpoint(): Could not write spool checkpoint, error->{}", e.getMessage());
+        }
+    }
+
+    //
+    // Helpers
+    //
+
+    private static int checksum(byte[] content){
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        return((int) crc.getValue());
+    }
+
+    private static String segmentFileName(long sequence){
+        return(SEGMENT_FILE_PREFIX + String.format("%020d", sequence) + SEGMENT_FILE_SUFFIX);
+    }
+
+    private static Long parseSegmentSequence(Path segmentPath){
+        String fileName = segmentPath.getFileName().toString();
+        String sequenceText = fileName.substring(SEGMENT_FILE_PREFIX.length(), fileName.length() - SEGMENT_FILE_SUFFIX.length());
+        try {
+            return (Long.parseLong(sequenceText));
+        } catch (NumberFormatException e) {
+            return (null);
+        }
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    protected Logger getLogger(){
+        return(LOG);
+    }
+
+    public Path getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public int getMaximumSegmentCount() {
+        return maximumSegmentCount;
+    }
+
+    //
+    // Internal Types
+    //
+
+    private static class SpoolSegment {
+        private final long sequence;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+
+        SpoolSegment(long sequence, Path path, MappedByteBuffer buffer){
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+            this.writeOffset = 0;
+        }
+    }
+
+    public static class SpoolBatch {
+        private final List<byte[]> records;
+        private final long endSegmentSequence;
+        private final int endOffset;
+
+        SpoolBatch(List<byte[]> records, long endSegmentSequence, int endOffset){
+            this.records = Collections.unmodifiableList(records);
+            this.endSegmentSequence = endSegmentSequence;
+            this.endOffset = endOffset;
+        }
+
+        public List<byte[]> getRecords() {
+            return records;
+        }
+
+        public int size(){
+            return(records.size());
+        }
+
+        public boolean isEmpty(){
+            return(records.isEmpty());
+        }
+
+        long getEndSegmentSequence() {
+            return endSegmentSequence;
+        }
+
+        int getEndOffset() {
+            return endOffset;
+        }
+    }
+}
@@ -28,8 +28,6 @@ import net.fhirfactory.pegacorn.core.model.transaction.model.PegacornTransaction
 import net.fhirfactory.pegacorn.petasos.endpoints.services.audit.PetasosAuditServicesEndpoint;
 import org.hl7.fhir.r4.model.AuditEvent;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -96,11 +94,8 @@ public class PetasosAuditAgentEndpoint extends PetasosAuditServicesEndpoint
             classSet[0] = AuditEvent.class;
             objectSet[1] = myJGroupsIP;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             Boolean response = null;
-            synchronized (getIPCChannelLock()){
-                response = getRPCDispatcher().callRemoteMethod(targetAddress, "logAuditEventHandler", objectSet, classSet, requestOptions);
-            }
+            response = callRemoteMethod(targetAddress, "logAuditEventHandler", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().info(".logAuditEvent(): Exit, response->{}", response);
             return(response);
@@ -128,11 +123,8 @@ public class PetasosAuditAgentEndpoint extends PetasosAuditServicesEndpoint
             classSet[0] = List.class;
             objectSet[1] = jgroupsIP;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             Boolean response = null;
-            synchronized (getIPCChannelLock()){
-                response = getRPCDispatcher().callRemoteMethod(targetAddress, "logMultipleAuditEventHandler", objectSet, classSet, requestOptions);
-            }
+            response = callRemoteMethod(targetAddress, "logMultipleAuditEventHandler", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".logAuditEvent(): Exit, response->{}", response);
             return(response);
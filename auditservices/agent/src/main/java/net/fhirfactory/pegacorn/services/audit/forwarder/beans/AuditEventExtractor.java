@@ -21,30 +21,21 @@
  */
 package net.fhirfactory.pegacorn.services.audit.forwarder.beans;
 
-import ca.uhn.fhir.parser.IParser;
 import net.fhirfactory.pegacorn.core.model.petasos.uow.UoW;
 import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWPayload;
 import net.fhirfactory.pegacorn.util.FHIRContextUtility;
 import org.apache.commons.lang3.StringUtils;
 import org.hl7.fhir.r4.model.AuditEvent;
 
-import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 @ApplicationScoped
 public class AuditEventExtractor {
 
-    private IParser jsonFHIRParser;
-
     @Inject
     private FHIRContextUtility fhirContextUtility;
 
-    @PostConstruct
-    public void initialise(){
-        jsonFHIRParser = fhirContextUtility.getJsonParser();
-    }
-
     public AuditEvent extractAuditEvent(UoW uow){
         AuditEvent auditEvent = new AuditEvent();
         if(uow == null){
@@ -58,7 +49,7 @@ public class AuditEventExtractor {
         if(StringUtils.isEmpty(payload)){
             return(auditEvent);
         }
-        auditEvent = jsonFHIRParser.parseResource(AuditEvent.class, payload);
+        auditEvent = fhirContextUtility.parseJson(AuditEvent.class, payload);
         return(auditEvent);
     }
 }
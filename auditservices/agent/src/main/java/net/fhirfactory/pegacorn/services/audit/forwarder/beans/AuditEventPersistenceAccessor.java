@@ -21,7 +21,6 @@
  */
 package net.fhirfactory.pegacorn.services.audit.forwarder.beans;
 
-import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.MethodOutcome;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -36,7 +35,6 @@ import org.hl7.fhir.r4.model.AuditEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
@@ -47,7 +45,6 @@ public class AuditEventPersistenceAccessor {
     private static final Logger LOG = LoggerFactory.getLogger(AuditEventPersistenceAccessor.class);
 
     private ObjectMapper jsonMapper;
-    private IParser fhirParser;
 
    @Inject
    private PetasosAuditEventServiceProviderNameInterface auditEventServiceProvider;
@@ -94,11 +91,6 @@ public class AuditEventPersistenceAccessor {
         return(auditEvent);
     }
 
-    @PostConstruct
-    public void initialise() {
-        fhirParser = fhirContextUtility.getJsonParser();
-    }
-
     public synchronized MethodOutcome utiliseAuditEventPersistenceCapability(AuditEvent auditEvent) {
         getLogger().debug(".utiliseAuditEventPersistenceCapability(): Entry, auditEvent --> {}", auditEvent);
         //
@@ -124,12 +116,12 @@ public class AuditEventPersistenceAccessor {
     }
 
     private String convertToJSONString(AuditEvent auditEvent) {
-        String auditEventString = fhirParser.encodeResourceToString(auditEvent);
+        String auditEventString = fhirContextUtility.encodeToJsonString(auditEvent);
         return (auditEventString);
     }
 
     private AuditEvent convertToAuditEvent(String auditEventString) {
-        AuditEvent auditEvent = fhirParser.parseResource(AuditEvent.class, auditEventString);
+        AuditEvent auditEvent = fhirContextUtility.parseJson(AuditEvent.class, auditEventString);
         return (auditEvent);
     }
 
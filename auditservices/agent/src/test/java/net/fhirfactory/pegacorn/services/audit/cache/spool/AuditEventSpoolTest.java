@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.audit.cache.spool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditEventSpoolTest {
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private List<AuditEventSpool> openSpools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown(){
+        for(AuditEventSpool currentSpool: openSpools){
+            currentSpool.close();
+        }
+    }
+
+    //
+    // Test Fixtures
+    //
+
+    private AuditEventSpool openSpool(int segmentSize, int maximumSegmentCount) throws IOException {
+        AuditEventSpool spool = new AuditEventSpool(spoolDirectory, segmentSize, maximumSegmentCount);
+        spool.open();
+        openSpools.add(spool);
+        return(spool);
+    }
+
+    private static byte[] record(String content){
+        return(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> contentOf(AuditEventSpool.SpoolBatch batch){
+        List<String> content = new ArrayList<>();
+        for(byte[] currentRecord: batch.getRecords()){
+            content.add(new String(currentRecord, StandardCharsets.UTF_8));
+        }
+        return(content);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> segmentFiles = new ArrayList<>();
+        try(DirectoryStream<Path> directoryStream = Files.newDirectoryStream(spoolDirectory, "audit-spool-*.seg")){
+            for(Path currentFile: directoryStream){
+                segmentFiles.add(currentFile);
+            }
+        }
+        segmentFiles.sort(null);
+        return(segmentFiles);
+    }
+
+    private static void overwrite(Path file, int offset, byte[] content) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+            channel.write(ByteBuffer.wrap(content), offset);
+        }
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    void appendsAndReadsBack() throws IOException {
+        AuditEventSpool spool = openSpool(4096, 4);
+        for(int counter = 0; counter < 5; counter += 1){
+            assertTrue(spool.append(record("event-" + counter)));
+        }
+        assertEquals(5, spool.getPendingRecordCount());
+
+        AuditEventSpool.SpoolBatch firstBatch = spool.readBatch(3);
+        assertEquals(List.of("event-0", "event-1", "event-2"), contentOf(firstBatch));
+        // reading doesn't consume
+        assertEquals(List.of("event-0", "event-1", "event-2"), contentOf(spool.readBatch(3)));
+
+        spool.acknowledge(firstBatch);
+        assertEquals(2, spool.getPendingRecordCount());
+        assertEquals(List.of("event-3", "event-4"), contentOf(spool.readBatch(10)));
+        // acknowledging the same batch twice is harmless
+        spool.acknowledge(firstBatch);
+        assertEquals(2, spool.getPendingRecordCount());
+    }
+
+    @Test
+    void rejectsNullAndOversizedRecords() throws IOException {
+        AuditEventSpool spool = openSpool(64, 2);
+        assertFalse(spool.append(null));
+        assertFalse(spool.append(new byte[64 - RECORD_HEADER_SIZE + 1]));
+        assertTrue(spool.append(new byte[64 - RECORD_HEADER_SIZE]));
+        spool.close();
+        assertFalse(spool.append(record("event")));
+    }
+
+    @Test
+    void discardsRecordsAfterChecksumMismatch() throws IOException {
+        AuditEventSpool spool = openSpool(4096, 4);
+        spool.append(record("event-0"));
+        spool.append(record("event-1"));
+        spool.append(record("event-2"));
+        spool.close();
+        // corrupt the payload of the second record
+        int secondRecordOffset = RECORD_HEADER_SIZE + record("event-0").length;
+        overwrite(segmentFiles().get(0), secondRecordOffset + RECORD_HEADER_SIZE, record("X"));
+
+        AuditEventSpool reopenedSpool = openSpool(4096, 4);
+        assertEquals(1, reopenedSpool.getPendingRecordCount());
+        assertEquals(List.of("event-0"), contentOf(reopenedSpool.readBatch(10)));
+        // new records are written over the discarded ones
+        assertTrue(reopenedSpool.append(record("event-3")));
+        assertEquals(List.of("event-0", "event-3"), contentOf(reopenedSpool.readBatch(10)));
+    }
+
+    @Test
+    void recoversFromTornRecord() throws IOException {
+        AuditEventSpool spool = openSpool(4096, 4);
+        spool.append(record("event-0"));
+        spool.append(record("event-1"));
+        spool.close();
+        // the length is written last, so a record torn by a crash has a zero length
+        int secondRecordOffset = RECORD_HEADER_SIZE + record("event-0").length;
+        overwrite(segmentFiles().get(0), secondRecordOffset, new byte[4]);
+
+        AuditEventSpool reopenedSpool = openSpool(4096, 4);
+        assertEquals(1, reopenedSpool.getPendingRecordCount());
+        assertEquals(List.of("event-0"), contentOf(reopenedSpool.readBatch(10)));
+    }
+
+    @Test
+    void replaysFromCheckpointAfterRestart() throws IOException {
+        AuditEventSpool spool = openSpool(4096, 4);
+        for(int counter = 0; counter < 5; counter += 1){
+            spool.append(record("event-" + counter));
+        }
+        spool.acknowledge(spool.readBatch(3));
+        spool.close();
+
+        AuditEventSpool reopenedSpool = openSpool(4096, 4);
+        assertEquals(2, reopenedSpool.getPendingRecordCount());
+        assertEquals(List.of("event-3", "event-4"), contentOf(reopenedSpool.readBatch(10)));
+    }
+
+    @Test
+    void replaysEverythingIfCheckpointIsCorrupt() throws IOException {
+        AuditEventSpool spool = openSpool(4096, 4);
+        for(int counter = 0; counter < 3; counter += 1){
+            spool.append(record("event-" + counter));
+        }
+        spool.acknowledge(spool.readBatch(2));
+        spool.close();
+        overwrite(spoolDirectory.resolve("audit-spool.checkpoint"), 12, new byte[]{1, 2, 3, 4});
+
+        AuditEventSpool reopenedSpool = openSpool(4096, 4);
+        assertEquals(List.of("event-0", "event-1", "event-2"), contentOf(reopenedSpool.readBatch(10)));
+    }
+
+    @Test
+    void rollsSegmentsAndDeletesThemOnceAcknowledged() throws IOException {
+        // two 20 byte records per segment
+        int segmentSize = 2 * (RECORD_HEADER_SIZE + 20);
+        AuditEventSpool spool = openSpool(segmentSize, 10);
+        for(int counter = 0; counter < 6; counter += 1){
+            assertTrue(spool.append(record(String.format("event-%014d", counter))));
+        }
+        assertEquals(3, spool.getSegmentCount());
+        assertEquals(3, segmentFiles().size());
+
+        AuditEventSpool.SpoolBatch batch = spool.readBatch(5);
+        assertEquals(5, batch.size());
+        spool.acknowledge(batch);
+        assertEquals(1, spool.getSegmentCount());
+        assertEquals(1, segmentFiles().size());
+        assertEquals(List.of(String.format("event-%014d", 5)), contentOf(spool.readBatch(10)));
+
+        // and the remaining segment is what is found on restart
+        spool.close();
+        AuditEventSpool reopenedSpool = openSpool(segmentSize, 10);
+        assertEquals(1, reopenedSpool.getSegmentCount());
+        assertEquals(List.of(String.format("event-%014d", 5)), contentOf(reopenedSpool.readBatch(10)));
+    }
+
+    @Test
+    void refusesAppendsWhenFull() throws IOException {
+        int segmentSize = 2 * (RECORD_HEADER_SIZE + 20);
+        AuditEventSpool spool = openSpool(segmentSize, 2);
+        for(int counter = 0; counter < 4; counter += 1){
+            assertTrue(spool.append(record(String.format("event-%014d", counter))));
+        }
+        assertFalse(spool.append(record(String.format("event-%014d", 4))));
+        assertEquals(4, spool.getPendingRecordCount());
+
+        // delivering the oldest segment makes room again
+        spool.acknowledge(spool.readBatch(10));
+        assertTrue(spool.append(record(String.format("event-%014d", 4))));
+        assertEquals(List.of(String.format("event-%014d", 4)), contentOf(spool.readBatch(10)));
+    }
+}
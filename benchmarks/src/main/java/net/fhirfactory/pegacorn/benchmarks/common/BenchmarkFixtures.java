@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.benchmarks.common;
+
+import net.fhirfactory.pegacorn.core.interfaces.topology.ProcessingPlantInterface;
+import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.DataParcelDirectionEnum;
+import net.fhirfactory.pegacorn.core.model.petasos.participant.PetasosParticipant;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.work.datatypes.TaskWorkItemSubscriptionType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+/**
+ * Generators for the synthetic (offline) fixtures used by the benchmarks, plus the small amount of plumbing needed to
+ * stand up CDI beans without a container.
+ *
+ * All generators are deterministic (fixed seeds), so runs on different builds measure the same workload.
+ */
+public class BenchmarkFixtures {
+
+    public static final String LOCAL_SUBSYSTEM_PARTICIPANT_NAME = "Benchmark-ProcessingPlant";
+    public static final long RANDOM_SEED = 20220601L;
+
+    private static final String[] ADT_EVENTS = {"A01", "A02", "A03", "A04", "A05", "A08", "A11", "A13", "A28", "A31", "A34", "A40"};
+    private static final String[] MESSAGE_TYPES = {"ADT", "ORU", "ORM", "SIU", "MDM", "DFT"};
+
+    //
+    // HL7 v2.x Fixtures
+    //
+
+    /**
+     * Builds an ADT message with the given number of OBX segments appended, so that message size can be varied.
+     */
+    public static String newADTMessage(String triggerEvent, int observationCount){
+        StringBuilder message = new StringBuilder();
+        message.append("MSH|^~\\&|PAS|HOSPITAL|PEGACORN|FHIRFACTORY|20220601120000||ADT^").append(triggerEvent).append("|MSG0000000001|P|2.4|||AL|NE\r");
+        message.append("EVN|").append(triggerEvent).append("|20220601120000|||USER01^OPERATOR^TEST^^^^^^^CURRENT\r");
+        message.append("PID|1||123456789^^^HOSP^MR~987654321^^^GOV^NI||CITIZEN^JOHN^Q^^MR||19800101|M|||1 MAIN STREET^^CANBERRA^ACT^2600^AU^H||(02)55550123^PRN^PH|||M||ACC0001|||||||||||N\r");
+        message.append("NK1|1|CITIZEN^JANE^^^MRS|SPO|1 MAIN STREET^^CANBERRA^ACT^2600^AU|(02)55550124\r");
+        message.append("PV1|1|I|WARD1^ROOM1^BED1^HOSP||||1234^DOCTOR^ALICE^^^DR|||MED||||1|||1234^DOCTOR^ALICE^^^DR|IP|VISIT0001|||||||||||||||||||||||||20220601110000\r");
+        for(int index = 1; index <= observationCount; index++){
+            message.append("OBX|").append(index).append("|NM|8867-4^Heart rate^LN||").append(60 + (index % 40)).append("|/min|60-100||||F|||20220601115500\r");
+        }
+        return(message.toString());
+    }
+
+    //
+    // Petasos Participant / Subscription Fixtures
+    //
+
+    public static DataParcelTypeDescriptor newDescriptor(String category, String subCategory, String resource){
+        DataParcelTypeDescriptor descriptor = new DataParcelTypeDescriptor();
+        descriptor.setDataParcelDefiner("HL7");
+        descriptor.setDataParcelCategory(category);
+        descriptor.setDataParcelSubCategory(subCategory);
+        descriptor.setDataParcelResource(resource);
+        descriptor.setVersion("2.4");
+        return(descriptor);
+    }
+
+    public static DataParcelManifest newManifest(String messageType, String triggerEvent){
+        DataParcelManifest manifest = new DataParcelManifest();
+        manifest.setContentDescriptor(newDescriptor("v2.x", messageType, triggerEvent));
+        manifest.setContainerDescriptor(newDescriptor("v2.x", messageType, "Message"));
+        manifest.setSourceSystem("PAS");
+        manifest.setDataParcelFlowDirection(DataParcelDirectionEnum.INFORMATION_FLOW_INBOUND_DATA_PARCEL);
+        manifest.setInterSubsystemDistributable(true);
+        return(manifest);
+    }
+
+    /**
+     * Builds a participant population in which each participant subscribes to subscriptionsPerParticipant randomly
+     * chosen message type / trigger event combinations. Every fourth participant belongs to a remote subsystem, and
+     * every tenth subscription uses a wildcard trigger event.
+     */
+    public static PetasosParticipant[] newParticipantPopulation(int participantCount, int subscriptionsPerParticipant){
+        Random random = new Random(RANDOM_SEED);
+        PetasosParticipant[] participants = new PetasosParticipant[participantCount];
+        for(int participantIndex = 0; participantIndex < participantCount; participantIndex++){
+            PetasosParticipant participant = new PetasosParticipant();
+            ComponentIdType componentId = new ComponentIdType();
+            componentId.setId("participant-" + participantIndex);
+            componentId.setDisplayName("Participant " + participantIndex);
+            participant.setComponentID(componentId);
+            participant.setParticipantName("Participant-" + participantIndex);
+            if(participantIndex % 4 == 3){
+                participant.setSubsystemParticipantName("Remote-Subsystem-" + (participantIndex % 16));
+            } else {
+                participant.setSubsystemParticipantName(LOCAL_SUBSYSTEM_PARTICIPANT_NAME);
+            }
+            for(int subscriptionIndex = 0; subscriptionIndex < subscriptionsPerParticipant; subscriptionIndex++){
+                String messageType = MESSAGE_TYPES[random.nextInt(MESSAGE_TYPES.length)];
+                String triggerEvent = ADT_EVENTS[random.nextInt(ADT_EVENTS.length)];
+                if(subscriptionIndex % 10 == 9){
+                    triggerEvent = DataParcelManifest.WILDCARD_CHARACTER;
+                }
+                participant.getSubscriptions().add(new TaskWorkItemSubscriptionType(newManifest(messageType, triggerEvent)));
+            }
+            participants[participantIndex] = participant;
+        }
+        return(participants);
+    }
+
+    public static String randomTriggerEvent(Random random){
+        return(ADT_EVENTS[random.nextInt(ADT_EVENTS.length)]);
+    }
+
+    //
+    // CDI Plumbing
+    //
+
+    /**
+     * A ProcessingPlantInterface that only knows its subsystem participant name; every other method returns a
+     * default (null, false or zero).
+     */
+    public static ProcessingPlantInterface newProcessingPlant(){
+        Object processingPlant = Proxy.newProxyInstance(
+                ProcessingPlantInterface.class.getClassLoader(),
+                new Class<?>[]{ProcessingPlantInterface.class},
+                (proxy, method, arguments) -> {
+                    switch(method.getName()){
+                        case "getSubsystemParticipantName":
+                            return(LOCAL_SUBSYSTEM_PARTICIPANT_NAME);
+                        case "toString":
+                            return("BenchmarkProcessingPlant");
+                        case "hashCode":
+                            return(System.identityHashCode(proxy));
+                        case "equals":
+                            return(proxy == arguments[0]);
+                        default:
+                            return(defaultValue(method.getReturnType()));
+                    }
+                });
+        return((ProcessingPlantInterface) processingPlant);
+    }
+
+    /**
+     * Sets an @Inject'ed field (declared on the bean's class or one of its superclasses).
+     */
+    public static void inject(Object bean, String fieldName, Object value){
+        Class<?> currentClass = bean.getClass();
+        while(currentClass != null){
+            try {
+                Field field = currentClass.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(bean, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                currentClass = currentClass.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw(new IllegalStateException("Unable to inject " + fieldName + " into " + bean.getClass().getSimpleName(), e));
+            }
+        }
+        throw(new IllegalArgumentException("No field " + fieldName + " on " + bean.getClass().getSimpleName()));
+    }
+
+    private static Object defaultValue(Class<?> returnType){
+        if(!returnType.isPrimitive() || returnType.equals(Void.TYPE)){
+            return(null);
+        }
+        if(returnType.equals(Boolean.TYPE)){
+            return(false);
+        }
+        if(returnType.equals(Character.TYPE)){
+            return((char)0);
+        }
+        if(returnType.equals(Long.TYPE)){
+            return(0L);
+        }
+        if(returnType.equals(Float.TYPE)){
+            return(0.0f);
+        }
+        if(returnType.equals(Double.TYPE)){
+            return(0.0d);
+        }
+        if(returnType.equals(Byte.TYPE)){
+            return((byte)0);
+        }
+        if(returnType.equals(Short.TYPE)){
+            return((short)0);
+        }
+        return(0);
+    }
+}
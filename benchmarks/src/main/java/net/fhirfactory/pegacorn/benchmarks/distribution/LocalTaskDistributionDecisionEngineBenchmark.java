@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.benchmarks.distribution;
+
+import net.fhirfactory.pegacorn.benchmarks.common.BenchmarkFixtures;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
+import net.fhirfactory.pegacorn.core.model.petasos.participant.PetasosParticipant;
+import net.fhirfactory.pegacorn.petasos.core.participants.cache.LocalPetasosParticipantCacheDM;
+import net.fhirfactory.pegacorn.petasos.core.tasks.management.local.distribution.LocalTaskDistributionDecisionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscriber resolution (deriveSubscriberList()) against a synthetic participant population, for a manifest that
+ * matches some subscriptions and for one that matches none.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalTaskDistributionDecisionEngineBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int participantCount;
+
+    @Param({"5"})
+    public int subscriptionsPerParticipant;
+
+    private LocalTaskDistributionDecisionEngine distributionDecisionEngine;
+    private DataParcelManifest[] matchingManifests;
+    private DataParcelManifest unmatchedManifest;
+    private int manifestIndex;
+
+    @Setup
+    public void setup(){
+        LocalPetasosParticipantCacheDM participantCache = new LocalPetasosParticipantCacheDM();
+        BenchmarkFixtures.inject(participantCache, "myProcessingPlant", BenchmarkFixtures.newProcessingPlant());
+        for(PetasosParticipant currentParticipant: BenchmarkFixtures.newParticipantPopulation(participantCount, subscriptionsPerParticipant)){
+            participantCache.addPetasosParticipant(currentParticipant);
+        }
+        this.distributionDecisionEngine = new LocalTaskDistributionDecisionEngine();
+        BenchmarkFixtures.inject(distributionDecisionEngine, "localPetasosParticipantCacheDM", participantCache);
+        BenchmarkFixtures.inject(distributionDecisionEngine, "processingPlant", BenchmarkFixtures.newProcessingPlant());
+
+        Random random = new Random(BenchmarkFixtures.RANDOM_SEED);
+        this.matchingManifests = new DataParcelManifest[64];
+        for(int index = 0; index < matchingManifests.length; index++){
+            matchingManifests[index] = BenchmarkFixtures.newManifest("ADT", BenchmarkFixtures.randomTriggerEvent(random));
+        }
+        this.unmatchedManifest = BenchmarkFixtures.newManifest("VXU", "V04");
+        this.manifestIndex = 0;
+    }
+
+    @Benchmark
+    public List<PetasosParticipant> deriveSubscriberListMatched(){
+        DataParcelManifest manifest = matchingManifests[manifestIndex];
+        manifestIndex = (manifestIndex + 1) % matchingManifests.length;
+        return(distributionDecisionEngine.deriveSubscriberList(manifest));
+    }
+
+    @Benchmark
+    public List<PetasosParticipant> deriveSubscriberListUnmatched(){
+        return(distributionDecisionEngine.deriveSubscriberList(unmatchedManifest));
+    }
+}
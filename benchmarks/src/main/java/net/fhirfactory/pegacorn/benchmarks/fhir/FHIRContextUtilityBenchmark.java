@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.benchmarks.fhir;
+
+import ca.uhn.fhir.parser.IParser;
+import net.fhirfactory.pegacorn.util.FHIRContextUtility;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.Reference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FHIR (R4) JSON encoding and parsing via FHIRContextUtility, comparing a new parser for each call (getJsonParser())
+ * with the per-thread parsers behind the encode/parse methods.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FHIRContextUtilityBenchmark {
+
+    @Param({"1", "50"})
+    public int bundleEntryCount;
+
+    private FHIRContextUtility fhirContextUtility;
+    private IParser reusedParser;
+    private Patient patient;
+    private Bundle bundle;
+    private String bundleJSON;
+
+    @Setup
+    public void setup(){
+        this.fhirContextUtility = new FHIRContextUtility();
+        this.reusedParser = fhirContextUtility.getJsonParser();
+        this.patient = newPatient(0);
+        this.bundle = new Bundle();
+        bundle.setType(Bundle.BundleType.COLLECTION);
+        for(int index = 0; index < bundleEntryCount; index++){
+            Patient entryPatient = newPatient(index);
+            bundle.addEntry().setFullUrl("Patient/" + entryPatient.getIdElement().getIdPart()).setResource(entryPatient);
+            bundle.addEntry().setResource(newObservation(index, entryPatient));
+        }
+        this.bundleJSON = reusedParser.encodeResourceToString(bundle);
+    }
+
+    @Benchmark
+    public String encodePatientWithNewParser(){
+        return(fhirContextUtility.getJsonParser().encodeResourceToString(patient));
+    }
+
+    @Benchmark
+    public String encodePatientWithReusedParser(){
+        return(reusedParser.encodeResourceToString(patient));
+    }
+
+    @Benchmark
+    public String encodePatientWithThreadLocalParser(){
+        return(fhirContextUtility.encodeToJsonString(patient));
+    }
+
+    @Benchmark
+    public String encodeBundle(){
+        return(fhirContextUtility.getJsonParser().encodeResourceToString(bundle));
+    }
+
+    @Benchmark
+    public byte[] encodeBundleToJsonBytes(){
+        return(fhirContextUtility.encodeToJsonBytes(bundle));
+    }
+
+    @Benchmark
+    public Bundle parseBundle(){
+        return(fhirContextUtility.getJsonParser().parseResource(Bundle.class, bundleJSON));
+    }
+
+    @Benchmark
+    public Bundle parseBundleWithThreadLocalParser(){
+        return(fhirContextUtility.parseJson(Bundle.class, bundleJSON));
+    }
+
+    //
+    // Helpers
+    //
+
+    private static Patient newPatient(int index){
+        Patient patient = new Patient();
+        patient.setId("patient-" + index);
+        patient.addIdentifier(new Identifier().setSystem("http://ns.example.org/mrn").setValue("MRN" + (100000 + index)));
+        patient.addName(new HumanName().setFamily("Citizen").addGiven("John").addGiven("Q"));
+        patient.setGender(Enumerations.AdministrativeGender.MALE);
+        patient.setBirthDate(new Date(315532800000L));
+        return(patient);
+    }
+
+    private static Observation newObservation(int index, Patient subject){
+        Observation observation = new Observation();
+        observation.setId("observation-" + index);
+        observation.setStatus(Observation.ObservationStatus.FINAL);
+        observation.getCode().addCoding().setSystem("http://loinc.org").setCode("8867-4").setDisplay("Heart rate");
+        observation.setSubject(new Reference("Patient/" + subject.getIdElement().getIdPart()));
+        observation.setValue(new Quantity().setValue(60 + (index % 40)).setUnit("/min"));
+        return(observation);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.benchmarks.generalid;
+
+import net.fhirfactory.pegacorn.core.model.generalid.FDN;
+import net.fhirfactory.pegacorn.core.model.generalid.FDNToken;
+import net.fhirfactory.pegacorn.core.model.generalid.RDN;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FDN construction, tokenisation and comparison - these are used as map keys and identifiers throughout the
+ * topology and task models.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FDNBenchmark {
+
+    @Param({"3", "8"})
+    public int rdnCount;
+
+    private FDN fdn;
+    private FDN equalFDN;
+    private FDN differentFDN;
+    private FDNToken fdnToken;
+
+    @Setup
+    public void setup(){
+        this.fdn = newFDN(rdnCount, "Value");
+        this.equalFDN = newFDN(rdnCount, "Value");
+        this.differentFDN = newFDN(rdnCount, "Other");
+        this.fdnToken = fdn.getToken();
+    }
+
+    @Benchmark
+    public FDN construct(){
+        return(newFDN(rdnCount, "Value"));
+    }
+
+    @Benchmark
+    public FDNToken getToken(){
+        return(fdn.getToken());
+    }
+
+    @Benchmark
+    public FDN constructFromToken(){
+        return(new FDN(fdnToken));
+    }
+
+    @Benchmark
+    public boolean equalsMatch(){
+        return(fdn.equals(equalFDN));
+    }
+
+    @Benchmark
+    public boolean equalsMismatch(){
+        return(fdn.equals(differentFDN));
+    }
+
+    @Benchmark
+    public int hashCodeOf(){
+        return(fdn.hashCode());
+    }
+
+    //
+    // Helpers
+    //
+
+    private static FDN newFDN(int rdnCount, String valuePrefix){
+        FDN newFDN = new FDN();
+        for(int index = 0; index < rdnCount; index++){
+            newFDN.appendRDN(new RDN("Qualifier" + index, valuePrefix + index));
+        }
+        return(newFDN);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.benchmarks.hl7v2x;
+
+import ca.uhn.hl7v2.DefaultHapiContext;
+import ca.uhn.hl7v2.HL7Exception;
+import ca.uhn.hl7v2.HapiContext;
+import ca.uhn.hl7v2.model.Message;
+import ca.uhn.hl7v2.parser.PipeParser;
+import ca.uhn.hl7v2.validation.impl.NoValidation;
+import net.fhirfactory.pegacorn.benchmarks.common.BenchmarkFixtures;
+import net.fhirfactory.pegacorn.internals.hl7v2.HL7Message;
+import net.fhirfactory.pegacorn.internals.hl7v2.LazyHL7Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HL7 v2.x ingress/egress costs: parsing a pipe-delimited message, wrapping it in the (eager) HL7Message and the
+ * LazyHL7Message models, and re-serialising it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HL7MessageBenchmark {
+
+    @Param({"0", "20", "200"})
+    public int observationCount;
+
+    private PipeParser parser;
+    private String messageText;
+    private Message parsedMessage;
+
+    @Setup
+    public void setup() throws HL7Exception {
+        HapiContext hapiContext = new DefaultHapiContext();
+        hapiContext.setValidationContext(new NoValidation());
+        this.parser = hapiContext.getPipeParser();
+        this.messageText = BenchmarkFixtures.newADTMessage("A01", observationCount);
+        this.parsedMessage = parser.parse(messageText);
+    }
+
+    @Benchmark
+    public Message parse() throws HL7Exception {
+        return(parser.parse(messageText));
+    }
+
+    @Benchmark
+    public String encode() throws HL7Exception {
+        return(parser.encode(parsedMessage));
+    }
+
+    @Benchmark
+    public String parseAndReEncode() throws HL7Exception {
+        Message message = parser.parse(messageText);
+        return(parser.encode(message));
+    }
+
+    @Benchmark
+    public String hl7MessageWrapAndSerialise() {
+        HL7Message message = new HL7Message(parsedMessage);
+        return(message.toString());
+    }
+
+    @Benchmark
+    public String lazyHL7MessageSerialise() {
+        LazyHL7Message message = new LazyHL7Message(messageText);
+        return(message.toString());
+    }
+
+    @Benchmark
+    public int lazyHL7MessageIndexSegments() {
+        LazyHL7Message message = new LazyHL7Message(messageText);
+        return(message.getTotalSegmentCount());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.benchmarks.tasks;
+
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosFulfillmentTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.fulfillment.valuesets.FulfillmentExecutionStatusEnum;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.processingplant.LocalFulfillmentTaskCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LocalFulfillmentTaskCache register/synchronise/query costs with a pre-populated cache of cacheSize tasks. The
+ * register benchmark adds and then removes a task, so the cache size stays constant across iterations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalFulfillmentTaskCacheBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int cacheSize;
+
+    private LocalFulfillmentTaskCache taskCache;
+    private PetasosFulfillmentTask[] cachedTasks;
+    private PetasosFulfillmentTask transientTask;
+    private int taskIndex;
+
+    @Setup
+    public void setup(){
+        this.taskCache = new LocalFulfillmentTaskCache();
+        this.cachedTasks = new PetasosFulfillmentTask[cacheSize];
+        for(int index = 0; index < cacheSize; index++){
+            PetasosFulfillmentTask task = newFulfillmentTask("fulfillment-" + index, "actionable-" + index);
+            task.getTaskFulfillment().setStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_ACTIVE);
+            taskCache.registerTask(task);
+            cachedTasks[index] = task;
+        }
+        this.transientTask = newFulfillmentTask("fulfillment-transient", "actionable-transient");
+        this.taskIndex = 0;
+    }
+
+    @Benchmark
+    public PetasosTask registerAndRemove(){
+        taskCache.registerTask(transientTask);
+        return(taskCache.removeTask(transientTask.getTaskId()));
+    }
+
+    @Benchmark
+    public PetasosTask synchronise(){
+        return(taskCache.synchroniseTask(nextCachedTask()));
+    }
+
+    @Benchmark
+    public PetasosTask getTask(){
+        return(taskCache.getTask(nextCachedTask().getTaskId()));
+    }
+
+    @Benchmark
+    public List<PetasosFulfillmentTask> getFulfillmentTaskByActionableTaskId(){
+        return(taskCache.getFulfillmentTaskByActionableTaskId(nextCachedTask().getActionableTaskId()));
+    }
+
+    @Benchmark
+    public List<PetasosFulfillmentTask> getActiveFulfillmentTasks(){
+        return(taskCache.getActiveFulfillmentTasks());
+    }
+
+    //
+    // Helpers
+    //
+
+    private PetasosFulfillmentTask nextCachedTask(){
+        PetasosFulfillmentTask task = cachedTasks[taskIndex];
+        taskIndex = (taskIndex + 1) % cachedTasks.length;
+        return(task);
+    }
+
+    private static PetasosFulfillmentTask newFulfillmentTask(String taskId, String actionableTaskId){
+        PetasosFulfillmentTask task = new PetasosFulfillmentTask();
+        TaskIdType fulfillmentTaskId = new TaskIdType();
+        fulfillmentTaskId.setId(taskId);
+        task.setTaskId(fulfillmentTaskId);
+        TaskIdType fulfilledActionableTaskId = new TaskIdType();
+        fulfilledActionableTaskId.setId(actionableTaskId);
+        task.setActionableTaskId(fulfilledActionableTaskId);
+        return(task);
+    }
+}
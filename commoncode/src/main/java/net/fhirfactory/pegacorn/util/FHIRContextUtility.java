@@ -23,18 +23,76 @@ package net.fhirfactory.pegacorn.util;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The single (R4) FhirContext of the ProcessingPlant, plus per-thread JSON and XML parsers (compact and pretty-print
+ * variants) so that encoding/decoding doesn't pay for parser construction or race on a parser shared across threads.
+ * The per-thread parsers are only used by the encode/parse helpers, they are never handed out - getJsonParser() and
+ * getXmlParser() return a new parser that the caller owns.
+ */
 @ApplicationScoped
 public class FHIRContextUtility {
+    private static final Logger LOG = LoggerFactory.getLogger(FHIRContextUtility.class);
+
+    private static final String[] WARM_UP_RESOURCE_TYPES = {"AuditEvent", "Bundle", "Communication", "Device", "Encounter",
+            "Endpoint", "Group", "Location", "Organization", "Patient", "Practitioner", "PractitionerRole", "Provenance", "Task"};
 
     private FhirContext fhirContext;
+    private ThreadLocal<IParser> compactJsonParser;
+    private ThreadLocal<IParser> prettyJsonParser;
+    private ThreadLocal<IParser> compactXmlParser;
+    private ThreadLocal<IParser> prettyXmlParser;
 
     public FHIRContextUtility() {
         fhirContext = FhirContext.forR4();
+        compactJsonParser = ThreadLocal.withInitial(() -> getFhirContext().newJsonParser().setPrettyPrint(false));
+        prettyJsonParser = ThreadLocal.withInitial(() -> getFhirContext().newJsonParser().setPrettyPrint(true));
+        compactXmlParser = ThreadLocal.withInitial(() -> getFhirContext().newXmlParser().setPrettyPrint(false));
+        prettyXmlParser = ThreadLocal.withInitial(() -> getFhirContext().newXmlParser().setPrettyPrint(true));
+    }
+
+    //
+    // Post Construct
+    //
+
+    /**
+     * Scans the commonly used resource definitions up front, so the (reflection heavy) model scanning isn't done
+     * in-line on the first message that needs it.
+     */
+    @PostConstruct
+    public void warmUp(){
+        getLogger().debug(".warmUp(): Entry");
+        for(String resourceType: WARM_UP_RESOURCE_TYPES){
+            try {
+                getFhirContext().getResourceDefinition(resourceType);
+            } catch(Exception ex){
+                getLogger().warn(".warmUp(): Unable to scan resource definition, resourceType->{}, reason->{}", resourceType, ex.getMessage());
+            }
+        }
+        getLogger().debug(".warmUp(): Exit");
     }
-    
+
+    //
+    // Getters
+    //
+
     /**
      * NOTE: the result is thread safe.
      * 
@@ -53,4 +111,124 @@ public class FHIRContextUtility {
     public IParser getJsonParser() {
         return getFhirContext().newJsonParser();
     }
+
+    /**
+     * NOTE: the result is NOT thread safe.
+     *
+     * @see {IParser.newXmlParser()}
+     */
+    public IParser getXmlParser() {
+        return getFhirContext().newXmlParser();
+    }
+
+    //
+    // Thread-local Parsers
+    //
+
+    private IParser getThreadLocalJsonParser() {
+        return(compactJsonParser.get());
+    }
+
+    private IParser getThreadLocalPrettyJsonParser() {
+        return(prettyJsonParser.get());
+    }
+
+    private IParser getThreadLocalXmlParser() {
+        return(compactXmlParser.get());
+    }
+
+    private IParser getThreadLocalPrettyXmlParser() {
+        return(prettyXmlParser.get());
+    }
+
+    //
+    // Encoding
+    //
+
+    public String encodeToJsonString(IBaseResource resource){
+        return(getThreadLocalJsonParser().encodeResourceToString(resource));
+    }
+
+    public String encodeToPrettyJsonString(IBaseResource resource){
+        return(getThreadLocalPrettyJsonParser().encodeResourceToString(resource));
+    }
+
+    public String encodeToXmlString(IBaseResource resource){
+        return(getThreadLocalXmlParser().encodeResourceToString(resource));
+    }
+
+    public String encodeToPrettyXmlString(IBaseResource resource){
+        return(getThreadLocalPrettyXmlParser().encodeResourceToString(resource));
+    }
+
+    /**
+     * Encodes the resource as (compact, UTF-8) JSON directly into the OutputStream (which is flushed, not closed).
+     */
+    public void encodeToJson(IBaseResource resource, OutputStream outputStream) throws IOException {
+        encode(getThreadLocalJsonParser(), resource, outputStream);
+    }
+
+    /**
+     * Encodes the resource as (compact, UTF-8) XML directly into the OutputStream (which is flushed, not closed).
+     */
+    public void encodeToXml(IBaseResource resource, OutputStream outputStream) throws IOException {
+        encode(getThreadLocalXmlParser(), resource, outputStream);
+    }
+
+    public byte[] encodeToJsonBytes(IBaseResource resource){
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(1024);
+        try {
+            encodeToJson(resource, byteStream);
+        } catch (IOException ioException) {
+            // A ByteArrayOutputStream doesn't throw IOExceptions
+            throw(new UncheckedIOException(ioException));
+        }
+        return(byteStream.toByteArray());
+    }
+
+    //
+    // Decoding
+    //
+
+    public <T extends IBaseResource> T parseJson(Class<T> resourceType, String json){
+        return(getThreadLocalJsonParser().parseResource(resourceType, json));
+    }
+
+    public IBaseResource parseJson(String json){
+        return(getThreadLocalJsonParser().parseResource(json));
+    }
+
+    public <T extends IBaseResource> T parseXml(Class<T> resourceType, String xml){
+        return(getThreadLocalXmlParser().parseResource(resourceType, xml));
+    }
+
+    /**
+     * Parses (UTF-8) JSON directly from the InputStream (which is not closed).
+     */
+    public <T extends IBaseResource> T parseJson(Class<T> resourceType, InputStream inputStream){
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        return(getThreadLocalJsonParser().parseResource(resourceType, reader));
+    }
+
+    /**
+     * Parses (UTF-8) XML directly from the InputStream (which is not closed).
+     */
+    public <T extends IBaseResource> T parseXml(Class<T> resourceType, InputStream inputStream){
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        return(getThreadLocalXmlParser().parseResource(resourceType, reader));
+    }
+
+    //
+    // Helpers
+    //
+
+    private void encode(IParser parser, IBaseResource resource, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        parser.encodeResourceToWriter(resource, writer);
+        writer.flush();
+    }
+
+    protected Logger getLogger(){
+        return(LOG);
+    }
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.util.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on a shared, bounded pool of worker threads such that tasks submitted with the same key run one at a
+ * time, in submission order, while tasks with different keys run in parallel.
+ *
+ * The number of submitted-but-not-finished tasks is bounded, both in total and per key: submit() blocks the caller
+ * (for up to the given timeout) while either bound is reached, which is how callers reading from a socket are slowed
+ * down when the work they feed backs up. The per-key bound stops one slow key from taking all of the total.
+ * A key's queue is drained at most drainBatchSize tasks at a time before it yields its worker to the other keys.
+ *
+ * The future returned by submit() can only be cancelled while its task is still queued: a cancelled task is skipped
+ * when its turn comes, and cancel() returns false once the task has started.
+ */
+public class PegacornKeyedSerialExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(PegacornKeyedSerialExecutor.class);
+
+    private static final int DEFAULT_DRAIN_BATCH_SIZE = 16;
+
+    private final String executorName;
+    private final ThreadPoolExecutor workerPool;
+    private final ConcurrentHashMap<Object, SerialQueue> queueMap;
+    private final Semaphore inFlightPermits;
+    private final int maximumInFlight;
+    private final int maximumInFlightPerKey;
+    private final int drainBatchSize;
+
+    //
+    // Constructor(s)
+    //
+
+    public PegacornKeyedSerialExecutor(String executorName, int workerCount, int maximumInFlight, int maximumInFlightPerKey){
+        this.executorName = executorName;
+        this.maximumInFlight = Math.max(1, maximumInFlight);
+        this.maximumInFlightPerKey = Math.max(1, Math.min(maximumInFlightPerKey, this.maximumInFlight));
+        this.drainBatchSize = DEFAULT_DRAIN_BATCH_SIZE;
+        this.queueMap = new ConcurrentHashMap<>();
+        this.inFlightPermits = new Semaphore(this.maximumInFlight);
+        int poolSize = Math.max(1, workerCount);
+        this.workerPool = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new WorkerThreadFactory(executorName));
+    }
+
+    //
+    // Business Methods
+    //
+
+    /**
+     * Queues the task behind any unfinished tasks with the same key.
+     *
+     * @param key the ordering key, tasks with equal keys run serially
+     * @param task the task
+     * @param timeout how long (in milliseconds) to wait for room if the in-flight bounds are reached
+     * @return a future completed with the task's result (or exception), cancellable until the task starts
+     * @throws RejectedExecutionException if there was no room within the timeout, or the executor is shut down
+     * @throws InterruptedException if interrupted while waiting for room
+     */
+    public <T> KeyedTaskFuture<T> submit(Object key, Callable<T> task, long timeout) throws InterruptedException {
+        if(key == null || task == null){
+            throw(new IllegalArgumentException(".submit(): key or task is null"));
+        }
+        if(workerPool.isShutdown()){
+            throw(new RejectedExecutionException(executorName + " is shut down"));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0L, timeout));
+        SerialQueue queue = acquireQueue(key);
+        boolean queued = false;
+        try {
+            if(!queue.permits.tryAcquire(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)){
+                throw(new RejectedExecutionException(executorName + ": key " + key + " has " + maximumInFlightPerKey + " tasks in flight"));
+            }
+            if(!inFlightPermits.tryAcquire(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)){
+                queue.permits.release();
+                throw(new RejectedExecutionException(executorName + ": " + maximumInFlight + " tasks in flight"));
+            }
+            KeyedTaskFuture<T> future = new KeyedTaskFuture<>();
+            queue.enqueue(() -> {
+                try {
+                    if(future.start()) {
+                        future.complete(task.call());
+                    }
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                } finally {
+                    queue.permits.release();
+                    inFlightPermits.release();
+                    releaseQueue(queue);
+                }
+            });
+            queued = true;
+            return(future);
+        } finally {
+            if(!queued){
+                releaseQueue(queue);
+            }
+        }
+    }
+
+    public int getInFlightCount(){
+        return(maximumInFlight - inFlightPermits.availablePermits());
+    }
+
+    public int getActiveKeyCount(){
+        return(queueMap.size());
+    }
+
+    public String getExecutorName(){
+        return(executorName);
+    }
+
+    public void shutdown(long waitTime){
+        getLogger().debug(".shutdown(): Entry, executorName->{}", executorName);
+        workerPool.shutdown();
+        try {
+            if(!workerPool.awaitTermination(waitTime, TimeUnit.MILLISECONDS)){
+                getLogger().warn(".shutdown(): {} did not finish within {}ms, interrupting its workers", executorName, waitTime);
+                workerPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        getLogger().debug(".shutdown(): Exit");
+    }
+
+    //
+    // Helpers
+    //
+
+    // Each submitter holds a reference on its key's queue from submit() until its task has finished, so a queue is
+    // only discarded once nothing is queued on (or waiting for) it.
+    private SerialQueue acquireQueue(Object key){
+        return(queueMap.compute(key, (currentKey, currentQueue) -> {
+            SerialQueue queue = currentQueue;
+            if(queue == null){
+                queue = new SerialQueue(currentKey);
+            }
+            queue.references += 1;
+            return(queue);
+        }));
+    }
+
+    private void releaseQueue(SerialQueue queue){
+        queueMap.computeIfPresent(queue.key, (currentKey, currentQueue) -> {
+            currentQueue.references -= 1;
+            if(currentQueue.references <= 0){
+                return(null);
+            }
+            return(currentQueue);
+        });
+    }
+
+    protected Logger getLogger(){
+        return(LOG);
+    }
+
+    //
+    // Internal Types
+    //
+
+    private class SerialQueue implements Runnable {
+        private final Object key;
+        private final Semaphore permits;
+        private final ArrayDeque<Runnable> tasks;
+        private boolean scheduled;
+        private int references; // guarded by queueMap.compute()
+
+        SerialQueue(Object key){
+            this.key = key;
+            this.permits = new Semaphore(maximumInFlightPerKey);
+            this.tasks = new ArrayDeque<>();
+            this.scheduled = false;
+            this.references = 0;
+        }
+
+        void enqueue(Runnable task){
+            synchronized (this){
+                tasks.add(task);
+                if(scheduled){
+                    return;
+                }
+                scheduled = true;
+            }
+            workerPool.execute(this);
+        }
+
+        @Override
+        public void run() {
+            for(int count = 0; count < drainBatchSize; count += 1){
+                Runnable nextTask;
+                synchronized (this){
+                    nextTask = tasks.poll();
+                    if(nextTask == null){
+                        scheduled = false;
+                        return;
+                    }
+                }
+                nextTask.run();
+            }
+            synchronized (this){
+                if(tasks.isEmpty()){
+                    scheduled = false;
+                    return;
+                }
+            }
+            // yield the worker so other keys get a turn, this queue stays scheduled
+            workerPool.execute(this);
+        }
+    }
+
+    /**
+     * The future for a submitted task. cancel() only succeeds (and the task is then never run) while the task is still
+     * queued.
+     */
+    public static class KeyedTaskFuture<T> extends CompletableFuture<T> {
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private boolean start(){
+            return(started.compareAndSet(false, true));
+        }
+
+        public boolean isStarted(){
+            return(started.get() && !isCancelled());
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if(!started.compareAndSet(false, true)){
+                return(false);
+            }
+            return(super.cancel(mayInterruptIfRunning));
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return(new CompletableFuture<>());
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final String executorName;
+        private final AtomicInteger threadCounter = new AtomicInteger(0);
+
+        WorkerThreadFactory(String executorName){
+            this.executorName = executorName;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, executorName + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return(thread);
+        }
+    }
+}
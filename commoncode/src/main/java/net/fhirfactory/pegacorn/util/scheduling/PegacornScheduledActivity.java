@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.util.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A (periodic or one-shot) activity scheduled on the PegacornSharedScheduler. It is both the handle used to cancel
+ * the activity and the holder of its execution metrics.
+ *
+ * The activity is run with fixed-delay semantics (the same as java.util.Timer.schedule()): the next execution is
+ * due one period after the previous one finished, so an activity never overlaps with itself. An execution that takes
+ * longer than the period is counted as an overrun. Lag is the time between when an execution was due and when a
+ * worker actually started it, and so measures how saturated the shared worker pool is.
+ */
+public class PegacornScheduledActivity implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(PegacornScheduledActivity.class);
+
+    private final String activityName;
+    private final BooleanSupplier activity;
+    private final long periodInMilliseconds;
+
+    private volatile ScheduledFuture<?> scheduledFuture;
+    private volatile boolean cancelled;
+    private volatile long nextDueMillis;
+
+    private final LongAdder executionCount;
+    private final LongAdder failureCount;
+    private final LongAdder overrunCount;
+    private final LongAdder totalExecutionMilliseconds;
+    private final AtomicLong lastExecutionMilliseconds;
+    private final AtomicLong maxExecutionMilliseconds;
+    private final AtomicLong lastLagMilliseconds;
+    private final AtomicLong maxLagMilliseconds;
+
+    //
+    // Constructor(s)
+    //
+
+    PegacornScheduledActivity(String activityName, BooleanSupplier activity, long initialDelayInMilliseconds, long periodInMilliseconds){
+        this.activityName = activityName;
+        this.activity = activity;
+        this.periodInMilliseconds = periodInMilliseconds;
+        this.cancelled = false;
+        this.nextDueMillis = System.currentTimeMillis() + initialDelayInMilliseconds;
+        this.executionCount = new LongAdder();
+        this.failureCount = new LongAdder();
+        this.overrunCount = new LongAdder();
+        this.totalExecutionMilliseconds = new LongAdder();
+        this.lastExecutionMilliseconds = new AtomicLong(0);
+        this.maxExecutionMilliseconds = new AtomicLong(0);
+        this.lastLagMilliseconds = new AtomicLong(0);
+        this.maxLagMilliseconds = new AtomicLong(0);
+    }
+
+    //
+    // Execution
+    //
+
+    @Override
+    public void run() {
+        if(cancelled){
+            return;
+        }
+        long startMillis = System.currentTimeMillis();
+        long lag = Math.max(0L, startMillis - nextDueMillis);
+        lastLagMilliseconds.set(lag);
+        updateMaximum(maxLagMilliseconds, lag);
+        boolean doAgain = true;
+        try {
+            doAgain = activity.getAsBoolean();
+        } catch(Throwable ex){
+            // a java.util.Timer thread dies on an uncaught exception, taking all of its later executions with it;
+            // here the failure is counted and the activity carries on with its next scheduled execution
+            failureCount.increment();
+            getLogger().warn(".run(): Scheduled activity {} failed, error->", activityName, ex);
+        }
+        long finishMillis = System.currentTimeMillis();
+        long duration = finishMillis - startMillis;
+        executionCount.increment();
+        totalExecutionMilliseconds.add(duration);
+        lastExecutionMilliseconds.set(duration);
+        updateMaximum(maxExecutionMilliseconds, duration);
+        if(periodInMilliseconds > 0 && duration > periodInMilliseconds){
+            overrunCount.increment();
+            getLogger().warn(".run(): Scheduled activity {} overran its period, duration->{}ms, period->{}ms", activityName, duration, periodInMilliseconds);
+        }
+        nextDueMillis = finishMillis + periodInMilliseconds;
+        if(!doAgain){
+            cancel();
+        }
+    }
+
+    public void cancel(){
+        cancelled = true;
+        ScheduledFuture<?> future = scheduledFuture;
+        if(future != null){
+            future.cancel(false);
+        }
+    }
+
+    private static void updateMaximum(AtomicLong maximum, long value){
+        long currentMaximum = maximum.get();
+        while(value > currentMaximum && !maximum.compareAndSet(currentMaximum, value)){
+            currentMaximum = maximum.get();
+        }
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    void setScheduledFuture(ScheduledFuture<?> scheduledFuture){
+        this.scheduledFuture = scheduledFuture;
+        if(cancelled){
+            scheduledFuture.cancel(false);
+        }
+    }
+
+    public String getActivityName() {
+        return activityName;
+    }
+
+    public long getPeriodInMilliseconds() {
+        return periodInMilliseconds;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getExecutionCount() {
+        return executionCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    public long getOverrunCount() {
+        return overrunCount.sum();
+    }
+
+    public double getMeanExecutionMilliseconds() {
+        long count = executionCount.sum();
+        if(count == 0){
+            return(0.0);
+        }
+        return((double)totalExecutionMilliseconds.sum() / (double)count);
+    }
+
+    public long getLastExecutionMilliseconds() {
+        return lastExecutionMilliseconds.get();
+    }
+
+    public long getMaxExecutionMilliseconds() {
+        return maxExecutionMilliseconds.get();
+    }
+
+    public long getLastLagMilliseconds() {
+        return lastLagMilliseconds.get();
+    }
+
+    public long getMaxLagMilliseconds() {
+        return maxLagMilliseconds.get();
+    }
+
+    protected Logger getLogger(){
+        return(LOG);
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "PegacornScheduledActivity{" +
+                "activityName='" + activityName + '\'' +
+                ", periodInMilliseconds=" + periodInMilliseconds +
+                ", cancelled=" + cancelled +
+                ", executionCount=" + getExecutionCount() +
+                ", failureCount=" + getFailureCount() +
+                ", overrunCount=" + getOverrunCount() +
+                ", meanExecutionMilliseconds=" + getMeanExecutionMilliseconds() +
+                ", maxExecutionMilliseconds=" + getMaxExecutionMilliseconds() +
+                ", lastLagMilliseconds=" + getLastLagMilliseconds() +
+                ", maxLagMilliseconds=" + getMaxLagMilliseconds() +
+                '}';
+    }
+}
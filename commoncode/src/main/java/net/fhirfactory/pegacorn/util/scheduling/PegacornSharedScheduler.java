@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.util.scheduling;
+
+import net.fhirfactory.pegacorn.util.PegacornEnvironmentProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The single scheduling service for the periodic housekeeping activities (watchdogs, cache synchronisation daemons,
+ * report forwarders etc.) of a ProcessingPlant, replacing the one-java.util.Timer-thread-per-activity approach.
+ *
+ * All activities share a small, bounded pool of daemon worker threads. A random start-up jitter is added to each
+ * activity's initial delay so that the activities registered during start-up don't all fire at the same instant, and
+ * every activity records its execution time, overruns and scheduling lag (see PegacornScheduledActivity).
+ */
+@ApplicationScoped
+public class PegacornSharedScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(PegacornSharedScheduler.class);
+
+    private static final String SCHEDULER_POOL_SIZE_PROPERTY = "PEGACORN_SCHEDULER_POOL_SIZE";
+    private static final String SCHEDULER_STARTUP_JITTER_PROPERTY = "PEGACORN_SCHEDULER_STARTUP_JITTER";
+    private static final Integer DEFAULT_SCHEDULER_POOL_SIZE = 4;
+    private static final Integer DEFAULT_SCHEDULER_STARTUP_JITTER = 2000; // milliseconds
+    private static final long SHUTDOWN_WAIT = 10000L; // milliseconds
+
+    private ScheduledThreadPoolExecutor scheduledExecutor;
+    private ConcurrentHashMap<String, PegacornScheduledActivity> activityMap;
+    private AtomicInteger activityCounter;
+    private long maximumStartupJitter;
+    private boolean initialised;
+
+    @Inject
+    private PegacornEnvironmentProperties environmentProperties;
+
+    //
+    // Constructor(s)
+    //
+
+    public PegacornSharedScheduler(){
+        this.activityMap = new ConcurrentHashMap<>();
+        this.activityCounter = new AtomicInteger(0);
+        this.maximumStartupJitter = DEFAULT_SCHEDULER_STARTUP_JITTER;
+        this.initialised = false;
+    }
+
+    //
+    // Post Construct
+    //
+
+    @PostConstruct
+    public void initialise(){
+        getLogger().debug(".initialise(): Entry");
+        if(initialised){
+            getLogger().debug(".initialise(): Exit, already initialised, nothing to do");
+            return;
+        }
+        int poolSize = DEFAULT_SCHEDULER_POOL_SIZE;
+        if(environmentProperties != null){
+            poolSize = environmentProperties.getIntegerProperty(SCHEDULER_POOL_SIZE_PROPERTY, DEFAULT_SCHEDULER_POOL_SIZE);
+            maximumStartupJitter = environmentProperties.getIntegerProperty(SCHEDULER_STARTUP_JITTER_PROPERTY, DEFAULT_SCHEDULER_STARTUP_JITTER);
+        }
+        scheduledExecutor = new ScheduledThreadPoolExecutor(Math.max(1, poolSize), new SchedulerThreadFactory());
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        scheduledExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduledExecutor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+        initialised = true;
+        getLogger().info(".initialise(): Shared scheduler started, poolSize->{}, maximumStartupJitter->{}ms", poolSize, maximumStartupJitter);
+        getLogger().debug(".initialise(): Exit");
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        getLogger().debug(".shutdown(): Entry");
+        if(scheduledExecutor == null){
+            return;
+        }
+        for(PegacornScheduledActivity currentActivity: activityMap.values()){
+            currentActivity.cancel();
+        }
+        scheduledExecutor.shutdown();
+        try {
+            if(!scheduledExecutor.awaitTermination(SHUTDOWN_WAIT, TimeUnit.MILLISECONDS)){
+                getLogger().warn(".shutdown(): Scheduled activities did not finish within {}ms, interrupting them", SHUTDOWN_WAIT);
+                scheduledExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduledExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        getLogger().debug(".shutdown(): Exit");
+    }
+
+    //
+    // Business Methods
+    //
+
+    /**
+     * Schedules an activity to run repeatedly, period milliseconds after the previous execution finished, until it
+     * is cancelled.
+     */
+    public PegacornScheduledActivity schedule(String activityName, Runnable activity, long initialDelay, long period){
+        return(scheduleActivity(activityName, () -> {activity.run(); return(true);}, initialDelay, period));
+    }
+
+    /**
+     * Schedules an activity to run repeatedly until it returns false (i.e. there is nothing more to do) or it is
+     * cancelled.
+     */
+    public PegacornScheduledActivity scheduleUntilComplete(String activityName, BooleanSupplier activity, long initialDelay, long period){
+        return(scheduleActivity(activityName, activity, initialDelay, period));
+    }
+
+    public PegacornScheduledActivity scheduleOnce(String activityName, Runnable activity, long delay){
+        return(scheduleActivity(activityName, () -> {activity.run(); return(false);}, delay, 0L));
+    }
+
+    public List<PegacornScheduledActivity> getScheduledActivities(){
+        List<PegacornScheduledActivity> activityList = new ArrayList<>(activityMap.values());
+        return(activityList);
+    }
+
+    public int getPoolSize(){
+        if(scheduledExecutor == null){
+            return(0);
+        }
+        return(scheduledExecutor.getCorePoolSize());
+    }
+
+    //
+    // Helpers
+    //
+
+    protected PegacornScheduledActivity scheduleActivity(String activityName, BooleanSupplier activity, long initialDelay, long period){
+        getLogger().debug(".scheduleActivity(): Entry, activityName->{}, initialDelay->{}, period->{}", activityName, initialDelay, period);
+        if(activity == null){
+            throw(new IllegalArgumentException(".scheduleActivity(): activity is null"));
+        }
+        if(!initialised){
+            initialise();
+        }
+        activityMap.values().removeIf(PegacornScheduledActivity::isCancelled);
+        String activityKey = activityName + "-" + activityCounter.incrementAndGet();
+        long jitteredDelay = Math.max(0L, initialDelay) + getStartupJitter(period);
+        PegacornScheduledActivity scheduledActivity = new PegacornScheduledActivity(activityName, () -> {
+            boolean doAgain = activity.getAsBoolean();
+            if(!doAgain){
+                activityMap.remove(activityKey);
+            }
+            return(doAgain);
+        }, jitteredDelay, period);
+        activityMap.put(activityKey, scheduledActivity);
+        ScheduledFuture<?> future;
+        if(period > 0) {
+            future = scheduledExecutor.scheduleWithFixedDelay(scheduledActivity, jitteredDelay, period, TimeUnit.MILLISECONDS);
+        } else {
+            future = scheduledExecutor.schedule(scheduledActivity, jitteredDelay, TimeUnit.MILLISECONDS);
+        }
+        scheduledActivity.setScheduledFuture(future);
+        getLogger().debug(".scheduleActivity(): Exit, activityKey->{}, jitteredDelay->{}", activityKey, jitteredDelay);
+        return(scheduledActivity);
+    }
+
+    protected long getStartupJitter(long period){
+        long jitterBound = maximumStartupJitter;
+        if(period > 0){
+            jitterBound = Math.min(jitterBound, period);
+        }
+        if(jitterBound <= 0){
+            return(0L);
+        }
+        return(ThreadLocalRandom.current().nextLong(jitterBound));
+    }
+
+    protected Logger getLogger(){
+        return(LOG);
+    }
+
+    //
+    // Internal Types
+    //
+
+    private static class SchedulerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCounter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "PegacornSharedScheduler-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return(thread);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.util.scheduling;
+
+import net.fhirfactory.pegacorn.util.scheduling.PegacornKeyedSerialExecutor.KeyedTaskFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PegacornKeyedSerialExecutorTest {
+    private static final long WAIT_TIME = 5000L;
+
+    private PegacornKeyedSerialExecutor executor;
+
+    @BeforeEach
+    void setUp(){
+        executor = new PegacornKeyedSerialExecutor("KeyedSerialExecutorTest", 4, 16, 4);
+    }
+
+    @AfterEach
+    void tearDown(){
+        executor.shutdown(WAIT_TIME);
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    void runsTasksWithTheSameKeyInOrder() throws Exception {
+        PegacornKeyedSerialExecutor orderedExecutor = new PegacornKeyedSerialExecutor("OrderedTest", 4, 1000, 1000);
+        try {
+            List<Integer> completionOrder = Collections.synchronizedList(new ArrayList<>());
+            List<KeyedTaskFuture<Integer>> futures = new ArrayList<>();
+            for(int counter = 0; counter < 200; counter += 1){
+                int value = counter;
+                futures.add(orderedExecutor.submit("key", () -> {
+                    completionOrder.add(value);
+                    return(value);
+                }, WAIT_TIME));
+            }
+            for(KeyedTaskFuture<Integer> future: futures){
+                future.get(WAIT_TIME, TimeUnit.MILLISECONDS);
+            }
+            assertEquals(200, completionOrder.size());
+            for(int counter = 0; counter < 200; counter += 1){
+                assertEquals(counter, completionOrder.get(counter).intValue());
+            }
+        } finally {
+            orderedExecutor.shutdown(WAIT_TIME);
+        }
+    }
+
+    @Test
+    void runsTasksWithDifferentKeysInParallel() throws Exception {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        KeyedTaskFuture<String> blocked = executor.submit("slow", () -> {
+            started.countDown();
+            blocker.await(WAIT_TIME, TimeUnit.MILLISECONDS);
+            return("slow");
+        }, WAIT_TIME);
+        assertTrue(started.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+        KeyedTaskFuture<String> other = executor.submit("fast", () -> "fast", WAIT_TIME);
+        assertEquals("fast", other.get(WAIT_TIME, TimeUnit.MILLISECONDS));
+        assertFalse(blocked.isDone());
+        blocker.countDown();
+        assertEquals("slow", blocked.get(WAIT_TIME, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void rejectsWhenTheKeyIsFull() throws Exception {
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<KeyedTaskFuture<Boolean>> futures = new ArrayList<>();
+        for(int counter = 0; counter < 4; counter += 1){
+            futures.add(executor.submit("key", () -> blocker.await(WAIT_TIME, TimeUnit.MILLISECONDS), WAIT_TIME));
+        }
+        assertThrows(RejectedExecutionException.class, () -> executor.submit("key", () -> true, 50L));
+        // another key still has room
+        assertTrue(executor.submit("other", () -> true, 50L).get(WAIT_TIME, TimeUnit.MILLISECONDS));
+        blocker.countDown();
+        for(KeyedTaskFuture<Boolean> future: futures){
+            assertTrue(future.get(WAIT_TIME, TimeUnit.MILLISECONDS));
+        }
+        assertTrue(executor.submit("key", () -> true, 50L).get(WAIT_TIME, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void rejectsWhenTheExecutorIsFull() throws Exception {
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<KeyedTaskFuture<Boolean>> futures = new ArrayList<>();
+        for(int counter = 0; counter < 16; counter += 1){
+            futures.add(executor.submit("key-" + (counter % 4), () -> blocker.await(WAIT_TIME, TimeUnit.MILLISECONDS), WAIT_TIME));
+        }
+        assertEquals(16, executor.getInFlightCount());
+        assertThrows(RejectedExecutionException.class, () -> executor.submit("key-new", () -> true, 50L));
+        blocker.countDown();
+        for(KeyedTaskFuture<Boolean> future: futures){
+            assertTrue(future.get(WAIT_TIME, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void releasesQueuesOnceDrained() throws Exception {
+        List<KeyedTaskFuture<String>> futures = new ArrayList<>();
+        for(int counter = 0; counter < 50; counter += 1){
+            String key = "key-" + counter;
+            futures.add(executor.submit(key, () -> key, WAIT_TIME));
+        }
+        for(KeyedTaskFuture<String> future: futures){
+            future.get(WAIT_TIME, TimeUnit.MILLISECONDS);
+        }
+        // the permits and queue are released just after the future completes
+        long deadline = System.currentTimeMillis() + WAIT_TIME;
+        while((executor.getActiveKeyCount() > 0 || executor.getInFlightCount() > 0) && System.currentTimeMillis() < deadline){
+            Thread.sleep(10L);
+        }
+        assertEquals(0, executor.getActiveKeyCount());
+        assertEquals(0, executor.getInFlightCount());
+    }
+
+    @Test
+    void cancelledTasksAreSkipped() throws Exception {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        KeyedTaskFuture<Boolean> running = executor.submit("key", () -> {
+            started.countDown();
+            return(blocker.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+        }, WAIT_TIME);
+        AtomicBoolean cancelledTaskRan = new AtomicBoolean(false);
+        KeyedTaskFuture<Boolean> queued = executor.submit("key", () -> {
+            cancelledTaskRan.set(true);
+            return(true);
+        }, WAIT_TIME);
+        KeyedTaskFuture<String> next = executor.submit("key", () -> "next", WAIT_TIME);
+        assertTrue(started.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+        assertTrue(running.isStarted());
+        assertFalse(running.cancel(false));
+        assertFalse(queued.isStarted());
+        assertTrue(queued.cancel(false));
+        assertTrue(queued.isCancelled());
+        blocker.countDown();
+        assertTrue(running.get(WAIT_TIME, TimeUnit.MILLISECONDS));
+        assertEquals("next", next.get(WAIT_TIME, TimeUnit.MILLISECONDS));
+        assertFalse(cancelledTaskRan.get());
+    }
+}
@@ -21,7 +21,6 @@
  */
 package net.fhirfactory.pegacorn.internals.communicate.entities.message.factories;
 
-import ca.uhn.fhir.parser.IParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import net.fhirfactory.pegacorn.fhir.helpers.ContactPointHelper;
@@ -56,7 +55,6 @@ public class CommunicationToPegacornEmailFactory {
     protected static final String FAILURE_CONVERT_EMAIL_TO_JSON = "Could not convert email to JSON";
     
     private ObjectMapper jsonMapper; //TODO make common
-    private IParser fhirParser;
     private boolean initialised;
     @Inject
     private FHIRContextUtility fhirContextUtility;
@@ -77,7 +75,6 @@ public class CommunicationToPegacornEmailFactory {
         LOG.debug(".initialise(): Entry");
         if(!initialised) {
             LOG.info(".initialise(): initialising....");
-            fhirParser = fhirContextUtility.getJsonParser();
             jsonMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT); // sets pretty printing
             this.initialised = true;
             LOG.info(".initialise(): Done.");
@@ -23,6 +23,9 @@ package net.fhirfactory.pegacorn.core.interfaces.oam.notifications;
 
 import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.PetasosComponentITOpsNotification;
 
+import java.util.List;
+
 public interface PetasosITOpsNotificationBrokerInterface {
     public void sendNotification(PetasosComponentITOpsNotification notification);
+    public void sendNotifications(List<PetasosComponentITOpsNotification> notificationList);
 }
@@ -23,6 +23,17 @@ package net.fhirfactory.pegacorn.core.interfaces.oam.notifications;
 
 import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.PetasosComponentITOpsNotification;
 
+import java.util.List;
+
 public interface PetasosITOpsNotificationHandlerInterface {
     public void processNotification(PetasosComponentITOpsNotification notification);
+
+    default public void processNotifications(List<PetasosComponentITOpsNotification> notificationList){
+        if(notificationList == null){
+            return;
+        }
+        for(PetasosComponentITOpsNotification currentNotification: notificationList){
+            processNotification(currentNotification);
+        }
+    }
 }
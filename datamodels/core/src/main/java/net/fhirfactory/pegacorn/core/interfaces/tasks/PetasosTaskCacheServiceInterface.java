@@ -33,4 +33,5 @@ public interface PetasosTaskCacheServiceInterface {
     public PetasosTask removeTask(PetasosTask task);
     public Object getTaskLock(TaskIdType taskId);
     public void addTaskLock(TaskIdType taskId);
+    public void reindexTask(TaskIdType taskId);
 }
@@ -55,19 +55,36 @@ public class ComponentIdType implements Serializable {
         this.idValidityEndInstant = null;
         this.displayName = null;
         if(ori.hasId()){
-            setId(SerializationUtils.clone(ori.getId()));
+            setId(ori.getId());
         }
         if(ori.hasIdValidityStartInstant()){
-            setIdValidityStartInstant(SerializationUtils.clone(ori.getIdValidityStartInstant()));
+            setIdValidityStartInstant(ori.getIdValidityStartInstant());
         }
         if(ori.hasIdValidityEndInstant()){
-            setIdValidityEndInstant(SerializationUtils.clone(ori.getIdValidityEndInstant()));
+            setIdValidityEndInstant(ori.getIdValidityEndInstant());
         }
         if(ori.hasDisplayName()){
-            setDisplayName(SerializationUtils.clone(ori.getDisplayName()));
+            setDisplayName(ori.getDisplayName());
         }
     }
 
+    /**
+     * Copies a ComponentIdType. Its content is Strings and Instants (both immutable), so the copy constructor
+     * is sufficient for the base class; sub-classes are cloned.
+     *
+     * @param ori the ComponentIdType to copy (may be null)
+     * @return the copy, or null
+     */
+    public static ComponentIdType copyOf(ComponentIdType ori){
+        if(ori == null){
+            return(null);
+        }
+        if(ori.getClass() == ComponentIdType.class){
+            return(new ComponentIdType(ori));
+        }
+        return(SerializationUtils.clone(ori));
+    }
+
     //
     // Getters and Setters (Bean Methods)
     //
@@ -36,17 +36,25 @@ import java.util.ArrayList;
 import java.util.Objects;
 
 /**
+ * The tag, token and type-based FDN are built on first use and cached (until the name set is next changed through
+ * this class), as is the hash code.
+ *
  * @author Mark A. Hunter
  * @since 2020-08-07
  */
 public class TopologyNodeFDN implements Serializable {
     private static final Logger LOG = LoggerFactory.getLogger(TopologyNodeFDN.class);
+    private static final JsonMapper TOKEN_MAPPER = new JsonMapper();
 
     protected Logger getLogger(){
         return(LOG);
     }
 
     private ArrayList<TopologyNodeRDN> hierarchicalNameSet;
+    private transient int cachedHashCode;
+    private transient String cachedTag;
+    private transient String cachedTokenString;
+    private transient FDN cachedTypeBasedFDN;
 
     public TopologyNodeFDN(){
         hierarchicalNameSet = new ArrayList<>();
@@ -59,6 +67,10 @@ public class TopologyNodeFDN implements Serializable {
         for(int counter = 0; counter < size; counter ++){
             this.hierarchicalNameSet.add(counter, originalToken.getHierarchicalNameSet().get(counter));
         }
+        this.cachedHashCode = originalToken.cachedHashCode;
+        this.cachedTag = originalToken.cachedTag;
+        this.cachedTokenString = originalToken.cachedTokenString;
+        this.cachedTypeBasedFDN = originalToken.cachedTypeBasedFDN;
         getLogger().debug(".TopologyNodeFDN(TopologyNodeFDN): Exit");
     }
 
@@ -68,12 +80,14 @@ public class TopologyNodeFDN implements Serializable {
 
     public void setHierarchicalNameSet(ArrayList<TopologyNodeRDN> hierarchicalNameSet) {
         this.hierarchicalNameSet = hierarchicalNameSet;
+        clearCachedValues();
     }
 
     public void appendTopologyNodeRDN(TopologyNodeRDN newRDN){
         getLogger().debug(".appendTopologyNodeRDN: Entry, newRDN->{}", newRDN);
         int count = this.hierarchicalNameSet.size();
         this.hierarchicalNameSet.add(count, newRDN);
+        clearCachedValues();
     }
 
     public void appendTopologyNodeFDN(TopologyNodeFDN additionalFDN){
@@ -83,6 +97,14 @@ public class TopologyNodeFDN implements Serializable {
             int position = currentElementSize + counter;
             this.hierarchicalNameSet.add(position, additionalFDN.getHierarchicalNameSet().get(counter));
         }
+        clearCachedValues();
+    }
+
+    private void clearCachedValues(){
+        this.cachedHashCode = 0;
+        this.cachedTag = null;
+        this.cachedTokenString = null;
+        this.cachedTypeBasedFDN = null;
     }
 
     public TopologyNodeRDN getLeafRDN(){
@@ -132,13 +154,28 @@ public class TopologyNodeFDN implements Serializable {
         return (true);
     }
 
+    /**
+     * Consistent with equals(), i.e. based on the name, version and type of each RDN (TopologyNodeRDN doesn't
+     * implement hashCode()).
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(getHierarchicalNameSet());
+        int fdnHashCode = this.cachedHashCode;
+        if(fdnHashCode == 0) {
+            fdnHashCode = 1;
+            for (TopologyNodeRDN nodeRDN : getHierarchicalNameSet()) {
+                fdnHashCode = (31 * fdnHashCode) + Objects.hash(nodeRDN.getNodeName(), nodeRDN.getNodeVersion(), nodeRDN.getNodeType());
+            }
+            this.cachedHashCode = fdnHashCode;
+        }
+        return (fdnHashCode);
     }
 
     @JsonIgnore
     public String toTag(){
+        if(this.cachedTag != null){
+            return(this.cachedTag);
+        }
         String simpleTag = new String();
         int count = hierarchicalNameSet.size();
         int counter = 0;
@@ -148,19 +185,22 @@ public class TopologyNodeFDN implements Serializable {
                 simpleTag += ".";
             }
         }
+        this.cachedTag = simpleTag;
         return(simpleTag);
     }
 
     @JsonIgnore
     public TopologyNodeFDNToken getToken(){
-        TopologyNodeRDNSet nodeRDNSet = new TopologyNodeRDNSet(this.hierarchicalNameSet);
-        String tokenString = null;
-        try{
-            JsonMapper mapper = new JsonMapper();
-            tokenString = mapper.writeValueAsString(nodeRDNSet);
-        } catch(JsonProcessingException jsonException){
-            jsonException.printStackTrace();
-            tokenString = "";
+        String tokenString = this.cachedTokenString;
+        if(tokenString == null) {
+            TopologyNodeRDNSet nodeRDNSet = new TopologyNodeRDNSet(this.hierarchicalNameSet);
+            try {
+                tokenString = TOKEN_MAPPER.writeValueAsString(nodeRDNSet);
+                this.cachedTokenString = tokenString;
+            } catch (JsonProcessingException jsonException) {
+                jsonException.printStackTrace();
+                tokenString = "";
+            }
         }
         TopologyNodeFDNToken newToken = new TopologyNodeFDNToken(tokenString);
         return(newToken);
@@ -170,8 +210,7 @@ public class TopologyNodeFDN implements Serializable {
         getLogger().debug(".TopologyNodeFDN(): Entry, token->{}", token);
         this.hierarchicalNameSet = new ArrayList<>();
         try{
-            JsonMapper mapper = new JsonMapper();
-            TopologyNodeRDNSet nodeRDNSet = mapper.readValue(token.getTokenValue(), TopologyNodeRDNSet.class);
+            TopologyNodeRDNSet nodeRDNSet = TOKEN_MAPPER.readValue(token.getTokenValue(), TopologyNodeRDNSet.class);
             int rdnCount = nodeRDNSet.getPayload().size();
             for(int counter = 0; counter < rdnCount; counter ++){
                 this.hierarchicalNameSet.add(counter, nodeRDNSet.getPayload().get(counter));
@@ -187,8 +226,7 @@ public class TopologyNodeFDN implements Serializable {
         getLogger().debug(".TopologyNodeFDN(): Entry, tokenString->{}", tokenString);
         this.hierarchicalNameSet = new ArrayList<>();
         try{
-            JsonMapper mapper = new JsonMapper();
-            TopologyNodeRDNSet nodeRDNSet = mapper.readValue(tokenString, TopologyNodeRDNSet.class);
+            TopologyNodeRDNSet nodeRDNSet = TOKEN_MAPPER.readValue(tokenString, TopologyNodeRDNSet.class);
             int rdnCount = nodeRDNSet.getPayload().size();
             getLogger().trace(".TopologyNodeFDN(): Converted tokenString (String) to nodeRDNSet(TopologyNodeRDNSet), rdnCount->{}", rdnCount);
             for(int counter = 0; counter < rdnCount; counter ++){
@@ -215,11 +253,15 @@ public class TopologyNodeFDN implements Serializable {
 
     @JsonIgnore
     public FDN toTypeBasedFDN(){
-        FDN newFDN = new FDN();
-        for(TopologyNodeRDN nodeRDN: hierarchicalNameSet){
-            newFDN.appendRDN(new RDN(nodeRDN.getNodeType().getToken(),nodeRDN.getNodeName()));
+        if(this.cachedTypeBasedFDN == null) {
+            FDN newFDN = new FDN();
+            for (TopologyNodeRDN nodeRDN : hierarchicalNameSet) {
+                newFDN.appendRDN(new RDN(nodeRDN.getNodeType().getToken(), nodeRDN.getNodeName()));
+            }
+            this.cachedTypeBasedFDN = newFDN;
         }
-        return(newFDN);
+        // Callers may append to the returned FDN, so hand out a copy
+        return(new FDN(this.cachedTypeBasedFDN));
     }
 
     @JsonIgnore
@@ -22,14 +22,17 @@
 package net.fhirfactory.pegacorn.core.model.datagrid.datatypes;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import net.fhirfactory.pegacorn.core.interfaces.datagrid.DatagridElementKeyInterface;
 import net.fhirfactory.pegacorn.core.constants.petasos.PetasosPropertyConstants;
 import net.fhirfactory.pegacorn.core.model.datagrid.valuesets.DatagridPersistenceResourceStatusEnum;
 import net.fhirfactory.pegacorn.core.model.keyring.PegacornResourceKeyring;
+import org.hl7.fhir.r4.model.Identifier;
 
 import java.io.Serializable;
 import java.time.Instant;
 
-public class DataGridResourceIdType extends PegacornResourceKeyring implements Serializable {
+public class DataGridResourceIdType extends PegacornResourceKeyring implements DatagridElementKeyInterface, Serializable {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSXXX", timezone = PetasosPropertyConstants.DEFAULT_TIMEZONE)
     private Instant gridLoadInstant;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSXXX", timezone = PetasosPropertyConstants.DEFAULT_TIMEZONE)
@@ -75,6 +78,35 @@ public class DataGridResourceIdType extends PegacornResourceKeyring implements S
         this.checkInstant = checkInstant;
     }
 
+    //
+    // Datagrid Key
+    //
+
+    /**
+     * The datagrid key for the resource: ResourceType/id when the resource id (or localId) is known, otherwise
+     * ResourceType?identifier=system|value from the primary business identifier. Used (rather than the keyring
+     * itself, whose equality depends on Identifier instance identity) to key the datagrid caches and to coalesce
+     * repeated saves of the same resource.
+     *
+     * @return the key, or null if there is nothing to key the resource on
+     */
+    @JsonIgnore
+    @Override
+    public String getKey() {
+        String resourceType = getResourceType();
+        if(getResourceId() != null && getResourceId().hasIdPart()){
+            return(resourceType + "/" + getResourceId().getIdPart());
+        }
+        if(getLocalId() != null){
+            return(resourceType + "/" + getLocalId());
+        }
+        if(getPrimaryBusinessIdentifier() != null){
+            Identifier identifier = getPrimaryBusinessIdentifier();
+            return(resourceType + "?identifier=" + identifier.getSystem() + "|" + identifier.getValue());
+        }
+        return(null);
+    }
+
     //
     // To String
     //
@@ -30,4 +30,60 @@ public class DataGridResourceType implements Serializable {
     private Resource gridResource;
     private DatagridElementSourceResourceIdType gridResourceSourceId;
 
+    //
+    // Constructor(s)
+    //
+
+    public DataGridResourceType(){
+        this.gridResourceId = null;
+        this.gridResource = null;
+        this.gridResourceSourceId = null;
+    }
+
+    public DataGridResourceType(DataGridResourceIdType gridResourceId, Resource gridResource){
+        this.gridResourceId = gridResourceId;
+        this.gridResource = gridResource;
+        this.gridResourceSourceId = null;
+    }
+
+    //
+    // Getters and Setters
+    //
+
+    public DataGridResourceIdType getGridResourceId() {
+        return gridResourceId;
+    }
+
+    public void setGridResourceId(DataGridResourceIdType gridResourceId) {
+        this.gridResourceId = gridResourceId;
+    }
+
+    public Resource getGridResource() {
+        return gridResource;
+    }
+
+    public void setGridResource(Resource gridResource) {
+        this.gridResource = gridResource;
+    }
+
+    public DatagridElementSourceResourceIdType getGridResourceSourceId() {
+        return gridResourceSourceId;
+    }
+
+    public void setGridResourceSourceId(DatagridElementSourceResourceIdType gridResourceSourceId) {
+        this.gridResourceSourceId = gridResourceSourceId;
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "DataGridResourceType{" +
+                "gridResourceId=" + gridResourceId +
+                ", gridResource=" + gridResource +
+                ", gridResourceSourceId=" + gridResourceSourceId +
+                '}';
+    }
 }
@@ -29,6 +29,16 @@ import java.util.Objects;
 public class DataParcelFragmentQualityStatement extends DataParcelTypeDescriptor implements Serializable {
     private DataParcelFragmentQualityEnum fragmentQuality;
 
+    public DataParcelFragmentQualityStatement(){
+        super();
+        this.fragmentQuality = null;
+    }
+
+    public DataParcelFragmentQualityStatement(DataParcelFragmentQualityStatement ori){
+        super(ori);
+        this.fragmentQuality = ori.getFragmentQuality();
+    }
+
     public DataParcelFragmentQualityEnum getFragmentQuality() {
         return fragmentQuality;
     }
@@ -62,7 +62,7 @@ public class DataParcelManifest implements Serializable {
 
     public DataParcelManifest(DataParcelTypeDescriptor contentDescriptor){
         this.containerDescriptor = null;
-        this.contentDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(contentDescriptor);
+        this.contentDescriptor = DataParcelTypeDescriptor.copyOf(contentDescriptor);
         this.sourceSystem = null;
         this.intendedTargetSystem = null;
         this.interSubsystemDistributable = false;
@@ -87,12 +87,12 @@ public class DataParcelManifest implements Serializable {
             this.setSourceProcessingPlantParticipantName(null);
         }
         if(ori.hasContainerDescriptor()) {
-            this.containerDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(ori.getContainerDescriptor());
+            this.containerDescriptor = DataParcelTypeDescriptor.copyOf(ori.getContainerDescriptor());
         } else {
             this.containerDescriptor = null;
         }
         if(ori.hasContentDescriptor()) {
-            this.contentDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(ori.getContentDescriptor());
+            this.contentDescriptor = DataParcelTypeDescriptor.copyOf(ori.getContentDescriptor());
         } else {
             this.contentDescriptor = null;
         }
@@ -132,6 +132,28 @@ public class DataParcelManifest implements Serializable {
         } else {
             this.dataParcelType = DataParcelTypeEnum.GENERAL_DATA_PARCEL_TYPE;
         }
+        if(ori.hasDataParcelQualityStatement()){
+            this.setPayloadQuality(ori.getPayloadQuality());
+        } else {
+            this.payloadQuality = null;
+        }
+    }
+
+    /**
+     * Field-wise copy of a manifest (the descriptors and quality statement are copied, the Strings and enums are
+     * shared as they are immutable). Sub-classes fall back to a serialisation clone.
+     *
+     * @param ori the manifest to copy (may be null)
+     * @return the copy, or null if ori is null
+     */
+    public static DataParcelManifest copyOf(DataParcelManifest ori){
+        if(ori == null){
+            return(null);
+        }
+        if(ori.getClass() == DataParcelManifest.class){
+            return(new DataParcelManifest(ori));
+        }
+        return(SerializationUtils.clone(ori));
     }
 
     //
@@ -223,7 +245,7 @@ public class DataParcelManifest implements Serializable {
     }
 
     public void setContainerDescriptor(DataParcelTypeDescriptor containerDescriptor) {
-        this.containerDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(containerDescriptor);
+        this.containerDescriptor = DataParcelTypeDescriptor.copyOf(containerDescriptor);
     }
 
     public String getSourceSystem() {
@@ -231,7 +253,7 @@ public class DataParcelManifest implements Serializable {
     }
 
     public void setSourceSystem(String sourceSystem) {
-        this.sourceSystem = (String)SerializationUtils.clone(sourceSystem);
+        this.sourceSystem = sourceSystem;
     }
 
     public String getIntendedTargetSystem() {
@@ -239,7 +261,7 @@ public class DataParcelManifest implements Serializable {
     }
 
     public void setIntendedTargetSystem(String intendedTargetSystem) {
-        this.intendedTargetSystem = (String)SerializationUtils.clone(intendedTargetSystem);
+        this.intendedTargetSystem = intendedTargetSystem;
     }
 
     public boolean isInterSubsystemDistributable() {
@@ -251,7 +273,7 @@ public class DataParcelManifest implements Serializable {
     }
 
     public void setContentDescriptor(DataParcelTypeDescriptor contentDescriptor) {
-        this.contentDescriptor = (DataParcelTypeDescriptor)SerializationUtils.clone(contentDescriptor);
+        this.contentDescriptor = DataParcelTypeDescriptor.copyOf(contentDescriptor);
     }
 
     public DataParcelQualityStatement getPayloadQuality() {
@@ -259,7 +281,11 @@ public class DataParcelManifest implements Serializable {
     }
 
     public void setPayloadQuality(DataParcelQualityStatement payloadQuality) {
-        this.payloadQuality = (DataParcelQualityStatement)SerializationUtils.clone(payloadQuality);
+        if(payloadQuality == null){
+            this.payloadQuality = null;
+        } else {
+            this.payloadQuality = new DataParcelQualityStatement(payloadQuality);
+        }
     }
 
     public DataParcelNormalisationStatusEnum getNormalisationStatus() {
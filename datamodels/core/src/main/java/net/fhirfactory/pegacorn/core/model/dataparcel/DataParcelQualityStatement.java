@@ -32,6 +32,19 @@ public class DataParcelQualityStatement implements Serializable {
         this.fragmentQualityStatementList = new ArrayList<>();
     }
 
+    public DataParcelQualityStatement(DataParcelQualityStatement ori){
+        this.fragmentQualityStatementList = new ArrayList<>();
+        if(ori.getFragmentQualityStatementList() != null){
+            for(DataParcelFragmentQualityStatement currentStatement: ori.getFragmentQualityStatementList()){
+                if(currentStatement == null){
+                    this.fragmentQualityStatementList.add(null);
+                } else {
+                    this.fragmentQualityStatementList.add(new DataParcelFragmentQualityStatement(currentStatement));
+                }
+            }
+        }
+    }
+
     public List<DataParcelFragmentQualityStatement> getFragmentQualityStatementList() {
         return fragmentQualityStatementList;
     }
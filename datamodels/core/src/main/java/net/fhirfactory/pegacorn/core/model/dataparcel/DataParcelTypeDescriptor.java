@@ -60,34 +60,52 @@ public class DataParcelTypeDescriptor implements Serializable {
 
     public DataParcelTypeDescriptor(DataParcelTypeDescriptor ori){
         if(ori.hasDataParcelDefiner()) {
-            this.dataParcelDefiner = SerializationUtils.clone(ori.getDataParcelDefiner());
+            this.dataParcelDefiner = ori.getDataParcelDefiner();
         }
         if(ori.hasDataParcelCategory()) {
-            this.dataParcelCategory = SerializationUtils.clone(ori.getDataParcelCategory());
+            this.dataParcelCategory = ori.getDataParcelCategory();
         }
         if(ori.hasDataParcelSubCategory()) {
-            this.dataParcelSubCategory = SerializationUtils.clone(ori.getDataParcelSubCategory());
+            this.dataParcelSubCategory = ori.getDataParcelSubCategory();
         }
         if(ori.hasDataParcelResource()) {
-            this.dataParcelResource = SerializationUtils.clone(ori.getDataParcelResource());
+            this.dataParcelResource = ori.getDataParcelResource();
         }
         if(ori.hasDataParcelSegment()) {
-            this.dataParcelSegment = SerializationUtils.clone(ori.getDataParcelSegment());
+            this.dataParcelSegment = ori.getDataParcelSegment();
         }
         if(ori.hasDataParcelAttribute()) {
-            this.dataParcelAttribute = SerializationUtils.clone(ori.getDataParcelAttribute());
+            this.dataParcelAttribute = ori.getDataParcelAttribute();
         }
         if(ori.hasVersion()) {
-            this.version = SerializationUtils.clone(ori.getVersion());
+            this.version = ori.getVersion();
         }
         if(ori.hasDataParcelDiscriminatorType()) {
-            this.dataParcelDiscriminatorType = SerializationUtils.clone(ori.getDataParcelDiscriminatorType());
+            this.dataParcelDiscriminatorType = ori.getDataParcelDiscriminatorType();
         }
         if(ori.hasDataParcelDiscriminatorValue()) {
-            this.dataParcelDiscriminatorValue = SerializationUtils.clone(ori.getDataParcelDiscriminatorValue());
+            this.dataParcelDiscriminatorValue = ori.getDataParcelDiscriminatorValue();
         }
     }
 
+    /**
+     * Returns a copy of the descriptor which shares nothing mutable with the original. All the descriptor elements
+     * are Strings, so a plain copy constructor gives the same isolation as a serialisation round-trip. Sub-classes
+     * are still deep-cloned, so their additional state is not lost.
+     *
+     * @param ori the descriptor to copy (may be null)
+     * @return a copy of the descriptor, or null if ori is null
+     */
+    public static DataParcelTypeDescriptor copyOf(DataParcelTypeDescriptor ori){
+        if(ori == null){
+            return(null);
+        }
+        if(ori.getClass() == DataParcelTypeDescriptor.class){
+            return(new DataParcelTypeDescriptor(ori));
+        }
+        return(SerializationUtils.clone(ori));
+    }
+
     //
     // Getters and Setters
     //
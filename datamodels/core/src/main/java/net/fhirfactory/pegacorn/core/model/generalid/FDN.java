@@ -21,11 +21,11 @@
  */
 package net.fhirfactory.pegacorn.core.model.generalid;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Objects;
 
-import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,8 +38,13 @@ import org.slf4j.LoggerFactory;
  * this set of activities should only be logged if we are really trying to
  * "dig amongst the weeds"!!!
  *
+ * The token and unqualified token are (re)built lazily - i.e. on first use after the FDN was last changed - and the
+ * hash code is cached, so that FDNs can be used as map keys without re-building Strings on every lookup.
+ *
  */
 public class FDN implements Serializable {
+    // Pinned to the value computed for the class before the cached values were added
+    private static final long serialVersionUID = 86456270283385915L;
 
     private static final Logger LOG = LoggerFactory.getLogger(FDN.class);
     protected Logger getLogger(){
@@ -50,6 +55,7 @@ public class FDN implements Serializable {
     private FDNToken token;
     private String fdnToString;
     private String unqualifiedToken;
+    private transient int cachedHashCode;
 
     private static final String RDN_TO_STRING_ENTRY_SEPERATOR = ".";
     private static final String FDN_TO_STRING_PREFIX = "FDN(";
@@ -84,19 +90,19 @@ public class FDN implements Serializable {
         // create new RDN's from the content, and append these RDN's (in the 
         // appropriate order) into the new FDN.
         this.rdnSet = new ArrayList<RDN>();
-        ArrayList<RDN> otherRDNSet = originalFDN.getRDNSet();
+        ArrayList<RDN> otherRDNSet = originalFDN.rdnSet;
         if (otherRDNSet.size() != originalFDN.getRDNCount()) {
             throw (new IllegalArgumentException("Malformed FDN passed to copy Constructor"));
         }
         for (int counter = 0; counter < originalFDN.getRDNCount(); counter++) {
             RDN currentRDN = otherRDNSet.get(counter);
-            RDN clonedRDN = SerializationUtils.clone(currentRDN);
+            RDN clonedRDN = new RDN(currentRDN);
             this.rdnSet.add(counter, clonedRDN);
         }
-        // We need to pre-build the toString() and getToken() content so we don't re-do it 
-        // every time we do some comparison etc.
-        generateToken();
-        generateUnqualifiedToken();
+        // The token content is the same, so there is no need to re-build it
+        this.token = new FDNToken(originalFDN.getToken());
+        this.unqualifiedToken = originalFDN.getUnqualifiedToken();
+        this.cachedHashCode = originalFDN.cachedHashCode;
         getLogger().trace(".FDN( FDN originalFDN ): generatedFDN = {}", this.fdnToString);
     }
 
@@ -112,6 +118,13 @@ public class FDN implements Serializable {
         }
         String tokenContent = token.getContent();
         getLogger().trace(".FDN( FDNToken token ): tokenContent --> {}", tokenContent);
+        ArrayList<RDN> parsedRDNSet = parseToken(tokenContent);
+        if(parsedRDNSet != null){
+            // The content is exactly what generateToken() would have built, so use it as-is
+            this.rdnSet = parsedRDNSet;
+            this.token = new FDNToken(token);
+            return;
+        }
         String[] rdnStringEntries = tokenContent.split("><");
         if(rdnStringEntries.length <= 0){
             throw (new IllegalArgumentException("Badly formed FDNToken passed to Constructor, cannot parse -> " + token.getContent()));
@@ -180,10 +193,7 @@ public class FDN implements Serializable {
         RDN newRDN = new RDN(toBeAddedRDN);
         int existingSetSize = this.getRDNCount();
         this.rdnSet.add(existingSetSize, newRDN);
-        // We need to pre-build the toString() and getToken() content so we don't re-do it 
-        // every time we do some comparison etc.
-        generateToken();
-        generateUnqualifiedToken();
+        clearCachedValues();
         getLogger().trace(".appendRDN(): Exit");
     }
 
@@ -242,9 +252,15 @@ public class FDN implements Serializable {
         }
     }
 
+    /**
+     * A copy of the RDNs (most significant first) - changing it doesn't change the FDN. Use appendRDN()/appendFDN()
+     * to change the FDN, so that its cached token and hash code are kept up to date.
+     *
+     * @return a copy of the RDN list
+     */
     public ArrayList<RDN> getRDNSet() {
         getLogger().trace(".getRDNSet(): Entry/Exit");
-        return (this.rdnSet);
+        return (new ArrayList<>(this.rdnSet));
     }
 
     public int getRDNCount() {
@@ -254,9 +270,55 @@ public class FDN implements Serializable {
 
     public FDNToken getToken() {
         getLogger().trace(".getToken(): Entry/Exit");
+        if (this.token == null) {
+            generateToken();
+        }
         return (this.token);
     }
 
+    private void clearCachedValues() {
+        this.token = null;
+        this.unqualifiedToken = null;
+        this.cachedHashCode = 0;
+    }
+
+    /**
+     * Parses token content in the form built by generateToken() - i.e. "<0:Qualifier>Value</0:Qualifier><1:..." - in a
+     * single pass.
+     *
+     * @return the RDNs, or null if the content isn't in exactly that form (or is empty)
+     */
+    private static ArrayList<RDN> parseToken(String tokenContent) {
+        if (tokenContent == null || tokenContent.isEmpty()) {
+            return (null);
+        }
+        ArrayList<RDN> parsedRDNSet = new ArrayList<RDN>();
+        int position = 0;
+        int counter = 0;
+        while (position < tokenContent.length()) {
+            String openingPrefix = "<" + counter + ":";
+            if (!tokenContent.startsWith(openingPrefix, position)) {
+                return (null);
+            }
+            int qualifierStart = position + openingPrefix.length();
+            int qualifierEnd = tokenContent.indexOf('>', qualifierStart);
+            if (qualifierEnd <= qualifierStart) {
+                return (null);
+            }
+            String qualifier = tokenContent.substring(qualifierStart, qualifierEnd);
+            String closingTag = "</" + counter + ":" + qualifier + ">";
+            int valueEnd = tokenContent.indexOf(closingTag, qualifierEnd + 1);
+            if (valueEnd <= (qualifierEnd + 1)) {
+                return (null);
+            }
+            String value = tokenContent.substring(qualifierEnd + 1, valueEnd);
+            parsedRDNSet.add(new RDN(qualifier, value));
+            position = valueEnd + closingTag.length();
+            counter += 1;
+        }
+        return (parsedRDNSet);
+    }
+
     private void generateToken() {
         getLogger().trace(".generateToken(): Entry");
         StringBuilder tokenBuilder = new StringBuilder();
@@ -287,16 +349,16 @@ public class FDN implements Serializable {
 
     private void generateUnqualifiedToken() {
         getLogger().trace(".generateUnqualifiedToken(): Entry");
-        String newUnqualifiedToken = new String();
+        StringBuilder unqualifiedTokenBuilder = new StringBuilder();
         for (int counter = 0; counter < this.getRDNCount(); counter++) {
             RDN currentRDN = this.rdnSet.get(counter);
             String value = currentRDN.getValue().replace(".", "_");
-            newUnqualifiedToken = newUnqualifiedToken + value;
+            unqualifiedTokenBuilder.append(value);
             if(counter < (this.getRDNCount()-1)){
-                newUnqualifiedToken = newUnqualifiedToken + ".";
+                unqualifiedTokenBuilder.append(".");
             }
         }
-        this.unqualifiedToken = newUnqualifiedToken;
+        this.unqualifiedToken = unqualifiedTokenBuilder.toString();
         getLogger().trace(".generateUnqualifiedToken(): Exit");
     }
     
@@ -317,6 +379,9 @@ public class FDN implements Serializable {
 
     public String getUnqualifiedToken() {
         getLogger().trace(".getUnqualifiedToken(): Entry/Exit");
+        if (this.unqualifiedToken == null) {
+            generateUnqualifiedToken();
+        }
         return unqualifiedToken;
     }
 
@@ -337,12 +402,10 @@ public class FDN implements Serializable {
             return;
         }
         int additionalFDNSize = additionalFDN.getRDNCount();
-        ArrayList<RDN> additionalRDNSet = additionalFDN.getRDNSet();
+        ArrayList<RDN> additionalRDNSet = additionalFDN.rdnSet;
         for (int counter = 0; counter < additionalFDNSize; counter++) {
             this.appendRDN(additionalRDNSet.get(counter));
         }
-        generateToken();
-        generateUnqualifiedToken();
         getLogger().trace(".appendFDN: Exit");
     }
     
@@ -362,14 +425,32 @@ public class FDN implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         FDN fdn = (FDN) o;
+        if (this.hashCode() != fdn.hashCode()) {
+            return (false);
+        }
         String thisFDNToken = this.getToken().toFullString();
         String otherFDNToken = fdn.getToken().toFullString();
-        boolean equalityTest = thisFDNToken.contentEquals(otherFDNToken);
+        boolean equalityTest = thisFDNToken.equals(otherFDNToken);
         return (equalityTest);
     }
 
+    /**
+     * Consistent with equals(), i.e. based on the token content (the RDNs themselves don't implement hashCode()).
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(rdnSet);
+        int fdnHashCode = this.cachedHashCode;
+        if (fdnHashCode == 0) {
+            fdnHashCode = getToken().hashCode();
+            this.cachedHashCode = fdnHashCode;
+        }
+        return (fdnHashCode);
+    }
+
+    private void writeObject(ObjectOutputStream outputStream) throws IOException {
+        // Make sure the (lazily built) token content is part of the serialised form
+        getToken();
+        getUnqualifiedToken();
+        outputStream.defaultWriteObject();
     }
 }
@@ -22,34 +22,58 @@
 package net.fhirfactory.pegacorn.core.model.generalid;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import org.apache.commons.lang3.SerializationUtils;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.WeakHashMap;
 
 public class FDNToken implements Serializable {
+    // Pinned to the value computed for the class before the cached values and intern() were added
+    private static final long serialVersionUID = -1585944375738866814L;
+
+    private static final WeakHashMap<FDNToken, WeakReference<FDNToken>> internPool = new WeakHashMap<>();
 
     private String content;
 
+    // Derived (and lazily computed) values, cleared whenever the content changes
+    private transient int cachedHashCode;
+    private transient String tag;
+    private transient String unqualifiedToken;
+    // Set once this instance is the canonical (shared) token in the intern pool, after which it is immutable
+    private transient boolean interned;
+
     public FDNToken() {
         content = new String();
     }
 
     public FDNToken(String tokenContent) {
-        this.content = SerializationUtils.clone(tokenContent);
+        this.content = tokenContent;
     }
 
     public FDNToken(FDNToken originalToken) {
-        this.content = new String(originalToken.getContent());
+        this.content = originalToken.getContent();
+        this.cachedHashCode = originalToken.cachedHashCode;
+        this.tag = originalToken.tag;
+        this.unqualifiedToken = originalToken.unqualifiedToken;
     }
 
     public String getContent() {
         return (this.content);
     }
 
+    /**
+     * @throws IllegalStateException if this token has been interned (see intern())
+     */
     public void setContent(String tokenContent) {
-        this.content = new String(tokenContent);
+        if(this.interned){
+            throw(new IllegalStateException(".setContent(): FDNToken is interned (shared) and cannot be modified, content->" + this.content));
+        }
+        this.content = tokenContent;
+        this.cachedHashCode = 0;
+        this.tag = null;
+        this.unqualifiedToken = null;
     }
 
     @Override
@@ -89,20 +113,49 @@ public class FDNToken implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         FDNToken fdnToken = (FDNToken) o;
-        boolean equalityTest = fdnToken.getContent().contentEquals(this.getContent());
+        if(this.cachedHashCode != 0 && fdnToken.cachedHashCode != 0 && this.cachedHashCode != fdnToken.cachedHashCode){
+            return(false);
+        }
+        boolean equalityTest = Objects.equals(fdnToken.getContent(), this.getContent());
         return (equalityTest);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getContent());
+        int tokenHashCode = this.cachedHashCode;
+        if(tokenHashCode == 0){
+            tokenHashCode = Objects.hash(getContent());
+            this.cachedHashCode = tokenHashCode;
+        }
+        return (tokenHashCode);
+    }
+
+    /**
+     * Returns the canonical instance of this token from a (weakly held) pool, so that caches holding many equal
+     * tokens only keep (and compare) one copy. Interned tokens are shared, so setContent() on the canonical token
+     * throws an IllegalStateException - copy it (new FDNToken(token)) to get a modifiable token.
+     *
+     * @return the canonical FDNToken equal to this one
+     */
+    public FDNToken intern(){
+        synchronized (internPool){
+            WeakReference<FDNToken> canonicalReference = internPool.get(this);
+            FDNToken canonicalToken = (canonicalReference != null) ? canonicalReference.get() : null;
+            if(canonicalToken == null){
+                this.interned = true;
+                internPool.put(this, new WeakReference<>(this));
+                canonicalToken = this;
+            }
+            return(canonicalToken);
+        }
     }
 
     public String toTag(){
+        if(this.tag != null){
+            return(this.tag);
+        }
         String tag = new String();
-        FDNToken tempToken = new FDNToken();
-        tempToken.setContent(SerializationUtils.clone(this.getContent()));
-        FDN tempFDN = new FDN(tempToken);
+        FDN tempFDN = new FDN(this);
         int setSize = tempFDN.getRDNSet().size();
         int counter = 0;
         for (RDN currentRDN: tempFDN.getRDNSet()){
@@ -118,14 +171,16 @@ public class FDNToken implements Serializable {
             }
             counter++;
         }
+        this.tag = tag;
         return(tag);
     }
 
     @JsonIgnore
     public String getUnqualifiedToken(){
-        FDNToken tempToken = new FDNToken();
-        tempToken.setContent(this.getContent());
-        FDN tempFDN = new FDN(tempToken);
-        return(tempFDN.getUnqualifiedToken());
+        if(this.unqualifiedToken == null){
+            FDN tempFDN = new FDN(this);
+            this.unqualifiedToken = tempFDN.getUnqualifiedToken();
+        }
+        return(this.unqualifiedToken);
     }
 }
\ No newline at end of file
@@ -76,8 +76,8 @@ public class RDN implements Serializable {
 		if (otherRDN == null) {
 			throw (new IllegalArgumentException("null otherRDN passed to copy Constructor"));
 		}
-		this.value = new String(otherRDN.getValue());
-		this.qualifier = new String(otherRDN.getQualifier());
+		this.value = otherRDN.getValue();
+		this.qualifier = otherRDN.getQualifier();
 		convertToString();
 		createToken();
 		convertToConciseString();
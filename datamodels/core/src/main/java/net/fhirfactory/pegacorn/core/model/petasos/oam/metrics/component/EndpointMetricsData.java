@@ -21,22 +21,27 @@
  */
 package net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common.CommonComponentMetricsData;
+import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common.ComponentLatencyHistogram;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class EndpointMetricsData extends CommonComponentMetricsData {
 
     private Integer nodeIngresQueueSize;
     private Integer egressSendAttemptCount;
-    private Integer remoteProcedureCallCount;
-    private Integer remoteProcedureCallHandledCount;
-    private Integer remoteProcedureCallFailureCount;
+    private final LongAdder remoteProcedureCallCount;
+    private final LongAdder remoteProcedureCallHandledCount;
+    private final LongAdder remoteProcedureCallFailureCount;
     private Map<String, Integer> remoteProcedureCallRequestsMap;
     private Map<String, Integer> remoteProcedureCallFailuresMap;
     private Map<String, Integer> remoteProcedureCallResponsesMap;
+    @JsonIgnore
+    private final ComponentLatencyHistogram remoteProcedureCallDurationHistogram;
 
     //
     // Constructor(s)
@@ -46,36 +51,60 @@ public class EndpointMetricsData extends CommonComponentMetricsData {
         super();
         this.nodeIngresQueueSize = 0;
         this.egressSendAttemptCount = 0;
-        this.remoteProcedureCallCount = 0;
-        this.remoteProcedureCallHandledCount = 0;
-        this.remoteProcedureCallFailureCount = 0;
+        this.remoteProcedureCallCount = new LongAdder();
+        this.remoteProcedureCallHandledCount = new LongAdder();
+        this.remoteProcedureCallFailureCount = new LongAdder();
         this.remoteProcedureCallRequestsMap = new ConcurrentHashMap<>();
         this.remoteProcedureCallFailuresMap = new ConcurrentHashMap<>();
         this.remoteProcedureCallResponsesMap = new ConcurrentHashMap<>();
+        this.remoteProcedureCallDurationHistogram = new ComponentLatencyHistogram();
     }
 
     public EndpointMetricsData(ComponentIdType componentId){
         super(componentId);
         this.nodeIngresQueueSize = 0;
         this.egressSendAttemptCount = 0;
-        this.remoteProcedureCallCount = 0;
-        this.remoteProcedureCallHandledCount = 0;
-        this.remoteProcedureCallFailureCount = 0;
+        this.remoteProcedureCallCount = new LongAdder();
+        this.remoteProcedureCallHandledCount = new LongAdder();
+        this.remoteProcedureCallFailureCount = new LongAdder();
         this.remoteProcedureCallRequestsMap = new ConcurrentHashMap<>();
         this.remoteProcedureCallFailuresMap = new ConcurrentHashMap<>();
         this.remoteProcedureCallResponsesMap = new ConcurrentHashMap<>();
+        this.remoteProcedureCallDurationHistogram = new ComponentLatencyHistogram();
+    }
+
+    //
+    // Counters
+    //
+
+    public void incrementRemoteProcedureCallCount(){
+        remoteProcedureCallCount.increment();
+    }
+
+    public void incrementRemoteProcedureCallHandledCount(){
+        remoteProcedureCallHandledCount.increment();
+    }
+
+    public void incrementRemoteProcedureCallFailureCount(){
+        remoteProcedureCallFailureCount.increment();
     }
 
     //
     // Getters and Setters
     //
 
+    // Like those in CommonComponentMetricsData, the RPC count setters are snapshot-only: they replace the count
+    // non-atomically, so they must not be used while the increment*() methods are being called.
+
     public Integer getRemoteProcedureCallFailureCount() {
-        return remoteProcedureCallFailureCount;
+        return remoteProcedureCallFailureCount.intValue();
     }
 
     public void setRemoteProcedureCallFailureCount(Integer remoteProcedureCallFailureCount) {
-        this.remoteProcedureCallFailureCount = remoteProcedureCallFailureCount;
+        this.remoteProcedureCallFailureCount.reset();
+        if(remoteProcedureCallFailureCount != null) {
+            this.remoteProcedureCallFailureCount.add(remoteProcedureCallFailureCount);
+        }
     }
 
     public Integer getEgressSendAttemptCount() {
@@ -87,19 +116,25 @@ public class EndpointMetricsData extends CommonComponentMetricsData {
     }
 
     public Integer getRemoteProcedureCallCount() {
-        return remoteProcedureCallCount;
+        return remoteProcedureCallCount.intValue();
     }
 
     public void setRemoteProcedureCallCount(Integer remoteProcedureCallCount) {
-        this.remoteProcedureCallCount = remoteProcedureCallCount;
+        this.remoteProcedureCallCount.reset();
+        if(remoteProcedureCallCount != null) {
+            this.remoteProcedureCallCount.add(remoteProcedureCallCount);
+        }
     }
 
     public Integer getRemoteProcedureCallHandledCount() {
-        return remoteProcedureCallHandledCount;
+        return remoteProcedureCallHandledCount.intValue();
     }
 
     public void setRemoteProcedureCallHandledCount(Integer remoteProcedureCallHandledCount) {
-        this.remoteProcedureCallHandledCount = remoteProcedureCallHandledCount;
+        this.remoteProcedureCallHandledCount.reset();
+        if(remoteProcedureCallHandledCount != null) {
+            this.remoteProcedureCallHandledCount.add(remoteProcedureCallHandledCount);
+        }
     }
 
     public Integer getNodeIngresQueueSize() {
@@ -110,6 +145,11 @@ public class EndpointMetricsData extends CommonComponentMetricsData {
         this.nodeIngresQueueSize = nodeIngresQueueSize;
     }
 
+    @JsonIgnore
+    public ComponentLatencyHistogram getRemoteProcedureCallDurationHistogram() {
+        return remoteProcedureCallDurationHistogram;
+    }
+
     public Map<String, Integer> getRemoteProcedureCallRequestsMap() {
         return remoteProcedureCallRequestsMap;
     }
@@ -149,6 +189,7 @@ public class EndpointMetricsData extends CommonComponentMetricsData {
                 ", remoteProcedureCallRequestsMap=" + remoteProcedureCallRequestsMap +
                 ", remoteProcedureCallFailuresMap=" + remoteProcedureCallFailuresMap +
                 ", remoteProcedureCallResponsesMap=" + remoteProcedureCallResponsesMap +
+                ", remoteProcedureCallDurationHistogram=" + remoteProcedureCallDurationHistogram +
                 ", ingresMessageCount=" + getIngresMessageCount() +
                 ", egressMessageCount=" + getEgressMessageAttemptCount() +
                 ", internalDistributedMessageCount=" + getInternalDistributedMessageCount() +
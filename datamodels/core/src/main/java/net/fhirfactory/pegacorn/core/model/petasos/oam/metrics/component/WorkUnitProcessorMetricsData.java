@@ -22,12 +22,15 @@
 package net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import net.fhirfactory.pegacorn.core.constants.petasos.PetasosPropertyConstants;
 import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common.CommonComponentMetricsData;
+import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common.ComponentLatencyHistogram;
 import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
 
 import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
 
 public class WorkUnitProcessorMetricsData extends CommonComponentMetricsData {
     private double averageEventProcessingDuration;
@@ -43,15 +46,19 @@ public class WorkUnitProcessorMetricsData extends CommonComponentMetricsData {
     private Instant eventProcessingStartInstant;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSXXX", timezone = PetasosPropertyConstants.DEFAULT_TIMEZONE)
     private Instant eventProcessingFinishInstant;
-    private int finalisedTasks;
-    private int finishedTasks;
-    private int failedTasks;
-    private int startedTasks;
-    private int registeredTasks;
-    private int cancelledTasks;
+    private final LongAdder finalisedTasks;
+    private final LongAdder finishedTasks;
+    private final LongAdder failedTasks;
+    private final LongAdder startedTasks;
+    private final LongAdder registeredTasks;
+    private final LongAdder cancelledTasks;
     private TaskIdType currentActionableTask;
     private TaskIdType lastActionableTask;
     private int nodeIngresQueueSize;
+    @JsonIgnore
+    private final ComponentLatencyHistogram taskProcessingDurationHistogram;
+    @JsonIgnore
+    private final ComponentLatencyHistogram taskQueueWaitDurationHistogram;
 
     //
     // Constructor(s)
@@ -68,15 +75,17 @@ public class WorkUnitProcessorMetricsData extends CommonComponentMetricsData {
         this.eventDistributionFinishInstant = Instant.EPOCH;
         this.eventProcessingStartInstant = Instant.EPOCH;
         this.eventProcessingFinishInstant = Instant.EPOCH;
-        this.finalisedTasks = 0;
-        this.finishedTasks = 0;
-        this.failedTasks = 0;
-        this.startedTasks = 0;
-        this.registeredTasks = 0;
-        this.cancelledTasks = 0;
+        this.finalisedTasks = new LongAdder();
+        this.finishedTasks = new LongAdder();
+        this.failedTasks = new LongAdder();
+        this.startedTasks = new LongAdder();
+        this.registeredTasks = new LongAdder();
+        this.cancelledTasks = new LongAdder();
         this.currentActionableTask = null;
         this.lastActionableTask = null;
         this.nodeIngresQueueSize = 0;
+        this.taskProcessingDurationHistogram = new ComponentLatencyHistogram();
+        this.taskQueueWaitDurationHistogram = new ComponentLatencyHistogram();
     }
 
     public WorkUnitProcessorMetricsData(ComponentIdType componentId){
@@ -90,15 +99,45 @@ public class WorkUnitProcessorMetricsData extends CommonComponentMetricsData {
         this.eventDistributionFinishInstant = Instant.EPOCH;
         this.eventProcessingStartInstant = Instant.EPOCH;
         this.eventProcessingFinishInstant = Instant.EPOCH;
-        this.finalisedTasks = 0;
-        this.finishedTasks = 0;
-        this.failedTasks = 0;
-        this.startedTasks = 0;
-        this.registeredTasks = 0;
-        this.cancelledTasks = 0;
+        this.finalisedTasks = new LongAdder();
+        this.finishedTasks = new LongAdder();
+        this.failedTasks = new LongAdder();
+        this.startedTasks = new LongAdder();
+        this.registeredTasks = new LongAdder();
+        this.cancelledTasks = new LongAdder();
         this.currentActionableTask = null;
         this.lastActionableTask = null;
         this.nodeIngresQueueSize = 0;
+        this.taskProcessingDurationHistogram = new ComponentLatencyHistogram();
+        this.taskQueueWaitDurationHistogram = new ComponentLatencyHistogram();
+    }
+
+    //
+    // Counters
+    //
+
+    public void incrementFinalisedTasks(){
+        finalisedTasks.increment();
+    }
+
+    public void incrementFinishedTasks(){
+        finishedTasks.increment();
+    }
+
+    public void incrementFailedTasks(){
+        failedTasks.increment();
+    }
+
+    public void incrementStartedTasks(){
+        startedTasks.increment();
+    }
+
+    public void incrementRegisteredTasks(){
+        registeredTasks.increment();
+    }
+
+    public void incrementCancelledTasks(){
+        cancelledTasks.increment();
     }
 
     //
@@ -177,52 +216,62 @@ public class WorkUnitProcessorMetricsData extends CommonComponentMetricsData {
         this.eventProcessingFinishInstant = eventProcessingFinishInstant;
     }
 
+    // The task counter setters (reset() then add()) are only for filling in a snapshot - a fresh instance being
+    // deserialised or copied - as they aren't atomic against the increment*() methods. Don't call them on the live
+    // metrics held by a ComponentMetricsAgent.
+
     public int getFinalisedTasks() {
-        return finalisedTasks;
+        return finalisedTasks.intValue();
     }
 
     public void setFinalisedTasks(int finalisedTasks) {
-        this.finalisedTasks = finalisedTasks;
+        this.finalisedTasks.reset();
+        this.finalisedTasks.add(finalisedTasks);
     }
 
     public int getFinishedTasks() {
-        return finishedTasks;
+        return finishedTasks.intValue();
     }
 
     public void setFinishedTasks(int finishedTasks) {
-        this.finishedTasks = finishedTasks;
+        this.finishedTasks.reset();
+        this.finishedTasks.add(finishedTasks);
     }
 
     public int getFailedTasks() {
-        return failedTasks;
+        return failedTasks.intValue();
     }
 
     public void setFailedTasks(int failedTasks) {
-        this.failedTasks = failedTasks;
+        this.failedTasks.reset();
+        this.failedTasks.add(failedTasks);
     }
 
     public int getStartedTasks() {
-        return startedTasks;
+        return startedTasks.intValue();
     }
 
     public void setStartedTasks(int startedTasks) {
-        this.startedTasks = startedTasks;
+        this.startedTasks.reset();
+        this.startedTasks.add(startedTasks);
     }
 
     public int getRegisteredTasks() {
-        return registeredTasks;
+        return registeredTasks.intValue();
     }
 
     public void setRegisteredTasks(int registeredTasks) {
-        this.registeredTasks = registeredTasks;
+        this.registeredTasks.reset();
+        this.registeredTasks.add(registeredTasks);
     }
 
     public int getCancelledTasks() {
-        return cancelledTasks;
+        return cancelledTasks.intValue();
     }
 
     public void setCancelledTasks(int cancelledTasks) {
-        this.cancelledTasks = cancelledTasks;
+        this.cancelledTasks.reset();
+        this.cancelledTasks.add(cancelledTasks);
     }
 
     public TaskIdType getCurrentActionableTask() {
@@ -249,6 +298,16 @@ public class WorkUnitProcessorMetricsData extends CommonComponentMetricsData {
         this.nodeIngresQueueSize = nodeIngresQueueSize;
     }
 
+    @JsonIgnore
+    public ComponentLatencyHistogram getTaskProcessingDurationHistogram() {
+        return taskProcessingDurationHistogram;
+    }
+
+    @JsonIgnore
+    public ComponentLatencyHistogram getTaskQueueWaitDurationHistogram() {
+        return taskQueueWaitDurationHistogram;
+    }
+
     //
     // To String
     //
@@ -278,6 +337,8 @@ public class WorkUnitProcessorMetricsData extends CommonComponentMetricsData {
                 ", currentActionableTask=" + currentActionableTask +
                 ", lastActionableTask=" + lastActionableTask +
                 ", nodeIngresQueueSize=" + nodeIngresQueueSize +
+                ", taskProcessingDurationHistogram=" + taskProcessingDurationHistogram +
+                ", taskQueueWaitDurationHistogram=" + taskQueueWaitDurationHistogram +
                 ", componentID=" + getComponentID() +
                 ", participantName=" + getParticipantName() +
                 ", metricsType='" + getComponentType() + '\'' +
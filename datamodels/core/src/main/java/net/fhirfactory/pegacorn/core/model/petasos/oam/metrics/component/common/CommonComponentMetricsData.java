@@ -28,8 +28,9 @@ import net.fhirfactory.pegacorn.core.model.petasos.oam.topology.valuesets.Petaso
 
 import java.io.Serializable;
 import java.time.Instant;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class CommonComponentMetricsData implements Serializable {
     private ComponentIdType componentID;
@@ -41,93 +42,135 @@ public class CommonComponentMetricsData implements Serializable {
     private Instant componentStartupInstant;
     private String componentStatus;
 
-    private int ingresMessageCount;
-    private int egressMessageAttemptCount;
-    private int egressMessageSuccessCount;
-    private int egressMessageFailureCount;
-    private int internalDistributedMessageCount;
-    private int internalReceivedMessageCount;
-    private Map<String, Integer> internalDistributionCountMap;
+    private final LongAdder ingresMessageCount;
+    private final LongAdder egressMessageAttemptCount;
+    private final LongAdder egressMessageSuccessCount;
+    private final LongAdder egressMessageFailureCount;
+    private final LongAdder internalDistributedMessageCount;
+    private final LongAdder internalReceivedMessageCount;
+    private final Map<String, Integer> internalDistributionCountMap;
 
     //
     // Constructor(s)
     //
 
     public CommonComponentMetricsData(){
-        this.ingresMessageCount = 0;
-        this.egressMessageAttemptCount = 0;
-        this.internalDistributedMessageCount = 0;
-        this.internalDistributionCountMap = new HashMap<>();
+        this.ingresMessageCount = new LongAdder();
+        this.egressMessageAttemptCount = new LongAdder();
+        this.internalDistributedMessageCount = new LongAdder();
+        this.internalDistributionCountMap = new ConcurrentHashMap<>();
         this.componentID = null;
         this.componentType = null;
         this.lastActivityInstant = null;
         this.componentStartupInstant = null;
         this.componentStatus = null;
         this.participantName = null;
-        this.internalReceivedMessageCount = 0;
-        this.egressMessageFailureCount = 0;
-        this.egressMessageSuccessCount = 0;
+        this.internalReceivedMessageCount = new LongAdder();
+        this.egressMessageFailureCount = new LongAdder();
+        this.egressMessageSuccessCount = new LongAdder();
     }
 
     public CommonComponentMetricsData(ComponentIdType componentId){
-        this.ingresMessageCount = 0;
-        this.egressMessageAttemptCount = 0;
-        this.internalDistributedMessageCount = 0;
-        this.internalDistributionCountMap = new HashMap<>();
+        this.ingresMessageCount = new LongAdder();
+        this.egressMessageAttemptCount = new LongAdder();
+        this.internalDistributedMessageCount = new LongAdder();
+        this.internalDistributionCountMap = new ConcurrentHashMap<>();
         this.componentID = componentId;
         this.componentType = null;
         this.lastActivityInstant = null;
         this.componentStartupInstant = null;
         this.componentStatus = null;
         this.participantName = null;
-        this.internalReceivedMessageCount = 0;
-        this.egressMessageFailureCount = 0;
-        this.egressMessageSuccessCount = 0;
+        this.internalReceivedMessageCount = new LongAdder();
+        this.egressMessageFailureCount = new LongAdder();
+        this.egressMessageSuccessCount = new LongAdder();
+    }
+
+    //
+    // Counters
+    //
+
+    public void incrementIngresMessageCount(){
+        ingresMessageCount.increment();
+    }
+
+    public void incrementEgressMessageAttemptCount(){
+        egressMessageAttemptCount.increment();
+    }
+
+    public void incrementEgressMessageSuccessCount(){
+        egressMessageSuccessCount.increment();
+    }
+
+    public void incrementEgressMessageFailureCount(){
+        egressMessageFailureCount.increment();
+    }
+
+    public void incrementInternalDistributedMessageCount(){
+        internalDistributedMessageCount.increment();
+    }
+
+    public void incrementInternalReceivedMessageCount(){
+        internalReceivedMessageCount.increment();
+    }
+
+    public void incrementInternalDistributionCount(String targetParticipantName){
+        if(targetParticipantName == null){
+            return;
+        }
+        internalDistributionCountMap.merge(targetParticipantName, 1, Integer::sum);
     }
 
     //
     // Getters and Setters
     //
 
+    // The message count setters overwrite the count with reset() then add(), so an increment landing in between is
+    // lost - they're for populating a snapshot (e.g. on deserialisation), never for the live instance being counted.
 
     public int getEgressMessageSuccessCount() {
-        return egressMessageSuccessCount;
+        return egressMessageSuccessCount.intValue();
     }
 
     public void setEgressMessageSuccessCount(int egressMessageSuccessCount) {
-        this.egressMessageSuccessCount = egressMessageSuccessCount;
+        this.egressMessageSuccessCount.reset();
+        this.egressMessageSuccessCount.add(egressMessageSuccessCount);
     }
 
     public int getEgressMessageFailureCount() {
-        return egressMessageFailureCount;
+        return egressMessageFailureCount.intValue();
     }
 
     public void setEgressMessageFailureCount(int egressMessageFailureCount) {
-        this.egressMessageFailureCount = egressMessageFailureCount;
+        this.egressMessageFailureCount.reset();
+        this.egressMessageFailureCount.add(egressMessageFailureCount);
     }
 
     public int getIngresMessageCount() {
-        return ingresMessageCount;
+        return ingresMessageCount.intValue();
     }
 
     public void setIngresMessageCount(int ingresMessageCount) {
-        this.ingresMessageCount = ingresMessageCount;
+        this.ingresMessageCount.reset();
+        this.ingresMessageCount.add(ingresMessageCount);
     }
 
     public int getEgressMessageAttemptCount() {
-        return egressMessageAttemptCount;
+        return egressMessageAttemptCount.intValue();
     }
 
     public void setEgressMessageAttemptCount(int egressMessageAttemptCount) {
-        this.egressMessageAttemptCount = egressMessageAttemptCount;
+        this.egressMessageAttemptCount.reset();
+        this.egressMessageAttemptCount.add(egressMessageAttemptCount);
     }
 
     public int getInternalDistributedMessageCount() {
-        return internalDistributedMessageCount;
+        return internalDistributedMessageCount.intValue();
     }
 
     public void setInternalDistributedMessageCount(int internalDistributedMessageCount) {
-        this.internalDistributedMessageCount = internalDistributedMessageCount;
+        this.internalDistributedMessageCount.reset();
+        this.internalDistributedMessageCount.add(internalDistributedMessageCount);
     }
 
     public Map<String, Integer> getInternalDistributionCountMap() {
@@ -135,7 +178,10 @@ public class CommonComponentMetricsData implements Serializable {
     }
 
     public void setInternalDistributionCountMap(Map<String, Integer> internalDistributionCountMap) {
-        this.internalDistributionCountMap = internalDistributionCountMap;
+        this.internalDistributionCountMap.clear();
+        if(internalDistributionCountMap != null){
+            this.internalDistributionCountMap.putAll(internalDistributionCountMap);
+        }
     }
 
     public ComponentIdType getComponentID() {
@@ -187,11 +233,12 @@ public class CommonComponentMetricsData implements Serializable {
     }
 
     public int getInternalReceivedMessageCount() {
-        return internalReceivedMessageCount;
+        return internalReceivedMessageCount.intValue();
     }
 
     public void setInternalReceivedMessageCount(int internalReceivedMessageCount) {
-        this.internalReceivedMessageCount = internalReceivedMessageCount;
+        this.internalReceivedMessageCount.reset();
+        this.internalReceivedMessageCount.add(internalReceivedMessageCount);
     }
 
     //
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter (ACT Health)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with log-linear (HDR-style) buckets, recording durations in microseconds.
+ *
+ * Values below 32us are counted exactly. Above that, each power-of-two range is split into 16 equal sub-buckets, so
+ * any reported percentile is within 1/16 (6.25%) of the true value. Values above ~12 days are counted in the top
+ * bucket.
+ *
+ * Recording is wait-free (an AtomicLongArray increment plus LongAdder updates), so many threads can record without
+ * contending on a lock. Percentiles are extracted from a snapshot: either everything recorded so far (getSnapshot())
+ * or only what has been recorded since the previous interval snapshot (getIntervalSnapshot()).
+ */
+public class ComponentLatencyHistogram implements Serializable {
+
+    private static final int LINEAR_BUCKET_COUNT = 32;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_LOG_MAGNITUDE = 5;
+    private static final int LAST_LOG_MAGNITUDE = 40;
+    private static final int BUCKET_COUNT = LINEAR_BUCKET_COUNT + ((LAST_LOG_MAGNITUDE - FIRST_LOG_MAGNITUDE + 1) * SUB_BUCKET_COUNT);
+
+    private final AtomicLongArray bucketCounts;
+    private final LongAdder totalCount;
+    private final LongAdder totalMicroseconds;
+    private final AtomicLong maxMicroseconds;
+    private final long[] previousIntervalCounts;
+
+    //
+    // Constructor(s)
+    //
+
+    public ComponentLatencyHistogram(){
+        this.bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+        this.totalCount = new LongAdder();
+        this.totalMicroseconds = new LongAdder();
+        this.maxMicroseconds = new AtomicLong(0);
+        this.previousIntervalCounts = new long[BUCKET_COUNT];
+    }
+
+    //
+    // Recording
+    //
+
+    public void recordMicroseconds(long durationInMicroseconds){
+        long value = Math.max(0L, durationInMicroseconds);
+        bucketCounts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalMicroseconds.add(value);
+        long currentMax = maxMicroseconds.get();
+        while(value > currentMax && !maxMicroseconds.compareAndSet(currentMax, value)){
+            currentMax = maxMicroseconds.get();
+        }
+    }
+
+    public void recordDuration(Duration duration){
+        if(duration == null){
+            return;
+        }
+        long micros;
+        try {
+            micros = duration.toNanos() / 1000L;
+        } catch (ArithmeticException ex){
+            micros = Long.MAX_VALUE;
+        }
+        recordMicroseconds(micros);
+    }
+
+    public void recordDuration(Instant startInstant, Instant finishInstant){
+        if(startInstant == null || finishInstant == null){
+            return;
+        }
+        recordDuration(Duration.between(startInstant, finishInstant));
+    }
+
+    //
+    // Snapshots
+    //
+
+    /**
+     * @return a copy of everything recorded since this histogram was created
+     */
+    @JsonIgnore
+    public ComponentLatencyHistogram getSnapshot(){
+        ComponentLatencyHistogram snapshot = new ComponentLatencyHistogram();
+        for(int index = 0; index < BUCKET_COUNT; index++){
+            long count = bucketCounts.get(index);
+            if(count > 0){
+                snapshot.bucketCounts.set(index, count);
+                snapshot.totalCount.add(count);
+            }
+        }
+        snapshot.totalMicroseconds.add(totalMicroseconds.sum());
+        snapshot.maxMicroseconds.set(maxMicroseconds.get());
+        return(snapshot);
+    }
+
+    /**
+     * Returns what has been recorded since the previous call to this method (or since creation, for the first call).
+     * The maximum of an interval snapshot is the upper bound of its highest occupied bucket.
+     *
+     * @return a histogram of the values recorded in the current interval
+     */
+    @JsonIgnore
+    public ComponentLatencyHistogram getIntervalSnapshot(){
+        ComponentLatencyHistogram snapshot = new ComponentLatencyHistogram();
+        synchronized (previousIntervalCounts) {
+            long intervalMicroseconds = 0;
+            int highestIndex = -1;
+            for (int index = 0; index < BUCKET_COUNT; index++) {
+                long count = bucketCounts.get(index);
+                long intervalCount = count - previousIntervalCounts[index];
+                previousIntervalCounts[index] = count;
+                if (intervalCount > 0) {
+                    snapshot.bucketCounts.set(index, intervalCount);
+                    snapshot.totalCount.add(intervalCount);
+                    intervalMicroseconds += intervalCount * bucketMidpoint(index);
+                    highestIndex = index;
+                }
+            }
+            snapshot.totalMicroseconds.add(intervalMicroseconds);
+            if (highestIndex >= 0) {
+                snapshot.maxMicroseconds.set(Math.min(bucketUpperBound(highestIndex), maxMicroseconds.get()));
+            }
+        }
+        return(snapshot);
+    }
+
+    //
+    // Statistics
+    //
+
+    public long getTotalCount(){
+        return(totalCount.sum());
+    }
+
+    public long getMaxMicroseconds(){
+        return(maxMicroseconds.get());
+    }
+
+    public double getMeanMicroseconds(){
+        long count = totalCount.sum();
+        if(count == 0){
+            return(0.0);
+        }
+        return((double)totalMicroseconds.sum() / (double)count);
+    }
+
+    /**
+     * Returns the (upper bound of the bucket holding the) value at the given percentile, in microseconds.
+     *
+     * @param percentile the percentile, 0.0 to 100.0
+     * @return the value at the percentile, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile){
+        long count = totalCount.sum();
+        if(count == 0){
+            return(0L);
+        }
+        double boundedPercentile = Math.min(100.0, Math.max(0.0, percentile));
+        long targetCount = Math.max(1L, (long)Math.ceil((boundedPercentile / 100.0) * count));
+        long cumulativeCount = 0;
+        for(int index = 0; index < BUCKET_COUNT; index++){
+            cumulativeCount += bucketCounts.get(index);
+            if(cumulativeCount >= targetCount){
+                return(Math.min(bucketUpperBound(index), maxMicroseconds.get()));
+            }
+        }
+        return(maxMicroseconds.get());
+    }
+
+    public double getValueAtPercentileInMilliseconds(double percentile){
+        return((double)getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    //
+    // Bucket Arithmetic
+    //
+
+    static int bucketIndex(long value){
+        if(value < LINEAR_BUCKET_COUNT){
+            return((int)value);
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if(magnitude > LAST_LOG_MAGNITUDE){
+            return(BUCKET_COUNT - 1);
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+        return(LINEAR_BUCKET_COUNT + ((magnitude - FIRST_LOG_MAGNITUDE) * SUB_BUCKET_COUNT) + subBucket);
+    }
+
+    static long bucketLowerBound(int index){
+        if(index < LINEAR_BUCKET_COUNT){
+            return(index);
+        }
+        int magnitude = FIRST_LOG_MAGNITUDE + ((index - LINEAR_BUCKET_COUNT) / SUB_BUCKET_COUNT);
+        int subBucket = (index - LINEAR_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return(((long)(SUB_BUCKET_COUNT + subBucket)) << shift);
+    }
+
+    static long bucketUpperBound(int index){
+        if(index < LINEAR_BUCKET_COUNT){
+            return(index);
+        }
+        int magnitude = FIRST_LOG_MAGNITUDE + ((index - LINEAR_BUCKET_COUNT) / SUB_BUCKET_COUNT);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return(bucketLowerBound(index) + (1L << shift) - 1L);
+    }
+
+    private static long bucketMidpoint(int index){
+        return((bucketLowerBound(index) + bucketUpperBound(index)) / 2L);
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "ComponentLatencyHistogram{" +
+                "totalCount=" + getTotalCount() +
+                ", meanMicroseconds=" + getMeanMicroseconds() +
+                ", p50Microseconds=" + getValueAtPercentile(50.0) +
+                ", p99Microseconds=" + getValueAtPercentile(99.0) +
+                ", maxMicroseconds=" + getMaxMicroseconds() +
+                '}';
+    }
+}
@@ -25,11 +25,13 @@ import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.Endpoin
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.ProcessingPlantMetricsData;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.WorkUnitProcessorMetricsData;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common.CommonComponentMetricsData;
+import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common.ComponentLatencyHistogram;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.reporting.PetasosComponentMetric;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.reporting.PetasosComponentMetricSet;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.reporting.datatypes.PetasosComponentMetricValue;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.reporting.valuesets.PetasosComponentMetricTypeEnum;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.reporting.valuesets.PetasosComponentMetricUnitEnum;
+import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
 import net.fhirfactory.pegacorn.core.model.petasos.participant.ProcessingPlantPetasosParticipantHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +44,8 @@ import java.util.Set;
 public class PetasosComponentMetricSetFactory {
     private static final Logger LOG = LoggerFactory.getLogger(PetasosComponentMetricSetFactory.class);
 
+    private static final double[] REPORTED_PERCENTILES = {50.0, 90.0, 99.0};
+
     @Inject
     private ProcessingPlantPetasosParticipantHolder participantHolder;
 
@@ -366,6 +370,9 @@ public class PetasosComponentMetricSetFactory {
             metricSet.addMetric(lastEventProcessingDuration);
         }
 
+        addLatencyPercentileMetrics(metricSet, wupMetricsData.getComponentID(), "TaskProcessingTime", PetasosComponentMetricTypeEnum.TASK_PROCESSING_TIME_PERCENTILE, wupMetricsData.getTaskProcessingDurationHistogram());
+        addLatencyPercentileMetrics(metricSet, wupMetricsData.getComponentID(), "TaskQueueWaitTime", PetasosComponentMetricTypeEnum.TASK_QUEUE_WAIT_TIME_PERCENTILE, wupMetricsData.getTaskQueueWaitDurationHistogram());
+
         return(metricSet);
     }
 
@@ -514,6 +521,8 @@ public class PetasosComponentMetricSetFactory {
         }
         getLogger().trace(".convertEndpointMetricsData(): [RemoteProcedureCallFailuresMap] Done...");
 
+        addLatencyPercentileMetrics(metricSet, endpointMetricsData.getComponentID(), "RPC-Time", PetasosComponentMetricTypeEnum.INTER_SUBSYSTEM_RPC_TIME_PERCENTILE, endpointMetricsData.getRemoteProcedureCallDurationHistogram());
+
         getLogger().debug(".convertEndpointMetricsData(): Exit, metricSet->{}", metricSet);
         return(metricSet);
     }
@@ -657,6 +666,37 @@ public class PetasosComponentMetricSetFactory {
 
     }
 
+    /**
+     * Adds the p50/p90/p99 and maximum of the durations recorded in the histogram since the previous report. Each
+     * call consumes the interval, so the reported percentiles describe the latest reporting period only.
+     */
+    protected void addLatencyPercentileMetrics(PetasosComponentMetricSet metricSet, ComponentIdType sourceComponentId, String metricNamePrefix, PetasosComponentMetricTypeEnum metricType, ComponentLatencyHistogram histogram){
+        if(histogram == null){
+            return;
+        }
+        ComponentLatencyHistogram intervalHistogram = histogram.getIntervalSnapshot();
+        if(intervalHistogram.getTotalCount() == 0){
+            return;
+        }
+        for(double currentPercentile: REPORTED_PERCENTILES){
+            String metricName = metricNamePrefix + "-P" + (int)currentPercentile;
+            metricSet.addMetric(newDurationMetric(sourceComponentId, metricName, metricType, intervalHistogram.getValueAtPercentileInMilliseconds(currentPercentile)));
+        }
+        double maxInMilliseconds = (double)intervalHistogram.getMaxMicroseconds() / 1000.0;
+        metricSet.addMetric(newDurationMetric(sourceComponentId, metricNamePrefix + "-Max", metricType, maxInMilliseconds));
+    }
+
+    private PetasosComponentMetric newDurationMetric(ComponentIdType sourceComponentId, String metricName, PetasosComponentMetricTypeEnum metricType, double valueInMilliseconds){
+        PetasosComponentMetric durationMetric = new PetasosComponentMetric();
+        durationMetric.setMetricAgent(participantHolder.getMyProcessingPlantPetasosParticipant().getComponentID());
+        durationMetric.setMetricSource(sourceComponentId);
+        durationMetric.setMetricName(metricName);
+        durationMetric.setMetricType(metricType);
+        durationMetric.setMetricUnit(PetasosComponentMetricUnitEnum.TIME_DURATION_MILLISECONDS);
+        durationMetric.setMetricValue(new PetasosComponentMetricValue(valueInMilliseconds));
+        return(durationMetric);
+    }
+
     //
     // Getters (and Setters)
     //
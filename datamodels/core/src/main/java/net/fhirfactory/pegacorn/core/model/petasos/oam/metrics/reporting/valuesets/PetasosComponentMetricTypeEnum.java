@@ -53,6 +53,10 @@ public enum PetasosComponentMetricTypeEnum {
     ROLLING_TASK_PROCESSING_TIME("Rolling-Average", "TaskProcessingTime", "petasos.component.metric.type.task-processing-time"),
     CUMULATIVE_TASK_PROCESSING_TIME("Cumulative-Average", "TaskProcessingTime", "petasos.component.metric.type.task-processing-time"),
 
+    TASK_PROCESSING_TIME_PERCENTILE("Percentile", "TaskProcessingTime", "petasos.component.metric.type.task-processing-time-percentile"),
+    TASK_QUEUE_WAIT_TIME_PERCENTILE("Percentile", "TaskQueueWaitTime", "petasos.component.metric.type.task-queue-wait-time-percentile"),
+    INTER_SUBSYSTEM_RPC_TIME_PERCENTILE("Percentile", "RPC-Time", "petasos.component.metric.type.rpc-time-percentile"),
+
     LAST_TASK_PROCESSING_TIME("Last-Task", "TaskProcessingTime", "petasos.component.metric.type.task-processing-time"),
     LAST_TASK_ID("Last-Task", "Task-ID", "petasos.component.metric.type.task-id"),
     LAST_TASK_INSTANT("Last-Task-Timestamp", "Date/Time", "petasos.component.metric.type.timestamp");
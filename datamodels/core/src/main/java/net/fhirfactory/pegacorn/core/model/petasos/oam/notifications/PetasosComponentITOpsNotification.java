@@ -21,16 +21,20 @@
  */
 package net.fhirfactory.pegacorn.core.model.petasos.oam.notifications;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.valuesets.PetasosComponentITOpsNotificationTypeEnum;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.topology.valuesets.PetasosMonitoredComponentTypeEnum;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.function.Supplier;
+
 public class PetasosComponentITOpsNotification extends ITOpsNotificationContent {
     private ComponentIdType componentId;
     private String participantName;
     private PetasosMonitoredComponentTypeEnum componentType;
     private PetasosComponentITOpsNotificationTypeEnum notificationType;
+    private transient Supplier<ITOpsNotificationContent> contentRenderer;
 
     //
     // Constructor
@@ -72,6 +76,50 @@ public class PetasosComponentITOpsNotification extends ITOpsNotificationContent
             setParticipantName(ori.getParticipantName());
         }
         setComponentType(ori.getComponentType());
+        this.notificationType = ori.getNotificationType();
+        this.contentRenderer = ori.contentRenderer;
+    }
+
+    //
+    // Deferred Content
+    //
+
+    /**
+     * Sets a renderer for the (unformatted and formatted) content, so that the content is only built if and when
+     * the notification is actually sent - many notifications are coalesced or dropped before then. The renderer is
+     * local to this JVM and is never serialised.
+     *
+     * @param contentRenderer supplies the content, the formatted content and (optionally) the content heading
+     */
+    @JsonIgnore
+    public void setContentRenderer(Supplier<ITOpsNotificationContent> contentRenderer) {
+        this.contentRenderer = contentRenderer;
+    }
+
+    @JsonIgnore
+    public boolean hasContentRenderer(){
+        boolean hasValue = this.contentRenderer != null;
+        return(hasValue);
+    }
+
+    /**
+     * Builds the content using the renderer (if there is one), after which the renderer is discarded.
+     */
+    public void renderContent(){
+        Supplier<ITOpsNotificationContent> renderer = this.contentRenderer;
+        if(renderer == null){
+            return;
+        }
+        this.contentRenderer = null;
+        ITOpsNotificationContent renderedContent = renderer.get();
+        if(renderedContent == null){
+            return;
+        }
+        setContent(renderedContent.getContent());
+        setFormattedContent(renderedContent.getFormattedContent());
+        if(StringUtils.isNotEmpty(renderedContent.getContentHeading())){
+            setContentHeading(renderedContent.getContentHeading());
+        }
     }
 
     //
@@ -24,7 +24,6 @@ package net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.common;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import net.fhirfactory.pegacorn.core.constants.petasos.PetasosPropertyConstants;
-import org.apache.commons.lang3.SerializationUtils;
 
 import java.io.Serializable;
 import java.time.Instant;
@@ -65,22 +64,22 @@ public class TaskInstantDetailSegmentBase implements Serializable {
         this.finalisationInstant = null;
         this.lastCheckedInstant = Instant.now();
         if(ori.hasFinalisationInstant()){
-            setFinalisationInstant(SerializationUtils.clone(ori.getFinalisationInstant()));
+            setFinalisationInstant(ori.getFinalisationInstant());
         }
         if(ori.hasFinishInstant()){
-            setFinishInstant(SerializationUtils.clone(ori.getFinishInstant()));
+            setFinishInstant(ori.getFinishInstant());
         }
         if(ori.hasReadyInstant()){
-            setReadyInstant(SerializationUtils.clone(ori.getReadyInstant()));
+            setReadyInstant(ori.getReadyInstant());
         }
         if(ori.hasStartInstant()){
-            setStartInstant(SerializationUtils.clone(ori.getStartInstant()));
+            setStartInstant(ori.getStartInstant());
         }
         if(ori.hasRegistrationInstant()){
-            setRegistrationInstant(SerializationUtils.clone(ori.getRegistrationInstant()));
+            setRegistrationInstant(ori.getRegistrationInstant());
         }
         if(ori.hasLastCheckedInstant()){
-            setLastCheckedInstant(SerializationUtils.clone(ori.getLastCheckedInstant()));
+            setLastCheckedInstant(ori.getLastCheckedInstant());
         }
     }
 
@@ -47,7 +47,7 @@ public class TaskFulfillmentType extends TaskInstantDetailSegmentBase implements
         super();
         this.fulfillerWorkUnitProcessor = fulfillerWorkUnitProcessor;
         this.trackingID = SerializationUtils.clone(trackingID);
-        setRegistrationInstant(SerializationUtils.clone(registrationInstant));
+        setRegistrationInstant(registrationInstant);
         this.status = FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_REGISTERED;
         this.resilientActivity = false;
     }
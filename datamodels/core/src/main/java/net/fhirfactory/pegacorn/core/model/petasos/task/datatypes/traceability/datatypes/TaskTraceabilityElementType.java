@@ -55,7 +55,7 @@ public class TaskTraceabilityElementType extends TaskInstantDetailSegmentBase im
         this.fulfillerTaskId = null;
         this.fulfillerParticipantName = null;
         if(ori.hasFulfillerParticipantName()){
-            this.setFulfillerParticipantName(SerializationUtils.clone(ori.getFulfillerParticipantName()));
+            this.setFulfillerParticipantName(ori.getFulfillerParticipantName());
         }
         if(ori.hasActionableTaskId()){
             this.setActionableTaskId(SerializationUtils.clone(ori.getActionableTaskId()));
@@ -64,7 +64,7 @@ public class TaskTraceabilityElementType extends TaskInstantDetailSegmentBase im
             this.setFulfillerTaskId(SerializationUtils.clone(ori.getFulfillerTaskId()));
         }
         if(ori.hasFulfillerId()){
-            this.setFulfillerId(SerializationUtils.clone(ori.getFulfillerId()));
+            this.setFulfillerId(ComponentIdType.copyOf(ori.getFulfillerId()));
         }
     }
 
@@ -26,7 +26,6 @@ import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelQualityStatement;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
 import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.*;
-import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,7 +69,7 @@ public class TaskWorkItemSubscriptionType implements Serializable {
 
     public TaskWorkItemSubscriptionType(DataParcelTypeDescriptor contentDescriptor){
         this.containerDescriptor = null;
-        this.contentDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(contentDescriptor);
+        this.contentDescriptor = DataParcelTypeDescriptor.copyOf(contentDescriptor);
         this.externalSourceSystem = null;
         this.externalTargetSystem = null;
         this.interSubsystemDistributable = false;
@@ -85,32 +84,32 @@ public class TaskWorkItemSubscriptionType implements Serializable {
 
     public TaskWorkItemSubscriptionType(DataParcelManifest ori){
         if(ori.hasTargetProcessingPlantParticipantName()){
-            this.setTargetProcessingPlantParticipantName(SerializationUtils.clone(ori.getTargetProcessingPlantParticipantName()));
+            this.setTargetProcessingPlantParticipantName(ori.getTargetProcessingPlantParticipantName());
         } else {
             this.setTargetProcessingPlantParticipantName(null);
         }
         if(ori.hasSourceProcessingPlantParticipantName()){
-            this.setSourceProcessingPlantParticipantName(SerializationUtils.clone(ori.getSourceProcessingPlantParticipantName()));
+            this.setSourceProcessingPlantParticipantName(ori.getSourceProcessingPlantParticipantName());
         } else {
             this.setSourceProcessingPlantParticipantName(null);
         }
         if(ori.hasContainerDescriptor()) {
-            this.containerDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(ori.getContainerDescriptor());
+            this.containerDescriptor = DataParcelTypeDescriptor.copyOf(ori.getContainerDescriptor());
         } else {
             this.containerDescriptor = null;
         }
         if(ori.hasContentDescriptor()) {
-            this.contentDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(ori.getContentDescriptor());
+            this.contentDescriptor = DataParcelTypeDescriptor.copyOf(ori.getContentDescriptor());
         } else {
             this.contentDescriptor = null;
         }
         if(ori.hasSourceSystem()) {
-            this.setExternalSourceSystem(SerializationUtils.clone(ori.getSourceSystem()));
+            this.setExternalSourceSystem(ori.getSourceSystem());
         } else {
             this.setExternalSourceSystem(null);
         }
         if(ori.hasIntendedTargetSystem()) {
-            this.setExternalTargetSystem(SerializationUtils.clone(ori.getIntendedTargetSystem()));
+            this.setExternalTargetSystem(ori.getIntendedTargetSystem());
         } else {
             this.setExternalTargetSystem(null);
         }
@@ -144,32 +143,32 @@ public class TaskWorkItemSubscriptionType implements Serializable {
 
     public TaskWorkItemSubscriptionType(TaskWorkItemSubscriptionType ori){
         if(ori.hasTargetProcessingPlantParticipantName()){
-            this.setTargetProcessingPlantParticipantName(SerializationUtils.clone(ori.getTargetProcessingPlantParticipantName()));
+            this.setTargetProcessingPlantParticipantName(ori.getTargetProcessingPlantParticipantName());
         } else {
             this.setTargetProcessingPlantParticipantName(null);
         }
         if(ori.hasSourceProcessingPlantParticipantName()){
-            this.setSourceProcessingPlantParticipantName(SerializationUtils.clone(ori.getSourceProcessingPlantParticipantName()));
+            this.setSourceProcessingPlantParticipantName(ori.getSourceProcessingPlantParticipantName());
         } else {
             this.setSourceProcessingPlantParticipantName(null);
         }
         if(ori.hasContainerDescriptor()) {
-            this.containerDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(ori.getContainerDescriptor());
+            this.containerDescriptor = DataParcelTypeDescriptor.copyOf(ori.getContainerDescriptor());
         } else {
             this.containerDescriptor = null;
         }
         if(ori.hasContentDescriptor()) {
-            this.contentDescriptor = (DataParcelTypeDescriptor) SerializationUtils.clone(ori.getContentDescriptor());
+            this.contentDescriptor = DataParcelTypeDescriptor.copyOf(ori.getContentDescriptor());
         } else {
             this.contentDescriptor = null;
         }
         if(ori.hasExternalSourceSystem()) {
-            this.setExternalSourceSystem(SerializationUtils.clone(ori.getExternalSourceSystem()));
+            this.setExternalSourceSystem(ori.getExternalSourceSystem());
         } else {
             this.setExternalSourceSystem(null);
         }
         if(ori.hasExternalTargetSystem()) {
-            this.setExternalTargetSystem(SerializationUtils.clone(ori.getExternalTargetSystem()));
+            this.setExternalTargetSystem(ori.getExternalTargetSystem());
         } else {
             this.setExternalTargetSystem(null);
         }
@@ -199,6 +198,11 @@ public class TaskWorkItemSubscriptionType implements Serializable {
         } else {
             this.dataParcelType = DataParcelTypeEnum.GENERAL_DATA_PARCEL_TYPE;
         }
+        if(ori.getPayloadQuality() != null){
+            this.payloadQuality = new DataParcelQualityStatement(ori.getPayloadQuality());
+        } else {
+            this.payloadQuality = null;
+        }
     }
 
     //
@@ -90,9 +90,9 @@ public class UoW implements Serializable {
 
     public UoW(UoWPayload inputPayload) {
         getLogger().debug(".UoW(): Constructor: inputPayload -->{}", inputPayload);
-        getLogger().trace(".UoW(): Clone the ingressContent and assign it");
-        this.ingresContent = SerializationUtils.clone(inputPayload);
-        getLogger().trace(".UoW(): ingressContent cloned and assigned");
+        getLogger().trace(".UoW(): Copy the ingressContent and assign it");
+        this.ingresContent = new UoWPayload(inputPayload);
+        getLogger().trace(".UoW(): ingressContent copied and assigned");
         getLogger().trace(".UoW(): create an empty UoWPayloadSet and assign it to the egressContent");
         this.egressContent = new UoWPayloadSet();
         getLogger().trace(".UoW(): egressContent created and assigned");
@@ -101,8 +101,8 @@ public class UoW implements Serializable {
         FDN contentFDN = inputPayload.getPayloadManifest().getContentDescriptor().toFDN();
         getLogger().trace(".UoW(): Creating the typeID, now convert to an FDNToken");
         FDNToken contentFDNToken = contentFDN.getToken();
-        getLogger().trace(".UoW(): Creating the typeID, now clone it and assign it to the typeID of this UoW");
-        this.typeID = SerializationUtils.clone(contentFDNToken);
+        getLogger().trace(".UoW(): Creating the typeID, now assign it to the typeID of this UoW");
+        this.typeID = contentFDNToken;
         getLogger().trace(".UoW(): typeID --> {}", this.typeID);
         this.failureDescription = null;
         getLogger().trace(".UoW(): Now generating instanceID");
@@ -114,15 +114,29 @@ public class UoW implements Serializable {
     }
 
     public UoW(UoW originalUoW) {
-        this.failureDescription = null;
-        this.instanceID = SerializationUtils.clone(originalUoW.getInstanceID());
-        this.ingresContent = SerializationUtils.clone(originalUoW.getIngresContent());
+        this.failureDescription = originalUoW.getFailureDescription();
+        if(originalUoW.getInstanceID() != null) {
+            this.instanceID = new UoWIdentifier(originalUoW.getInstanceID());
+        } else {
+            this.instanceID = null;
+        }
+        if(originalUoW.getIngresContent() != null) {
+            this.ingresContent = new UoWPayload(originalUoW.getIngresContent());
+        } else {
+            this.ingresContent = null;
+        }
         this.egressContent = new UoWPayloadSet();
         for(UoWPayload currentPayload: originalUoW.egressContent.getPayloadElements()) {
-            this.egressContent.getPayloadElements().add(SerializationUtils.clone(currentPayload));
+            this.egressContent.getPayloadElements().add(new UoWPayload(currentPayload));
         }
         this.processingOutcome = originalUoW.getProcessingOutcome();
-        this.typeID = SerializationUtils.clone(originalUoW.getTypeID());
+        if(originalUoW.getTypeID() == null){
+            this.typeID = null;
+        } else if(originalUoW.getTypeID().getClass() == FDNToken.class){
+            this.typeID = new FDNToken(originalUoW.getTypeID());
+        } else {
+            this.typeID = SerializationUtils.clone(originalUoW.getTypeID());
+        }
     }
 
     private void generateInstanceID() {
@@ -24,10 +24,11 @@ package net.fhirfactory.pegacorn.core.model.petasos.uow;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelQualityStatement;
-import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -40,33 +41,121 @@ public class UoWPayload implements Serializable {
         return(LOG);
     }
 
+    private static volatile UoWPayloadStoreInterface sharedPayloadStore = null;
+
     private DataParcelManifest payloadManifest;
     private String payload;
+    private UoWPayloadHandle payloadHandle;
 
     public UoWPayload() {
         payload = null;
         payloadManifest = null;
+        payloadHandle = null;
     }
 
     public UoWPayload(UoWPayload originalUoWPayload) {
-        this.payload = (String)SerializationUtils.clone(originalUoWPayload.getPayload());
-        this.payloadManifest = (DataParcelManifest) SerializationUtils.clone(originalUoWPayload.getPayloadManifest());
+        this.payload = originalUoWPayload.getPayload();
+        this.payloadHandle = originalUoWPayload.getPayloadHandle();
+        this.payloadManifest = DataParcelManifest.copyOf(originalUoWPayload.getPayloadManifest());
     }
 
     public UoWPayload(DataParcelManifest payloadType, String payloadContent){
-        this.payload = (String)SerializationUtils.clone(payloadContent);
-        this.payloadManifest = (DataParcelManifest) SerializationUtils.clone(payloadType);
+        this.payloadHandle = null;
+        setSharedPayload(payloadContent);
+        this.payloadManifest = DataParcelManifest.copyOf(payloadType);
+    }
+
+    //
+    // Shared Payload Store
+    //
+
+    /**
+     * Registers the (process-wide) store that large payload bodies are shared through. Until one is registered,
+     * each UoWPayload simply holds its own body.
+     */
+    public static void setSharedPayloadStore(UoWPayloadStoreInterface payloadStore){
+        sharedPayloadStore = payloadStore;
+    }
+
+    public static UoWPayloadStoreInterface getSharedPayloadStore(){
+        return(sharedPayloadStore);
+    }
+
+    /**
+     * Shares this payload's body through the shared payload store (if it isn't already), so that copies and clones
+     * of this payload refer to a single instance of the body.
+     *
+     * @return true if the body is now shared
+     */
+    public boolean sharePayload(){
+        if(!hasPayloadHandle()){
+            setSharedPayload(this.payload);
+        }
+        return(hasPayloadHandle());
+    }
+
+    private void setSharedPayload(String content){
+        UoWPayloadStoreInterface payloadStore = sharedPayloadStore;
+        this.payload = content;
+        this.payloadHandle = null;
+        if(payloadStore == null || content == null){
+            return;
+        }
+        UoWPayloadHandle handle = payloadStore.share(content);
+        if(handle != null){
+            String sharedContent = payloadStore.resolve(handle);
+            if(sharedContent != null){
+                this.payload = sharedContent;
+            }
+            this.payloadHandle = handle;
+        }
     }
 
+    // A clone (or a copy received from elsewhere) of a shared payload drops its own copy of the body in favour of
+    // the store's, so only one copy of the body outlives the clone.
+    private void readObject(ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        inputStream.defaultReadObject();
+        UoWPayloadStoreInterface payloadStore = sharedPayloadStore;
+        if(payloadStore == null || payloadHandle == null){
+            return;
+        }
+        String sharedContent = payloadStore.resolve(payloadHandle);
+        if(sharedContent != null){
+            this.payload = sharedContent;
+        } else if(this.payload != null){
+            setSharedPayload(this.payload);
+        }
+    }
+
+    //
+    // Getters and Setters
+    //
+
     public String getPayload() {
         getLogger().debug(".getPayload(): Entry");
+        if(this.payload == null && this.payloadHandle != null && sharedPayloadStore != null){
+            this.payload = sharedPayloadStore.resolve(this.payloadHandle);
+        }
         getLogger().debug(".getPayload(): Exit, returning Payload (String) --> {}", this.payload);
         return payload;
     }
 
     public void setPayload(String payload) {
         getLogger().debug(".setPayload(): Entry, payload (String) --> {}", payload);
-        this.payload = (String) SerializationUtils.clone(payload);
+        setSharedPayload(payload);
+    }
+
+    public boolean hasPayloadHandle(){
+        boolean hasValue = this.payloadHandle != null;
+        return(hasValue);
+    }
+
+    public UoWPayloadHandle getPayloadHandle() {
+        return payloadHandle;
+    }
+
+    public void setPayloadHandle(UoWPayloadHandle payloadHandle) {
+        this.payloadHandle = payloadHandle;
     }
 
     public DataParcelManifest getPayloadManifest() {
@@ -77,7 +166,7 @@ public class UoWPayload implements Serializable {
 
     public void setPayloadManifest(DataParcelManifest payloadManifest) {
         getLogger().debug(".setPayloadTopicID(): Entry, payloadTopicID (TopicToken) --> {}", payloadManifest);
-        this.payloadManifest = (DataParcelManifest) SerializationUtils.clone(payloadManifest);
+        this.payloadManifest = DataParcelManifest.copyOf(payloadManifest);
     }
 
     public boolean hasDataParcelQualityStatement(){
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.core.model.petasos.uow;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A small, content-addressed reference to a UoWPayload body held in the shared payload store (see
+ * UoWPayloadStoreInterface): the SHA-256 digest of the body plus its length.
+ */
+public class UoWPayloadHandle implements Serializable {
+    private String contentDigest;
+    private int contentLength;
+
+    //
+    // Constructor(s)
+    //
+
+    public UoWPayloadHandle(){
+        this.contentDigest = null;
+        this.contentLength = 0;
+    }
+
+    public UoWPayloadHandle(String contentDigest, int contentLength){
+        this.contentDigest = contentDigest;
+        this.contentLength = contentLength;
+    }
+
+    //
+    // Getters and Setters
+    //
+
+    public String getContentDigest() {
+        return contentDigest;
+    }
+
+    public void setContentDigest(String contentDigest) {
+        this.contentDigest = contentDigest;
+    }
+
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(int contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    //
+    // To String, Equals and Hash Code
+    //
+
+    @Override
+    public String toString() {
+        return "UoWPayloadHandle{" +
+                "contentDigest=" + contentDigest +
+                ", contentLength=" + contentLength +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UoWPayloadHandle)) return false;
+        UoWPayloadHandle that = (UoWPayloadHandle) o;
+        return getContentLength() == that.getContentLength() && Objects.equals(getContentDigest(), that.getContentDigest());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getContentDigest(), getContentLength());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.core.model.petasos.uow;
+
+/**
+ * A process-wide, content-addressed store of UoWPayload bodies, so that the tasks created when a payload is fanned
+ * out to many subscribers (and every clone of those tasks) share a single copy of the body.
+ *
+ * A body is held for as long as a task has retained it (or a UoWPayload still refers to it), and is freed once the
+ * last task referencing it has released it.
+ */
+public interface UoWPayloadStoreInterface {
+
+    /**
+     * Adds the content to the store (if it isn't already there).
+     *
+     * @param content the payload body
+     * @return the handle for the content, or null if the content isn't worth sharing (e.g. it is small)
+     */
+    public UoWPayloadHandle share(String content);
+
+    /**
+     * @param handle
+     * @return the (single, shared) body for the handle, or null if the store doesn't hold it
+     */
+    public String resolve(UoWPayloadHandle handle);
+
+    public void retain(UoWPayloadHandle handle);
+
+    public void release(UoWPayloadHandle handle);
+}
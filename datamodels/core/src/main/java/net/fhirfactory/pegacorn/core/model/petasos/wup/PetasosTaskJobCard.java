@@ -171,17 +171,26 @@ public class PetasosTaskJobCard implements Serializable {
             setSystemMode(ori.getSystemMode());
         }
         if(ori.hasExecutingWorkUnitProcessor()){
-            setExecutingWorkUnitProcessor(SerializationUtils.clone(ori.getExecutingWorkUnitProcessor()));
+            setExecutingWorkUnitProcessor(ComponentIdType.copyOf(ori.getExecutingWorkUnitProcessor()));
         }
         if(ori.hasExecutingProcessingPlant()){
-            setExecutingProcessingPlant(SerializationUtils.clone(ori.getExecutingProcessingPlant()));
+            setExecutingProcessingPlant(ComponentIdType.copyOf(ori.getExecutingProcessingPlant()));
         }
         if(ori.hasLastActivityCheckInstant()){
-            setLastActivityCheckInstant(SerializationUtils.clone(ori.getLastActivityCheckInstant()));
+            setLastActivityCheckInstant(ori.getLastActivityCheckInstant());
         }
         if(ori.hasWorkUnitProcessorParticipantName()){
             setWorkUnitProcessorParticipantName(ori.getWorkUnitProcessorParticipantName());
         }
+        if(ori.hasProcessingPlantParticipantName()){
+            setProcessingPlantParticipantName(ori.getProcessingPlantParticipantName());
+        }
+        if(ori.hasActionableTaskAffinityNode()){
+            setActionableTaskAffinityNode(ComponentIdType.copyOf(ori.getActionableTaskAffinityNode()));
+        }
+        if(ori.hasExecutingFulfillmentTaskIdAssignmentInstant()){
+            setExecutingFulfillmentTaskIdAssignmentInstant(ori.getExecutingFulfillmentTaskIdAssignmentInstant());
+        }
         setCreationInstant(ori.getCreationInstant());
     }
 
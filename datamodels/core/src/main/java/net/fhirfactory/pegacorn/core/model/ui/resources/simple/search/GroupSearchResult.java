@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.Comparator;
 
 public class GroupSearchResult extends ESRSearchResult {
     private static final Logger LOG = LoggerFactory.getLogger(GroupSearchResult.class);
@@ -71,36 +72,33 @@ public class GroupSearchResult extends ESRSearchResult {
         }
         GroupSearchResult result = (GroupSearchResult)instatiateNewESRSearchResult();
         result.getSearchResultList().addAll(getSearchResultList());
+        Collections.sort(result.getSearchResultList(), getSortComparator(attributeName, ascendingOrder));
+        return(result);
+    }
+
+    @Override
+    protected Comparator<ExtremelySimplifiedResource> specifySortComparator(String attributeName) {
         String sortByLowerCase = attributeName.toLowerCase();
         switch(sortByLowerCase){
             case "simplifiedid": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.simplifiedIDComparator);
-                break;
+                return(ExtremelySimplifiedResource.simplifiedIDComparator);
             }
             case "shortname": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.identifierShortNameBasedComparator);
-                break;
+                return(ExtremelySimplifiedResource.identifierShortNameBasedComparator);
             }
             case "longname": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.identifierLongNameTypeComparator);
-                break;
+                return(ExtremelySimplifiedResource.identifierLongNameTypeComparator);
             }
             case "grouptype": {
-                Collections.sort(result.getSearchResultList(), GroupESR.groupTypeComparator);
-                break;
+                return(GroupESR.groupTypeComparator);
             }
             case "groupmanager": {
-                Collections.sort(result.getSearchResultList(), GroupESR.groupManagerComparator);
-                break;
+                return(GroupESR.groupManagerComparator);
             }
             default:{
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.simplifiedIDComparator);
+                return(ExtremelySimplifiedResource.simplifiedIDComparator);
             }
         }
-        if(!ascendingOrder){
-            reverseSortOrder(result.getSearchResultList());
-        }
-        return(result);
     }
 
     @Override
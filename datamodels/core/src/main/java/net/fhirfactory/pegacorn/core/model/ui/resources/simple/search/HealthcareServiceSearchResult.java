@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.Comparator;
 
 public class HealthcareServiceSearchResult extends ESRSearchResult {
     private static final Logger LOG = LoggerFactory.getLogger(HealthcareServiceSearchResult.class);
@@ -70,27 +71,27 @@ public class HealthcareServiceSearchResult extends ESRSearchResult {
         }
         HealthcareServiceSearchResult result = (HealthcareServiceSearchResult)instatiateNewESRSearchResult();
         result.getSearchResultList().addAll(getSearchResultList());
+        Collections.sort(result.getSearchResultList(), getSortComparator(attributeName, ascendingOrder));
+        return(result);
+    }
+
+    @Override
+    protected Comparator<ExtremelySimplifiedResource> specifySortComparator(String attributeName) {
         String sortByLowerCase = attributeName.toLowerCase();
         switch(sortByLowerCase){
             case "simplifiedid": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.simplifiedIDComparator);
-                break;
+                return(ExtremelySimplifiedResource.simplifiedIDComparator);
             }
             case "shortname": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.identifierShortNameBasedComparator);
-                break;
+                return(ExtremelySimplifiedResource.identifierShortNameBasedComparator);
             }
             case "longname": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.identifierLongNameTypeComparator);
+                return(ExtremelySimplifiedResource.identifierLongNameTypeComparator);
             }
             default:{
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.simplifiedIDComparator);
+                return(ExtremelySimplifiedResource.simplifiedIDComparator);
             }
         }
-        if(!ascendingOrder){
-            reverseSortOrder(getSearchResultList());
-        }
-        return(result);
     }
 
     @Override
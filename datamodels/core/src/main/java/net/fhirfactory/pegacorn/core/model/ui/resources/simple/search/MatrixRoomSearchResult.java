@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.Comparator;
 
 public class MatrixRoomSearchResult extends ESRSearchResult {
     private static final Logger LOG = LoggerFactory.getLogger(MatrixRoomSearchResult.class);
@@ -70,20 +71,21 @@ public class MatrixRoomSearchResult extends ESRSearchResult {
         }
         MatrixRoomSearchResult result = (MatrixRoomSearchResult)instatiateNewESRSearchResult();
         result.getSearchResultList().addAll(getSearchResultList());
+        Collections.sort(result.getSearchResultList(), getSortComparator(attributeName, ascendingOrder));
+        return(result);
+    }
+
+    @Override
+    protected Comparator<ExtremelySimplifiedResource> specifySortComparator(String attributeName) {
         String sortByLowerCase = attributeName.toLowerCase();
         switch(sortByLowerCase){
             case "simplifiedid": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.simplifiedIDComparator);
-                break;
+                return(ExtremelySimplifiedResource.simplifiedIDComparator);
             }
             default:{
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.simplifiedIDComparator);
+                return(ExtremelySimplifiedResource.simplifiedIDComparator);
             }
         }
-        if(!ascendingOrder){
-            reverseSortOrder(getSearchResultList());
-        }
-        return(result);
     }
 
     @Override
@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.Comparator;
 
 public class PractitionerRoleSearchResult extends ESRSearchResult {
     private static final Logger LOG = LoggerFactory.getLogger(PractitionerRoleSearchResult.class);
@@ -72,54 +73,45 @@ public class PractitionerRoleSearchResult extends ESRSearchResult {
         PractitionerRoleSearchResult result = (PractitionerRoleSearchResult)instatiateNewESRSearchResult();
         getLogger().debug(".sortBy(): Populate new PractitionerRoleSearchResult with the search results");
         result.getSearchResultList().addAll(getSearchResultList());
-        getLogger().debug(".sortBy(): Convert sortBy attribute name to lower case");
+        getLogger().debug(".sortBy(): Sort using the selected comparator");
+        Collections.sort(result.getSearchResultList(), getSortComparator(attributeName, ascendingOrder));
+        getLogger().debug(".sortBy(): Exit");
+        return(result);
+    }
+
+    @Override
+    protected Comparator<ExtremelySimplifiedResource> specifySortComparator(String attributeName) {
         String sortByLowerCase = attributeName.toLowerCase();
-        getLogger().debug(".sortBy(): execute (via Switch() statement) the selected sort");
         switch(sortByLowerCase){
             case "simplifiedid": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.simplifiedIDComparator);
-                break;
+                return(ExtremelySimplifiedResource.simplifiedIDComparator);
             }
             case "displayname": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.displayNameComparator);
-                break;
+                return(ExtremelySimplifiedResource.displayNameComparator);
             }
             case "shortname": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.identifierShortNameBasedComparator);
-                break;
+                return(ExtremelySimplifiedResource.identifierShortNameBasedComparator);
             }
             case "longname": {
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.identifierLongNameTypeComparator);
+                return(ExtremelySimplifiedResource.identifierLongNameTypeComparator);
             }
             case "primarylocationid": {
-                Collections.sort(result.getSearchResultList(), PractitionerRoleESR.primaryLocationIDComparator);
-                break;
+                return(PractitionerRoleESR.primaryLocationIDComparator);
             }
             case "primaryorganizatonid":
             case "primaryorganisationid":{
-                getLogger().debug(".sortBy(): primaryOrganisationID sort requested...");
-                Collections.sort(result.getSearchResultList(), PractitionerRoleESR.primaryOrganizationIDComparator);
-                getLogger().debug(".sortBy(): primaryOrganisationID sort done...");
-                break;
+                return(PractitionerRoleESR.primaryOrganizationIDComparator);
             }
             case "primaryrolecategoryid": {
-                Collections.sort(result.getSearchResultList(), PractitionerRoleESR.primaryRoleCategoryIDComparator);
-                break;
+                return(PractitionerRoleESR.primaryRoleCategoryIDComparator);
             }
             case "primaryroleid": {
-                Collections.sort(result.getSearchResultList(), PractitionerRoleESR.primaryRoleIDComparator);
+                return(PractitionerRoleESR.primaryRoleIDComparator);
             }
             default:{
-                Collections.sort(result.getSearchResultList(), ExtremelySimplifiedResource.simplifiedIDComparator);
+                return(ExtremelySimplifiedResource.simplifiedIDComparator);
             }
         }
-        if(!ascendingOrder){
-            getLogger().debug(".sortBy(): reverse sorting order requested");
-            reverseSortOrder(getSearchResultList());
-            getLogger().debug(".sortBy(): reverse sorting order done...");
-        }
-        getLogger().debug(".sortBy(): Exit");
-        return(result);
     }
 
     @Override
@@ -30,7 +30,10 @@ import net.fhirfactory.pegacorn.core.model.ui.resources.simple.common.ExtremelyS
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 public abstract class ESRSearchResult {
     private static Integer DEFAULT_PAGE_SIZE = 25;
@@ -44,6 +47,7 @@ public abstract class ESRSearchResult {
     public abstract ESRSearchResult sortBy(String attributeName) throws ESRSortingException;
     public abstract ESRSearchResult sortBy(String attributeName, boolean ascendingOrder) throws ESRSortingException;
     protected abstract ESRSearchResult instatiateNewESRSearchResult();
+    protected abstract Comparator<ExtremelySimplifiedResource> specifySortComparator(String attributeName);
 
     public ESRSearchResult(){
         this.searchResultList = new ArrayList<>();
@@ -81,6 +85,27 @@ public abstract class ESRSearchResult {
     // Sorting Services
     //
 
+    /**
+     * Resolves the comparator for the (search result type specific) sort attribute, defaulting to the simplifiedID.
+     *
+     * @param attributeName the sort attribute name (case insensitive)
+     * @param ascendingOrder the sort order
+     * @return the comparator
+     */
+    public Comparator<ExtremelySimplifiedResource> getSortComparator(String attributeName, boolean ascendingOrder){
+        if(attributeName == null){
+            attributeName = "simplifiedID";
+        }
+        Comparator<ExtremelySimplifiedResource> comparator = specifySortComparator(attributeName);
+        if(comparator == null){
+            comparator = ExtremelySimplifiedResource.simplifiedIDComparator;
+        }
+        if(!ascendingOrder){
+            comparator = comparator.reversed();
+        }
+        return(comparator);
+    }
+
     /**
      * This function reverses the order of elements within a List.
      *
@@ -99,8 +124,8 @@ public abstract class ESRSearchResult {
         for(int counter = 0; counter < esrList.size(); counter += 1){
             originalList.add(counter, esrList.get(counter));
         }
+        Integer size = originalList.size();
         esrList.clear();
-        Integer size = esrList.size();
         for(Integer counter = 0; counter < size; counter += 1){
             Integer reverseLocation = (size - 1) - counter;
             esrList.add(counter, originalList.get(reverseLocation));
@@ -153,6 +178,66 @@ public abstract class ESRSearchResult {
         return (result);
     }
 
+    /**
+     * Equivalent to sortBy(sortAttributeName, ascendingOrder).paginate(pageSize, page), but only the entries up to
+     * the end of the requested page are ordered (using a bounded heap), so the cost of fetching one of the first
+     * pages of a large result set is O(n log k) rather than a full O(n log n) sort. Ties are broken on the
+     * simplifiedID so that consecutive pages are consistent with each other.
+     *
+     * @param sortAttributeName the sort attribute name (case insensitive)
+     * @param ascendingOrder the sort order (null means ascending)
+     * @param pageSize the page size (null means the default, zero means all the entries)
+     * @param page the (zero-based) page number
+     * @return the requested page of the sorted result
+     */
+    public ESRSearchResult sortAndPaginate(String sortAttributeName, Boolean ascendingOrder, Integer pageSize, Integer page)
+            throws ESRSortingException, ESRPaginationException {
+        getLogger().debug(".sortAndPaginate(): Entry, sortAttributeName->{}, ascendingOrder->{}, pageSize->{}, page->{}", sortAttributeName, ascendingOrder, pageSize, page);
+        boolean ascending = (ascendingOrder == null) || ascendingOrder;
+        if(pageSize == null){
+            pageSize = DEFAULT_PAGE_SIZE;
+        }
+        if(page == null){
+            page = 0;
+        }
+        if(pageSize <= 0 || page < 0){
+            ESRSearchResult result = sortBy(sortAttributeName, ascending).paginate(pageSize, page);
+            getLogger().debug(".sortAndPaginate(): Exit, pageSize is not positive, delegated to sortBy()/paginate()");
+            return(result);
+        }
+        ESRSearchResult result = instatiateNewESRSearchResult();
+        int numberOfEntries = getSearchResultList().size();
+        long locationOffsetStart = (long)pageSize * (long)page;
+        if(locationOffsetStart >= numberOfEntries){
+            getLogger().debug(".sortAndPaginate(): Exit, page is beyond the end of the result set");
+            return(result);
+        }
+        int topK = (int)Math.min((long)numberOfEntries, locationOffsetStart + pageSize);
+        Comparator<ExtremelySimplifiedResource> comparator = getSortComparator(sortAttributeName, ascending).thenComparing(ExtremelySimplifiedResource.simplifiedIDComparator);
+        List<ExtremelySimplifiedResource> orderedEntries;
+        if(topK * 2 >= numberOfEntries){
+            orderedEntries = new ArrayList<>(getSearchResultList());
+            Collections.sort(orderedEntries, comparator);
+        } else {
+            PriorityQueue<ExtremelySimplifiedResource> topKHeap = new PriorityQueue<>(topK, comparator.reversed());
+            for(ExtremelySimplifiedResource currentEntry: getSearchResultList()){
+                if(topKHeap.size() < topK){
+                    topKHeap.add(currentEntry);
+                } else if(comparator.compare(currentEntry, topKHeap.peek()) < 0){
+                    topKHeap.poll();
+                    topKHeap.add(currentEntry);
+                }
+            }
+            orderedEntries = new ArrayList<>(topKHeap);
+            Collections.sort(orderedEntries, comparator);
+        }
+        for(int counter = (int)locationOffsetStart; counter < topK; counter += 1){
+            result.getSearchResultList().add(orderedEntries.get(counter));
+        }
+        getLogger().debug(".sortAndPaginate(): Exit, result.size->{}", result.getSearchResultList().size());
+        return(result);
+    }
+
     public ESRMethodOutcome toESRMethodOutcome(){
         ESRMethodOutcome outcome = new ESRMethodOutcome();
         outcome.setSearch(true);
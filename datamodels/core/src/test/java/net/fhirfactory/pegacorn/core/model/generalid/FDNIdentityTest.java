@@ -0,0 +1,104 @@
+package net.fhirfactory.pegacorn.core.model.generalid;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FDNIdentityTest {
+
+    private static FDN buildFDN(){
+        FDN fdn = new FDN();
+        fdn.appendRDN(new RDN("Site", "site-a"));
+        fdn.appendRDN(new RDN("Node", "node.1"));
+        return(fdn);
+    }
+
+    @Test
+    @DisplayName("An FDN rebuilt from its token is equal, with the same hash code and token content")
+    void tokenRoundTrip() {
+        FDN original = buildFDN();
+        FDN rebuilt = new FDN(original.getToken());
+
+        assertEquals(original, rebuilt);
+        assertEquals(original.hashCode(), rebuilt.hashCode());
+        assertEquals(original.getToken().getContent(), rebuilt.getToken().getContent());
+        assertEquals("site-a.node_1", rebuilt.getUnqualifiedToken());
+
+        Set<FDN> fdnSet = new HashSet<>();
+        fdnSet.add(original);
+        assertTrue(fdnSet.contains(rebuilt));
+    }
+
+    @Test
+    @DisplayName("Appending to a copy refreshes its token and leaves the original unchanged")
+    void appendInvalidatesCachedValues() {
+        FDN original = buildFDN();
+        String originalToken = original.getToken().getContent();
+        FDN copy = new FDN(original);
+        assertEquals(original.hashCode(), copy.hashCode());
+
+        copy.appendRDN(new RDN("Port", "port-1"));
+
+        assertNotEquals(original, copy);
+        assertEquals(originalToken, original.getToken().getContent());
+        assertEquals(originalToken + "<2:Port>port-1</2:Port>", copy.getToken().getContent());
+        assertEquals(3, new FDN(copy.getToken()).getRDNCount());
+    }
+
+    @Test
+    @DisplayName("A serialised FDN keeps its token, and equal tokens intern to the same instance")
+    void serialisationAndInterning() {
+        FDN original = buildFDN();
+        FDN deserialised = SerializationUtils.clone(original);
+
+        assertEquals(original, deserialised);
+        assertEquals(original.getToken().getContent(), deserialised.getToken().getContent());
+
+        FDNToken firstToken = new FDNToken(original.getToken()).intern();
+        FDNToken secondToken = new FDNToken(deserialised.getToken()).intern();
+        assertSame(firstToken, secondToken);
+    }
+
+    @Test
+    @DisplayName("Interned tokens can't be modified, but copies of them can")
+    void internedTokensAreImmutable() {
+        FDNToken internedToken = new FDNToken(buildFDN().getToken()).intern();
+        String internedContent = internedToken.getContent();
+
+        assertThrows(IllegalStateException.class, () -> internedToken.setContent("<0:Site>site-b</0:Site>"));
+        assertEquals(internedContent, internedToken.getContent());
+        assertSame(internedToken, new FDNToken(internedContent).intern());
+
+        FDNToken copiedToken = new FDNToken(internedToken);
+        copiedToken.setContent("<0:Site>site-b</0:Site>");
+        assertEquals("<0:Site>site-b</0:Site>", copiedToken.getContent());
+        assertNotEquals(internedToken, copiedToken);
+    }
+
+    @Test
+    @DisplayName("Changing the returned RDN set doesn't change the FDN")
+    void rdnSetIsACopy() {
+        FDN fdn = buildFDN();
+        FDNToken originalToken = fdn.getToken();
+        ArrayList<RDN> rdnSet = fdn.getRDNSet();
+
+        rdnSet.add(new RDN("Port", "port-1"));
+        rdnSet.remove(0);
+        assertEquals(2, fdn.getRDNCount());
+        assertEquals(originalToken, fdn.getToken());
+
+        fdn.appendRDN(new RDN("Port", "port-1"));
+        assertEquals(3, fdn.getRDNSet().size());
+        assertEquals(2, rdnSet.size());
+    }
+}
@@ -0,0 +1,53 @@
+package net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentLatencyHistogramTest {
+
+    @Test
+    @DisplayName("Bucket bounds contain their values and percentiles are within the bucket precision")
+    void percentilesAreWithinBucketPrecision() {
+        for(long value = 0; value < 5000000L; value = value * 3 + 1){
+            int index = ComponentLatencyHistogram.bucketIndex(value);
+            assertTrue(ComponentLatencyHistogram.bucketLowerBound(index) <= value);
+            assertTrue(ComponentLatencyHistogram.bucketUpperBound(index) >= value);
+        }
+
+        ComponentLatencyHistogram histogram = new ComponentLatencyHistogram();
+        for(long value = 1; value <= 1000; value++){
+            histogram.recordMicroseconds(value * 1000L);
+        }
+
+        assertEquals(1000, histogram.getTotalCount());
+        assertEquals(1000000L, histogram.getMaxMicroseconds());
+        assertEquals(500500.0, histogram.getMeanMicroseconds(), 0.001);
+        long p50 = histogram.getValueAtPercentile(50.0);
+        long p99 = histogram.getValueAtPercentile(99.0);
+        assertTrue(p50 >= 500000L && p50 <= 500000L * 17 / 16, "p50->" + p50);
+        assertTrue(p99 >= 990000L && p99 <= 1000000L, "p99->" + p99);
+        assertEquals(1000000L, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    @DisplayName("Interval snapshots only contain values recorded since the previous snapshot")
+    void intervalSnapshotsAreIncremental() {
+        ComponentLatencyHistogram histogram = new ComponentLatencyHistogram();
+        histogram.recordMicroseconds(100);
+        histogram.recordMicroseconds(200);
+
+        assertEquals(2, histogram.getIntervalSnapshot().getTotalCount());
+        assertEquals(0, histogram.getIntervalSnapshot().getTotalCount());
+
+        histogram.recordMicroseconds(5000);
+        ComponentLatencyHistogram interval = histogram.getIntervalSnapshot();
+        assertEquals(1, interval.getTotalCount());
+        assertTrue(interval.getValueAtPercentile(50.0) >= 5000L);
+        assertEquals(3, histogram.getTotalCount());
+        assertEquals(3, SerializationUtils.clone(histogram).getTotalCount());
+    }
+}
@@ -0,0 +1,120 @@
+package net.fhirfactory.pegacorn.core.model.petasos.uow;
+
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelFragmentQualityStatement;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelQualityStatement;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.DataParcelDirectionEnum;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.DataParcelFragmentQualityEnum;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UoWCopyIsolationTest {
+
+    private DataParcelTypeDescriptor newDescriptor(String resource){
+        DataParcelTypeDescriptor descriptor = new DataParcelTypeDescriptor();
+        descriptor.setDataParcelDefiner("HL7");
+        descriptor.setDataParcelCategory("v2.x");
+        descriptor.setDataParcelSubCategory("ADT");
+        descriptor.setDataParcelResource(resource);
+        descriptor.setVersion("2.4");
+        return(descriptor);
+    }
+
+    private DataParcelManifest newManifest(){
+        DataParcelManifest manifest = new DataParcelManifest();
+        manifest.setContentDescriptor(newDescriptor("A01"));
+        manifest.setContainerDescriptor(newDescriptor("Message"));
+        manifest.setSourceSystem("SourceSystem");
+        manifest.setDataParcelFlowDirection(DataParcelDirectionEnum.INFORMATION_FLOW_INBOUND_DATA_PARCEL);
+        manifest.setInterSubsystemDistributable(true);
+        return(manifest);
+    }
+
+    private DataParcelManifest newManifestWithQuality(){
+        DataParcelManifest manifest = newManifest();
+        DataParcelQualityStatement quality = new DataParcelQualityStatement();
+        DataParcelFragmentQualityStatement fragmentQuality = new DataParcelFragmentQualityStatement();
+        fragmentQuality.setDataParcelResource("PID");
+        fragmentQuality.setFragmentQuality(DataParcelFragmentQualityEnum.AUTHORITATIVE_QUALITY_DATA_PARCEL_FRAGMENT);
+        quality.getFragmentQualityStatementList().add(fragmentQuality);
+        manifest.setPayloadQuality(quality);
+        return(manifest);
+    }
+
+    @Test
+    @DisplayName("Manifest copies match a serialisation clone and share no mutable state")
+    void manifestCopyIsIsolated() {
+        DataParcelManifest original = newManifestWithQuality();
+        DataParcelManifest copy = DataParcelManifest.copyOf(original);
+        DataParcelManifest clone = SerializationUtils.clone(original);
+
+        // DataParcelQualityStatement has no equals(), so compare the quality statements separately
+        assertEquals(clone.getPayloadQuality().getFragmentQualityStatementList(), copy.getPayloadQuality().getFragmentQualityStatementList());
+        clone.setPayloadQuality(null);
+        DataParcelManifest copyWithoutQuality = DataParcelManifest.copyOf(copy);
+        copyWithoutQuality.setPayloadQuality(null);
+        assertEquals(clone, copyWithoutQuality);
+        assertNotSame(original.getContentDescriptor(), copy.getContentDescriptor());
+        assertNotSame(original.getContainerDescriptor(), copy.getContainerDescriptor());
+        assertNotSame(original.getPayloadQuality(), copy.getPayloadQuality());
+
+        original.getContentDescriptor().setDataParcelResource("A08");
+        original.getPayloadQuality().getFragmentQualityStatementList().get(0).setDataParcelResource("PV1");
+
+        assertEquals("A01", copy.getContentDescriptor().getDataParcelResource());
+        assertEquals("PID", copy.getPayloadQuality().getFragmentQualityStatementList().get(0).getDataParcelResource());
+    }
+
+    @Test
+    @DisplayName("Setters keep their own copy of the descriptor")
+    void settersCopyDescriptors() {
+        DataParcelTypeDescriptor descriptor = newDescriptor("A01");
+        DataParcelManifest manifest = new DataParcelManifest();
+        manifest.setContentDescriptor(descriptor);
+
+        descriptor.setDataParcelResource("A08");
+
+        assertEquals("A01", manifest.getContentDescriptor().getDataParcelResource());
+        assertNull(DataParcelTypeDescriptor.copyOf(null));
+        assertNull(DataParcelManifest.copyOf(null));
+    }
+
+    @Test
+    @DisplayName("UoW copies match a serialisation clone and share no mutable state")
+    void uowCopyIsIsolated() {
+        UoW original = new UoW(new UoWPayload(newManifest(), "MSH|^~\\&|Ingres"));
+        original.getEgressContent().addPayloadElement(new UoWPayload(newManifest(), "MSH|^~\\&|Egress"));
+        original.setProcessingOutcome(UoWProcessingOutcomeEnum.UOW_OUTCOME_SUCCESS);
+        original.setFailureDescription("none");
+
+        UoW copy = new UoW(original);
+
+        UoW clone = SerializationUtils.clone(original);
+
+        // UoWPayloadSet has no equals(), so compare the UoW content field by field
+        assertEquals(clone.getTypeID(), copy.getTypeID());
+        assertEquals(clone.getInstanceID(), copy.getInstanceID());
+        assertEquals(clone.getIngresContent(), copy.getIngresContent());
+        assertEquals(clone.getEgressContent().getPayloadElements(), copy.getEgressContent().getPayloadElements());
+        assertEquals(clone.getProcessingOutcome(), copy.getProcessingOutcome());
+        assertEquals(clone.getFailureDescription(), copy.getFailureDescription());
+        assertNotSame(original.getInstanceID(), copy.getInstanceID());
+        assertNotSame(original.getTypeID(), copy.getTypeID());
+        assertNotSame(original.getIngresContent(), copy.getIngresContent());
+        assertNotSame(original.getEgressContent(), copy.getEgressContent());
+
+        original.getIngresContent().getPayloadManifest().getContentDescriptor().setDataParcelResource("A08");
+        original.getIngresContent().setPayload("changed");
+        original.getEgressContent().getPayloadElements().clear();
+
+        assertEquals("A01", copy.getIngresContent().getPayloadManifest().getContentDescriptor().getDataParcelResource());
+        assertEquals("MSH|^~\\&|Ingres", copy.getIngresContent().getPayload());
+        assertEquals(1, copy.getEgressContent().getPayloadElements().size());
+    }
+}
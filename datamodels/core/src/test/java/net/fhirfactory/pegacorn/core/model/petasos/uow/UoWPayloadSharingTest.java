@@ -0,0 +1,103 @@
+package net.fhirfactory.pegacorn.core.model.petasos.uow;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UoWPayloadSharingTest {
+
+    private static class MapPayloadStore implements UoWPayloadStoreInterface {
+        private final Map<String, String> contentMap = new HashMap<>();
+
+        @Override
+        public UoWPayloadHandle share(String content) {
+            if(content.length() < 16){
+                return(null);
+            }
+            String digest = Integer.toHexString(content.hashCode()) + "-" + content.length();
+            contentMap.putIfAbsent(digest, content);
+            return(new UoWPayloadHandle(digest, content.length()));
+        }
+
+        @Override
+        public String resolve(UoWPayloadHandle handle) {
+            return(contentMap.get(handle.getContentDigest()));
+        }
+
+        @Override
+        public void retain(UoWPayloadHandle handle) {
+        }
+
+        @Override
+        public void release(UoWPayloadHandle handle) {
+        }
+    }
+
+    private static final String LARGE_PAYLOAD = "MSH|^~\\&|SendingApp|SendingFacility|ReceivingApp|ReceivingFacility";
+
+    @BeforeEach
+    void registerStore() {
+        UoWPayload.setSharedPayloadStore(new MapPayloadStore());
+    }
+
+    @AfterEach
+    void unregisterStore() {
+        UoWPayload.setSharedPayloadStore(null);
+    }
+
+    @Test
+    @DisplayName("Copies and clones of a shared payload refer to a single body")
+    void clonesShareTheBody() {
+        UoWPayload original = new UoWPayload(null, new String(LARGE_PAYLOAD));
+        UoWPayload copy = new UoWPayload(original);
+        UoWPayload clone = SerializationUtils.clone(original);
+        UoW uowClone = SerializationUtils.clone(new UoW(original));
+
+        assertTrue(original.hasPayloadHandle());
+        assertEquals(original.getPayloadHandle(), clone.getPayloadHandle());
+        assertSame(original.getPayload(), copy.getPayload());
+        assertSame(original.getPayload(), clone.getPayload());
+        assertSame(original.getPayload(), uowClone.getIngresContent().getPayload());
+        assertEquals(original, clone);
+    }
+
+    @Test
+    @DisplayName("Small payloads, and payloads created before a store is registered, hold their own body")
+    void unsharedPayloads() {
+        UoWPayload small = new UoWPayload(null, "MSH|");
+        assertFalse(small.hasPayloadHandle());
+        assertEquals("MSH|", SerializationUtils.clone(small).getPayload());
+
+        UoWPayload.setSharedPayloadStore(null);
+        UoWPayload unshared = new UoWPayload(null, LARGE_PAYLOAD);
+        assertNull(unshared.getPayloadHandle());
+        UoWPayload.setSharedPayloadStore(new MapPayloadStore());
+        assertTrue(unshared.sharePayload());
+        assertNotNull(unshared.getPayloadHandle());
+    }
+
+    @Test
+    @DisplayName("Setting a new body replaces the handle")
+    void setPayloadReplacesHandle() {
+        UoWPayload payload = new UoWPayload(null, LARGE_PAYLOAD);
+        UoWPayloadHandle firstHandle = payload.getPayloadHandle();
+        payload.setPayload(LARGE_PAYLOAD + "|Changed");
+        assertNotNull(payload.getPayloadHandle());
+        assertFalse(firstHandle.equals(payload.getPayloadHandle()));
+        payload.setPayload("small");
+        assertNull(payload.getPayloadHandle());
+        assertEquals("small", payload.getPayload());
+    }
+}
@@ -4,11 +4,13 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.opencsv.CSVParser;
 import com.opencsv.CSVParserBuilder;
@@ -35,6 +37,7 @@ import net.fhirfactory.pegacorn.csv.core.validator.FileValidator;
  */
 public abstract class CSV extends PegacornFile {
     private static final char DEFAULT_DELIMITER = ',';
+    private static final int DEFAULT_VALIDATION_CHUNK_SIZE = 1000;
     
     protected List<CSVRowBean> rows = new ArrayList<>();
     private List<String> validationErrors = new ArrayList<>();
@@ -129,22 +132,7 @@ public abstract class CSV extends PegacornFile {
         
         while ((nextLine = reader.readNext()) != null) {     
             if (firstRow && this instanceof HasHeaderRow) {
-                headings = nextLine;
-                
-                if (this instanceof HasHeaderRow) {
-                    String[] expectedHeadings = ((HasHeaderRow)this).getRequiredHeadings();
-                    
-                    if (expectedHeadings.length != nextLine.length) {
-                        throw new CSVParsingException("The number of header values read from the file (" + nextLine.length + ") does not match the expected number (" + expectedHeadings.length + ")"); 
-                    }
-                    
-                    // Now we know the number of columns matches it is now time to compare the values.
-                    for (int i = 0; i < nextLine.length; i++) {
-                        if (!nextLine[i].equalsIgnoreCase(expectedHeadings[i])) {
-                            throw new CSVParsingException("The header value read from the file (" + nextLine[i] + ") does not match the expected value (" + expectedHeadings[i] + ") at position (" + i + ")");
-                        }
-                    }
-                }
+                processHeaderRow(nextLine);
             } else {
                 this.rows.add(convertToRowBean(nextLine));
             }
@@ -154,6 +142,24 @@ public abstract class CSV extends PegacornFile {
     }
     
     
+    private void processHeaderRow(String[] nextLine) throws CSVParsingException {
+        headings = nextLine;
+        
+        String[] expectedHeadings = ((HasHeaderRow)this).getRequiredHeadings();
+        
+        if (expectedHeadings.length != nextLine.length) {
+            throw new CSVParsingException("The number of header values read from the file (" + nextLine.length + ") does not match the expected number (" + expectedHeadings.length + ")"); 
+        }
+        
+        // Now we know the number of columns matches it is now time to compare the values.
+        for (int i = 0; i < nextLine.length; i++) {
+            if (!nextLine[i].equalsIgnoreCase(expectedHeadings[i])) {
+                throw new CSVParsingException("The header value read from the file (" + nextLine[i] + ") does not match the expected value (" + expectedHeadings[i] + ") at position (" + i + ")");
+            }
+        }
+    }
+    
+    
     public CSV(String csvString, String filename) throws CSVParsingException, IOException {
         this(csvString);
         
@@ -173,13 +179,19 @@ public abstract class CSV extends PegacornFile {
         }
         
         
-        for (int i = 0; i < rows.size(); i++) {
-            CSVRowBean row = rows.get(i);
+        // The rows are validated a chunk at a time (in parallel if enabled), but the errors are still reported in row order.
+        for (int chunkStart = 0; chunkStart < rows.size(); chunkStart += DEFAULT_VALIDATION_CHUNK_SIZE) {
+            List<CSVRowBean> chunkRows = rows.subList(chunkStart, Math.min(rows.size(), chunkStart + DEFAULT_VALIDATION_CHUNK_SIZE));
+            List<Boolean> rowValidity = processChunk(chunkRows, CSVRowBean::validate);
             
-            if (!row.validate()) {
-
-                for (String error : row.getValidationErrors()) {
-                    validationErrors.add("Row:" + (i + 1) + " - " + error);
+            for (int i = 0; i < chunkRows.size(); i++) {
+                CSVRowBean row = chunkRows.get(i);
+                
+                if (!rowValidity.get(i)) {
+    
+                    for (String error : row.getValidationErrors()) {
+                        validationErrors.add("Row:" + (chunkStart + i + 1) + " - " + error);
+                    }
                 }
             }
         }
@@ -208,6 +220,198 @@ public abstract class CSV extends PegacornFile {
     
     
 
+    /**
+     * Validates a CSV file without loading it into this CSV object, see {@link #validateStreaming(Reader, int)}.
+     * 
+     * @param csvFile
+     * @throws CSVParsingException
+     * @throws CSVValidationFailedException
+     * @throws IOException
+     */
+    public void validateStreaming(File csvFile) throws CSVParsingException, CSVValidationFailedException, IOException {
+        filename = csvFile.getAbsolutePath();
+        
+        try (Reader reader = new FileReader(csvFile)) {
+            validateStreaming(reader, DEFAULT_VALIDATION_CHUNK_SIZE);
+        }
+    }
+    
+    
+    /**
+     * Validates CSV data as it is read, rather than loading all the rows first. The rows are read in chunks of
+     * chunkSize rows and each chunk is converted and validated (in parallel if {@link #isParallelValidation()}), with
+     * the errors reported in row order - exactly as {@link #validate()} would report them. The rows are not added to
+     * this CSV object.
+     * 
+     * The {@link FileValidator}s which support streaming are passed the rows one at a time, so if all of them do the
+     * memory needed is bounded by the chunk size. Rows are only kept for any which don't.
+     * 
+     * @param reader
+     * @param chunkSize the maximum number of rows held (and validated) at any one time
+     * @throws CSVParsingException
+     * @throws CSVValidationFailedException
+     * @throws IOException
+     */
+    public void validateStreaming(Reader reader, int chunkSize) throws CSVParsingException, CSVValidationFailedException, IOException {
+        int boundedChunkSize = Math.max(1, chunkSize);
+        
+        List<FileValidator> streamingValidators = new ArrayList<>();
+        List<FileValidator> bufferingValidators = new ArrayList<>();
+        
+        for (FileValidator validator : getFileValidators()) {
+            if (validator.isStreamingSupported()) {
+                validator.beginRows();
+                streamingValidators.add(validator);
+            } else {
+                bufferingValidators.add(validator);
+            }
+        }
+        
+        List<CSVRowBean> bufferedRows = new ArrayList<>();
+        List<String[]> chunk = new ArrayList<>(boundedChunkSize);
+        long rowCount = 0;
+        
+        CSVReader csvReader = new CSVReaderBuilder(reader)
+                .withSkipLines(0)
+                .withCSVParser(getCSVParser())
+                .build();
+
+        try {
+            String[] nextLine;
+            boolean firstRow = true;
+            
+            while ((nextLine = csvReader.readNext()) != null) {
+                if (firstRow && this instanceof HasHeaderRow) {
+                    processHeaderRow(nextLine);
+                } else {
+                    chunk.add(nextLine);
+                    
+                    if (chunk.size() >= boundedChunkSize) {
+                        validateChunk(chunk, rowCount, streamingValidators, bufferingValidators.isEmpty() ? null : bufferedRows);
+                        rowCount += chunk.size();
+                        chunk.clear();
+                    }
+                }
+                
+                firstRow = false;
+            }
+            
+            if (!chunk.isEmpty()) {
+                validateChunk(chunk, rowCount, streamingValidators, bufferingValidators.isEmpty() ? null : bufferedRows);
+                rowCount += chunk.size();
+                chunk.clear();
+            }
+        } catch (CsvValidationException e) {
+            throw new CSVParsingException("Unable to read the CSV data", e);
+        }
+        
+        if (rowCount == 0) {
+            throw new CSVParsingException("The CSV must contain at least 1 row");
+        }
+        
+        if (!validationErrors.isEmpty()) {
+            throw new CSVValidationFailedException("An error has occured validating the csv file", validationErrors);
+        }
+        
+        // If we get here the fields in the file have been validated so now the results of the additional validation on
+        // multiple rows can be collected.
+        for (FileValidator validator : streamingValidators) {
+            if (!validator.endRows()) {
+                validationErrors.addAll(validator.getErrorMessages());
+            }
+        }
+        
+        for (FileValidator validator : bufferingValidators) {
+            if (!validator.isValid(bufferedRows)) {
+                validationErrors.addAll(validator.getErrorMessages());
+            }
+        }
+
+        if (!validationErrors.isEmpty()) {
+            throw new CSVValidationFailedException("An error has occured validating the csv file", validationErrors);
+        }
+    }
+    
+    
+    private void validateChunk(List<String[]> chunk, long firstRowIndex, List<FileValidator> streamingValidators, List<CSVRowBean> bufferedRows) throws CSVParsingException {
+        List<CSVRowBean> chunkRows = processChunk(chunk, nextLine -> {
+            CSVRowBean row = convertToRowBean(nextLine);
+            row.validate();
+            return row;
+        });
+        
+        for (int i = 0; i < chunkRows.size(); i++) {
+            CSVRowBean row = chunkRows.get(i);
+            long rowNumber = firstRowIndex + i + 1;
+            
+            for (String error : row.getValidationErrors()) {
+                validationErrors.add("Row:" + rowNumber + " - " + error);
+            }
+            
+            // Once a row has failed the file level validation results won't be used, so stop collecting rows for it.
+            if (validationErrors.isEmpty()) {
+                for (FileValidator validator : streamingValidators) {
+                    validator.acceptRow(rowNumber, row);
+                }
+                
+                if (bufferedRows != null) {
+                    bufferedRows.add(row);
+                }
+            }
+        }
+    }
+    
+    
+    /**
+     * Applies a function to every item of a chunk (in parallel if enabled), returning the results in the same order as
+     * the items.
+     */
+    private <T, R> List<R> processChunk(List<T> items, RowFunction<T, R> function) throws CSVParsingException {
+        if (!isParallelValidation()) {
+            List<R> results = new ArrayList<>(items.size());
+            
+            for (T item : items) {
+                results.add(function.apply(item));
+            }
+            
+            return results;
+        }
+        
+        try {
+            return items.parallelStream().map(item -> {
+                try {
+                    return function.apply(item);
+                } catch (CSVParsingException e) {
+                    throw new RowProcessingException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (RowProcessingException e) {
+            throw e.getParsingException();
+        }
+    }
+    
+    
+    @FunctionalInterface
+    private interface RowFunction<T, R> {
+        R apply(T item) throws CSVParsingException;
+    }
+    
+    
+    private static class RowProcessingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        RowProcessingException(CSVParsingException cause) {
+            super(cause);
+        }
+        
+        CSVParsingException getParsingException() {
+            return (CSVParsingException) getCause();
+        }
+    }
+    
+    
+    
+
     /**
      * Writes this csv object to file.
      * 
@@ -336,6 +540,17 @@ public abstract class CSV extends PegacornFile {
     protected boolean quoteText() {
         return true;
     }
+    
+    
+    /**
+     * Should the rows be converted and validated in parallel? If so each chunk of rows is processed on the common
+     * ForkJoinPool, so {@link #convertToRowBean(String[])} and the row validation must be thread safe. Off by default.
+     * 
+     * @return
+     */
+    protected boolean isParallelValidation() {
+        return false;
+    }
 
     @Override
     public abstract String getFileDisplayName();
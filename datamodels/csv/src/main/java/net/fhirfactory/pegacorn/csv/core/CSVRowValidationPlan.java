@@ -0,0 +1,172 @@
+package net.fhirfactory.pegacorn.csv.core;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import net.fhirfactory.pegacorn.csv.core.validator.DateValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.ExpectedValuesValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.FieldValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.LengthValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.MandatoryValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.MoneyValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.NumberValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.PropertiesValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.annotation.Date;
+import net.fhirfactory.pegacorn.csv.core.validator.annotation.ExpectedValues;
+import net.fhirfactory.pegacorn.csv.core.validator.annotation.Length;
+import net.fhirfactory.pegacorn.csv.core.validator.annotation.Mandatory;
+import net.fhirfactory.pegacorn.csv.core.validator.annotation.Money;
+import net.fhirfactory.pegacorn.csv.core.validator.annotation.Number;
+import net.fhirfactory.pegacorn.csv.core.validator.annotation.Properties;
+
+/**
+ * The validation steps for a {@link CSVRowBean} class, worked out (via reflection) once per class and then shared by
+ * every row of that class.
+ *
+ * There is one step per annotated getter, in getter name order, holding a method handle for the getter and the
+ * validators for its annotations (in the order Mandatory, Length, Date, ExpectedValues, Number, Money, Properties).
+ * A field reports at most one error - its first failing validator.  The validators are stateless so a plan can be
+ * used by several threads at once.
+ */
+public class CSVRowValidationPlan {
+
+    private static final ClassValue<CSVRowValidationPlan> PLANS = new ClassValue<CSVRowValidationPlan>() {
+        @Override
+        protected CSVRowValidationPlan computeValue(Class<?> rowBeanClass) {
+            return new CSVRowValidationPlan(rowBeanClass);
+        }
+    };
+
+    private static final List<Class<? extends Annotation>> SUPPORTED_ANNOTATION_CLASSES = Arrays.asList(Mandatory.class, Length.class, Date.class,
+            ExpectedValues.class, Number.class, Money.class, Properties.class);
+
+    private final List<FieldValidationStep> steps;
+
+
+    private CSVRowValidationPlan(Class<?> rowBeanClass) {
+        List<FieldValidationStep> planSteps = new ArrayList<>();
+
+        List<Method> methods = new ArrayList<>(Arrays.asList(rowBeanClass.getDeclaredMethods()));
+        Collections.sort(methods, Comparator.comparing(Method::getName));
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        for (Method method : methods) {
+            String fieldName = null;
+            List<FieldValidator> validators = new ArrayList<>();
+
+            for (Class<? extends Annotation> supportedAnnotationClass : SUPPORTED_ANNOTATION_CLASSES) {
+                Annotation annotation = method.getAnnotation(supportedAnnotationClass);
+
+                if (annotation != null) {
+                    fieldName = method.getName().substring(3); // This is the method name after the get part.
+                    validators.add(newValidator(fieldName, annotation));
+                }
+            }
+
+            if (!validators.isEmpty()) {
+                try {
+                    method.setAccessible(true);
+                    planSteps.add(new FieldValidationStep(fieldName, lookup.unreflect(method), validators));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Unable to access the getter for field: " + fieldName, e);
+                }
+            }
+        }
+
+        this.steps = Collections.unmodifiableList(planSteps);
+    }
+
+
+    /**
+     * Returns the (cached) validation plan for a row bean class.
+     *
+     * @param rowBeanClass
+     * @return
+     */
+    public static CSVRowValidationPlan forClass(Class<? extends CSVRowBean> rowBeanClass) {
+        return PLANS.get(rowBeanClass);
+    }
+
+
+    /**
+     * Validates a row.
+     *
+     * @param row
+     * @return the validation error messages, or an empty list if the row is valid
+     * @throws CSVParsingException
+     */
+    public List<String> validate(CSVRowBean row) throws CSVParsingException {
+        List<String> errors = new ArrayList<>();
+
+        for (FieldValidationStep step : steps) {
+            Object fieldValue;
+
+            try {
+                fieldValue = step.getter.invoke(row);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new CSVParsingException("Error validating the CSV file (field: " + step.fieldName + ")", e);
+            }
+
+            String value = (String) fieldValue;
+
+            for (FieldValidator validator : step.validators) {
+                if (!validator.isValid(value)) {
+                    errors.add(validator.getErrorMessage(value));
+                    break; // break so we only get 1 error per field.
+                }
+            }
+        }
+
+        return errors;
+    }
+
+
+    public int getNumberOfSteps() {
+        return steps.size();
+    }
+
+
+    private static FieldValidator newValidator(String fieldName, Annotation annotation) {
+        if (annotation instanceof Mandatory) {
+            return new MandatoryValidator(fieldName);
+        } else if (annotation instanceof Length) {
+            Length length = (Length) annotation;
+            return new LengthValidator(fieldName, length.min(), length.max());
+        } else if (annotation instanceof Date) {
+            return new DateValidator(fieldName, ((Date) annotation).value());
+        } else if (annotation instanceof ExpectedValues) {
+            return new ExpectedValuesValidator(fieldName, ((ExpectedValues) annotation).values());
+        } else if (annotation instanceof Number) {
+            return new NumberValidator(fieldName, ((Number) annotation).type());
+        } else if (annotation instanceof Money) {
+            return new MoneyValidator(fieldName, ((Money) annotation).type());
+        } else if (annotation instanceof Properties) {
+            return new PropertiesValidator(fieldName, ((Properties) annotation).type());
+        }
+
+        throw new IllegalStateException("Unknown annotation on field: " + fieldName);
+    }
+
+
+    private static class FieldValidationStep {
+        private final String fieldName;
+        private final MethodHandle getter;
+        private final List<FieldValidator> validators;
+
+        FieldValidationStep(String fieldName, MethodHandle getter, List<FieldValidator> validators) {
+            this.fieldName = fieldName;
+            this.getter = getter;
+            this.validators = validators;
+        }
+    }
+}
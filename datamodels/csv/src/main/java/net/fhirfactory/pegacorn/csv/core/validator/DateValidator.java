@@ -15,11 +15,18 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class DateValidator extends FieldValidator {
     private String dateFormat;
+    private DateTimeFormatter formatter;
 
     public DateValidator(String field, String dateFormat) {
         super(field);
 
         this.dateFormat = dateFormat;
+        
+        // DateTimeFormatter is immutable (and thread safe), so it is only built once
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+        builder.parseCaseInsensitive();
+        builder.appendPattern(dateFormat);
+        this.formatter = builder.toFormatter();
     }
 
     @Override
@@ -41,11 +48,6 @@ public class DateValidator extends FieldValidator {
 
     private boolean isValidDateFormat(String date, String format) {
         try {
-            DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
-            builder.parseCaseInsensitive();
-            builder.appendPattern(dateFormat);
-
-            DateTimeFormatter formatter = builder.toFormatter();
             LocalDate.parse(date, formatter);
         } catch (DateTimeParseException e) {
             return false;
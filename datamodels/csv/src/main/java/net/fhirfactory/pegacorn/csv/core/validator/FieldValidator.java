@@ -32,4 +32,16 @@ public abstract class FieldValidator {
      * @return
      */
     public abstract String getErrorMessage();
+
+    /**
+     * Get the error message for a value which failed validation. Validators whose message depends on the value
+     * override this rather than remembering state from isValid(), so that a single validator instance can be shared
+     * by all the rows (and threads) validating a CSV.
+     * 
+     * @param value
+     * @return
+     */
+    public String getErrorMessage(String value) {
+        return getErrorMessage();
+    }
 }
@@ -27,4 +27,43 @@ public abstract class FileValidator {
      * @return
      */
     public abstract List<String> getErrorMessages();
+    
+    
+    /**
+     * Can this validator check the rows one at a time (see {@link #beginRows()}, {@link #acceptRow(long, CSVRowBean)}
+     * and {@link #endRows()}) rather than needing all of them in a List?  Streaming validators only keep the state
+     * they need (e.g. the set of keys seen so far) so the CSV can be validated without holding every row in memory.
+     * 
+     * @return
+     */
+    public boolean isStreamingSupported() {
+        return false;
+    }
+    
+    
+    /**
+     * Called before the first row is passed to a streaming validator.
+     */
+    public void beginRows() {
+    }
+    
+    
+    /**
+     * Passes the next row (in file order) to a streaming validator.
+     * 
+     * @param rowNumber the (1 based) row number
+     * @param row
+     */
+    public void acceptRow(long rowNumber, CSVRowBean row) {
+    }
+    
+    
+    /**
+     * Called after the last row has been passed to a streaming validator.
+     * 
+     * @return true if the rows were valid, otherwise the errors are available from {@link #getErrorMessages()}
+     */
+    public boolean endRows() {
+        return true;
+    }
 }
@@ -50,6 +50,16 @@ public class MoneyValidator extends FieldValidator {
         return true;
     }
 
+    @Override
+    public String getErrorMessage(String value) {
+        try {
+            Double.parseDouble(value);
+        } catch (NumberFormatException | NullPointerException e) {
+            return field + " is an invalid money amount";
+        }
+        return field + " must be: " + type;
+    }
+
     @Override
     public String getErrorMessage() {
         if (invalidType) {
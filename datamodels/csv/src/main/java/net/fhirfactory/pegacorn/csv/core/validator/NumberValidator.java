@@ -16,7 +16,7 @@ public class NumberValidator extends FieldValidator {
         super(field);
 
         this.type = type;
-
+        this.incorrectType = !(type.equals(Integer.class) || type.equals(Double.class) || type.equals(Float.class) || type.equals(Short.class) || type.equals(Long.class));
     }
 
     @Override
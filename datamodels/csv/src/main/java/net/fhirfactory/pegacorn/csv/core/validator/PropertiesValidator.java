@@ -19,6 +19,7 @@ public class PropertiesValidator extends FieldValidator {
     private static final Logger LOG = LoggerFactory.getLogger(PropertiesValidator.class);
     
     private Class<? extends DatamodelProperties> propertyClassType;
+    private volatile DatamodelProperties properties;
 
     public PropertiesValidator(String field,  Class<? extends DatamodelProperties> propertyClassType) {
         super(field);
@@ -36,17 +37,34 @@ public class PropertiesValidator extends FieldValidator {
         }
         
         try {
-            Class clazz = Class.forName(propertyClassType.getName());
-            Constructor constructor = clazz.getDeclaredConstructor();
-            
-            DatamodelProperties properties = (DatamodelProperties)constructor.newInstance();
-    
-           return properties.exists(value);
+           return getProperties().exists(value);
         } catch (Exception e) {
             LOG.error("Error determining if the field is valid.", e);
             return false;
         }
     }
+    
+    
+    /**
+     * Loads the properties on first use. Loading reads the properties file, so it is done once per validator rather
+     * than once per validated value.
+     * 
+     * @return
+     * @throws Exception
+     */
+    private DatamodelProperties getProperties() throws Exception {
+        DatamodelProperties loadedProperties = properties;
+        
+        if (loadedProperties == null) {
+            Class clazz = Class.forName(propertyClassType.getName());
+            Constructor constructor = clazz.getDeclaredConstructor();
+            
+            loadedProperties = (DatamodelProperties)constructor.newInstance();
+            properties = loadedProperties;
+        }
+        
+        return loadedProperties;
+    }
 
     @Override
     public String getErrorMessage() {
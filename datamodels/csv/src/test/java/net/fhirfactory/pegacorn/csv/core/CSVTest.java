@@ -0,0 +1,294 @@
+package net.fhirfactory.pegacorn.csv.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import net.fhirfactory.pegacorn.csv.core.validator.FileValidator;
+import net.fhirfactory.pegacorn.csv.core.validator.annotation.Mandatory;
+
+class CSVTest {
+
+    //
+    // Test Fixtures
+    //
+
+    public static class TestRowBean extends CSVRowBean {
+
+        public TestRowBean(String[] rowData) throws CSVParsingException {
+            super(rowData);
+        }
+
+        @Mandatory
+        public String getId() {
+            return rowData[0];
+        }
+
+        public String getName() {
+            return rowData[1];
+        }
+
+        @Override
+        protected int getNumberOfColumns() {
+            return 2;
+        }
+    }
+
+    /**
+     * Reports every id which has already been seen, either a row at a time or from the full list of rows.
+     */
+    static class UniqueIdValidator extends FileValidator {
+        private final boolean streaming;
+        private final Set<String> ids = new HashSet<>();
+        private final List<String> errors = new ArrayList<>();
+        private int rowCount;
+
+        UniqueIdValidator(boolean streaming) {
+            this.streaming = streaming;
+        }
+
+        @Override
+        public boolean isValid(List<CSVRowBean> rows) {
+            beginRows();
+
+            for (int i = 0; i < rows.size(); i++) {
+                acceptRow(i + 1, rows.get(i));
+            }
+
+            return endRows();
+        }
+
+        @Override
+        public List<String> getErrorMessages() {
+            return errors;
+        }
+
+        @Override
+        public boolean isStreamingSupported() {
+            return streaming;
+        }
+
+        @Override
+        public void beginRows() {
+            ids.clear();
+            errors.clear();
+            rowCount = 0;
+        }
+
+        @Override
+        public void acceptRow(long rowNumber, CSVRowBean row) {
+            rowCount++;
+            String id = ((TestRowBean) row).getId();
+
+            if (!ids.add(id)) {
+                errors.add("Row:" + rowNumber + " - duplicate id " + id);
+            }
+        }
+
+        @Override
+        public boolean endRows() {
+            return errors.isEmpty();
+        }
+
+        int getRowCount() {
+            return rowCount;
+        }
+    }
+
+    static class TestCSV extends CSV {
+        private final boolean parallel;
+        private final List<FileValidator> fileValidators = new ArrayList<>();
+
+        TestCSV(boolean parallel) {
+            super();
+            this.parallel = parallel;
+        }
+
+        TestCSV(String csvString, boolean parallel) throws CSVParsingException, IOException {
+            super(csvString);
+            this.parallel = parallel;
+        }
+
+        TestCSV withFileValidator(FileValidator validator) {
+            fileValidators.add(validator);
+            return this;
+        }
+
+        @Override
+        protected CSVRowBean convertToRowBean(String[] row) throws CSVParsingException {
+            return new TestRowBean(row);
+        }
+
+        @Override
+        public List<FileValidator> getFileValidators() {
+            return fileValidators;
+        }
+
+        @Override
+        protected boolean isParallelValidation() {
+            return parallel;
+        }
+
+        @Override
+        public String getFileDisplayName() {
+            return "Test CSV";
+        }
+    }
+
+    static class HeaderCSV extends TestCSV implements HasHeaderRow {
+
+        HeaderCSV() {
+            super(false);
+        }
+
+        HeaderCSV(String csvString) throws CSVParsingException, IOException {
+            super(csvString, false);
+        }
+
+        @Override
+        public String[] getRequiredHeadings() {
+            return new String[] { "Id", "Name" };
+        }
+    }
+
+    /**
+     * Builds rows id1,name1 ... where the given (1 based) rows have no id.
+     */
+    private static String buildCSV(int rowCount, Integer... rowsWithoutIds) {
+        Set<Integer> missingIds = new HashSet<>(Arrays.asList(rowsWithoutIds));
+        StringBuilder csv = new StringBuilder();
+
+        for (int row = 1; row <= rowCount; row++) {
+            csv.append(missingIds.contains(row) ? "" : "id" + row).append(",name").append(row).append("\n");
+        }
+
+        return csv.toString();
+    }
+
+    private static List<String> validate(CSV csv) throws CSVParsingException {
+        try {
+            csv.validate();
+            return new ArrayList<>();
+        } catch (CSVValidationFailedException e) {
+            return e.getValidationErrors();
+        }
+    }
+
+    private static List<String> validateStreaming(CSV csv, String csvString, int chunkSize) throws CSVParsingException, IOException {
+        try {
+            csv.validateStreaming(new StringReader(csvString), chunkSize);
+            return new ArrayList<>();
+        } catch (CSVValidationFailedException e) {
+            return e.getValidationErrors();
+        }
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    void reportsErrorsInRowOrderAcrossChunks() throws Exception {
+        String csvString = buildCSV(2500, 3, 1000, 1001, 2001, 2500);
+        List<String> expectedErrors = Arrays.asList("Row:3 - Id is mandatory", "Row:1000 - Id is mandatory", "Row:1001 - Id is mandatory",
+                "Row:2001 - Id is mandatory", "Row:2500 - Id is mandatory");
+
+        assertEquals(expectedErrors, validate(new TestCSV(csvString, false)));
+        assertEquals(expectedErrors, validate(new TestCSV(csvString, true)));
+        assertEquals(expectedErrors, validateStreaming(new TestCSV(false), csvString, 1000));
+        assertEquals(expectedErrors, validateStreaming(new TestCSV(true), csvString, 1000));
+    }
+
+    @Test
+    void validateAndValidateStreamingAgree() throws Exception {
+        String csvString = buildCSV(120, 1, 7, 8, 49, 50, 51, 120);
+        List<String> expectedErrors = validate(new TestCSV(csvString, false));
+
+        assertEquals(7, expectedErrors.size());
+
+        for (int chunkSize : new int[] { 0, 1, 7, 50, 119, 120, 1000 }) {
+            assertEquals(expectedErrors, validateStreaming(new TestCSV(false), csvString, chunkSize));
+            assertEquals(expectedErrors, validateStreaming(new TestCSV(true), csvString, chunkSize));
+        }
+
+        assertTrue(validate(new TestCSV(buildCSV(120), false)).isEmpty());
+        assertTrue(validateStreaming(new TestCSV(true), buildCSV(120), 7).isEmpty());
+    }
+
+    @Test
+    void rejectsAnEmptyCSV() throws Exception {
+        assertThrows(CSVParsingException.class, () -> new TestCSV("", false).validate());
+        assertThrows(CSVParsingException.class, () -> new TestCSV(false).validateStreaming(new StringReader(""), 10));
+        assertThrows(CSVParsingException.class, () -> new HeaderCSV().validateStreaming(new StringReader("Id,Name\n"), 10));
+    }
+
+    @Test
+    void rejectsRowsWithTheWrongNumberOfColumns() {
+        String csvString = buildCSV(20) + "id21,name21,extra\n";
+
+        assertThrows(CSVParsingException.class, () -> new TestCSV(csvString, false));
+        assertThrows(CSVParsingException.class, () -> new TestCSV(false).validateStreaming(new StringReader(csvString), 7));
+        assertThrows(CSVParsingException.class, () -> new TestCSV(true).validateStreaming(new StringReader(csvString), 7));
+    }
+
+    @Test
+    void numbersRowsAfterTheHeaderRow() throws Exception {
+        String csvString = "Id,Name\n" + buildCSV(30, 1, 30);
+        List<String> expectedErrors = Arrays.asList("Row:1 - Id is mandatory", "Row:30 - Id is mandatory");
+
+        HeaderCSV csv = new HeaderCSV(csvString);
+        assertEquals(30, csv.getRows().size());
+        assertEquals("name1", csv.getRow(0).getRowData()[1]);
+        assertEquals(expectedErrors, validate(csv));
+        assertEquals(expectedErrors, validateStreaming(new HeaderCSV(), csvString, 7));
+        assertTrue(csv.writeToString().startsWith("\"Id\",\"Name\""));
+    }
+
+    @Test
+    void rejectsAnUnexpectedHeaderRow() throws Exception {
+        assertThrows(CSVParsingException.class, () -> new HeaderCSV("Id,Surname\n" + buildCSV(2)));
+        assertThrows(CSVParsingException.class, () -> new HeaderCSV("Id\n"));
+        assertThrows(CSVParsingException.class, () -> new HeaderCSV().validateStreaming(new StringReader("Id,Name,Extra\n" + buildCSV(2)), 10));
+        // the heading comparison ignores case
+        assertEquals(2, new HeaderCSV("ID,name\n" + buildCSV(2)).getRows().size());
+    }
+
+    @Test
+    void passesRowsToStreamingFileValidators() throws Exception {
+        String csvString = buildCSV(25) + "id3,again\nid20,again\n";
+        List<String> expectedErrors = Arrays.asList("Row:26 - duplicate id id3", "Row:27 - duplicate id id20");
+
+        UniqueIdValidator streamingValidator = new UniqueIdValidator(true);
+        assertEquals(expectedErrors, validateStreaming(new TestCSV(true).withFileValidator(streamingValidator), csvString, 4));
+        assertEquals(27, streamingValidator.getRowCount());
+
+        UniqueIdValidator bufferingValidator = new UniqueIdValidator(false);
+        assertEquals(expectedErrors, validateStreaming(new TestCSV(false).withFileValidator(bufferingValidator), csvString, 4));
+        assertEquals(27, bufferingValidator.getRowCount());
+
+        assertEquals(expectedErrors, validate(new TestCSV(csvString, false).withFileValidator(new UniqueIdValidator(false))));
+    }
+
+    @Test
+    void skipsFileValidatorsOnceARowIsInvalid() throws Exception {
+        String csvString = buildCSV(10, 2) + "id3,again\n";
+
+        UniqueIdValidator streamingValidator = new UniqueIdValidator(true);
+        List<String> errors = validateStreaming(new TestCSV(false).withFileValidator(streamingValidator), csvString, 3);
+
+        assertEquals(Arrays.asList("Row:2 - Id is mandatory"), errors);
+        assertEquals(1, streamingValidator.getRowCount());
+        assertEquals(Arrays.asList("Row:2 - Id is mandatory"), validate(new TestCSV(csvString, false).withFileValidator(new UniqueIdValidator(false))));
+        assertTrue(streamingValidator.getErrorMessages().isEmpty());
+    }
+}
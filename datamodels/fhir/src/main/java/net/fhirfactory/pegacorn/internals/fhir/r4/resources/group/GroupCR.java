@@ -23,7 +23,6 @@
  */
 package net.fhirfactory.pegacorn.internals.fhir.r4.resources.group;
 
-import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.model.api.annotation.ResourceDef;
 
 import java.util.Iterator;
@@ -69,8 +68,6 @@ public class GroupCR extends Group
     public GroupCR()
     {
         super();
-        FhirContext ctx = FhirContext.forR4();
-        ctx.registerCustomType(GroupCR.class);
     }
 
     // Group Federation Accessor Methods
@@ -25,7 +25,22 @@ public class HL7Message implements Serializable   {
 	private Message sourceHL7Message = null;
 	
 	public HL7Message(Message sourceHL7Message) {
+		this(sourceHL7Message, true);
+	}
+	
+	
+	/**
+	 * Allows subclasses to defer building the segment list until it is first needed.
+	 * 
+	 * @param sourceHL7Message
+	 * @param parseSegments
+	 */
+	protected HL7Message(Message sourceHL7Message, boolean parseSegments) {
 		this.sourceHL7Message = sourceHL7Message;
+		
+		if (!parseSegments) {
+			return;
+		}
 
 		String[] splitMessageSegments = sourceHL7Message.toString().split("\r(?=[A-Za-z0-9]{3}|)");
 		
@@ -37,6 +52,7 @@ public class HL7Message implements Serializable   {
 		}
 	}
 	
+	
 	/**
 	 * Returns the type of the message. MSH-9.
 	 * 
@@ -67,7 +83,7 @@ public class HL7Message implements Serializable   {
 	 * @return
 	 */
 	public MSHSegment getMSHSegment() {
-		for (Segment segment : this.segments) {
+		for (Segment segment : getSegments()) {
 			if (segment.getName().equals("MSH")) {
 				return (MSHSegment)segment;
 			}
@@ -83,7 +99,7 @@ public class HL7Message implements Serializable   {
 	 * @return
 	 */
 	public PIDSegment getPIDSegment() {
-		for (Segment segment : this.segments) {
+		for (Segment segment : getSegments()) {
 			if (segment.getName().equals("PID")) {
 				return (PIDSegment)segment;
 			}
@@ -115,7 +131,7 @@ public class HL7Message implements Serializable   {
 	
 	@Override
 	public String toString() {	
-		return segments.stream().map(Segment::toString).collect(Collectors.joining("\r"));	
+		return getSegments().stream().map(Segment::toString).collect(Collectors.joining("\r"));	
 	}
 	
 	
@@ -150,11 +166,11 @@ public class HL7Message implements Serializable   {
 	 * @param rowIndex
 	 */
 	public void removeSegment(int rowIndex) throws Exception {
-		if (rowIndex >= segments.size()) {
+		if (rowIndex >= getSegments().size()) {
 			return;
 		}
 		
-		this.segments.remove(rowIndex);
+		getSegments().remove(rowIndex);
 	}
 	
 	
@@ -165,7 +181,7 @@ public class HL7Message implements Serializable   {
 	 * @throws Exception
 	 */
 	public void removeSegment(Segment segment) throws Exception {	
-		this.segments.remove(segment);
+		getSegments().remove(segment);
 	}
 	
 	
@@ -208,11 +224,11 @@ public class HL7Message implements Serializable   {
 	 * @return
 	 */
 	public Segment getSegment(int rowIndex) {
-		if (rowIndex >= segments.size()) {
+		if (rowIndex >= getSegments().size()) {
 			return null;
 		}
 		
-		return segments.get(rowIndex);
+		return getSegments().get(rowIndex);
 	}
 
 
@@ -641,7 +657,7 @@ public class HL7Message implements Serializable   {
 			}
 		}
 		
-		return this.segments.size() - 1; // The segment ended with the last element in the list.		
+		return this.getSegments().size() - 1; // The segment ended with the last element in the list.		
 	}
 
 	
@@ -1212,7 +1228,7 @@ public class HL7Message implements Serializable   {
 	}
 	
 	
-	private Segment createSegment(String value) {
+	protected Segment createSegment(String value) {
 		Segment segment = null;
 		
 		if (value.startsWith("MSH") ) {
@@ -0,0 +1,629 @@
+package net.fhirfactory.pegacorn.internals.hl7v2;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.uhn.hl7v2.model.Message;
+
+/**
+ * A {@link HL7Message} which keeps the raw message as a single character buffer and only builds the
+ * {@link Segment} object tree for the segments which are actually accessed.  Segment boundaries are indexed
+ * on first access and field offsets are indexed per segment on first access, so a routing decision which
+ * only reads a couple of MSH fields never splits the rest of the message.
+ *
+ * Operations which need the complete segment list (inserting, moving or removing segments etc) expand the
+ * message into the normal eager form.  When the message is converted back to a string every segment which
+ * has not been changed is written from the original buffer, so an unchanged message is byte-identical to
+ * the one supplied.
+ *
+ * Like {@link HL7Message}, instances are not thread safe.
+ *
+ */
+public class LazyHL7Message extends HL7Message {
+	private static final long serialVersionUID = 4176520928744930817L;
+
+	private static final char SEGMENT_SEPARATOR = '\r';
+	private static final String MSH_SEGMENT_NAME = "MSH";
+	private static final String PID_SEGMENT_NAME = "PID";
+
+	private final char[] buffer;
+	private final boolean hasSourceMessage;
+
+	private char fieldSeparator = '|';
+	private char componentSeparator = '^';
+	private char repetitionSeparator = '~';
+
+	private boolean expanded = false;
+
+	private Segment[] materialisedSegments = null;
+	private String[] materialisedRenderings = null;
+	private Map<Segment, Integer> segmentOrigins = new IdentityHashMap<>();
+
+	// Derived from the buffer, so rebuilt on demand after deserialisation.
+	private transient int segmentCount;
+	private transient int[] segmentStarts;
+	private transient int[] segmentEnds;
+	private transient int[][] fieldOffsets;
+
+	public LazyHL7Message(Message sourceHL7Message) {
+		super(sourceHL7Message, false);
+
+		this.buffer = sourceHL7Message.toString().toCharArray();
+		this.hasSourceMessage = true;
+	}
+
+
+	public LazyHL7Message(String message) {
+		super(null, false);
+
+		this.buffer = message.toCharArray();
+		this.hasSourceMessage = false;
+	}
+
+
+	/**
+	 * Returns true once the message has been expanded into a full segment list.
+	 *
+	 * @return
+	 */
+	public boolean isExpanded() {
+		return expanded;
+	}
+
+
+	/**
+	 * Gets all segments.  This expands the whole message.
+	 *
+	 * @return
+	 */
+	@Override
+	public List<Segment> getSegments() {
+		expand();
+
+		return super.getSegments();
+	}
+
+
+	@Override
+	public void setSegments(List<Segment> segments) {
+		expand();
+
+		super.setSegments(segments);
+	}
+
+
+	@Override
+	public Segment getSegment(int rowIndex) {
+		if (expanded) {
+			return super.getSegment(rowIndex);
+		}
+
+		indexSegments();
+
+		if (rowIndex >= segmentCount) {
+			return null;
+		}
+
+		return materialise(rowIndex);
+	}
+
+
+	@Override
+	public MSHSegment getMSHSegment() {
+		if (expanded) {
+			return super.getMSHSegment();
+		}
+
+		int index = firstSegmentIndex(MSH_SEGMENT_NAME);
+
+		if (index < 0) {
+			return (MSHSegment)createSegment(MSH_SEGMENT_NAME);
+		}
+
+		return (MSHSegment)materialise(index);
+	}
+
+
+	@Override
+	public PIDSegment getPIDSegment() {
+		if (expanded) {
+			return super.getPIDSegment();
+		}
+
+		int index = firstSegmentIndex(PID_SEGMENT_NAME);
+
+		if (index < 0) {
+			return (PIDSegment)createSegment(PID_SEGMENT_NAME);
+		}
+
+		return (PIDSegment)materialise(index);
+	}
+
+
+	@Override
+	public int getSegmentCount(String segmentName) throws Exception {
+		if (expanded) {
+			return super.getSegmentCount(segmentName);
+		}
+
+		indexSegments();
+
+		int count = 0;
+
+		for (int i = 0; i < segmentCount; i++) {
+			if (isSegmentNamed(i, segmentName)) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+
+	@Override
+	public List<Integer> getSegmentIndexes(String segmentName) throws Exception {
+		if (expanded) {
+			return super.getSegmentIndexes(segmentName);
+		}
+
+		indexSegments();
+
+		List<Integer> segmentIndexes = new ArrayList<>();
+
+		for (int i = 0; i < segmentCount; i++) {
+			if (isSegmentNamed(i, segmentName)) {
+				segmentIndexes.add(i);
+			}
+		}
+
+		return segmentIndexes;
+	}
+
+
+	@Override
+	public List<Segment> getSegments(String segmentName) throws Exception {
+		if (expanded) {
+			return super.getSegments(segmentName);
+		}
+
+		indexSegments();
+
+		List<Segment> segments = new ArrayList<>();
+
+		for (int i = 0; i < segmentCount; i++) {
+			if (isSegmentNamed(i, segmentName)) {
+				segments.add(materialise(i));
+			}
+		}
+
+		return segments;
+	}
+
+
+	@Override
+	public int getTotalSegmentCount() {
+		if (expanded) {
+			return super.getTotalSegmentCount();
+		}
+
+		indexSegments();
+
+		return segmentCount;
+	}
+
+
+	/**
+	 * Returns the value of the first repetition of a field without building the segment.  If the segment or
+	 * field does not exist an empty string is returned.
+	 *
+	 * @param segmentName
+	 * @param occurrence
+	 * @param fieldIndex
+	 * @return
+	 * @throws Exception
+	 */
+	public String getFieldValue(String segmentName, int occurrence, int fieldIndex) throws Exception {
+		if (expanded) {
+			Segment segment = getSegmentOccurrence(segmentName, occurrence);
+
+			return segment != null ? segment.getFieldValue(fieldIndex) : "";
+		}
+
+		int index = segmentIndex(segmentName, occurrence);
+
+		if (index < 0) {
+			return "";
+		}
+
+		if (materialisedSegments[index] != null) {
+			return materialisedSegments[index].getFieldValue(fieldIndex);
+		}
+
+		int[] range = rawFieldRange(index, fieldIndex);
+
+		if (range == null) {
+			return fieldIndex == 1 && isSegmentNamed(index, MSH_SEGMENT_NAME) ? String.valueOf(fieldSeparator) : "";
+		}
+
+		int end = range[1];
+
+		if (!isEncodingCharactersField(index, fieldIndex)) {
+			end = indexOf(repetitionSeparator, range[0], range[1]);
+		}
+
+		return new String(buffer, range[0], end - range[0]);
+	}
+
+
+	/**
+	 * Returns the value of a sub field (component) in the first repetition of a field without building the
+	 * segment.  Sub field indexes start at 1.  If the segment, field or sub field does not exist an empty string
+	 * is returned.
+	 *
+	 * @param segmentName
+	 * @param occurrence
+	 * @param fieldIndex
+	 * @param subFieldIndex
+	 * @return
+	 * @throws Exception
+	 */
+	public String getSubFieldValue(String segmentName, int occurrence, int fieldIndex, int subFieldIndex) throws Exception {
+		if (expanded) {
+			Segment segment = getSegmentOccurrence(segmentName, occurrence);
+
+			return segment != null ? segment.getField(fieldIndex).getSubFieldValue(subFieldIndex) : "";
+		}
+
+		int index = segmentIndex(segmentName, occurrence);
+
+		if (index < 0) {
+			return "";
+		}
+
+		if (materialisedSegments[index] != null) {
+			return materialisedSegments[index].getField(fieldIndex).getSubFieldValue(subFieldIndex);
+		}
+
+		if (isEncodingCharactersField(index, fieldIndex)) {
+			return subFieldIndex == 1 ? getFieldValue(segmentName, occurrence, fieldIndex) : "";
+		}
+
+		int[] range = rawFieldRange(index, fieldIndex);
+
+		if (range == null) {
+			return subFieldIndex == 1 && fieldIndex == 1 && isSegmentNamed(index, MSH_SEGMENT_NAME) ? String.valueOf(fieldSeparator) : "";
+		}
+
+		int end = indexOf(repetitionSeparator, range[0], range[1]);
+		int start = range[0];
+
+		for (int i = 1; i < subFieldIndex; i++) {
+			int separator = indexOf(componentSeparator, start, end);
+
+			if (separator == end) {
+				return "";
+			}
+
+			start = separator + 1;
+		}
+
+		return new String(buffer, start, indexOf(componentSeparator, start, end) - start);
+	}
+
+
+	@Override
+	public String toString() {
+		indexSegments();
+
+		int tailStart = segmentCount > 0 ? segmentEnds[segmentCount - 1] : 0;
+
+		StringBuilder message = new StringBuilder(buffer.length + 64);
+
+		if (expanded) {
+			List<Segment> segments = super.getSegments();
+
+			for (int i = 0; i < segments.size(); i++) {
+				if (i > 0) {
+					message.append(SEGMENT_SEPARATOR);
+				}
+
+				appendSegment(message, segments.get(i));
+			}
+		} else {
+			for (int i = 0; i < segmentCount; i++) {
+				if (i > 0) {
+					message.append(SEGMENT_SEPARATOR);
+				}
+
+				if (materialisedSegments[i] == null) {
+					message.append(buffer, segmentStarts[i], segmentEnds[i] - segmentStarts[i]);
+				} else {
+					appendSegment(message, materialisedSegments[i]);
+				}
+			}
+		}
+
+		message.append(buffer, tailStart, buffer.length - tailStart);
+
+		return message.toString();
+	}
+
+
+	@Override
+	public Message getSourceMessage() throws Exception {
+		if (!hasSourceMessage) {
+			throw new IllegalStateException("This message was created from a string and has no source HAPI message");
+		}
+
+		return super.getSourceMessage();
+	}
+
+
+	/**
+	 * Builds the Segment for a segment row index, creating it from the buffer on first access.
+	 *
+	 * @param index
+	 * @return
+	 */
+	private Segment materialise(int index) {
+		Segment segment = materialisedSegments[index];
+
+		if (segment == null) {
+			segment = createSegment(new String(buffer, segmentStarts[index], segmentEnds[index] - segmentStarts[index]));
+
+			materialisedSegments[index] = segment;
+			materialisedRenderings[index] = segment.toString();
+			segmentOrigins.put(segment, index);
+		}
+
+		return segment;
+	}
+
+
+	/**
+	 * Converts this message into the eager segment list used by {@link HL7Message}.
+	 */
+	private void expand() {
+		if (expanded) {
+			return;
+		}
+
+		indexSegments();
+
+		List<Segment> segments = new ArrayList<>(segmentCount);
+
+		for (int i = 0; i < segmentCount; i++) {
+			segments.add(materialise(i));
+		}
+
+		super.setSegments(segments);
+
+		expanded = true;
+	}
+
+
+	/**
+	 * Writes a segment, using the original characters if the segment has not been changed since it was built.
+	 *
+	 * @param message
+	 * @param segment
+	 */
+	private void appendSegment(StringBuilder message, Segment segment) {
+		String rendering = segment.toString();
+		Integer origin = segmentOrigins.get(segment);
+
+		if (origin != null && rendering.equals(materialisedRenderings[origin])) {
+			message.append(buffer, segmentStarts[origin], segmentEnds[origin] - segmentStarts[origin]);
+		} else {
+			message.append(rendering);
+		}
+	}
+
+
+	/**
+	 * Builds the segment offset index.  Segments are split on every carriage return and trailing empty
+	 * segments are ignored, matching the split used by {@link HL7Message}.
+	 */
+	private void indexSegments() {
+		if (segmentStarts != null) {
+			return;
+		}
+
+		int pieces = 1;
+
+		for (char character : buffer) {
+			if (character == SEGMENT_SEPARATOR) {
+				pieces++;
+			}
+		}
+
+		int[] starts = new int[pieces];
+		int[] ends = new int[pieces];
+		int count = 0;
+		int start = 0;
+
+		for (int i = 0; i <= buffer.length; i++) {
+			if (i == buffer.length || buffer[i] == SEGMENT_SEPARATOR) {
+				starts[count] = start;
+				ends[count] = i;
+				count++;
+				start = i + 1;
+			}
+		}
+
+		while (count > 1 && starts[count - 1] == ends[count - 1]) {
+			count--;
+		}
+
+		if (count > 0 && buffer.length >= 8 && isSegmentNamed(starts[0], ends[0], MSH_SEGMENT_NAME)) {
+			fieldSeparator = buffer[3];
+			componentSeparator = buffer[4];
+			repetitionSeparator = buffer[5];
+		}
+
+		if (materialisedSegments == null) {
+			materialisedSegments = new Segment[count];
+			materialisedRenderings = new String[count];
+		}
+
+		segmentStarts = starts;
+		segmentEnds = ends;
+		fieldOffsets = new int[count][];
+		segmentCount = count;
+	}
+
+
+	/**
+	 * Returns the start and end offsets of a field in the buffer, or null if the segment does not have the field.
+	 *
+	 * @param index
+	 * @param fieldIndex
+	 * @return
+	 */
+	private int[] rawFieldRange(int index, int fieldIndex) {
+		int[] offsets = fieldOffsets[index];
+
+		if (offsets == null) {
+			offsets = indexFields(index);
+			fieldOffsets[index] = offsets;
+		}
+
+		int rawFieldIndex = fieldIndex;
+
+		// MSH-1 is the field separator itself so the remaining MSH fields are offset by one.
+		if (isSegmentNamed(index, MSH_SEGMENT_NAME)) {
+			if (fieldIndex == 1) {
+				return null;
+			}
+
+			if (fieldIndex > 1) {
+				rawFieldIndex--;
+			}
+		}
+
+		if (rawFieldIndex >= offsets.length - 1) {
+			return null;
+		}
+
+		return new int[] {offsets[rawFieldIndex], offsets[rawFieldIndex + 1] - 1};
+	}
+
+
+	/**
+	 * Indexes the field start offsets for a segment.  The last entry is one past the end of the segment so the
+	 * end of field n is always offsets[n + 1] - 1.
+	 *
+	 * @param index
+	 * @return
+	 */
+	private int[] indexFields(int index) {
+		int start = segmentStarts[index];
+		int end = segmentEnds[index];
+
+		int fields = 1;
+
+		for (int i = start; i < end; i++) {
+			if (buffer[i] == fieldSeparator) {
+				fields++;
+			}
+		}
+
+		int[] offsets = new int[fields + 1];
+		offsets[0] = start;
+
+		int field = 1;
+
+		for (int i = start; i < end; i++) {
+			if (buffer[i] == fieldSeparator) {
+				offsets[field++] = i + 1;
+			}
+		}
+
+		offsets[fields] = end + 1;
+
+		return offsets;
+	}
+
+
+	private boolean isEncodingCharactersField(int index, int fieldIndex) {
+		return fieldIndex == 2 && isSegmentNamed(index, MSH_SEGMENT_NAME);
+	}
+
+
+	private int segmentIndex(String segmentName, int occurrence) {
+		indexSegments();
+
+		int currentOccurrence = 0;
+
+		for (int i = 0; i < segmentCount; i++) {
+			if (isSegmentNamed(i, segmentName)) {
+				if (currentOccurrence == occurrence) {
+					return i;
+				}
+
+				currentOccurrence++;
+			}
+		}
+
+		return -1;
+	}
+
+
+	private Segment getSegmentOccurrence(String segmentName, int occurrence) throws Exception {
+		List<Segment> segments = getSegments(segmentName);
+
+		if (occurrence >= segments.size()) {
+			return null;
+		}
+
+		return segments.get(occurrence);
+	}
+
+
+	private int firstSegmentIndex(String segmentName) {
+		return segmentIndex(segmentName, 0);
+	}
+
+
+	private boolean isSegmentNamed(int index, String segmentName) {
+		if (materialisedSegments[index] != null) {
+			return materialisedSegments[index].getName().equals(segmentName);
+		}
+
+		return isSegmentNamed(segmentStarts[index], segmentEnds[index], segmentName);
+	}
+
+
+	private boolean isSegmentNamed(int start, int end, String segmentName) {
+		int nameEnd = start;
+
+		while (nameEnd < end && buffer[nameEnd] != fieldSeparator) {
+			nameEnd++;
+		}
+
+		if (nameEnd - start != segmentName.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < segmentName.length(); i++) {
+			if (buffer[start + i] != segmentName.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+
+	private int indexOf(char character, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (buffer[i] == character) {
+				return i;
+			}
+		}
+
+		return end;
+	}
+}
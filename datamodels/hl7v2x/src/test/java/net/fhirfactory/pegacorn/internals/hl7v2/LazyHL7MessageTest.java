@@ -0,0 +1,75 @@
+package net.fhirfactory.pegacorn.internals.hl7v2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyHL7MessageTest {
+
+    String testMessage = "MSH|^~\\&|NES|NINTENDO|TESTSYSTEM|TESTFACILITY|20010101000000||ADT^A01|Q123456789T123456789X123456|P|2.4|||\r" +
+            "EVN|A04|20010101000000|||^KOOPA^BOWSER^^^^^^^CURRENT\r" +
+            "PID|1||123456789^^^HOSP^MR~987654321^^^GOV^NI||BROS^MARIO||19850101000000|M|||\r" +
+            "NK1|1|PEACH^PRINCESS^^^^||ANOTHER CASTLE^^TOADSTOOL KINGDOM^NES^^JP|||\r" +
+            "NK1|2|TOADSTOOL^PRINCESS^^^^|SO\r";
+
+    @Test
+    @DisplayName("Unmodified message is returned byte-identical")
+    void unmodifiedMessageIsByteIdentical() throws Exception {
+        LazyHL7Message message = new LazyHL7Message(testMessage);
+
+        assertEquals(5, message.getTotalSegmentCount());
+        assertEquals("A01", message.getMSHSegment().getMessageTypeField().getSubFieldValue(2));
+        assertEquals(testMessage, message.toString());
+        assertFalse(message.isExpanded());
+    }
+
+    @Test
+    @DisplayName("Raw field accessors match the eager model")
+    void rawAccessorsMatchEagerModel() throws Exception {
+        LazyHL7Message message = new LazyHL7Message(testMessage);
+
+        assertEquals("|", message.getFieldValue("MSH", 0, 1));
+        assertEquals("^~\\&", message.getFieldValue("MSH", 0, 2));
+        assertEquals("ADT^A01", message.getFieldValue("MSH", 0, 9));
+        assertEquals("ADT", message.getSubFieldValue("MSH", 0, 9, 1));
+        assertEquals("A01", message.getSubFieldValue("MSH", 0, 9, 2));
+        assertEquals("123456789^^^HOSP^MR", message.getFieldValue("PID", 0, 3));
+        assertEquals("HOSP", message.getSubFieldValue("PID", 0, 3, 4));
+        assertEquals("SO", message.getFieldValue("NK1", 1, 3));
+        assertEquals("", message.getFieldValue("NK1", 2, 3));
+        assertEquals("", message.getSubFieldValue("PID", 0, 5, 9));
+
+        assertEquals(2, message.getSegmentCount("NK1"));
+        assertEquals("2", message.getSegment("NK1", 1).getFieldValue(1));
+        assertEquals(1, message.getSegmentsMatchingValue("NK1", 3, "SO").size());
+        assertFalse(message.isExpanded());
+    }
+
+    @Test
+    @DisplayName("Changed segments are rendered, unchanged segments are copied")
+    void changedSegmentsAreRendered() throws Exception {
+        LazyHL7Message message = new LazyHL7Message(testMessage);
+
+        message.getPIDSegment().removePatientIdentifierField("NI");
+
+        String expected = testMessage.replace("~987654321^^^GOV^NI", "").replace("||19850101000000|M|||", "||19850101000000|M");
+
+        assertEquals(expected, message.toString());
+        assertEquals("123456789^^^HOSP^MR", message.getFieldValue("PID", 0, 3));
+    }
+
+    @Test
+    @DisplayName("Structural changes expand the message")
+    void structuralChangesExpandTheMessage() throws Exception {
+        LazyHL7Message message = new LazyHL7Message(testMessage);
+
+        message.removeSegment("EVN");
+
+        assertTrue(message.isExpanded());
+        assertEquals(4, message.getTotalSegmentCount());
+        assertEquals(testMessage.replace("EVN|A04|20010101000000|||^KOOPA^BOWSER^^^^^^^CURRENT\r", ""), message.toString());
+    }
+}
@@ -145,8 +145,7 @@ public abstract class ESRBroker {
             throws ResourceInvalidSortException, ResourceInvalidSearchException, ESRSortingException, ESRPaginationException {
 
         ESRMethodOutcome outcome = getCache().search(attributeName, attributeValue)
-                .sortBy(sortAttribute, sortAscendingOrder)
-                .paginate(pageSize, page)
+                .sortAndPaginate(sortAttribute, sortAscendingOrder, pageSize, page)
                 .toESRMethodOutcome();
         if(outcome.isSearchSuccessful()){
             for(ExtremelySimplifiedResource resource: outcome.getSearchResult()){
@@ -171,7 +170,7 @@ public abstract class ESRBroker {
     public ESRMethodOutcome getPaginatedSortedDirectoryEntrySet(Integer pageSize, Integer page, String sortParameter, Boolean sortOrder)
             throws ResourceInvalidSortException, ESRSortingException, ESRPaginationException, ResourceInvalidSearchException {
         getLogger().debug(".getPaginatedSortedDirectoryEntrySet(): Entry, pageSize->{}, page->{}, sortParameter->{}, sortOrder->{}", pageSize, page, sortParameter, sortOrder);
-        ESRMethodOutcome outcome = getCache().allResources().sortBy(sortParameter, sortOrder).paginate(pageSize, page).toESRMethodOutcome();
+        ESRMethodOutcome outcome = getCache().allResources().sortAndPaginate(sortParameter, sortOrder, pageSize, page).toESRMethodOutcome();
         if(outcome.isSearchSuccessful()) {
             for (ExtremelySimplifiedResource currentEntry : outcome.getSearchResult()){
                 enrichWithDirectoryEntryTypeSpecificInformation(currentEntry);
@@ -184,7 +183,7 @@ public abstract class ESRBroker {
     public ESRMethodOutcome getPaginatedUnsortedDirectoryEntrySet(Integer pageSize, Integer page)
             throws ESRSortingException, ESRPaginationException, ResourceInvalidSearchException {
         // Merely a pass-through at this time, just enriching each entry
-        ESRMethodOutcome retrievalOutcome = getCache().allResources().sortBy("SimplifiedID").paginate(pageSize,page).toESRMethodOutcome();
+        ESRMethodOutcome retrievalOutcome = getCache().allResources().sortAndPaginate("SimplifiedID", true, pageSize, page).toESRMethodOutcome();
         if(retrievalOutcome.isSearchSuccessful()){
             for(ExtremelySimplifiedResource currentEntry: retrievalOutcome.getSearchResult()){
                 enrichWithDirectoryEntryTypeSpecificInformation(currentEntry);
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.core.model.ui.cache.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An n-gram (trigram) index over the (lower case) text values of a set of keys, used to answer "value contains
+ * fragment" searches without scanning every key.
+ *
+ * A search collects the keys that have every trigram of the fragment (starting from the trigram with the fewest
+ * keys) and then checks the candidates' values actually contain the fragment. Fragments shorter than a trigram can't
+ * use the index - isSearchable() returns false for them and the caller should fall back to a scan.
+ *
+ * @param <K> the key type
+ */
+public class ESRSubstringIndex<K> {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ConcurrentHashMap<String, Set<K>> gramIndex;
+    private final ConcurrentHashMap<K, String> indexedValueMap;
+    private final Object indexUpdateLock;
+
+    //
+    // Constructor(s)
+    //
+
+    public ESRSubstringIndex(){
+        this.gramIndex = new ConcurrentHashMap<>();
+        this.indexedValueMap = new ConcurrentHashMap<>();
+        this.indexUpdateLock = new Object();
+    }
+
+    //
+    // Business Methods
+    //
+
+    public void index(K key, String value){
+        if(key == null){
+            return;
+        }
+        synchronized (indexUpdateLock) {
+            removeKey(key);
+            if(value == null){
+                return;
+            }
+            String lowerCaseValue = value.toLowerCase();
+            indexedValueMap.put(key, lowerCaseValue);
+            for(String currentGram: getGrams(lowerCaseValue)){
+                gramIndex.computeIfAbsent(currentGram, gram -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+    }
+
+    public void remove(K key){
+        if(key == null){
+            return;
+        }
+        synchronized (indexUpdateLock) {
+            removeKey(key);
+        }
+    }
+
+    public void clear(){
+        synchronized (indexUpdateLock) {
+            gramIndex.clear();
+            indexedValueMap.clear();
+        }
+    }
+
+    public boolean isSearchable(String fragment){
+        boolean searchable = (fragment != null) && (fragment.length() >= GRAM_LENGTH);
+        return(searchable);
+    }
+
+    /**
+     * Returns the keys whose (lower case) value contains the (lower case) fragment. Callers with case sensitive
+     * matching rules should re-check the returned keys.
+     *
+     * @param fragment the search fragment, which must be isSearchable()
+     * @return the matching keys
+     */
+    public List<K> search(String fragment){
+        if(!isSearchable(fragment)){
+            return(new ArrayList<>());
+        }
+        String lowerCaseFragment = fragment.toLowerCase();
+        Set<K> smallestCandidateSet = null;
+        for(String currentGram: getGrams(lowerCaseFragment)){
+            Set<K> candidateSet = gramIndex.get(currentGram);
+            if(candidateSet == null){
+                return(new ArrayList<>());
+            }
+            if(smallestCandidateSet == null || candidateSet.size() < smallestCandidateSet.size()){
+                smallestCandidateSet = candidateSet;
+            }
+        }
+        List<K> matchingKeys = new ArrayList<>();
+        if(smallestCandidateSet == null){
+            return(matchingKeys);
+        }
+        for(K currentKey: smallestCandidateSet){
+            String currentValue = indexedValueMap.get(currentKey);
+            if(currentValue != null && currentValue.contains(lowerCaseFragment)){
+                matchingKeys.add(currentKey);
+            }
+        }
+        return(matchingKeys);
+    }
+
+    public int size(){
+        return(indexedValueMap.size());
+    }
+
+    //
+    // Helpers
+    //
+
+    private void removeKey(K key){
+        String existingValue = indexedValueMap.remove(key);
+        if(existingValue == null){
+            return;
+        }
+        for(String currentGram: getGrams(existingValue)){
+            gramIndex.computeIfPresent(currentGram, (gram, keySet) -> {
+                keySet.remove(key);
+                return(keySet.isEmpty() ? null : keySet);
+            });
+        }
+    }
+
+    private Set<String> getGrams(String lowerCaseValue){
+        if(lowerCaseValue.length() < GRAM_LENGTH){
+            return(Collections.emptySet());
+        }
+        Set<String> gramSet = new HashSet<>();
+        for(int counter = 0; counter + GRAM_LENGTH <= lowerCaseValue.length(); counter += 1){
+            gramSet.add(lowerCaseValue.substring(counter, counter + GRAM_LENGTH));
+        }
+        return(gramSet);
+    }
+}
@@ -11,12 +11,19 @@ import org.slf4j.Logger;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 public abstract class PegacornESRCache {
     private ConcurrentHashMap<IdentifierESDT, ExtremelySimplifiedResource> identifier2ESRMap;
     private ConcurrentHashMap<String, ExtremelySimplifiedResource> simplifiedID2ESRMap;
     private ConcurrentHashMap<String, ExtremelySimplifiedResource> displayName2ESRMap;
 
+    // Search indexes (kept in step with the maps above): sorted maps for the prefix searches on the (lower case)
+    // simplifiedID and displayName, and an n-gram index for the substring searches on the identifier values
+    private ConcurrentSkipListMap<String, ExtremelySimplifiedResource> simplifiedIDPrefixIndex;
+    private ConcurrentSkipListMap<String, ExtremelySimplifiedResource> displayNamePrefixIndex;
+    private ESRSubstringIndex<IdentifierESDT> identifierValueIndex;
+
     abstract protected Logger getLogger();
 
     abstract public ESRSearchResult search(String searchAttributeName, String searchAttributeValue)
@@ -29,6 +36,9 @@ public abstract class PegacornESRCache {
         identifier2ESRMap = new ConcurrentHashMap<>();
         simplifiedID2ESRMap = new ConcurrentHashMap<>();
         displayName2ESRMap = new ConcurrentHashMap<>();
+        simplifiedIDPrefixIndex = new ConcurrentSkipListMap<>();
+        displayNamePrefixIndex = new ConcurrentSkipListMap<>();
+        identifierValueIndex = new ESRSubstringIndex<>();
     }
 
     public boolean hasEntry(String simplifiedID){
@@ -45,6 +55,10 @@ public abstract class PegacornESRCache {
 
     protected void setIdentifier2ESRMap(ConcurrentHashMap<IdentifierESDT, ExtremelySimplifiedResource> identifier2ESRMap) {
         this.identifier2ESRMap = identifier2ESRMap;
+        this.identifierValueIndex.clear();
+        for(IdentifierESDT currentIdentifier: identifier2ESRMap.keySet()){
+            this.identifierValueIndex.index(currentIdentifier, currentIdentifier.getValue());
+        }
     }
 
     public ConcurrentHashMap<String, ExtremelySimplifiedResource> getSimplifiedID2ESRMap() {
@@ -53,6 +67,7 @@ public abstract class PegacornESRCache {
 
     public void setSimplifiedID2ESRMap(ConcurrentHashMap<String, ExtremelySimplifiedResource> simplifiedID2ESRMap) {
         this.simplifiedID2ESRMap = simplifiedID2ESRMap;
+        this.simplifiedIDPrefixIndex = new ConcurrentSkipListMap<>(simplifiedID2ESRMap);
     }
 
     public ConcurrentHashMap<String, ExtremelySimplifiedResource> getDisplayName2ESRMap() {
@@ -61,6 +76,7 @@ public abstract class PegacornESRCache {
 
     public void setDisplayName2ESRMap(ConcurrentHashMap<String, ExtremelySimplifiedResource> displayName2ESRMap) {
         this.displayName2ESRMap = displayName2ESRMap;
+        this.displayNamePrefixIndex = new ConcurrentSkipListMap<>(displayName2ESRMap);
     }
 
     public ESRMethodOutcome addCacheEntry(ExtremelySimplifiedResource entry){
@@ -106,14 +122,21 @@ public abstract class PegacornESRCache {
         getLogger().trace(".addCacheEntry(): Adding to Identifier based Cache");
         for(IdentifierESDT identifier: entry.getIdentifiers() ){
             this.identifier2ESRMap.put(identifier, entry);
+            this.identifierValueIndex.index(identifier, identifier.getValue());
         }
         getLogger().trace(".addCacheEntry(): Adding to displayName based Cache");
         if(entry.getDisplayName() == null){
             entry.setDisplayName(entry.getSimplifiedID());
         }
-        this.displayName2ESRMap.putIfAbsent(entry.getDisplayName().toLowerCase(), entry);
+        String displayNameKey = entry.getDisplayName().toLowerCase();
+        if(this.displayName2ESRMap.putIfAbsent(displayNameKey, entry) == null){
+            this.displayNamePrefixIndex.put(displayNameKey, entry);
+        }
         getLogger().trace(".addCacheEntry(): Adding to simplifiedID based Cache");
-        this.simplifiedID2ESRMap.putIfAbsent(entry.getSimplifiedID().toLowerCase(), entry);
+        String simplifiedIDKey = entry.getSimplifiedID().toLowerCase();
+        if(this.simplifiedID2ESRMap.putIfAbsent(simplifiedIDKey, entry) == null){
+            this.simplifiedIDPrefixIndex.put(simplifiedIDKey, entry);
+        }
         ESRMethodOutcome outcome = new ESRMethodOutcome();
         outcome.setStatus(ESRMethodOutcomeEnum.CREATE_ENTRY_SUCCESSFUL);
         outcome.setId(entry.getSimplifiedID());
@@ -131,6 +154,7 @@ public abstract class PegacornESRCache {
             return;
         }
         this.identifier2ESRMap.remove(identifier);
+        this.identifierValueIndex.remove(identifier);
         getLogger().debug(".removeCacheEntry(): Exit, entry removed");
     }
 
@@ -146,7 +170,9 @@ public abstract class PegacornESRCache {
                 removeCacheEntry(entryIdentifier);
             }
             this.displayName2ESRMap.remove(foundEntry.getDisplayName().toLowerCase());
+            this.displayNamePrefixIndex.remove(foundEntry.getDisplayName().toLowerCase());
             this.simplifiedID2ESRMap.remove(id.toLowerCase());
+            this.simplifiedIDPrefixIndex.remove(id.toLowerCase());
         }
         getLogger().debug(".removeCacheEntry(): Exit, entry removed");
     }
@@ -211,6 +237,17 @@ public abstract class PegacornESRCache {
         }
     }
 
+    protected List<ExtremelySimplifiedResource> getPrefixMatches(NavigableMap<String, ExtremelySimplifiedResource> prefixIndex, String lowerCasePrefix){
+        List<ExtremelySimplifiedResource> matchList = new ArrayList<>();
+        for(Map.Entry<String, ExtremelySimplifiedResource> currentEntry: prefixIndex.tailMap(lowerCasePrefix, true).entrySet()){
+            if(!currentEntry.getKey().startsWith(lowerCasePrefix)){
+                break;
+            }
+            matchList.add(currentEntry.getValue());
+        }
+        return(matchList);
+    }
+
     //
     // Search Services
     //
@@ -229,14 +266,7 @@ public abstract class PegacornESRCache {
             return(result);
         }
         String simplifiedIDValueAsLowerCase = simplifiedIDValue.toLowerCase();
-        Enumeration<String> idSet = this.simplifiedID2ESRMap.keys();
-        while(idSet.hasMoreElements()){
-            String currentID = idSet.nextElement();
-            if(currentID.toLowerCase().startsWith(simplifiedIDValueAsLowerCase)){
-                ExtremelySimplifiedResource resource = this.simplifiedID2ESRMap.get(currentID);
-                result.getSearchResultList().add(resource);
-            }
-        }
+        result.getSearchResultList().addAll(getPrefixMatches(this.simplifiedIDPrefixIndex, simplifiedIDValueAsLowerCase));
         return(result);
     }
 
@@ -277,9 +307,13 @@ public abstract class PegacornESRCache {
             getLogger().debug(".searchCacheForESRUsingIdentifierParameters(): Exit, return empty result --> {}", result);
             return(result);
         } else {
-            Enumeration<IdentifierESDT> identifierSet = this.identifier2ESRMap.keys();
-            while(identifierSet.hasMoreElements()){
-                IdentifierESDT currentIdentifier = identifierSet.nextElement();
+            Collection<IdentifierESDT> candidateIdentifiers;
+            if(!valueIsNull && identifierValueIndex.isSearchable(value)){
+                candidateIdentifiers = identifierValueIndex.search(value);
+            } else {
+                candidateIdentifiers = this.identifier2ESRMap.keySet();
+            }
+            for(IdentifierESDT currentIdentifier: candidateIdentifiers){
                 boolean valueMatches = false;
                 if(!valueIsNull){
                     if(currentIdentifier.getValue().contains(value)){
@@ -306,8 +340,10 @@ public abstract class PegacornESRCache {
                 }
                 if(useMatches && typeMatches && valueMatches){
                     ExtremelySimplifiedResource resource = this.identifier2ESRMap.get(currentIdentifier);
-                    result.getSearchResultList().add(resource);
-                    break;
+                    if(resource != null) {
+                        result.getSearchResultList().add(resource);
+                        break;
+                    }
                 }
             }
             getLogger().debug(".searchCacheForESRUsingIdentifierParameters(): Exit, result --> {}", result);
@@ -329,14 +365,7 @@ public abstract class PegacornESRCache {
             return(result);
         }
         String displayNameValueAsLowerCase = displayNameValue.toLowerCase();
-        Enumeration<String> displayNameSet = displayName2ESRMap.keys();
-        while(displayNameSet.hasMoreElements()){
-            String currentDisplayName = displayNameSet.nextElement();
-            if(currentDisplayName.toLowerCase().startsWith(displayNameValueAsLowerCase)){
-                ExtremelySimplifiedResource resource = this.simplifiedID2ESRMap.get(currentDisplayName);
-                result.getSearchResultList().add(resource);
-            }
-        }
+        result.getSearchResultList().addAll(getPrefixMatches(this.displayNamePrefixIndex, displayNameValueAsLowerCase));
         return(result);
     }
 
@@ -29,7 +29,6 @@ import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWPayload;
 import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWProcessingOutcomeEnum;
 import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantHandoverPacket;
 import org.apache.camel.Exchange;
-import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,11 +53,12 @@ public class InterProcessingPlantHandoverUoWExtractionBean {
      */
     public UoW extractUoW(InterProcessingPlantHandoverPacket thePacket, Exchange camelExchange) {
         LOG.debug(".extractUoW(): Entry, thePacket --> {}", thePacket);
-        UoW theUoW = SerializationUtils.clone(thePacket.getActionableTask().getTaskWorkItem());
+        // The packet has just been decoded off the wire, so a (shallow) copy of its work item is sufficient - the
+        // payload Strings are immutable and the manifest is copied before it is changed.
+        UoW theUoW = new UoW(thePacket.getActionableTask().getTaskWorkItem());
         UoWPayload outputPayload = new UoWPayload();
-        String clonedPayload = SerializationUtils.clone(theUoW.getIngresContent().getPayload());
-        outputPayload.setPayload(clonedPayload);
-        DataParcelManifest parcelManifest = SerializationUtils.clone(theUoW.getPayloadTopicID());
+        outputPayload.setPayload(theUoW.getIngresContent().getPayload());
+        DataParcelManifest parcelManifest = DataParcelManifest.copyOf(theUoW.getPayloadTopicID());
         parcelManifest.setDataParcelFlowDirection(DataParcelDirectionEnum.INFORMATION_FLOW_OUTBOUND_DATA_PARCEL);
         parcelManifest.setDataParcelType(DataParcelTypeEnum.GENERAL_DATA_PARCEL_TYPE);
         parcelManifest.setEnforcementPointApprovalStatus(PolicyEnforcementPointApprovalStatusEnum.POLICY_ENFORCEMENT_POINT_APPROVAL_NEGATIVE);
@@ -0,0 +1,793 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.platform.edge.model.ipc.codec;
+
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelQualityStatement;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.DataParcelDirectionEnum;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.DataParcelNormalisationStatusEnum;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.DataParcelTypeEnum;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.DataParcelValidationStatusEnum;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.PolicyEnforcementPointApprovalStatusEnum;
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.traceability.datatypes.TaskTraceabilityElementType;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.work.datatypes.TaskWorkItemType;
+import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWIdentifier;
+import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWPayload;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantHandoverPacket;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantHandoverPacketStatusEnum;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantHandoverResponsePacket;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantWatchDogHeartbeat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The wire format used for the inter-ProcessingPlant (JGroups IPC) packets.
+ *
+ * Every frame starts with a version byte:
+ * <ul>
+ *     <li>VERSION_JAVA_SERIALIZATION - the packet as a length-prefixed Java serialisation blob (the original format,
+ *     still written if the binary encoding of a packet fails and always readable)</li>
+ *     <li>VERSION_BINARY_1 - a string table followed by a schema-driven body. The descriptor/manifest/identifier
+ *     strings are written once into the table and referenced by index from the body, the payload bodies are written
+ *     as UTF-8 (deflated when they are large) and only the "rest" of the actionable task (its identity, traceability,
+ *     reason etc.) - with the work item payloads removed - is carried as a Java serialisation blob.</li>
+ * </ul>
+ *
+ * Every length and count read from a frame is checked against an upper bound before anything is allocated, so a
+ * corrupt frame fails with an IOException rather than an OutOfMemoryError.
+ */
+public final class InterProcessingPlantPacketWireCodec {
+    private static final Logger LOG = LoggerFactory.getLogger(InterProcessingPlantPacketWireCodec.class);
+
+    public static final byte VERSION_JAVA_SERIALIZATION = 0;
+    public static final byte VERSION_BINARY_1 = 1;
+    public static final byte CURRENT_VERSION = VERSION_BINARY_1;
+
+    private static final int COMPRESSION_THRESHOLD = 4096;
+
+    // Upper bounds on what a frame can declare
+    static final int MAXIMUM_BLOB_LENGTH = 128 * 1024 * 1024;
+    static final int MAXIMUM_STRING_LENGTH = 1024 * 1024;
+    static final int MAXIMUM_ELEMENT_COUNT = 65536;
+
+    private static final byte BODY_NULL = 0;
+    private static final byte BODY_RAW = 1;
+    private static final byte BODY_DEFLATED = 2;
+
+    private InterProcessingPlantPacketWireCodec(){
+    }
+
+    //
+    // Handover Packet
+    //
+
+    public static void writeHandoverPacket(InterProcessingPlantHandoverPacket packet, DataOutput output) throws IOException {
+        getLogger().debug(".writeHandoverPacket(): Entry");
+        byte[] frame = null;
+        try {
+            FrameWriter writer = new FrameWriter();
+            writer.writeTask(packet.getActionableTask());
+            writer.writeSerializable(packet.getUpstreamFulfillmentTaskDetails());
+            writer.writeString(packet.getMessageIdentifier());
+            writer.writeInteger(packet.getMessageSize());
+            writer.writeInstant(packet.getEventProcessingStartTime());
+            writer.writeVarInt(packet.getMessageTransferCount());
+            writer.writeInstant(packet.getMessageSendStartInstant());
+            writer.writeString(packet.getSource());
+            writer.writeString(packet.getTarget());
+            frame = writer.toFrame();
+        } catch (IOException | RuntimeException encodingException) {
+            getLogger().warn(".writeHandoverPacket(): Unable to binary encode packet, falling back to Java serialisation, reason->{}", encodingException.getMessage());
+        }
+        writeFrame(frame, packet, output);
+        getLogger().debug(".writeHandoverPacket(): Exit");
+    }
+
+    public static void readHandoverPacket(InterProcessingPlantHandoverPacket packet, DataInput input) throws IOException, ClassNotFoundException {
+        getLogger().debug(".readHandoverPacket(): Entry");
+        byte version = input.readByte();
+        switch(version){
+            case VERSION_JAVA_SERIALIZATION: {
+                InterProcessingPlantHandoverPacket original = readJavaFrame(input, InterProcessingPlantHandoverPacket.class);
+                packet.setActionableTask(original.getActionableTask());
+                packet.setUpstreamFulfillmentTaskDetails(original.getUpstreamFulfillmentTaskDetails());
+                packet.setMessageIdentifier(original.getMessageIdentifier());
+                packet.setMessageSize(original.getMessageSize());
+                packet.setEventProcessingStartTime(original.getEventProcessingStartTime());
+                packet.setMessageTransferCount(original.getMessageTransferCount());
+                packet.setMessageSendStartInstant(original.getMessageSendStartInstant());
+                packet.setSource(original.getSource());
+                packet.setTarget(original.getTarget());
+                break;
+            }
+            case VERSION_BINARY_1: {
+                FrameReader reader = new FrameReader(input);
+                packet.setActionableTask(reader.readTask());
+                packet.setUpstreamFulfillmentTaskDetails(reader.readSerializable(TaskTraceabilityElementType.class));
+                packet.setMessageIdentifier(reader.readString());
+                packet.setMessageSize(reader.readInteger());
+                packet.setEventProcessingStartTime(reader.readInstant());
+                packet.setMessageTransferCount(reader.readVarInt());
+                packet.setMessageSendStartInstant(reader.readInstant());
+                packet.setSource(reader.readString());
+                packet.setTarget(reader.readString());
+                break;
+            }
+            default:
+                throw(new IOException("Unsupported InterProcessingPlantHandoverPacket wire version: " + version));
+        }
+        getLogger().debug(".readHandoverPacket(): Exit, version->{}", version);
+    }
+
+    //
+    // Handover Response Packet
+    //
+
+    public static void writeHandoverResponsePacket(InterProcessingPlantHandoverResponsePacket packet, DataOutput output) throws IOException {
+        getLogger().debug(".writeHandoverResponsePacket(): Entry");
+        byte[] frame = null;
+        try {
+            FrameWriter writer = new FrameWriter();
+            writer.writeSerializable(packet.getDownstreamActionableTaskId());
+            writer.writeSerializable(packet.getActionableTaskId());
+            writer.writeString(packet.getMessageIdentifier());
+            writer.writeInteger(packet.getMessageSize());
+            writer.writeInstant(packet.getMessageSendFinishInstant());
+            writer.writeEnum(packet.getStatus());
+            writer.writeString(packet.getStatusReason());
+            frame = writer.toFrame();
+        } catch (IOException | RuntimeException encodingException) {
+            getLogger().warn(".writeHandoverResponsePacket(): Unable to binary encode packet, falling back to Java serialisation, reason->{}", encodingException.getMessage());
+        }
+        writeFrame(frame, packet, output);
+        getLogger().debug(".writeHandoverResponsePacket(): Exit");
+    }
+
+    public static void readHandoverResponsePacket(InterProcessingPlantHandoverResponsePacket packet, DataInput input) throws IOException, ClassNotFoundException {
+        getLogger().debug(".readHandoverResponsePacket(): Entry");
+        byte version = input.readByte();
+        switch(version){
+            case VERSION_JAVA_SERIALIZATION: {
+                InterProcessingPlantHandoverResponsePacket original = readJavaFrame(input, InterProcessingPlantHandoverResponsePacket.class);
+                packet.setDownstreamActionableTaskId(original.getDownstreamActionableTaskId());
+                packet.setActionableTaskId(original.getActionableTaskId());
+                packet.setMessageIdentifier(original.getMessageIdentifier());
+                packet.setMessageSize(original.getMessageSize());
+                packet.setMessageSendFinishInstant(original.getMessageSendFinishInstant());
+                packet.setStatus(original.getStatus());
+                packet.setStatusReason(original.getStatusReason());
+                break;
+            }
+            case VERSION_BINARY_1: {
+                FrameReader reader = new FrameReader(input);
+                packet.setDownstreamActionableTaskId(reader.readSerializable(TaskIdType.class));
+                packet.setActionableTaskId(reader.readSerializable(TaskIdType.class));
+                packet.setMessageIdentifier(reader.readString());
+                packet.setMessageSize(reader.readInteger());
+                packet.setMessageSendFinishInstant(reader.readInstant());
+                packet.setStatus(reader.readEnum(InterProcessingPlantHandoverPacketStatusEnum.class));
+                packet.setStatusReason(reader.readString());
+                break;
+            }
+            default:
+                throw(new IOException("Unsupported InterProcessingPlantHandoverResponsePacket wire version: " + version));
+        }
+        getLogger().debug(".readHandoverResponsePacket(): Exit, version->{}", version);
+    }
+
+    //
+    // WatchDog Heartbeat
+    //
+
+    public static void writeHeartbeat(InterProcessingPlantWatchDogHeartbeat heartbeat, DataOutput output) throws IOException {
+        FrameWriter writer = new FrameWriter();
+        writer.writeString(heartbeat.getHeartbeatIdentifier());
+        writer.writeLocalDateTime(heartbeat.getSendDate());
+        writeFrame(writer.toFrame(), heartbeat, output);
+    }
+
+    public static void readHeartbeat(InterProcessingPlantWatchDogHeartbeat heartbeat, DataInput input) throws IOException, ClassNotFoundException {
+        byte version = input.readByte();
+        switch(version){
+            case VERSION_JAVA_SERIALIZATION: {
+                InterProcessingPlantWatchDogHeartbeat original = readJavaFrame(input, InterProcessingPlantWatchDogHeartbeat.class);
+                heartbeat.setHeartbeatIdentifier(original.getHeartbeatIdentifier());
+                heartbeat.setSendDate(original.getSendDate());
+                break;
+            }
+            case VERSION_BINARY_1: {
+                FrameReader reader = new FrameReader(input);
+                heartbeat.setHeartbeatIdentifier(reader.readString());
+                heartbeat.setSendDate(reader.readLocalDateTime());
+                break;
+            }
+            default:
+                throw(new IOException("Unsupported InterProcessingPlantWatchDogHeartbeat wire version: " + version));
+        }
+    }
+
+    //
+    // Frame Helpers
+    //
+
+    private static void writeFrame(byte[] binaryFrame, Serializable packet, DataOutput output) throws IOException {
+        if(binaryFrame != null){
+            output.writeByte(VERSION_BINARY_1);
+            output.write(binaryFrame);
+        } else {
+            byte[] javaFrame = javaSerialise(packet);
+            output.writeByte(VERSION_JAVA_SERIALIZATION);
+            output.writeInt(javaFrame.length);
+            output.write(javaFrame);
+        }
+    }
+
+    private static <T> T readJavaFrame(DataInput input, Class<T> packetClass) throws IOException, ClassNotFoundException {
+        int frameLength = input.readInt();
+        FrameReader.checkLength("Java serialisation frame", frameLength, MAXIMUM_BLOB_LENGTH);
+        byte[] javaFrame = new byte[frameLength];
+        input.readFully(javaFrame);
+        return(javaDeserialise(javaFrame, packetClass));
+    }
+
+    private static byte[] javaSerialise(Object object, Object replacedObject, Object replacementObject) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try(ObjectOutputStream objectStream = new ReplacingObjectOutputStream(byteStream, replacedObject, replacementObject)){
+            objectStream.writeObject(object);
+        }
+        return(byteStream.toByteArray());
+    }
+
+    private static byte[] javaSerialise(Object object) throws IOException {
+        return(javaSerialise(object, null, null));
+    }
+
+    private static <T> T javaDeserialise(byte[] bytes, Class<T> expectedClass) throws IOException, ClassNotFoundException {
+        try(ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(bytes))){
+            Object object = objectStream.readObject();
+            if(object != null && !expectedClass.isInstance(object)){
+                throw(new IOException("Unexpected object in frame, expected->" + expectedClass.getSimpleName() + ", received->" + object.getClass().getSimpleName()));
+            }
+            return(expectedClass.cast(object));
+        }
+    }
+
+    private static TaskWorkItemType stripPayloads(TaskWorkItemType workItem){
+        TaskWorkItemType strippedWorkItem = new TaskWorkItemType();
+        if(workItem.hasTypeID()){
+            strippedWorkItem.setUoWTypeID(workItem.getTypeID());
+        }
+        strippedWorkItem.setInstanceID(workItem.getInstanceID());
+        strippedWorkItem.setProcessingOutcome(workItem.getProcessingOutcome());
+        strippedWorkItem.setFailureDescription(workItem.getFailureDescription());
+        return(strippedWorkItem);
+    }
+
+    protected static Logger getLogger(){
+        return(LOG);
+    }
+
+    //
+    // Internal Types
+    //
+
+    /**
+     * Serialises an object graph, substituting one (identity-matched) object in the graph with another, so that the
+     * actionable task can be written without its work item payloads without touching the (shared) task itself.
+     */
+    private static class ReplacingObjectOutputStream extends ObjectOutputStream {
+        private final Object replacedObject;
+        private final Object replacementObject;
+
+        ReplacingObjectOutputStream(OutputStream outputStream, Object replacedObject, Object replacementObject) throws IOException {
+            super(outputStream);
+            this.replacedObject = replacedObject;
+            this.replacementObject = replacementObject;
+            if(replacedObject != null){
+                enableReplaceObject(true);
+            }
+        }
+
+        @Override
+        protected Object replaceObject(Object object) throws IOException {
+            if(object == replacedObject){
+                return(replacementObject);
+            }
+            return(object);
+        }
+    }
+
+    /**
+     * Encodes the body of a frame, collecting the (interned) strings into the string table that is written ahead of
+     * the body.
+     */
+    private static class FrameWriter {
+        private final ByteArrayOutputStream bodyBytes;
+        private final DataOutputStream body;
+        private final Map<String, Integer> stringTable;
+        private final List<String> strings;
+
+        FrameWriter(){
+            this.bodyBytes = new ByteArrayOutputStream(256);
+            this.body = new DataOutputStream(bodyBytes);
+            this.stringTable = new HashMap<>();
+            this.strings = new ArrayList<>();
+        }
+
+        byte[] toFrame() throws IOException {
+            body.flush();
+            ByteArrayOutputStream frameBytes = new ByteArrayOutputStream(bodyBytes.size() + 64);
+            DataOutputStream frame = new DataOutputStream(frameBytes);
+            writeVarInt(frame, strings.size());
+            for(String currentString: strings){
+                byte[] utf8 = currentString.getBytes(StandardCharsets.UTF_8);
+                FrameReader.checkLength("string", utf8.length, MAXIMUM_STRING_LENGTH);
+                writeVarInt(frame, utf8.length);
+                frame.write(utf8);
+            }
+            bodyBytes.writeTo(frame);
+            frame.flush();
+            return(frameBytes.toByteArray());
+        }
+
+        void writeVarInt(int value) throws IOException {
+            writeVarInt(body, value);
+        }
+
+        static void writeVarInt(DataOutput output, int value) throws IOException {
+            while((value & ~0x7F) != 0){
+                output.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.writeByte(value);
+        }
+
+        void writeString(String value) throws IOException {
+            if(value == null){
+                writeVarInt(0);
+                return;
+            }
+            Integer reference = stringTable.get(value);
+            if(reference == null){
+                strings.add(value);
+                reference = strings.size();
+                stringTable.put(value, reference);
+            }
+            writeVarInt(reference);
+        }
+
+        void writeEnum(Enum<?> value) throws IOException {
+            writeString(value == null ? null : value.name());
+        }
+
+        void writeBoolean(boolean value) throws IOException {
+            body.writeBoolean(value);
+        }
+
+        void writeInteger(Integer value) throws IOException {
+            body.writeBoolean(value != null);
+            if(value != null){
+                body.writeInt(value);
+            }
+        }
+
+        void writeInstant(Instant value) throws IOException {
+            body.writeBoolean(value != null);
+            if(value != null){
+                body.writeLong(value.getEpochSecond());
+                body.writeInt(value.getNano());
+            }
+        }
+
+        void writeLocalDateTime(LocalDateTime value) throws IOException {
+            body.writeBoolean(value != null);
+            if(value != null){
+                body.writeLong(value.toLocalDate().toEpochDay());
+                body.writeLong(value.toLocalTime().toNanoOfDay());
+            }
+        }
+
+        void writeBytes(byte[] value) throws IOException {
+            if(value == null){
+                writeVarInt(0);
+                return;
+            }
+            writeVarInt(value.length + 1);
+            body.write(value);
+        }
+
+        void writeSerializable(Serializable value) throws IOException {
+            writeBytes(value == null ? null : javaSerialise(value));
+        }
+
+        void writeDescriptor(DataParcelTypeDescriptor descriptor) throws IOException {
+            writeBoolean(descriptor != null);
+            if(descriptor != null){
+                writeString(descriptor.getDataParcelDefiner());
+                writeString(descriptor.getDataParcelCategory());
+                writeString(descriptor.getDataParcelSubCategory());
+                writeString(descriptor.getDataParcelResource());
+                writeString(descriptor.getDataParcelSegment());
+                writeString(descriptor.getDataParcelAttribute());
+                writeString(descriptor.getDataParcelDiscriminatorType());
+                writeString(descriptor.getDataParcelDiscriminatorValue());
+                writeString(descriptor.getVersion());
+            }
+        }
+
+        void writeManifest(DataParcelManifest manifest) throws IOException {
+            writeBoolean(manifest != null);
+            if(manifest != null){
+                writeDescriptor(manifest.getContentDescriptor());
+                writeDescriptor(manifest.getContainerDescriptor());
+                writeSerializable(manifest.getPayloadQuality());
+                writeEnum(manifest.getNormalisationStatus());
+                writeEnum(manifest.getValidationStatus());
+                writeEnum(manifest.getDataParcelType());
+                writeString(manifest.getSourceSystem());
+                writeString(manifest.getIntendedTargetSystem());
+                writeEnum(manifest.getEnforcementPointApprovalStatus());
+                writeBoolean(manifest.isInterSubsystemDistributable());
+                writeEnum(manifest.getDataParcelFlowDirection());
+                writeString(manifest.getSourceProcessingPlantParticipantName());
+                writeString(manifest.getTargetProcessingPlantParticipantName());
+            }
+        }
+
+        void writePayloadBody(String content) throws IOException {
+            if(content == null){
+                body.writeByte(BODY_NULL);
+                return;
+            }
+            byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+            FrameReader.checkLength("payload body", utf8.length, MAXIMUM_BLOB_LENGTH);
+            if(utf8.length >= COMPRESSION_THRESHOLD){
+                byte[] deflated = deflate(utf8);
+                if(deflated != null){
+                    body.writeByte(BODY_DEFLATED);
+                    writeVarInt(utf8.length);
+                    writeVarInt(deflated.length);
+                    body.write(deflated);
+                    return;
+                }
+            }
+            body.writeByte(BODY_RAW);
+            writeVarInt(utf8.length);
+            body.write(utf8);
+        }
+
+        void writePayload(UoWPayload payload) throws IOException {
+            writeBoolean(payload != null);
+            if(payload != null){
+                writeManifest(payload.getPayloadManifest());
+                writePayloadBody(payload.getPayload());
+            }
+        }
+
+        void writeTask(PetasosActionableTask task) throws IOException {
+            writeBoolean(task != null);
+            if(task == null){
+                return;
+            }
+            TaskWorkItemType workItem = task.getTaskWorkItem();
+            if(workItem == null){
+                writeBytes(javaSerialise(task));
+                writeBoolean(false);
+                return;
+            }
+            writeBytes(javaSerialise(task, workItem, stripPayloads(workItem)));
+            writeBoolean(true);
+            writePayload(workItem.getIngresContent());
+            List<UoWPayload> egressPayloads = new ArrayList<>();
+            if(workItem.getEgressContent() != null){
+                egressPayloads.addAll(workItem.getEgressContent().getPayloadElements());
+            }
+            FrameReader.checkLength("egress payload", egressPayloads.size(), MAXIMUM_ELEMENT_COUNT);
+            writeVarInt(egressPayloads.size());
+            for(UoWPayload currentPayload: egressPayloads){
+                writePayload(currentPayload);
+            }
+        }
+
+        /**
+         * Deflates (best speed) the content, returning null if it doesn't actually get any smaller.
+         */
+        private static byte[] deflate(byte[] content){
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(content);
+                deflater.finish();
+                ByteArrayOutputStream deflatedBytes = new ByteArrayOutputStream(content.length / 2);
+                byte[] buffer = new byte[8192];
+                while(!deflater.finished()){
+                    int deflatedCount = deflater.deflate(buffer);
+                    deflatedBytes.write(buffer, 0, deflatedCount);
+                    if(deflatedBytes.size() >= content.length){
+                        return(null);
+                    }
+                }
+                return(deflatedBytes.toByteArray());
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Decodes the body of a (VERSION_BINARY_1) frame, the string table being read as part of construction.
+     */
+    private static class FrameReader {
+        private final DataInput input;
+        private final String[] strings;
+
+        FrameReader(DataInput input) throws IOException {
+            this.input = input;
+            int stringCount = readLength(input, "string table", MAXIMUM_ELEMENT_COUNT);
+            this.strings = new String[stringCount];
+            for(int counter = 0; counter < stringCount; counter += 1){
+                byte[] utf8 = new byte[readLength(input, "string", MAXIMUM_STRING_LENGTH)];
+                input.readFully(utf8);
+                strings[counter] = new String(utf8, StandardCharsets.UTF_8);
+            }
+        }
+
+        int readVarInt() throws IOException {
+            return(readVarInt(input));
+        }
+
+        static int readVarInt(DataInput input) throws IOException {
+            int value = 0;
+            for(int shift = 0; shift < 35; shift += 7){
+                byte currentByte = input.readByte();
+                value |= (currentByte & 0x7F) << shift;
+                if((currentByte & 0x80) == 0){
+                    return(value);
+                }
+            }
+            throw(new IOException("Malformed variable length integer"));
+        }
+
+        static int readLength(DataInput input, String field, int maximumLength) throws IOException {
+            return(checkLength(field, readVarInt(input), maximumLength));
+        }
+
+        static int checkLength(String field, int length, int maximumLength) throws IOException {
+            if(length < 0 || length > maximumLength){
+                throw(new IOException("Invalid " + field + " length: " + length + " (maximum " + maximumLength + ")"));
+            }
+            return(length);
+        }
+
+        String readString() throws IOException {
+            int reference = readVarInt();
+            if(reference == 0){
+                return(null);
+            }
+            if(reference > strings.length){
+                throw(new IOException("String table reference out of range: " + reference));
+            }
+            return(strings[reference - 1]);
+        }
+
+        <E extends Enum<E>> E readEnum(Class<E> enumClass) throws IOException {
+            String name = readString();
+            if(name == null){
+                return(null);
+            }
+            try {
+                return(Enum.valueOf(enumClass, name));
+            } catch (IllegalArgumentException unknownValue){
+                throw(new IOException("Unknown " + enumClass.getSimpleName() + " value: " + name));
+            }
+        }
+
+        boolean readBoolean() throws IOException {
+            return(input.readBoolean());
+        }
+
+        Integer readInteger() throws IOException {
+            if(!input.readBoolean()){
+                return(null);
+            }
+            return(input.readInt());
+        }
+
+        Instant readInstant() throws IOException {
+            if(!input.readBoolean()){
+                return(null);
+            }
+            long epochSecond = input.readLong();
+            int nanos = input.readInt();
+            return(Instant.ofEpochSecond(epochSecond, nanos));
+        }
+
+        LocalDateTime readLocalDateTime() throws IOException {
+            if(!input.readBoolean()){
+                return(null);
+            }
+            LocalDate date = LocalDate.ofEpochDay(input.readLong());
+            LocalTime time = LocalTime.ofNanoOfDay(input.readLong());
+            return(LocalDateTime.of(date, time));
+        }
+
+        byte[] readBytes() throws IOException {
+            // the length is written +1, so that 0 can mean null
+            int length = readLength(input, "blob", MAXIMUM_BLOB_LENGTH + 1);
+            if(length == 0){
+                return(null);
+            }
+            byte[] bytes = new byte[length - 1];
+            input.readFully(bytes);
+            return(bytes);
+        }
+
+        <T> T readSerializable(Class<T> expectedClass) throws IOException, ClassNotFoundException {
+            byte[] bytes = readBytes();
+            if(bytes == null){
+                return(null);
+            }
+            return(javaDeserialise(bytes, expectedClass));
+        }
+
+        DataParcelTypeDescriptor readDescriptor() throws IOException {
+            if(!readBoolean()){
+                return(null);
+            }
+            DataParcelTypeDescriptor descriptor = new DataParcelTypeDescriptor();
+            descriptor.setDataParcelDefiner(readString());
+            descriptor.setDataParcelCategory(readString());
+            descriptor.setDataParcelSubCategory(readString());
+            descriptor.setDataParcelResource(readString());
+            descriptor.setDataParcelSegment(readString());
+            descriptor.setDataParcelAttribute(readString());
+            descriptor.setDataParcelDiscriminatorType(readString());
+            descriptor.setDataParcelDiscriminatorValue(readString());
+            descriptor.setVersion(readString());
+            return(descriptor);
+        }
+
+        DataParcelManifest readManifest() throws IOException, ClassNotFoundException {
+            if(!readBoolean()){
+                return(null);
+            }
+            DataParcelManifest manifest = new DataParcelManifest();
+            manifest.setContentDescriptor(readDescriptor());
+            manifest.setContainerDescriptor(readDescriptor());
+            manifest.setPayloadQuality(readSerializable(DataParcelQualityStatement.class));
+            manifest.setNormalisationStatus(readEnum(DataParcelNormalisationStatusEnum.class));
+            manifest.setValidationStatus(readEnum(DataParcelValidationStatusEnum.class));
+            manifest.setDataParcelType(readEnum(DataParcelTypeEnum.class));
+            manifest.setSourceSystem(readString());
+            manifest.setIntendedTargetSystem(readString());
+            manifest.setEnforcementPointApprovalStatus(readEnum(PolicyEnforcementPointApprovalStatusEnum.class));
+            manifest.setInterSubsystemDistributable(readBoolean());
+            manifest.setDataParcelFlowDirection(readEnum(DataParcelDirectionEnum.class));
+            manifest.setSourceProcessingPlantParticipantName(readString());
+            manifest.setTargetProcessingPlantParticipantName(readString());
+            return(manifest);
+        }
+
+        String readPayloadBody() throws IOException {
+            byte bodyType = input.readByte();
+            switch(bodyType){
+                case BODY_NULL:
+                    return(null);
+                case BODY_RAW: {
+                    byte[] utf8 = new byte[readLength(input, "payload body", MAXIMUM_BLOB_LENGTH)];
+                    input.readFully(utf8);
+                    return(new String(utf8, StandardCharsets.UTF_8));
+                }
+                case BODY_DEFLATED: {
+                    int contentLength = readLength(input, "inflated payload body", MAXIMUM_BLOB_LENGTH);
+                    byte[] deflated = new byte[readLength(input, "deflated payload body", MAXIMUM_BLOB_LENGTH)];
+                    input.readFully(deflated);
+                    return(new String(inflate(deflated, contentLength), StandardCharsets.UTF_8));
+                }
+                default:
+                    throw(new IOException("Unknown payload body encoding: " + bodyType));
+            }
+        }
+
+        UoWPayload readPayload() throws IOException, ClassNotFoundException {
+            if(!readBoolean()){
+                return(null);
+            }
+            UoWPayload payload = new UoWPayload();
+            payload.setPayloadManifest(readManifest());
+            payload.setPayload(readPayloadBody());
+            return(payload);
+        }
+
+        PetasosActionableTask readTask() throws IOException, ClassNotFoundException {
+            if(!readBoolean()){
+                return(null);
+            }
+            PetasosActionableTask task = javaDeserialise(readBytes(), PetasosActionableTask.class);
+            if(!readBoolean()){
+                return(task);
+            }
+            TaskWorkItemType workItem = task.getTaskWorkItem();
+            UoWPayload ingresContent = readPayload();
+            if(ingresContent != null){
+                // setIngresContent() re-generates the instance id, so keep the sender's one
+                UoWIdentifier instanceID = workItem.getInstanceID();
+                workItem.setIngresContent(ingresContent);
+                workItem.setInstanceID(instanceID);
+            }
+            int egressCount = readLength(input, "egress payload", MAXIMUM_ELEMENT_COUNT);
+            for(int counter = 0; counter < egressCount; counter += 1){
+                workItem.getEgressContent().addPayloadElement(readPayload());
+            }
+            return(task);
+        }
+
+        private static byte[] inflate(byte[] deflated, int contentLength) throws IOException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(deflated);
+                byte[] content = new byte[contentLength];
+                int inflatedCount = 0;
+                while(inflatedCount < contentLength){
+                    int count = inflater.inflate(content, inflatedCount, contentLength - inflatedCount);
+                    if(count == 0 && (inflater.finished() || inflater.needsInput())){
+                        break;
+                    }
+                    inflatedCount += count;
+                }
+                if(inflatedCount != contentLength){
+                    throw(new IOException("Truncated payload body, expected->" + contentLength + ", inflated->" + inflatedCount));
+                }
+                return(content);
+            } catch (DataFormatException formatException) {
+                throw(new IOException("Corrupt payload body", formatException));
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
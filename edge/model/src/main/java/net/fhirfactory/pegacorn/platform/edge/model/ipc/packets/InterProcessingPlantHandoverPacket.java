@@ -26,11 +26,16 @@ import net.fhirfactory.pegacorn.core.constants.petasos.PetasosPropertyConstants;
 import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
 import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosFulfillmentTask;
 import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.traceability.datatypes.TaskTraceabilityElementType;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.codec.InterProcessingPlantPacketWireCodec;
+import org.jgroups.util.Streamable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.Instant;
 
-public class InterProcessingPlantHandoverPacket implements Serializable {
+public class InterProcessingPlantHandoverPacket implements Serializable, Streamable {
     private PetasosActionableTask actionableTask;
     private TaskTraceabilityElementType upstreamFulfillmentTaskDetails;
     private String messageIdentifier;
@@ -135,6 +140,20 @@ public class InterProcessingPlantHandoverPacket implements Serializable {
         this.messageSendStartInstant = messageSendStartInstant;
     }
 
+    //
+    // Wire Format (see InterProcessingPlantPacketWireCodec)
+    //
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        InterProcessingPlantPacketWireCodec.writeHandoverPacket(this, out);
+    }
+
+    @Override
+    public void readFrom(DataInput in) throws IOException, ClassNotFoundException {
+        InterProcessingPlantPacketWireCodec.readHandoverPacket(this, in);
+    }
+
     //
     // To String
     //
@@ -24,11 +24,16 @@ package net.fhirfactory.pegacorn.platform.edge.model.ipc.packets;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import net.fhirfactory.pegacorn.core.constants.petasos.PetasosPropertyConstants;
 import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.codec.InterProcessingPlantPacketWireCodec;
+import org.jgroups.util.Streamable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.Instant;
 
-public class InterProcessingPlantHandoverResponsePacket implements Serializable {
+public class InterProcessingPlantHandoverResponsePacket implements Serializable, Streamable {
     private TaskIdType downstreamActionableTaskId;
     private TaskIdType actionableTaskId;
     private String messageIdentifier;
@@ -112,6 +117,20 @@ public class InterProcessingPlantHandoverResponsePacket implements Serializable
         this.statusReason = statusReason;
     }
 
+    //
+    // Wire Format (see InterProcessingPlantPacketWireCodec)
+    //
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        InterProcessingPlantPacketWireCodec.writeHandoverResponsePacket(this, out);
+    }
+
+    @Override
+    public void readFrom(DataInput in) throws IOException, ClassNotFoundException {
+        InterProcessingPlantPacketWireCodec.readHandoverResponsePacket(this, in);
+    }
+
     //
     // To String
     //
@@ -21,10 +21,16 @@
  */
 package net.fhirfactory.pegacorn.platform.edge.model.ipc.packets;
 
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.codec.InterProcessingPlantPacketWireCodec;
+import org.jgroups.util.Streamable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
-public class InterProcessingPlantWatchDogHeartbeat implements Serializable {
+public class InterProcessingPlantWatchDogHeartbeat implements Serializable, Streamable {
     private String heartbeatIdentifier;
     private LocalDateTime sendDate;
 
@@ -43,4 +49,18 @@ public class InterProcessingPlantWatchDogHeartbeat implements Serializable {
     public void setSendDate(LocalDateTime sendDate) {
         this.sendDate = sendDate;
     }
+
+    //
+    // Wire Format (see InterProcessingPlantPacketWireCodec)
+    //
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        InterProcessingPlantPacketWireCodec.writeHeartbeat(this, out);
+    }
+
+    @Override
+    public void readFrom(DataInput in) throws IOException, ClassNotFoundException {
+        InterProcessingPlantPacketWireCodec.readHeartbeat(this, in);
+    }
 }
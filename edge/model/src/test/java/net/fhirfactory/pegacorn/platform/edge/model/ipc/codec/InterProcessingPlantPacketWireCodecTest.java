@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.platform.edge.model.ipc.codec;
+
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
+import net.fhirfactory.pegacorn.core.model.dataparcel.valuesets.DataParcelDirectionEnum;
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.work.datatypes.TaskWorkItemType;
+import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWPayload;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantHandoverPacket;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantHandoverPacketStatusEnum;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantHandoverResponsePacket;
+import net.fhirfactory.pegacorn.platform.edge.model.ipc.packets.InterProcessingPlantWatchDogHeartbeat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterProcessingPlantPacketWireCodecTest {
+
+    //
+    // Test Fixtures
+    //
+
+    private interface FrameWriter {
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    private static byte[] frame(FrameWriter writer) throws IOException {
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(frameBytes);
+        writer.write(output);
+        output.flush();
+        return(frameBytes.toByteArray());
+    }
+
+    private static DataInputStream input(byte[] frame){
+        return(new DataInputStream(new ByteArrayInputStream(frame)));
+    }
+
+    private static byte[] javaSerialisedFrame(Serializable packet) throws IOException {
+        ByteArrayOutputStream javaBytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream objectStream = new ObjectOutputStream(javaBytes)){
+            objectStream.writeObject(packet);
+        }
+        return(frame(output -> {
+            output.writeByte(InterProcessingPlantPacketWireCodec.VERSION_JAVA_SERIALIZATION);
+            output.writeInt(javaBytes.size());
+            output.write(javaBytes.toByteArray());
+        }));
+    }
+
+    private static DataParcelManifest newManifest(String resource){
+        DataParcelTypeDescriptor descriptor = new DataParcelTypeDescriptor();
+        descriptor.setDataParcelDefiner("FHIRFactory");
+        descriptor.setDataParcelCategory("Test");
+        descriptor.setDataParcelResource(resource);
+        descriptor.setVersion("1.0.0");
+        DataParcelManifest manifest = new DataParcelManifest(descriptor);
+        manifest.setSourceSystem("source-system");
+        manifest.setInterSubsystemDistributable(true);
+        manifest.setDataParcelFlowDirection(DataParcelDirectionEnum.INFORMATION_FLOW_OUTBOUND_DATA_PARCEL);
+        return(manifest);
+    }
+
+    private static TaskIdType newTaskId(String id){
+        TaskIdType taskId = new TaskIdType();
+        taskId.setId(id);
+        return(taskId);
+    }
+
+    private static String largeContent(){
+        StringBuilder content = new StringBuilder();
+        while(content.length() < 20000){
+            content.append("{\"resourceType\":\"Patient\",\"active\":true},");
+        }
+        return(content.toString());
+    }
+
+    private static PetasosActionableTask newTaskWithPayloads(){
+        TaskWorkItemType workItem = new TaskWorkItemType(new UoWPayload(newManifest("Ingres"), "ingres-content"));
+        workItem.getEgressContent().addPayloadElement(new UoWPayload(newManifest("SmallEgress"), "small-egress-content"));
+        workItem.getEgressContent().addPayloadElement(new UoWPayload(newManifest("LargeEgress"), largeContent()));
+        PetasosActionableTask task = new PetasosActionableTask();
+        task.setTaskId(newTaskId("task-1"));
+        task.setTaskWorkItem(workItem);
+        return(task);
+    }
+
+    private static InterProcessingPlantHandoverPacket newHandoverPacket(PetasosActionableTask task){
+        InterProcessingPlantHandoverPacket packet = new InterProcessingPlantHandoverPacket();
+        packet.setActionableTask(task);
+        packet.setMessageIdentifier("message-1");
+        packet.setMessageSize(1234);
+        packet.setEventProcessingStartTime(Instant.ofEpochSecond(1000, 5));
+        packet.setMessageTransferCount(3);
+        packet.setMessageSendStartInstant(Instant.ofEpochSecond(2000, 7));
+        packet.setSource("source-plant");
+        packet.setTarget("target-plant");
+        return(packet);
+    }
+
+    private static void assertSameHandoverFields(InterProcessingPlantHandoverPacket expected, InterProcessingPlantHandoverPacket actual){
+        assertEquals(expected.getMessageIdentifier(), actual.getMessageIdentifier());
+        assertEquals(expected.getMessageSize(), actual.getMessageSize());
+        assertEquals(expected.getEventProcessingStartTime(), actual.getEventProcessingStartTime());
+        assertEquals(expected.getMessageTransferCount(), actual.getMessageTransferCount());
+        assertEquals(expected.getMessageSendStartInstant(), actual.getMessageSendStartInstant());
+        assertEquals(expected.getSource(), actual.getSource());
+        assertEquals(expected.getTarget(), actual.getTarget());
+    }
+
+    private static Set<String> egressContentOf(PetasosActionableTask task){
+        Set<String> content = new HashSet<>();
+        for(UoWPayload currentPayload: task.getTaskWorkItem().getEgressContent().getPayloadElements()){
+            content.add(currentPayload.getPayload());
+        }
+        return(content);
+    }
+
+    //
+    // Handover Packet
+    //
+
+    @Test
+    void handoverPacketRoundTripsAsBinary() throws Exception {
+        PetasosActionableTask task = newTaskWithPayloads();
+        InterProcessingPlantHandoverPacket packet = newHandoverPacket(task);
+        byte[] frame = frame(packet::writeTo);
+        assertEquals(InterProcessingPlantPacketWireCodec.VERSION_BINARY_1, frame[0]);
+        // the large (repetitive) payload body is deflated
+        assertTrue(frame.length < largeContent().length(), "frame->" + frame.length);
+
+        InterProcessingPlantHandoverPacket decodedPacket = new InterProcessingPlantHandoverPacket();
+        decodedPacket.readFrom(input(frame));
+        assertSameHandoverFields(packet, decodedPacket);
+        PetasosActionableTask decodedTask = decodedPacket.getActionableTask();
+        assertEquals("task-1", decodedTask.getTaskId().getId());
+        TaskWorkItemType decodedWorkItem = decodedTask.getTaskWorkItem();
+        assertEquals(task.getTaskWorkItem().getInstanceID(), decodedWorkItem.getInstanceID());
+        assertEquals("ingres-content", decodedWorkItem.getIngresContent().getPayload());
+        assertEquals(newManifest("Ingres"), decodedWorkItem.getIngresContent().getPayloadManifest());
+        assertEquals(egressContentOf(task), egressContentOf(decodedTask));
+        // encoding leaves the (shared) task's payloads alone
+        assertEquals("ingres-content", task.getTaskWorkItem().getIngresContent().getPayload());
+    }
+
+    @Test
+    void handoverPacketRoundTripsNullFields() throws Exception {
+        InterProcessingPlantHandoverPacket packet = new InterProcessingPlantHandoverPacket();
+        byte[] frame = frame(packet::writeTo);
+        assertEquals(InterProcessingPlantPacketWireCodec.VERSION_BINARY_1, frame[0]);
+
+        InterProcessingPlantHandoverPacket decodedPacket = new InterProcessingPlantHandoverPacket();
+        decodedPacket.readFrom(input(frame));
+        assertNull(decodedPacket.getActionableTask());
+        assertNull(decodedPacket.getUpstreamFulfillmentTaskDetails());
+        assertSameHandoverFields(packet, decodedPacket);
+    }
+
+    @Test
+    void handoverPacketRoundTripsTasksWithoutPayloads() throws Exception {
+        PetasosActionableTask taskWithoutWorkItem = new PetasosActionableTask();
+        taskWithoutWorkItem.setTaskId(newTaskId("task-2"));
+        InterProcessingPlantHandoverPacket decodedPacket = new InterProcessingPlantHandoverPacket();
+        decodedPacket.readFrom(input(frame(newHandoverPacket(taskWithoutWorkItem)::writeTo)));
+        assertEquals("task-2", decodedPacket.getActionableTask().getTaskId().getId());
+        assertNull(decodedPacket.getActionableTask().getTaskWorkItem());
+
+        PetasosActionableTask taskWithEmptyWorkItem = new PetasosActionableTask();
+        taskWithEmptyWorkItem.setTaskId(newTaskId("task-3"));
+        taskWithEmptyWorkItem.setTaskWorkItem(new TaskWorkItemType());
+        decodedPacket = new InterProcessingPlantHandoverPacket();
+        decodedPacket.readFrom(input(frame(newHandoverPacket(taskWithEmptyWorkItem)::writeTo)));
+        assertEquals("task-3", decodedPacket.getActionableTask().getTaskId().getId());
+        assertNotNull(decodedPacket.getActionableTask().getTaskWorkItem());
+        assertNull(decodedPacket.getActionableTask().getTaskWorkItem().getIngresContent());
+    }
+
+    @Test
+    void handoverPacketReadsJavaSerialisedFrame() throws Exception {
+        InterProcessingPlantHandoverPacket packet = newHandoverPacket(newTaskWithPayloads());
+        InterProcessingPlantHandoverPacket decodedPacket = new InterProcessingPlantHandoverPacket();
+        decodedPacket.readFrom(input(javaSerialisedFrame(packet)));
+        assertSameHandoverFields(packet, decodedPacket);
+        assertEquals("ingres-content", decodedPacket.getActionableTask().getTaskWorkItem().getIngresContent().getPayload());
+        assertEquals(egressContentOf(packet.getActionableTask()), egressContentOf(decodedPacket.getActionableTask()));
+    }
+
+    //
+    // Handover Response Packet
+    //
+
+    @Test
+    void handoverResponsePacketRoundTrips() throws Exception {
+        InterProcessingPlantHandoverResponsePacket packet = new InterProcessingPlantHandoverResponsePacket();
+        packet.setActionableTaskId(newTaskId("task-1"));
+        packet.setDownstreamActionableTaskId(newTaskId("task-2"));
+        packet.setMessageIdentifier("message-1");
+        packet.setMessageSize(42);
+        packet.setMessageSendFinishInstant(Instant.ofEpochSecond(3000, 9));
+        packet.setStatus(InterProcessingPlantHandoverPacketStatusEnum.PACKET_RECEIVED_AND_DECODED);
+        packet.setStatusReason("ok");
+
+        for(byte[] currentFrame: new byte[][]{frame(packet::writeTo), javaSerialisedFrame(packet)}){
+            InterProcessingPlantHandoverResponsePacket decodedPacket = new InterProcessingPlantHandoverResponsePacket();
+            decodedPacket.readFrom(input(currentFrame));
+            assertEquals("task-1", decodedPacket.getActionableTaskId().getId());
+            assertEquals("task-2", decodedPacket.getDownstreamActionableTaskId().getId());
+            assertEquals("message-1", decodedPacket.getMessageIdentifier());
+            assertEquals(Integer.valueOf(42), decodedPacket.getMessageSize());
+            assertEquals(Instant.ofEpochSecond(3000, 9), decodedPacket.getMessageSendFinishInstant());
+            assertEquals(InterProcessingPlantHandoverPacketStatusEnum.PACKET_RECEIVED_AND_DECODED, decodedPacket.getStatus());
+            assertEquals("ok", decodedPacket.getStatusReason());
+        }
+    }
+
+    @Test
+    void handoverResponsePacketRoundTripsNullFields() throws Exception {
+        InterProcessingPlantHandoverResponsePacket packet = new InterProcessingPlantHandoverResponsePacket();
+        InterProcessingPlantHandoverResponsePacket decodedPacket = new InterProcessingPlantHandoverResponsePacket();
+        decodedPacket.readFrom(input(frame(packet::writeTo)));
+        assertNull(decodedPacket.getActionableTaskId());
+        assertNull(decodedPacket.getDownstreamActionableTaskId());
+        assertNull(decodedPacket.getMessageIdentifier());
+        assertNull(decodedPacket.getMessageSendFinishInstant());
+        assertEquals(packet.getStatus(), decodedPacket.getStatus());
+        assertNull(decodedPacket.getStatusReason());
+    }
+
+    //
+    // WatchDog Heartbeat
+    //
+
+    @Test
+    void heartbeatRoundTrips() throws Exception {
+        InterProcessingPlantWatchDogHeartbeat heartbeat = new InterProcessingPlantWatchDogHeartbeat();
+        heartbeat.setHeartbeatIdentifier("heartbeat-1");
+        heartbeat.setSendDate(LocalDateTime.of(2022, 3, 4, 5, 6, 7, 8));
+
+        for(byte[] currentFrame: new byte[][]{frame(heartbeat::writeTo), javaSerialisedFrame(heartbeat)}){
+            InterProcessingPlantWatchDogHeartbeat decodedHeartbeat = new InterProcessingPlantWatchDogHeartbeat();
+            decodedHeartbeat.readFrom(input(currentFrame));
+            assertEquals("heartbeat-1", decodedHeartbeat.getHeartbeatIdentifier());
+            assertEquals(LocalDateTime.of(2022, 3, 4, 5, 6, 7, 8), decodedHeartbeat.getSendDate());
+        }
+
+        InterProcessingPlantWatchDogHeartbeat emptyHeartbeat = new InterProcessingPlantWatchDogHeartbeat();
+        InterProcessingPlantWatchDogHeartbeat decodedHeartbeat = new InterProcessingPlantWatchDogHeartbeat();
+        decodedHeartbeat.readFrom(input(frame(emptyHeartbeat::writeTo)));
+        assertNull(decodedHeartbeat.getHeartbeatIdentifier());
+        assertNull(decodedHeartbeat.getSendDate());
+    }
+
+    //
+    // Malformed Frames
+    //
+
+    @Test
+    void rejectsUnknownVersions(){
+        byte[] frame = new byte[]{7, 0, 0, 0};
+        assertThrows(IOException.class, () -> new InterProcessingPlantHandoverPacket().readFrom(input(frame)));
+        assertThrows(IOException.class, () -> new InterProcessingPlantHandoverResponsePacket().readFrom(input(frame)));
+        assertThrows(IOException.class, () -> new InterProcessingPlantWatchDogHeartbeat().readFrom(input(frame)));
+    }
+
+    @Test
+    void rejectsOversizedLengths(){
+        // a Java serialisation frame claiming to be (almost) 2GB long
+        byte[] javaFrame = new byte[]{InterProcessingPlantPacketWireCodec.VERSION_JAVA_SERIALIZATION, 0x7F, (byte)0xFF, (byte)0xFF, (byte)0xFF};
+        assertThrows(IOException.class, () -> new InterProcessingPlantHandoverPacket().readFrom(input(javaFrame)));
+        // a string table with 2^31-1 entries
+        byte[] stringTableFrame = new byte[]{InterProcessingPlantPacketWireCodec.VERSION_BINARY_1, (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x07};
+        assertThrows(IOException.class, () -> new InterProcessingPlantWatchDogHeartbeat().readFrom(input(stringTableFrame)));
+        // a string longer than the limit
+        byte[] stringFrame = new byte[]{InterProcessingPlantPacketWireCodec.VERSION_BINARY_1, 1, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x7F};
+        assertThrows(IOException.class, () -> new InterProcessingPlantWatchDogHeartbeat().readFrom(input(stringFrame)));
+        // an empty string table followed by a blob claiming 2^31-1 bytes, and one with a negative length
+        byte[] blobFrame = new byte[]{InterProcessingPlantPacketWireCodec.VERSION_BINARY_1, 0, (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x07};
+        assertThrows(IOException.class, () -> new InterProcessingPlantHandoverResponsePacket().readFrom(input(blobFrame)));
+        byte[] negativeBlobFrame = new byte[]{InterProcessingPlantPacketWireCodec.VERSION_BINARY_1, 0, (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x0F};
+        assertThrows(IOException.class, () -> new InterProcessingPlantHandoverResponsePacket().readFrom(input(negativeBlobFrame)));
+    }
+}
@@ -28,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
 
 @ApplicationScoped
 public class AuditEventFHIRClientService extends ResourceFHIRClientService {
@@ -59,11 +60,16 @@ public class AuditEventFHIRClientService extends ResourceFHIRClientService {
 
     public MethodOutcome createAuditEvent(String auditEventJSONString){
         getLogger().debug(".writeAuditEvent(): Entry, auditEventJSONString->{}", auditEventJSONString);
-        AuditEvent auditEvent = getFHIRParser().parseResource(AuditEvent.class, auditEventJSONString);
+        AuditEvent auditEvent = getFHIRContextUtility().parseJson(AuditEvent.class, auditEventJSONString);
         MethodOutcome outcome = createResource(auditEvent);
         getLogger().debug(".writeAuditEvent(): Exit, outcome->{}", outcome);
         return(outcome);
     }
 
-
+    public List<MethodOutcome> createAuditEvents(List<AuditEvent> auditEvents){
+        getLogger().debug(".createAuditEvents(): Entry, auditEvents->{}", auditEvents.size());
+        List<MethodOutcome> outcomes = createResources(auditEvents);
+        getLogger().debug(".createAuditEvents(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
 }
@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
 
 @ApplicationScoped
 public class DeviceFHIRClientService extends ResourceFHIRClientService {
@@ -58,7 +59,7 @@ public class DeviceFHIRClientService extends ResourceFHIRClientService {
 
     public MethodOutcome createDevice(String deviceJSONString){
         getLogger().debug(".createDevice(): Entry, deviceJSONString->{}", deviceJSONString);
-        Device device = getFHIRParser().parseResource(Device.class, deviceJSONString);
+        Device device = getFHIRContextUtility().parseJson(Device.class, deviceJSONString);
         MethodOutcome outcome = createResource(device);
         getLogger().debug(".createDevice(): Exit, outcome->{}", outcome);
         return(outcome);
@@ -70,4 +71,11 @@ public class DeviceFHIRClientService extends ResourceFHIRClientService {
         getLogger().debug(".createDevice(): Exit, outcome->{}", outcome);
         return(outcome);
     }
+
+    public List<MethodOutcome> createDevices(List<Device> devices){
+        getLogger().debug(".createDevices(): Entry, devices->{}", devices.size());
+        List<MethodOutcome> outcomes = createResources(devices);
+        getLogger().debug(".createDevices(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
 }
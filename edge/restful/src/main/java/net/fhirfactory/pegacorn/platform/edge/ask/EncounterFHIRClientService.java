@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
 
 @ApplicationScoped
 public class EncounterFHIRClientService extends ResourceFHIRClientService {
@@ -56,7 +57,7 @@ public class EncounterFHIRClientService extends ResourceFHIRClientService {
 
     public MethodOutcome createEncounter(String encounterJSONString){
         getLogger().debug(".createEncounter(): Entry, encounterJSONString->{}", encounterJSONString);
-        Encounter encounter = getFHIRParser().parseResource(Encounter.class, encounterJSONString);
+        Encounter encounter = getFHIRContextUtility().parseJson(Encounter.class, encounterJSONString);
         MethodOutcome outcome = createResource(encounter);
         getLogger().debug(".createEncounter(): Exit, outcome->{}", outcome);
         return(outcome);
@@ -68,4 +69,11 @@ public class EncounterFHIRClientService extends ResourceFHIRClientService {
         getLogger().debug(".createEncounter(): Exit, outcome->{}", outcome);
         return(outcome);
     }
+
+    public List<MethodOutcome> createEncounters(List<Encounter> encounters){
+        getLogger().debug(".createEncounters(): Entry, encounters->{}", encounters.size());
+        List<MethodOutcome> outcomes = createResources(encounters);
+        getLogger().debug(".createEncounters(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
 }
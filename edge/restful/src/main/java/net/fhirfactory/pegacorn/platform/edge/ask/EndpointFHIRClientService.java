@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
 
 @ApplicationScoped
 public class EndpointFHIRClientService extends ResourceFHIRClientService {
@@ -58,7 +59,7 @@ public class EndpointFHIRClientService extends ResourceFHIRClientService {
 
     public MethodOutcome createEndpoint(String endpointJSONString){
         getLogger().debug(".createEndpoint(): Entry, endpointJSONString->{}", endpointJSONString);
-        Endpoint endpoint = getFHIRParser().parseResource(Endpoint.class, endpointJSONString);
+        Endpoint endpoint = getFHIRContextUtility().parseJson(Endpoint.class, endpointJSONString);
         MethodOutcome outcome = createResource(endpoint);
         getLogger().debug(".createEndpoint(): Exit, outcome->{}", outcome);
         return(outcome);
@@ -70,4 +71,11 @@ public class EndpointFHIRClientService extends ResourceFHIRClientService {
         getLogger().debug(".createEndpoint(): Exit, outcome->{}", outcome);
         return(outcome);
     }
+
+    public List<MethodOutcome> createEndpoints(List<Endpoint> endpoints){
+        getLogger().debug(".createEndpoints(): Entry, endpoints->{}", endpoints.size());
+        List<MethodOutcome> outcomes = createResources(endpoints);
+        getLogger().debug(".createEndpoints(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
 }
@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
 
 @ApplicationScoped
 public class LocationFHIRClientService extends ResourceFHIRClientService {
@@ -58,7 +59,7 @@ public class LocationFHIRClientService extends ResourceFHIRClientService {
 
     public MethodOutcome createLocation(String locationJSONString){
         getLogger().debug(".createLocation(): Entry, locationJSONString->{}", locationJSONString);
-        Location location = getFHIRParser().parseResource(Location.class, locationJSONString);
+        Location location = getFHIRContextUtility().parseJson(Location.class, locationJSONString);
         MethodOutcome outcome = createResource(location);
         getLogger().debug(".createLocation(): Exit, outcome->{}", outcome);
         return(outcome);
@@ -70,4 +71,11 @@ public class LocationFHIRClientService extends ResourceFHIRClientService {
         getLogger().debug(".createLocation(): Exit, outcome->{}", outcome);
         return(outcome);
     }
+
+    public List<MethodOutcome> createLocations(List<Location> locations){
+        getLogger().debug(".createLocations(): Entry, locations->{}", locations.size());
+        List<MethodOutcome> outcomes = createResources(locations);
+        getLogger().debug(".createLocations(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
 }
@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
 
 @ApplicationScoped
 public class PatientFHIRClientService extends ResourceFHIRClientService {
@@ -56,7 +57,7 @@ public class PatientFHIRClientService extends ResourceFHIRClientService {
 
     public MethodOutcome createPatient(String patientJSONString){
         getLogger().debug(".createPatient(): Entry, patientJSONString->{}", patientJSONString);
-        Patient patient = getFHIRParser().parseResource(Patient.class, patientJSONString);
+        Patient patient = getFHIRContextUtility().parseJson(Patient.class, patientJSONString);
         MethodOutcome outcome = createResource(patient);
         getLogger().debug(".createPatient(): Exit, outcome->{}", outcome);
         return(outcome);
@@ -68,4 +69,11 @@ public class PatientFHIRClientService extends ResourceFHIRClientService {
         getLogger().debug(".createPatient(): Exit, outcome->{}", outcome);
         return(outcome);
     }
+
+    public List<MethodOutcome> createPatients(List<Patient> patients){
+        getLogger().debug(".createPatients(): Entry, patients->{}", patients.size());
+        List<MethodOutcome> outcomes = createResources(patients);
+        getLogger().debug(".createPatients(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
 }
@@ -61,7 +61,7 @@ public class ProvenanceFHIRClientService extends ResourceFHIRClientService {
 
     public MethodOutcome createProvenance(String provenanceJSONString){
         getLogger().debug(".createProvenance(): Entry, provenanceJSONString->{}", provenanceJSONString);
-        Provenance provenance = getFHIRParser().parseResource(Provenance.class, provenanceJSONString);
+        Provenance provenance = getFHIRContextUtility().parseJson(Provenance.class, provenanceJSONString);
         MethodOutcome outcome = createResource(provenance);
         getLogger().debug(".createProvenance(): Exit, outcome->{}", outcome);
         return(outcome);
@@ -81,6 +81,20 @@ public class ProvenanceFHIRClientService extends ResourceFHIRClientService {
         return(outcome);
     }
 
+    public List<MethodOutcome> createProvenances(List<Provenance> provenances){
+        getLogger().debug(".createProvenances(): Entry, provenances->{}", provenances.size());
+        List<MethodOutcome> outcomes = createResources(provenances);
+        getLogger().debug(".createProvenances(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
+
+    public List<MethodOutcome> updateProvenances(List<Provenance> provenances){
+        getLogger().debug(".updateProvenances(): Entry, provenances->{}", provenances.size());
+        List<MethodOutcome> outcomes = updateResources(provenances);
+        getLogger().debug(".updateProvenances(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
+
     public List<Provenance> findByReferenceToTask(Identifier taskIdentifier){
 
         List<Provenance> provenanceList = new ArrayList<>();
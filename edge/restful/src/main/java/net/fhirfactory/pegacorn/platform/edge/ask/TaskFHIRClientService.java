@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
 
 @ApplicationScoped
 public class TaskFHIRClientService extends ResourceFHIRClientService {
@@ -58,7 +59,7 @@ public class TaskFHIRClientService extends ResourceFHIRClientService {
 
     public MethodOutcome createTask(String taskJSONString){
         getLogger().debug(".postTask(): Entry, taskJSONString->{}", taskJSONString);
-        Task task = getFHIRParser().parseResource(Task.class, taskJSONString);
+        Task task = getFHIRContextUtility().parseJson(Task.class, taskJSONString);
         MethodOutcome outcome = createResource(task);
         getLogger().debug(".postTask(): Exit, outcome->{}", outcome);
         return(outcome);
@@ -77,4 +78,18 @@ public class TaskFHIRClientService extends ResourceFHIRClientService {
         getLogger().debug(".updateTask(): Exit, outcome->{}", outcome);
         return(outcome);
     }
+
+    public List<MethodOutcome> createTasks(List<Task> tasks){
+        getLogger().debug(".createTasks(): Entry, tasks->{}", tasks.size());
+        List<MethodOutcome> outcomes = createResources(tasks);
+        getLogger().debug(".createTasks(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
+
+    public List<MethodOutcome> updateTasks(List<Task> tasks){
+        getLogger().debug(".updateTasks(): Entry, tasks->{}", tasks.size());
+        List<MethodOutcome> outcomes = updateResources(tasks);
+        getLogger().debug(".updateTasks(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter (ACT Health)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.platform.edge.ask.base;
+
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Property;
+import org.hl7.fhir.r4.model.Resource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded, time-limited cache of the resources returned by the identifier searches of a ResourceFHIRClientService.
+ *
+ * Entries are keyed on resourceType|system|typeCode|value and are evicted least-recently-used once the cache is
+ * full, or when they are older than the time-to-live. A create or update of a resource invalidates every entry
+ * that matches one of its identifiers or its id. Cached resources are copied on the way in and on the way out so
+ * that callers can't change the cached content.
+ *
+ * Each invalidation also advances the generation of the resource's type. A search takes the generation before it
+ * goes to the server and hands it back to put(), which drops the result if a create or update of that resource type
+ * has been invalidated in the meantime - otherwise a search racing a write could re-cache the pre-write resource.
+ */
+public class FHIRClientResourceCache {
+
+    private final int maximumSize;
+    private final long timeToLiveInMilliseconds;
+    private final LinkedHashMap<String, CachedResource> resourceMap;
+    private final HashMap<String, Long> resourceTypeGenerations;
+    private long hitCount;
+    private long missCount;
+    private long stalePutCount;
+
+    //
+    // Constructor(s)
+    //
+
+    public FHIRClientResourceCache(int maximumSize, long timeToLiveInMilliseconds){
+        this.maximumSize = Math.max(0, maximumSize);
+        this.timeToLiveInMilliseconds = timeToLiveInMilliseconds;
+        this.resourceMap = new LinkedHashMap<>(16, 0.75f, true);
+        this.resourceTypeGenerations = new HashMap<>();
+        this.hitCount = 0;
+        this.missCount = 0;
+        this.stalePutCount = 0;
+    }
+
+    //
+    // Business Methods
+    //
+
+    public boolean isEnabled(){
+        return(maximumSize > 0 && timeToLiveInMilliseconds > 0);
+    }
+
+    public synchronized Resource get(String resourceType, String identifierSystem, String identifierCode, String identifierValue){
+        if(!isEnabled()){
+            return(null);
+        }
+        String key = buildKey(resourceType, identifierSystem, identifierCode, identifierValue);
+        CachedResource cachedResource = resourceMap.get(key);
+        if(cachedResource == null){
+            missCount += 1;
+            return(null);
+        }
+        if(cachedResource.getExpiryInstant().isBefore(Instant.now())){
+            resourceMap.remove(key);
+            missCount += 1;
+            return(null);
+        }
+        hitCount += 1;
+        return(cachedResource.getResource().copy());
+    }
+
+    /**
+     * The current generation of the resource type, to be taken before searching the server and passed to put().
+     */
+    public synchronized long getGeneration(String resourceType){
+        Long generation = resourceTypeGenerations.get(resourceType);
+        if(generation == null){
+            return(0L);
+        }
+        return(generation);
+    }
+
+    /**
+     * Caches the resource found by a search, unless a resource of the same type has been invalidated since the
+     * search took its generation (in which case the result may pre-date the write and is not cached).
+     */
+    public synchronized void put(String resourceType, String identifierSystem, String identifierCode, String identifierValue, Resource resource, long generation){
+        if(!isEnabled() || resource == null){
+            return;
+        }
+        if(generation != getGeneration(resourceType)){
+            stalePutCount += 1;
+            return;
+        }
+        String key = buildKey(resourceType, identifierSystem, identifierCode, identifierValue);
+        Instant expiryInstant = Instant.now().plusMillis(timeToLiveInMilliseconds);
+        resourceMap.put(key, new CachedResource(resourceType, identifierSystem, identifierValue, resource.copy(), expiryInstant));
+        Iterator<Map.Entry<String, CachedResource>> entryIterator = resourceMap.entrySet().iterator();
+        while(resourceMap.size() > maximumSize && entryIterator.hasNext()){
+            entryIterator.next();
+            entryIterator.remove();
+        }
+    }
+
+    /**
+     * Removes every cached entry that could be stale once the given resource has been created or updated: those
+     * that match one of its identifiers (whatever the identifier type code) and those holding the same resource id.
+     */
+    public synchronized void invalidate(Resource resource){
+        if(resource == null){
+            return;
+        }
+        String resourceType = resource.getResourceType().toString();
+        resourceTypeGenerations.put(resourceType, getGeneration(resourceType) + 1);
+        if(resourceMap.isEmpty()){
+            return;
+        }
+        String resourceId = null;
+        if(resource.hasIdElement() && resource.getIdElement().hasIdPart()){
+            resourceId = resource.getIdElement().getIdPart();
+        }
+        List<Identifier> identifiers = getIdentifiers(resource);
+        Iterator<CachedResource> cachedResourceIterator = resourceMap.values().iterator();
+        while(cachedResourceIterator.hasNext()){
+            CachedResource cachedResource = cachedResourceIterator.next();
+            if(!cachedResource.getResourceType().equals(resourceType)){
+                continue;
+            }
+            boolean isStale = resourceId != null && resourceId.equals(cachedResource.getResourceId());
+            for(Identifier currentIdentifier: identifiers){
+                if(isStale){
+                    break;
+                }
+                isStale = Objects.equals(currentIdentifier.getSystem(), cachedResource.getIdentifierSystem())
+                        && Objects.equals(currentIdentifier.getValue(), cachedResource.getIdentifierValue());
+            }
+            if(isStale){
+                cachedResourceIterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear(){
+        resourceMap.clear();
+    }
+
+    public synchronized int size(){
+        return(resourceMap.size());
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getStalePutCount() {
+        return stalePutCount;
+    }
+
+    //
+    // Helpers
+    //
+
+    protected String buildKey(String resourceType, String identifierSystem, String identifierCode, String identifierValue){
+        String key = resourceType + "|" + identifierSystem + "|" + identifierCode + "|" + identifierValue;
+        return(key);
+    }
+
+    protected List<Identifier> getIdentifiers(Resource resource){
+        List<Identifier> identifiers = new ArrayList<>();
+        Property identifierProperty = resource.getNamedProperty("identifier");
+        if(identifierProperty == null || !identifierProperty.hasValues()){
+            return(identifiers);
+        }
+        for(Base currentValue: identifierProperty.getValues()){
+            if(currentValue instanceof Identifier){
+                identifiers.add((Identifier)currentValue);
+            }
+        }
+        return(identifiers);
+    }
+
+    //
+    // Internal Types
+    //
+
+    private static class CachedResource {
+        private final String resourceType;
+        private final String identifierSystem;
+        private final String identifierValue;
+        private final String resourceId;
+        private final Resource resource;
+        private final Instant expiryInstant;
+
+        CachedResource(String resourceType, String identifierSystem, String identifierValue, Resource resource, Instant expiryInstant){
+            this.resourceType = resourceType;
+            this.identifierSystem = identifierSystem;
+            this.identifierValue = identifierValue;
+            this.resource = resource;
+            this.expiryInstant = expiryInstant;
+            if(resource.hasIdElement() && resource.getIdElement().hasIdPart()){
+                this.resourceId = resource.getIdElement().getIdPart();
+            } else {
+                this.resourceId = null;
+            }
+        }
+
+        String getResourceType() {
+            return resourceType;
+        }
+
+        String getIdentifierSystem() {
+            return identifierSystem;
+        }
+
+        String getIdentifierValue() {
+            return identifierValue;
+        }
+
+        String getResourceId() {
+            return resourceId;
+        }
+
+        Resource getResource() {
+            return resource;
+        }
+
+        Instant getExpiryInstant() {
+            return expiryInstant;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter (ACT Health)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.platform.edge.ask.base;
+
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A set of resource creates and updates to be submitted to the FHIR server as a single transaction Bundle (one
+ * round trip) via ResourceFHIRClientService.executeTransaction().
+ *
+ * Each create is given a urn:uuid: fullUrl, which is returned by addCreate() so that other resources in the same
+ * transaction can reference the new resource before the server has assigned its id.
+ */
+public class FHIRResourceTransaction {
+
+    private final List<Bundle.BundleEntryComponent> entries;
+    private final List<Resource> resources;
+
+    //
+    // Constructor(s)
+    //
+
+    public FHIRResourceTransaction(){
+        this.entries = new ArrayList<>();
+        this.resources = new ArrayList<>();
+    }
+
+    //
+    // Business Methods
+    //
+
+    public String addCreate(Resource resourceToCreate){
+        String fullUrl = "urn:uuid:" + UUID.randomUUID().toString();
+        Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
+        entry.setFullUrl(fullUrl);
+        entry.setResource(resourceToCreate);
+        entry.getRequest()
+                .setMethod(Bundle.HTTPVerb.POST)
+                .setUrl(resourceToCreate.getResourceType().toString());
+        entries.add(entry);
+        resources.add(resourceToCreate);
+        return(fullUrl);
+    }
+
+    /**
+     * A create that the server only carries out if no resource of the same type already has the identifier, so
+     * that re-submitting the create (e.g. after a lost response) doesn't create a duplicate.
+     */
+    public String addConditionalCreate(Resource resourceToCreate, Identifier identifier){
+        String fullUrl = addCreate(resourceToCreate);
+        Bundle.BundleEntryComponent entry = entries.get(entries.size() - 1);
+        entry.getRequest().setIfNoneExist("identifier=" + identifier.getSystem() + "|" + identifier.getValue());
+        return(fullUrl);
+    }
+
+    public void addUpdate(Resource resourceToUpdate){
+        if(!resourceToUpdate.hasIdElement() || !resourceToUpdate.getIdElement().hasIdPart()){
+            throw(new IllegalArgumentException(".addUpdate(): resourceToUpdate has no id"));
+        }
+        String resourceType = resourceToUpdate.getResourceType().toString();
+        Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
+        entry.setFullUrl(resourceType + "/" + resourceToUpdate.getIdElement().getIdPart());
+        entry.setResource(resourceToUpdate);
+        entry.getRequest()
+                .setMethod(Bundle.HTTPVerb.PUT)
+                .setUrl(resourceType + "/" + resourceToUpdate.getIdElement().getIdPart());
+        entries.add(entry);
+        resources.add(resourceToUpdate);
+    }
+
+    public Bundle toBundle(){
+        Bundle transactionBundle = new Bundle();
+        transactionBundle.setType(Bundle.BundleType.TRANSACTION);
+        for(Bundle.BundleEntryComponent currentEntry: entries){
+            transactionBundle.addEntry(currentEntry);
+        }
+        return(transactionBundle);
+    }
+
+    /**
+     * Maps the server's transaction-response Bundle onto one MethodOutcome per entry (the response entries being in
+     * the same order as the request entries).
+     */
+    public List<MethodOutcome> toMethodOutcomes(Bundle transactionResponse){
+        List<MethodOutcome> outcomes = new ArrayList<>();
+        if(transactionResponse == null){
+            return(outcomes);
+        }
+        for(Bundle.BundleEntryComponent currentEntry: transactionResponse.getEntry()){
+            MethodOutcome outcome = new MethodOutcome();
+            Bundle.BundleEntryResponseComponent entryResponse = currentEntry.getResponse();
+            if(entryResponse.hasLocation()){
+                outcome.setId(new IdType(entryResponse.getLocation()));
+            }
+            outcome.setCreated(entryResponse.hasStatus() && entryResponse.getStatus().startsWith("201"));
+            if(currentEntry.hasResource()){
+                outcome.setResource(currentEntry.getResource());
+            }
+            outcomes.add(outcome);
+        }
+        return(outcomes);
+    }
+
+    /**
+     * The outcomes of a transaction that failed as a whole - one (not created) outcome per entry.
+     */
+    public List<MethodOutcome> toFailedMethodOutcomes(){
+        List<MethodOutcome> outcomes = new ArrayList<>();
+        for(int counter = 0; counter < entries.size(); counter += 1){
+            MethodOutcome outcome = new MethodOutcome();
+            outcome.setCreated(false);
+            outcomes.add(outcome);
+        }
+        return(outcomes);
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    public List<Resource> getResources(){
+        return(Collections.unmodifiableList(resources));
+    }
+
+    public int size(){
+        return(entries.size());
+    }
+
+    public boolean isEmpty(){
+        return(entries.isEmpty());
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "FHIRResourceTransaction{" +
+                "size=" + entries.size() +
+                '}';
+    }
+}
@@ -41,8 +41,6 @@ import ca.uhn.fhir.parser.IParser;
 
 public abstract class InternalFHIRClientServicesBase extends InternalFHIRClientProxy {
 
-    private IParser fhirParser;
-
     @Inject
     private TopologyIM topologyIM;
 
@@ -68,15 +66,17 @@ public abstract class InternalFHIRClientServicesBase extends InternalFHIRClientP
     //
 
     protected void postConstructActivities(){
-        fhirParser = getFHIRContextUtility().getJsonParser().setPrettyPrint(true);
     }
 
     //
     // Getters (and Setters)
     //
 
+    /**
+     * A new (compact) JSON parser, owned by the caller - use getFHIRContextUtility().parseJson() for one-off parsing.
+     */
     protected IParser getFHIRParser(){
-        return(fhirParser);
+        return(getFHIRContextUtility().getJsonParser().setPrettyPrint(false));
     }
 
     //
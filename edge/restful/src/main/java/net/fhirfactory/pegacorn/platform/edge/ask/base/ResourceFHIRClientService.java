@@ -21,7 +21,6 @@
  */
 package net.fhirfactory.pegacorn.platform.edge.ask.base;
 
-import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.MethodOutcome;
 import net.fhirfactory.pegacorn.internals.fhir.r4.resources.bundle.BundleContentHelper;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -30,9 +29,18 @@ import org.hl7.fhir.r4.model.*;
 import javax.inject.Inject;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class ResourceFHIRClientService extends InternalFHIRClientServicesBase{
 
+    private static final String IDENTIFIER_CACHE_SIZE_PROPERTY = "FHIR_CLIENT_IDENTIFIER_CACHE_SIZE";
+    private static final String IDENTIFIER_CACHE_TTL_PROPERTY = "FHIR_CLIENT_IDENTIFIER_CACHE_TTL_IN_SECS";
+    private static final Integer DEFAULT_IDENTIFIER_CACHE_SIZE = 1000;
+    private static final Integer DEFAULT_IDENTIFIER_CACHE_TTL = 30; // seconds
+
+    private volatile FHIRClientResourceCache identifierCache;
+
     @Inject
     private BundleContentHelper bundleContentHelper;
 
@@ -52,6 +60,26 @@ public abstract class ResourceFHIRClientService extends InternalFHIRClientServic
         return(bundleContentHelper);
     }
 
+    protected FHIRClientResourceCache getIdentifierCache(){
+        FHIRClientResourceCache cache = identifierCache;
+        if(cache == null){
+            synchronized (this){
+                cache = identifierCache;
+                if(cache == null){
+                    int cacheSize = DEFAULT_IDENTIFIER_CACHE_SIZE;
+                    int cacheTTL = DEFAULT_IDENTIFIER_CACHE_TTL;
+                    if(getPegacornProperties() != null){
+                        cacheSize = getPegacornProperties().getIntegerProperty(IDENTIFIER_CACHE_SIZE_PROPERTY, DEFAULT_IDENTIFIER_CACHE_SIZE);
+                        cacheTTL = getPegacornProperties().getIntegerProperty(IDENTIFIER_CACHE_TTL_PROPERTY, DEFAULT_IDENTIFIER_CACHE_TTL);
+                    }
+                    cache = new FHIRClientResourceCache(cacheSize, cacheTTL * 1000L);
+                    identifierCache = cache;
+                }
+            }
+        }
+        return(cache);
+    }
+
     //
     // Business Method(s)
     //
@@ -64,13 +92,14 @@ public abstract class ResourceFHIRClientService extends InternalFHIRClientServic
         try {
             outcome = getClient().create()
                     .resource(resourceToCreate)
-                    .prettyPrint()
                     .encodedJson()
                     .execute();
         } catch (Exception ex){
             getLogger().error(".createResource(): Error creating resource, stack->{}", ExceptionUtils.getStackTrace(ex));
             outcome = new MethodOutcome();
             outcome.setCreated(false);
+        } finally {
+            getIdentifierCache().invalidate(resourceToCreate);
         }
         getLogger().debug(".createResource(): Exit, outcome->{}", outcome);
         return(outcome);
@@ -84,18 +113,72 @@ public abstract class ResourceFHIRClientService extends InternalFHIRClientServic
         try {
             outcome = getClient().update()
                     .resource(resourceToUpdate)
-                    .prettyPrint()
                     .encodedJson()
                     .execute();
         } catch (Exception ex){
             getLogger().error(".updateResource(): Error updating resource, stack->{}", ExceptionUtils.getStackTrace(ex));
             outcome = new MethodOutcome();
             outcome.setCreated(false);
+        } finally {
+            getIdentifierCache().invalidate(resourceToUpdate);
         }
         getLogger().debug(".updateResource(): Exit, outcome->{}", outcome);
         return(outcome);
     }
 
+    //
+    // Transactions (many creates/updates in one round trip)
+
+    public List<MethodOutcome> createResources(List<? extends Resource> resourcesToCreate){
+        FHIRResourceTransaction transaction = new FHIRResourceTransaction();
+        for(Resource currentResource: resourcesToCreate){
+            transaction.addCreate(currentResource);
+        }
+        List<MethodOutcome> outcomes = executeTransaction(transaction);
+        return(outcomes);
+    }
+
+    public List<MethodOutcome> updateResources(List<? extends Resource> resourcesToUpdate){
+        FHIRResourceTransaction transaction = new FHIRResourceTransaction();
+        for(Resource currentResource: resourcesToUpdate){
+            transaction.addUpdate(currentResource);
+        }
+        List<MethodOutcome> outcomes = executeTransaction(transaction);
+        return(outcomes);
+    }
+
+    /**
+     * Submits the transaction as a single Bundle. The returned outcomes are in the same order as the resources were
+     * added to the transaction. The transaction is all-or-nothing, so if it fails every outcome is marked as not
+     * created.
+     *
+     * @param transaction
+     * @return
+     */
+    public List<MethodOutcome> executeTransaction(FHIRResourceTransaction transaction){
+        getLogger().debug(".executeTransaction(): Entry, transaction->{}", transaction);
+        List<MethodOutcome> outcomes = new ArrayList<>();
+        if(transaction == null || transaction.isEmpty()){
+            getLogger().debug(".executeTransaction(): Exit, transaction is empty");
+            return(outcomes);
+        }
+        try {
+            Bundle response = getClient().transaction()
+                    .withBundle(transaction.toBundle())
+                    .encodedJson()
+                    .execute();
+            outcomes = transaction.toMethodOutcomes(response);
+        } catch (Exception ex){
+            getLogger().error(".executeTransaction(): Error executing transaction, stack->{}", ExceptionUtils.getStackTrace(ex));
+            outcomes = transaction.toFailedMethodOutcomes();
+        } finally {
+            for(Resource currentResource: transaction.getResources()){
+                getIdentifierCache().invalidate(currentResource);
+            }
+        }
+        getLogger().debug(".executeTransaction(): Exit, outcomes->{}", outcomes.size());
+        return(outcomes);
+    }
 
     //
     // Find Resource(s)
@@ -175,6 +258,12 @@ public abstract class ResourceFHIRClientService extends InternalFHIRClientServic
      */
     public Resource findResourceByIdentifier(String resourceType, String identifierSystem, String identifierCode, String identifierValue){
         getLogger().debug(".findResourceByIdentifier(): Entry, resourceType --> {}, identfierSystem --> {}, identifierCode --> {}, identifierValue -->{}", resourceType, identifierSystem, identifierCode, identifierValue);
+        Resource cachedResource = getIdentifierCache().get(resourceType, identifierSystem, identifierCode, identifierValue);
+        if(cachedResource != null){
+            getLogger().debug(".findResourceByIdentifier(): Exit, resource found in cache");
+            return(cachedResource);
+        }
+        long cacheGeneration = getIdentifierCache().getGeneration(resourceType);
         String urlEncodedString = null;
         if(identifierCode == null ) {
             String rawSearchString = identifierSystem + /* "|" + identifierCode + */ "|" + identifierValue;
@@ -189,13 +278,13 @@ public abstract class ResourceFHIRClientService extends InternalFHIRClientServic
                 .byUrl(searchURL)
                 .returnBundle(Bundle.class)
                 .execute();
-        IParser r4Parser = getFHIRParser().setPrettyPrint(true);
-        if(getLogger().isInfoEnabled()) {
+        if(getLogger().isDebugEnabled()) {
             if(response != null) {
-                getLogger().debug(".findResourceByIdentifier(): Retrieved Bundle --> {}", r4Parser.encodeResourceToString(response));
+                getLogger().debug(".findResourceByIdentifier(): Retrieved Bundle --> {}", getFHIRContextUtility().encodeToPrettyJsonString(response));
             }
         }
         Resource resource = bundleContentHelper.extractFirstRepOfType(response, resourceType);
+        getIdentifierCache().put(resourceType, identifierSystem, identifierCode, identifierValue, resource, cacheGeneration);
         getLogger().debug(".findResourceByIdentifier(): Retrieved Resource --> {}", resource);
         return (resource);
     }
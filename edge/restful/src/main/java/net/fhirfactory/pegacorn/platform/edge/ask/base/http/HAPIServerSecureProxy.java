@@ -26,6 +26,7 @@ import javax.inject.Inject;
 import org.slf4j.Logger;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.rest.client.api.IGenericClient;
 import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
 import ca.uhn.fhir.rest.client.interceptor.AdditionalRequestHeadersInterceptor;
@@ -64,6 +65,10 @@ public abstract class HAPIServerSecureProxy {
         return(fhirContextUtility);
     }
 
+    protected PegacornEnvironmentProperties getPegacornProperties() {
+        return(pegacornProperties);
+    }
+
     /**
      * @return the name of the PegacornProperties to lookup to get the value of the API Key.  Subclasses can override
      *         if they don't want to use the default value of API_KEY
@@ -94,6 +99,9 @@ public abstract class HAPIServerSecureProxy {
         contextR4.getRestfulClientFactory().setSocketTimeout(getSocketTimeoutInSecs() * 1000);
         getLogger().trace(".newRestfulGenericClient(): Get the Client");
         client = contextR4.newRestfulGenericClient(theServerBase);
+        // compact JSON on the wire - pretty printing only adds whitespace for the server to parse
+        client.setEncoding(EncodingEnum.JSON);
+        client.setPrettyPrint(false);
         if(theServerBase.startsWith("https")) {
             getLogger().trace(".newRestfulGenericClient(): Grab the API Key from the Properties");
             String apiKey = pegacornProperties.getMandatoryProperty(getApiKeyPropertyName());
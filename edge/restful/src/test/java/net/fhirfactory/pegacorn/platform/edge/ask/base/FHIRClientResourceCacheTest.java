@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.platform.edge.ask.base;
+
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Resource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FHIRClientResourceCacheTest {
+
+    private static final String PATIENT = "Patient";
+    private static final String SYSTEM = "http://example.org/mrn";
+
+    //
+    // Test Fixtures
+    //
+
+    private static Patient newPatient(String id, String identifierValue){
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.addIdentifier().setSystem(SYSTEM).setValue(identifierValue);
+        return(patient);
+    }
+
+    private static void put(FHIRClientResourceCache cache, String identifierValue, Resource resource){
+        String resourceType = resource.getResourceType().toString();
+        cache.put(resourceType, SYSTEM, "MR", identifierValue, resource, cache.getGeneration(resourceType));
+    }
+
+    private static Resource get(FHIRClientResourceCache cache, String identifierValue){
+        return(cache.get(PATIENT, SYSTEM, "MR", identifierValue));
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    void returnsCopiesOfCachedResources(){
+        FHIRClientResourceCache cache = new FHIRClientResourceCache(10, 60000L);
+        Patient patient = newPatient("p1", "123");
+        put(cache, "123", patient);
+        patient.setActive(true);
+
+        Patient cachedPatient = (Patient)get(cache, "123");
+        assertNotNull(cachedPatient);
+        assertFalse(cachedPatient.hasActive());
+        cachedPatient.setActive(false);
+        assertFalse(((Patient)get(cache, "123")).hasActive());
+        assertNull(cache.get(PATIENT, SYSTEM, "OTHER", "123"));
+        assertEquals(2L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+    }
+
+    @Test
+    void expiresEntriesAfterTheTimeToLive() throws InterruptedException {
+        FHIRClientResourceCache cache = new FHIRClientResourceCache(10, 50L);
+        put(cache, "123", newPatient("p1", "123"));
+        assertNotNull(get(cache, "123"));
+
+        Thread.sleep(100L);
+
+        assertNull(get(cache, "123"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry(){
+        FHIRClientResourceCache cache = new FHIRClientResourceCache(2, 60000L);
+        put(cache, "1", newPatient("p1", "1"));
+        put(cache, "2", newPatient("p2", "2"));
+        assertNotNull(get(cache, "1"));
+
+        put(cache, "3", newPatient("p3", "3"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(get(cache, "1"));
+        assertNull(get(cache, "2"));
+        assertNotNull(get(cache, "3"));
+    }
+
+    @Test
+    void isDisabledWithoutASizeOrTimeToLive(){
+        FHIRClientResourceCache cache = new FHIRClientResourceCache(0, 60000L);
+        assertFalse(cache.isEnabled());
+        put(cache, "123", newPatient("p1", "123"));
+        assertNull(get(cache, "123"));
+        assertFalse(new FHIRClientResourceCache(10, 0L).isEnabled());
+    }
+
+    @Test
+    void invalidatesByIdentifierWhateverTheTypeCode(){
+        FHIRClientResourceCache cache = new FHIRClientResourceCache(10, 60000L);
+        put(cache, "123", newPatient("p1", "123"));
+        put(cache, "456", newPatient("p2", "456"));
+
+        // no id, but the same identifier (with no type code at all)
+        Patient updatedPatient = new Patient();
+        updatedPatient.addIdentifier().setSystem(SYSTEM).setValue("123");
+        cache.invalidate(updatedPatient);
+
+        assertNull(get(cache, "123"));
+        assertNotNull(get(cache, "456"));
+    }
+
+    @Test
+    void invalidatesById(){
+        FHIRClientResourceCache cache = new FHIRClientResourceCache(10, 60000L);
+        put(cache, "123", newPatient("p1", "123"));
+        put(cache, "456", newPatient("p2", "456"));
+
+        // same id, the identifier having been changed
+        cache.invalidate(newPatient("p1", "789"));
+
+        assertNull(get(cache, "123"));
+        assertNotNull(get(cache, "456"));
+    }
+
+    @Test
+    void onlyInvalidatesTheSameResourceType(){
+        FHIRClientResourceCache cache = new FHIRClientResourceCache(10, 60000L);
+        put(cache, "123", newPatient("p1", "123"));
+
+        Observation observation = new Observation();
+        observation.setId("p1");
+        observation.addIdentifier().setSystem(SYSTEM).setValue("123");
+        cache.invalidate(observation);
+
+        assertNotNull(get(cache, "123"));
+    }
+
+    @Test
+    void dropsSearchResultsThatRacedAWrite(){
+        FHIRClientResourceCache cache = new FHIRClientResourceCache(10, 60000L);
+        // the search takes the generation, then a write of the same resource type is invalidated before it returns
+        long searchGeneration = cache.getGeneration(PATIENT);
+        long otherTypeGeneration = cache.getGeneration("Observation");
+        cache.invalidate(newPatient("p1", "123"));
+
+        cache.put(PATIENT, SYSTEM, "MR", "123", newPatient("p1", "123"), searchGeneration);
+        assertNull(get(cache, "123"));
+        assertEquals(1L, cache.getStalePutCount());
+
+        // writes of other resource types don't affect the search
+        cache.put("Observation", SYSTEM, "MR", "123", new Observation(), otherTypeGeneration);
+        assertNotNull(cache.get("Observation", SYSTEM, "MR", "123"));
+
+        // a search started after the write is cached
+        put(cache, "123", newPatient("p1", "123"));
+        assertNotNull(get(cache, "123"));
+        assertTrue(cache.getGeneration(PATIENT) > searchGeneration);
+    }
+}
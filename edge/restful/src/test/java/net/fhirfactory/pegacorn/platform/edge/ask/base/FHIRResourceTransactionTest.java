@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.platform.edge.ask.base;
+
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FHIRResourceTransactionTest {
+
+    //
+    // Test Fixtures
+    //
+
+    private static Patient newPatient(String id){
+        Patient patient = new Patient();
+        if(id != null){
+            patient.setId(id);
+        }
+        return(patient);
+    }
+
+    //
+    // Entries
+    //
+
+    @Test
+    void mapsCreatesAndUpdatesOntoTransactionEntries(){
+        FHIRResourceTransaction transaction = new FHIRResourceTransaction();
+        Patient createdPatient = newPatient(null);
+        Patient conditionalPatient = newPatient(null);
+        Patient updatedPatient = newPatient("p1");
+
+        String createdFullUrl = transaction.addCreate(createdPatient);
+        String conditionalFullUrl = transaction.addConditionalCreate(conditionalPatient, new Identifier().setSystem("http://example.org/mrn").setValue("123"));
+        transaction.addUpdate(updatedPatient);
+
+        assertEquals(3, transaction.size());
+        assertFalse(transaction.isEmpty());
+        assertTrue(createdFullUrl.startsWith("urn:uuid:"));
+        assertFalse(createdFullUrl.equals(conditionalFullUrl));
+
+        Bundle bundle = transaction.toBundle();
+        assertEquals(Bundle.BundleType.TRANSACTION, bundle.getType());
+        List<Bundle.BundleEntryComponent> entries = bundle.getEntry();
+        assertEquals(3, entries.size());
+
+        assertEquals(createdFullUrl, entries.get(0).getFullUrl());
+        assertSame(createdPatient, entries.get(0).getResource());
+        assertEquals(Bundle.HTTPVerb.POST, entries.get(0).getRequest().getMethod());
+        assertEquals("Patient", entries.get(0).getRequest().getUrl());
+        assertNull(entries.get(0).getRequest().getIfNoneExist());
+
+        assertEquals(conditionalFullUrl, entries.get(1).getFullUrl());
+        assertEquals(Bundle.HTTPVerb.POST, entries.get(1).getRequest().getMethod());
+        assertEquals("identifier=http://example.org/mrn|123", entries.get(1).getRequest().getIfNoneExist());
+
+        assertEquals("Patient/p1", entries.get(2).getFullUrl());
+        assertEquals(Bundle.HTTPVerb.PUT, entries.get(2).getRequest().getMethod());
+        assertEquals("Patient/p1", entries.get(2).getRequest().getUrl());
+
+        List<Resource> resources = transaction.getResources();
+        assertEquals(3, resources.size());
+        assertSame(updatedPatient, resources.get(2));
+        assertThrows(UnsupportedOperationException.class, () -> resources.add(newPatient(null)));
+    }
+
+    @Test
+    void rejectsUpdatesWithoutAnId(){
+        FHIRResourceTransaction transaction = new FHIRResourceTransaction();
+        assertThrows(IllegalArgumentException.class, () -> transaction.addUpdate(newPatient(null)));
+        assertTrue(transaction.isEmpty());
+    }
+
+    //
+    // Outcomes
+    //
+
+    @Test
+    void mapsTheTransactionResponseOntoOutcomes(){
+        FHIRResourceTransaction transaction = new FHIRResourceTransaction();
+        transaction.addCreate(newPatient(null));
+        transaction.addUpdate(newPatient("p2"));
+        transaction.addCreate(newPatient(null));
+
+        Bundle response = new Bundle();
+        response.setType(Bundle.BundleType.TRANSACTIONRESPONSE);
+        Patient returnedPatient = newPatient("p1");
+        response.addEntry().setResource(returnedPatient).getResponse()
+                .setStatus("201 Created")
+                .setLocation("Patient/p1/_history/1");
+        response.addEntry().getResponse()
+                .setStatus("200 OK")
+                .setLocation("Patient/p2/_history/4");
+        response.addEntry().getResponse()
+                .setStatus("200 OK");
+
+        List<MethodOutcome> outcomes = transaction.toMethodOutcomes(response);
+
+        assertEquals(3, outcomes.size());
+        assertTrue(outcomes.get(0).getCreated());
+        assertEquals("p1", outcomes.get(0).getId().getIdPart());
+        assertEquals("1", outcomes.get(0).getId().getVersionIdPart());
+        assertSame(returnedPatient, outcomes.get(0).getResource());
+
+        assertFalse(outcomes.get(1).getCreated());
+        assertEquals("Patient/p2/_history/4", outcomes.get(1).getId().getValue());
+        assertNull(outcomes.get(1).getResource());
+
+        // e.g. a conditional create that matched an existing resource
+        assertFalse(outcomes.get(2).getCreated());
+        assertNull(outcomes.get(2).getId());
+
+        assertTrue(transaction.toMethodOutcomes(null).isEmpty());
+    }
+
+    @Test
+    void marksEveryOutcomeOfAFailedTransactionAsNotCreated(){
+        FHIRResourceTransaction transaction = new FHIRResourceTransaction();
+        transaction.addCreate(newPatient(null));
+        transaction.addUpdate(newPatient("p2"));
+
+        List<MethodOutcome> outcomes = transaction.toFailedMethodOutcomes();
+
+        assertEquals(2, outcomes.size());
+        for(MethodOutcome currentOutcome: outcomes){
+            assertFalse(currentOutcome.getCreated());
+            assertNull(currentOutcome.getId());
+        }
+        assertTrue(new FHIRResourceTransaction().toFailedMethodOutcomes().isEmpty());
+    }
+}
@@ -36,8 +36,6 @@ import org.apache.camel.Produce;
 import org.apache.camel.ProducerTemplate;
 import org.apache.commons.lang3.StringUtils;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,8 +47,6 @@ import java.util.List;
 public abstract class PetasosAuditServicesEndpoint extends JGroupsIntegrationPointBase {
     private static final Logger LOG = LoggerFactory.getLogger(PetasosAuditServicesEndpoint.class);
 
-    private IParser fhirJSONParser;
-
     @Produce
     private ProducerTemplate camelProducer;
 
@@ -71,7 +67,6 @@ public abstract class PetasosAuditServicesEndpoint extends JGroupsIntegrationPoi
 
     @Override
     protected void executePostConstructActivities() {
-        fhirJSONParser = fhirContextUtility.getJsonParser().setPrettyPrint(true);
         executePostConstructInstanceActivities();
     }
 
@@ -86,7 +81,7 @@ public abstract class PetasosAuditServicesEndpoint extends JGroupsIntegrationPoi
     //
 
     protected IParser getFHIRJSONParser(){
-        return(fhirJSONParser);
+        return(fhirContextUtility.getJsonParser().setPrettyPrint(true));
     }
 
     @Override
@@ -192,11 +187,8 @@ public abstract class PetasosAuditServicesEndpoint extends JGroupsIntegrationPoi
             Class classSet[] = new Class[1];
             objectSet[0] = task;
             classSet[0] = CapabilityUtilisationRequest.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             CapabilityUtilisationResponse response = null;
-            synchronized (getIPCChannelLock()){
-                response = getRPCDispatcher().callRemoteMethod(targetAddress, "executeTaskHandler", objectSet, classSet, requestOptions);
-            }
+            response = callRemoteMethod(targetAddress, "executeTaskHandler", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".executeTask(): Exit, response->{}", response);
             return(response);
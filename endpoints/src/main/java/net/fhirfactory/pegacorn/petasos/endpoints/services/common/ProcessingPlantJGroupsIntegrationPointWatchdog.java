@@ -28,6 +28,7 @@ import net.fhirfactory.pegacorn.core.model.petasos.endpoint.valuesets.PetasosEnd
 import net.fhirfactory.pegacorn.core.model.petasos.participant.PetasosParticipant;
 import net.fhirfactory.pegacorn.petasos.endpoints.base.PetasosHealthCheckCallBackInterface;
 import net.fhirfactory.pegacorn.petasos.endpoints.map.JGroupsIntegrationPointSharedMap;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,8 +38,6 @@ import javax.inject.Inject;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 
 @ApplicationScoped
 public class ProcessingPlantJGroupsIntegrationPointWatchdog
@@ -79,6 +78,9 @@ public class ProcessingPlantJGroupsIntegrationPointWatchdog
     @Inject
     private ProcessingPlantJGroupsIntegrationPointSet processingPlantIntegrationPoints;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // Constructor
     //
@@ -118,21 +120,19 @@ public class ProcessingPlantJGroupsIntegrationPointWatchdog
 
     public void scheduleStartupWatchdog() {
         getLogger().debug(".scheduleStartupWatchdog(): Entry");
-        TimerTask startupWatchdogTask = new TimerTask() {
-            public void run() {
+        if(startupCheckRequired) {
+            sharedScheduler.scheduleUntilComplete("startupWatchdog", () -> {
                 getLogger().debug(".startupWatchdogTask(): Entry");
                 startupWatchdog();
+                boolean doAgain = true;
                 if (!getAggregateStatus().equals(PetasosEndpointStatusEnum.PETASOS_ENDPOINT_STATUS_STARTED)) {
-                    cancel();
+                    doAgain = false;
                     scheduleOngoingStatusWatchdog();
                     startupCheckRequired = false;
                 }
                 getLogger().debug(".startupWatchdogTask(): Exit");
-            }
-        };
-        if(startupCheckRequired) {
-            Timer timer = new Timer("scheduleStartupWatchdog");
-            timer.schedule(startupWatchdogTask, STARTUP_CHECK_INITIAL_DELAY, STARTUP_CHECK_PERIOD);
+                return(doAgain);
+            }, STARTUP_CHECK_INITIAL_DELAY, STARTUP_CHECK_PERIOD);
         }
         getLogger().debug(".scheduleStartupWatchdog(): Exit");
     }
@@ -239,15 +239,11 @@ public class ProcessingPlantJGroupsIntegrationPointWatchdog
 
     public void scheduleOngoingStatusWatchdog() {
         getLogger().debug(".scheduleOngoingStatusWatchdog(): Entry");
-        TimerTask ongoingWatchdogTask = new TimerTask() {
-            public void run() {
-                getLogger().debug(".ongoingWatchdogTask(): Entry");
-                statusWatchDog();
-                getLogger().debug(".ongoingWatchdogTask(): Exit");
-            }
-        };
-        Timer timer = new Timer("scheduleOngoingStatusWatchdog");
-        timer.schedule(ongoingWatchdogTask, WATCHDOG_INITIAL_START_DELAY, WATCHDOG_SCAN_PERIOD);
+        sharedScheduler.schedule("ongoingStatusWatchdog", () -> {
+            getLogger().debug(".ongoingWatchdogTask(): Entry");
+            statusWatchDog();
+            getLogger().debug(".ongoingWatchdogTask(): Exit");
+        }, WATCHDOG_INITIAL_START_DELAY, WATCHDOG_SCAN_PERIOD);
 
         getLogger().debug(".scheduleOngoingStatusWatchdog(): Exit");
     }
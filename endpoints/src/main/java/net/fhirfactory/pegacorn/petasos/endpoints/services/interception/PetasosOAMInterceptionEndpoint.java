@@ -34,8 +34,6 @@ import org.apache.camel.Produce;
 import org.apache.camel.ProducerTemplate;
 import org.apache.commons.lang3.StringUtils;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -192,11 +190,8 @@ public class PetasosOAMInterceptionEndpoint extends JGroupsIntegrationPointBase
             classSet[0] = PetasosFulfillmentTask.class;
             objectSet[1] = myIP;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             PetasosFulfillmentTask redirectedTaskOutcome = null;
-            synchronized (getIPCChannelLock()) {
-                redirectedTaskOutcome = getRPCDispatcher().callRemoteMethod(targetAddress, "redirectFulfillmentTaskHandler", objectSet, classSet, requestOptions);
-            }
+            redirectedTaskOutcome = callRemoteMethod(targetAddress, "redirectFulfillmentTaskHandler", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".redirectFulfillmentTask(): Exit, redirectedTask->{}", redirectedTaskOutcome);
             return(redirectedTaskOutcome);
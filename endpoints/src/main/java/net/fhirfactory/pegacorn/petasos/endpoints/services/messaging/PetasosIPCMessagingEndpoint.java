@@ -35,14 +35,13 @@ import org.apache.camel.Produce;
 import org.apache.camel.ProducerTemplate;
 import org.apache.commons.lang3.StringUtils;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @ApplicationScoped
 public class PetasosIPCMessagingEndpoint extends JGroupsIntegrationPointBase {
@@ -192,12 +191,9 @@ public class PetasosIPCMessagingEndpoint extends JGroupsIntegrationPointBase {
             Class classSet[] = new Class[1];
             objectSet[0] = handoverPacket;
             classSet[0] = InterProcessingPlantHandoverPacket.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             getLogger().trace(".sendIPCMessage(): Message.SEND: targetAddress->{}, handoverPacket->{}", targetAddress, handoverPacket);
             InterProcessingPlantHandoverResponsePacket response = null;
-            synchronized(getIPCChannelLock()) {
-                response = getRPCDispatcher().callRemoteMethod(targetAddress, "receiveIPCMessage", objectSet, classSet, requestOptions);
-            }
+            response = callRemoteMethod(targetAddress, "receiveIPCMessage", objectSet, classSet);
             getLogger().trace(".sendIPCMessage(): Message.SEND.RESPONSE: response->{}", response);
             if(getLogger().isInfoEnabled()){
                 getLogger().info(".sendIPCMessage(): Forwarding of Task Complete");
@@ -221,6 +217,35 @@ public class PetasosIPCMessagingEndpoint extends JGroupsIntegrationPointBase {
         }
     }
 
+    /**
+     * Pipelined variant of sendIPCMessage(Address, InterProcessingPlantHandoverPacket) - the caller is not blocked
+     * waiting for the response, so several handover packets can be in flight to the same target at once. Failures
+     * are reported as a PACKET_SEND_FAILURE response rather than as an exceptional completion.
+     *
+     * @param targetAddress
+     * @param handoverPacket
+     * @return
+     */
+    public CompletableFuture<InterProcessingPlantHandoverResponsePacket> sendIPCMessageAsync(Address targetAddress, InterProcessingPlantHandoverPacket handoverPacket){
+        getLogger().debug(".sendIPCMessageAsync(): Entry, targetAddress->{}", targetAddress);
+        Object objectSet[] = new Object[1];
+        Class classSet[] = new Class[1];
+        objectSet[0] = handoverPacket;
+        classSet[0] = InterProcessingPlantHandoverPacket.class;
+        CompletableFuture<InterProcessingPlantHandoverResponsePacket> responseFuture = callRemoteMethodAsync(targetAddress, "receiveIPCMessage", objectSet, classSet);
+        return(responseFuture.handle((response, error) -> {
+            if(error == null){
+                return(response);
+            }
+            getLogger().error(".sendIPCMessageAsync(): Error ->{}", error.getMessage());
+            InterProcessingPlantHandoverResponsePacket failureResponse = new InterProcessingPlantHandoverResponsePacket();
+            failureResponse.setActionableTaskId(handoverPacket.getActionableTask().getTaskId());
+            failureResponse.setStatus(InterProcessingPlantHandoverPacketStatusEnum.PACKET_SEND_FAILURE);
+            failureResponse.setStatusReason("Error (GeneralException)" + error.getMessage());
+            return(failureResponse);
+        }));
+    }
+
     public List<Address> getIPCTargetAddressSet(String endpointServiceName){
         getLogger().debug(".getIPCTargetAddressSet(): Entry, endpointServiceName->{}", endpointServiceName);
         List<Address> endpointAddressSet = new ArrayList<>();
@@ -43,8 +43,6 @@ import org.apache.camel.Produce;
 import org.apache.camel.ProducerTemplate;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -173,11 +171,8 @@ public class PetasosTaskServicesEndpoint extends JGroupsIntegrationPointBase imp
             Class classSet[] = new Class[1];
             objectSet[0] = task;
             classSet[0] = CapabilityUtilisationRequest.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             CapabilityUtilisationResponse response = null;
-            synchronized (getIPCChannelLock()) {
-                response = getRPCDispatcher().callRemoteMethod(targetAddress, "executeTaskHandler", objectSet, classSet, requestOptions);
-            }
+            response = callRemoteMethod(targetAddress, "executeTaskHandler", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".executeTask(): Exit, response->{}", response);
             return(response);
@@ -229,12 +224,9 @@ public class PetasosTaskServicesEndpoint extends JGroupsIntegrationPointBase imp
             Class classSet[] = new Class[1];
             objectSet[0] = remoteProcedureCallRequest;
             classSet[0] = RemoteProcedureCallRequest.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             RemoteProcedureCallResponse response = null;
             getMetricsAgent().incrementRemoteProcedureCallCount();
-            synchronized (getIPCChannelLock()) {
-                response = getRPCDispatcher().callRemoteMethod(targetAddress, "registerActionableTaskHandler", objectSet, classSet, requestOptions);
-            }
+            response = callRemoteMethod(targetAddress, "registerActionableTaskHandler", objectSet, classSet);
             getLogger().debug(".registerActionableTask(): Exit, response->{}", response);
             if(response.isSuccessful()){
                 PetasosActionableTask registeredTask = (PetasosActionableTask) response.getResponseContent();
@@ -313,11 +305,8 @@ public class PetasosTaskServicesEndpoint extends JGroupsIntegrationPointBase imp
             Class classSet[] = new Class[1];
             objectSet[0] = remoteProcedureCallRequest;
             classSet[0] = RemoteProcedureCallRequest.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             RemoteProcedureCallResponse response = null;
-            synchronized(getIPCChannelLock()) {
-                response = getRPCDispatcher().callRemoteMethod(targetAddress, "fulfillActionableTaskHandler", objectSet, classSet, requestOptions);
-            }
+            response = callRemoteMethod(targetAddress, "fulfillActionableTaskHandler", objectSet, classSet);
             getLogger().debug(".fulfillActionableTask(): Exit, response->{}", response);
             if(response.isSuccessful()){
                 PetasosActionableTask registeredTask = (PetasosActionableTask) response.getResponseContent();
@@ -401,11 +390,8 @@ public class PetasosTaskServicesEndpoint extends JGroupsIntegrationPointBase imp
             Class classSet[] = new Class[1];
             objectSet[0] = remoteProcedureCallRequest;
             classSet[0] = RemoteProcedureCallRequest.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             RemoteProcedureCallResponse response = null;
-            synchronized (getIPCChannelLock()) {
-                response = getRPCDispatcher().callRemoteMethod(targetAddress, "updateActionableTaskHandler", objectSet, classSet, requestOptions);
-            }
+            response = callRemoteMethod(targetAddress, "updateActionableTaskHandler", objectSet, classSet);
             getLogger().debug(".updateActionableTask(): Exit, response->{}", response);
             if(response.isSuccessful()){
                 PetasosActionableTask registeredTask = (PetasosActionableTask) response.getResponseContent();
@@ -31,8 +31,6 @@ import net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.JGroupsIn
 import net.fhirfactory.pegacorn.petasos.endpoints.topology.SoftwareComponentSet;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -166,12 +164,9 @@ public class PetasosTopologyServicesEndpoint extends JGroupsIntegrationPointBase
             Class classSet[] = new Class[1];
             objectSet[0] = targetJGroupsIntegrationPoint;
             classSet[0] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             Address endpointAddress = getTargetMemberAddress(targetJGroupsIntegrationPoint.getChannelName());
             SoftwareComponentSet nodeList = null;
-            synchronized (getIPCChannelLock()) {
-                nodeList = getRPCDispatcher().callRemoteMethod(endpointAddress, "probeProcessingPlantTopologyDetailHandler", objectSet, classSet, requestOptions);
-            }
+            nodeList = callRemoteMethod(endpointAddress, "probeProcessingPlantTopologyDetailHandler", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".probeEndpointTopologyDetail(): Exit, response->{}", nodeList);
             return(nodeList);
@@ -25,6 +25,11 @@ package net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups;
 import net.fhirfactory.pegacorn.core.model.petasos.endpoint.JGroupsIntegrationPointIdentifier;
 import net.fhirfactory.pegacorn.petasos.endpoints.technologies.datatypes.PetasosAdapterAddress;
 import net.fhirfactory.pegacorn.petasos.endpoints.technologies.datatypes.PetasosAdapterAddressTypeEnum;
+import net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets.JGroupsTargetSelectionPolicy;
+import net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets.JGroupsViewIndex;
+import net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets.JGroupsViewMember;
+import net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets.LeastOutstandingRequestsTargetSelectionPolicy;
+import net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets.LocalityPreferringTargetSelectionPolicy;
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.commons.lang3.StringUtils;
@@ -33,11 +38,21 @@ import org.jgroups.Address;
 import org.jgroups.JChannel;
 import org.jgroups.MembershipListener;
 import org.jgroups.View;
+import org.jgroups.blocks.MethodCall;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.blocks.ResponseMode;
 import org.jgroups.blocks.RpcDispatcher;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public abstract class JGroupsAdapterBase extends RouteBuilder implements MembershipListener {
 
@@ -52,7 +67,14 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
     private ArrayList<Address> currentScannedMembership;
     private Object currentScannedMembershipLock;
 
+    private ConcurrentHashMap<Address, Semaphore> rpcInFlightWindows;
+
+    private volatile JGroupsViewIndex viewIndex;
+    private volatile JGroupsTargetSelectionPolicy targetSelectionPolicy;
+    private volatile String localLocality;
+
     private static Long RPC_UNICAST_TIMEOUT = 5000L;
+    private static int RPC_MAX_IN_FLIGHT_PER_TARGET = 16;
 
     private static int INITIALISATION_RETRY_COUNT = 5;
     private static Long INITIALISATION_RETRY_WAIT = 500L;
@@ -68,6 +90,10 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
         this.rpcDispatcher = null;
         this.currentScannedMembershipLock = new Object();
         this.ipcChannelLock = new Object();
+        this.rpcInFlightWindows = new ConcurrentHashMap<>();
+        this.viewIndex = JGroupsViewIndex.emptyIndex();
+        this.targetSelectionPolicy = null;
+        this.localLocality = null;
     }
 
     //
@@ -85,6 +111,30 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
     abstract public void processInterfaceRemoval(PetasosAdapterAddress removedInterface);
     abstract public void processInterfaceSuspect(PetasosAdapterAddress suspectInterface);
 
+    /**
+     * The locality (e.g. site and zone) of an integration point, used by the locality-preferring target selection
+     * policy. The default implementation doesn't know about localities.
+     *
+     * @param endpointName the JGroups Address name of the integration point
+     * @return the locality, or null if it can't be determined
+     */
+    protected String deriveIntegrationPointLocality(String endpointName){
+        return(null);
+    }
+
+    /**
+     * The policy used by getCandidateTargetServiceAddress() to choose between the members of the target subsystem.
+     * The default prefers members in the same locality and, amongst those, the one with the fewest in-flight
+     * requests.
+     *
+     * @return the target selection policy
+     */
+    protected JGroupsTargetSelectionPolicy specifyTargetSelectionPolicy(){
+        JGroupsTargetSelectionPolicy leastOutstandingRequestsPolicy = new LeastOutstandingRequestsTargetSelectionPolicy(this::getOutstandingRequestCount);
+        JGroupsTargetSelectionPolicy policy = new LocalityPreferringTargetSelectionPolicy(this::getLocalLocality, leastOutstandingRequestsPolicy);
+        return(policy);
+    }
+
     //
     // JGroups Group/Cluster Membership Event Listener
     //
@@ -104,6 +154,7 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
             this.previousScannedMembership.addAll(this.currentScannedMembership);
             this.currentScannedMembership.clear();
             this.currentScannedMembership.addAll(addressList);
+            this.viewIndex = buildViewIndex(addressList);
         }
 
         if(getLogger().isInfoEnabled()) {
@@ -136,6 +187,8 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
         for(PetasosAdapterAddress currentRemovedElement: removals){
             processInterfaceRemoval(currentRemovedElement);
         }
+        // Drop the in-flight windows of every member that has left (not just the PubSub participants)
+        rpcInFlightWindows.keySet().retainAll(addressList);
         getLogger().debug(".viewAccepted(): PubSub Participants check completed");
         getLogger().debug(".viewAccepted(): Exit");
     }
@@ -275,6 +328,10 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
         return(RPC_UNICAST_TIMEOUT);
     }
 
+    public int getRPCMaxInFlightPerTarget(){
+        return(RPC_MAX_IN_FLIGHT_PER_TARGET);
+    }
+
     public ArrayList<Address> getCurrentScannedMembership() {
         ArrayList<Address> clonedList = new ArrayList<>();
         return currentScannedMembership;
@@ -293,26 +350,134 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
     }
 
     //
-    // JGroups Membership Methods
+    // Remote Procedure Calls
     //
 
-    public List<Address> getAllViewMembers() {
-        if (getIPCChannel() == null) {
-            return (new ArrayList<>());
+    /**
+     * Invokes a method on the target member without blocking the caller for the response. Each target has a
+     * bounded window of in-flight requests (see getRPCMaxInFlightPerTarget()) - if the window is full the returned
+     * future fails straight away with a RejectedExecutionException, so a slow target pushes back on its callers
+     * (without blocking them) rather than on every other target. The returned future completes with the remote
+     * response, completes exceptionally with the remote exception or a TimeoutException once
+     * timeoutInMilliseconds has passed, and can be cancelled - each of which releases the window slot.
+     *
+     * @param targetAddress the JGroups Address of the target member
+     * @param methodName the name of the (handler) method to invoke on the target
+     * @param objectSet the method parameters
+     * @param classSet the method parameter types
+     * @param timeoutInMilliseconds the timeout for the call
+     * @param <T> the response type
+     * @return a future for the response
+     */
+    public <T> CompletableFuture<T> callRemoteMethodAsync(Address targetAddress, String methodName, Object[] objectSet, Class[] classSet, long timeoutInMilliseconds){
+        getLogger().debug(".callRemoteMethodAsync(): Entry, targetAddress->{}, methodName->{}", targetAddress, methodName);
+        CompletableFuture<T> failedFuture = new CompletableFuture<>();
+        if(targetAddress == null){
+            failedFuture.completeExceptionally(new IllegalArgumentException("targetAddress is null"));
+            return(failedFuture);
+        }
+        if(getRPCDispatcher() == null){
+            failedFuture.completeExceptionally(new IllegalStateException("RPCDispatcher is not initialised"));
+            return(failedFuture);
+        }
+        Semaphore inFlightWindow = getInFlightWindow(targetAddress);
+        if(!inFlightWindow.tryAcquire()){
+            getLogger().warn(".callRemoteMethodAsync(): In-flight window full, targetAddress->{}, methodName->{}", targetAddress, methodName);
+            failedFuture.completeExceptionally(new RejectedExecutionException("In-flight window for " + targetAddress + " is full"));
+            return(failedFuture);
+        }
+        CompletableFuture<T> responseFuture = dispatchRemoteMethod(targetAddress, methodName, objectSet, classSet, timeoutInMilliseconds, inFlightWindow);
+        getLogger().debug(".callRemoteMethodAsync(): Exit");
+        return(responseFuture);
+    }
+
+    public <T> CompletableFuture<T> callRemoteMethodAsync(Address targetAddress, String methodName, Object[] objectSet, Class[] classSet){
+        return(callRemoteMethodAsync(targetAddress, methodName, objectSet, classSet, getRPCUnicastTimeout()));
+    }
+
+    /**
+     * Synchronous call of a method on the target member. Unlike callRemoteMethodAsync(), a full in-flight window
+     * doesn't fail the call straight away - the caller waits (for up to the unicast timeout) for a slot, as it
+     * would have waited on the channel. Exceptions raised by the remote method (or by the dispatch) are re-thrown
+     * unwrapped, so callers see the same exceptions as a direct RpcDispatcher call.
+     *
+     * @param targetAddress the JGroups Address of the target member
+     * @param methodName the name of the (handler) method to invoke on the target
+     * @param objectSet the method parameters
+     * @param classSet the method parameter types
+     * @param <T> the response type
+     * @return the response from the target
+     * @throws Exception
+     */
+    public <T> T callRemoteMethod(Address targetAddress, String methodName, Object[] objectSet, Class[] classSet) throws Exception {
+        if(targetAddress == null){
+            throw(new IllegalArgumentException("targetAddress is null"));
         }
-        if (getIPCChannel().getView() == null) {
-            return (new ArrayList<>());
+        if(getRPCDispatcher() == null){
+            throw(new IllegalStateException("RPCDispatcher is not initialised"));
         }
+        long timeout = getRPCUnicastTimeout();
+        Semaphore inFlightWindow = getInFlightWindow(targetAddress);
+        if(!inFlightWindow.tryAcquire(timeout, TimeUnit.MILLISECONDS)){
+            getLogger().warn(".callRemoteMethod(): In-flight window still full after {}ms, targetAddress->{}, methodName->{}", timeout, targetAddress, methodName);
+            throw(new TimeoutException("In-flight window for " + targetAddress + " still full after " + timeout + "ms"));
+        }
+        CompletableFuture<T> responseFuture = dispatchRemoteMethod(targetAddress, methodName, objectSet, classSet, timeout, inFlightWindow);
         try {
-            List<Address> members = null;
-            synchronized (getIPCChannelLock()) {
-                members = getIPCChannel().getView().getMembers();
+            // The future times itself out after timeout, this only guards against it never being completed at all
+            return(responseFuture.get(2 * timeout, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            responseFuture.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof Exception){
+                throw (Exception)cause;
             }
-            return (members);
-        } catch (Exception ex) {
-            getLogger().warn(".getAllMembers(): Failed to get View Members, Error: Message->{}, StackTrace->{}", ExceptionUtils.getMessage(ex), ExceptionUtils.getStackTrace(ex));
+            throw e;
         }
-        return (new ArrayList<>());
+    }
+
+    protected Semaphore getInFlightWindow(Address targetAddress){
+        return(rpcInFlightWindows.computeIfAbsent(targetAddress, address -> new Semaphore(getRPCMaxInFlightPerTarget())));
+    }
+
+    /**
+     * Dispatches the call, the caller having already acquired a slot in the target's in-flight window (which is
+     * released when the returned future completes, or straight away if the dispatch fails).
+     */
+    private <T> CompletableFuture<T> dispatchRemoteMethod(Address targetAddress, String methodName, Object[] objectSet, Class[] classSet, long timeoutInMilliseconds, Semaphore inFlightWindow){
+        try {
+            RequestOptions requestOptions = new RequestOptions(ResponseMode.GET_FIRST, timeoutInMilliseconds);
+            MethodCall methodCall = new MethodCall(methodName, objectSet, classSet);
+            CompletableFuture<T> responseFuture = getRPCDispatcher().callRemoteMethodWithFuture(targetAddress, methodCall, requestOptions);
+            // The RequestOptions timeout isn't applied to the future, so a target that never answers (hung or
+            // partitioned) would otherwise hold its window slot forever
+            responseFuture.orTimeout(timeoutInMilliseconds, TimeUnit.MILLISECONDS);
+            responseFuture.whenComplete((response, error) -> {
+                inFlightWindow.release();
+                if(error instanceof TimeoutException){
+                    // removes the request from the dispatcher's correlator
+                    responseFuture.cancel(true);
+                }
+            });
+            return(responseFuture);
+        } catch (Exception e) {
+            inFlightWindow.release();
+            getLogger().warn(".dispatchRemoteMethod(): Could not dispatch request, targetAddress->{}, methodName->{}, error->{}", targetAddress, methodName, ExceptionUtils.getMessage(e));
+            CompletableFuture<T> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(e);
+            return(failedFuture);
+        }
+    }
+
+    //
+    // JGroups Membership Methods
+    //
+
+    public List<Address> getAllViewMembers() {
+        List<Address> members = getViewIndex().getMembers();
+        return (members);
     }
 
 
@@ -322,19 +487,10 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
             getLogger().debug(".getTargetMemberAddress(): IPCChannel is null, exit returning (null)");
             return(null);
         }
-        getLogger().trace(".getTargetMemberAddress(): IPCChannel is NOT null, get updated Address set via view");
-        List<Address> addressList = getAllViewMembers();
         Address foundAddress = null;
-        synchronized (this.currentScannedMembershipLock) {
-            getLogger().trace(".getTargetMemberAddress(): Got the Address set via view, now iterate through and see if one is suitable");
-            for (Address currentAddress : addressList) {
-                getLogger().trace(".getTargetMemberAddress(): Iterating through Address list, current element->{}", currentAddress);
-                if (currentAddress.toString().contentEquals(name)) {
-                    getLogger().trace(".getTargetMemberAddress(): Exit, A match!");
-                    foundAddress = currentAddress;
-                    break;
-                }
-            }
+        JGroupsViewMember member = getViewIndex().getMember(name);
+        if(member != null){
+            foundAddress = member.getAddress();
         }
         getLogger().debug(".getTargetMemberAddress(): Exit, address->{}", foundAddress);
         return(foundAddress);
@@ -347,20 +503,10 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
             getLogger().debug(".getCandidateTargetServiceAddress(): IPCChannel is null, exit returning (null)");
             return(null);
         }
-        getLogger().trace(".getCandidateTargetServiceAddress(): IPCChannel is NOT null, get updated Address set via view");
-        List<Address> addressList = getAllViewMembers();
+        List<JGroupsViewMember> candidates = getViewIndex().getSubsystemMembers(targetServiceName);
         Address foundAddress = null;
-        synchronized (this.currentScannedMembershipLock) {
-            getLogger().debug(".getCandidateTargetServiceAddress(): Got the Address set via view, now iterate through and see if one is suitable");
-            for (Address currentAddress : addressList) {
-                getLogger().debug(".getCandidateTargetServiceAddress(): Iterating through Address list, current element->{}", currentAddress);
-                String currentService = deriveIntegrationPointSubsystemName(currentAddress.toString());
-                if (currentService.equals(targetServiceName)) {
-                    getLogger().debug(".getCandidateTargetServiceAddress(): Exit, A match!");
-                    foundAddress = currentAddress;
-                    break;
-                }
-            }
+        if(!candidates.isEmpty()){
+            foundAddress = getTargetSelectionPolicy().selectTarget(targetServiceName, candidates);
         }
         getLogger().debug(".getCandidateTargetServiceAddress(): Exit, foundAddress->{}",foundAddress );
         return(foundAddress);
@@ -378,20 +524,7 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
             getLogger().debug(".isTargetAddressActive(): addressName is empty, exit returning -false-");
             return(false);
         }
-        getLogger().trace(".isTargetAddressActive(): IPCChannel is NOT null, get updated Address set via view");
-        List<Address> addressList = getAllViewMembers();
-        boolean addressIsActive = false;
-        synchronized (this.currentScannedMembershipLock) {
-            getLogger().trace(".isTargetAddressActive(): Got the Address set via view, now iterate through and see our address is there");
-            for (Address currentAddress : addressList) {
-                getLogger().trace(".isTargetAddressActive(): Iterating through Address list, current element->{}", currentAddress);
-                if (currentAddress.toString().contentEquals(addressName)) {
-                    getLogger().trace(".isTargetAddressActive(): Exit, A match");
-                    addressIsActive = true;
-                    break;
-                }
-            }
-        }
+        boolean addressIsActive = getViewIndex().getMember(addressName) != null;
         getLogger().debug(".isTargetAddressActive(): Exit, addressIsActive->{}",addressIsActive);
         return(addressIsActive);
     }
@@ -400,20 +533,69 @@ public abstract class JGroupsAdapterBase extends RouteBuilder implements Members
         getLogger().debug(".getAllClusterTargets(): Entry");
         List<Address> addressList = getAllViewMembers();
         List<PetasosAdapterAddress> petasosAdapterAddresses = new ArrayList<>();
-        synchronized (this.currentScannedMembershipLock) {
-            for (Address currentAddress : addressList) {
-                getLogger().debug(".getAllTargets(): Iterating through Address list, current element->{}", currentAddress);
-                PetasosAdapterAddress currentPetasosAdapterAddress = new PetasosAdapterAddress();
-                currentPetasosAdapterAddress.setAddressType(PetasosAdapterAddressTypeEnum.ADDRESS_TYPE_JGROUPS);
-                currentPetasosAdapterAddress.setJGroupsAddress(currentAddress);
-                currentPetasosAdapterAddress.setAddressName(currentAddress.toString());
-                petasosAdapterAddresses.add(currentPetasosAdapterAddress);
-            }
+        for (Address currentAddress : addressList) {
+            getLogger().debug(".getAllTargets(): Iterating through Address list, current element->{}", currentAddress);
+            PetasosAdapterAddress currentPetasosAdapterAddress = new PetasosAdapterAddress();
+            currentPetasosAdapterAddress.setAddressType(PetasosAdapterAddressTypeEnum.ADDRESS_TYPE_JGROUPS);
+            currentPetasosAdapterAddress.setJGroupsAddress(currentAddress);
+            currentPetasosAdapterAddress.setAddressName(currentAddress.toString());
+            petasosAdapterAddresses.add(currentPetasosAdapterAddress);
         }
         getLogger().debug(".getAllClusterTargets(): Exit, petasosAdapterAddresses->{}", petasosAdapterAddresses);
         return(petasosAdapterAddresses);
     }
 
+    //
+    // View Index and Target Selection
+    //
+
+    /**
+     * The index of the current view. It is rebuilt on every viewAccepted(); if no view has been accepted yet (e.g.
+     * during channel connection) it is built from the channel's current view.
+     */
+    protected JGroupsViewIndex getViewIndex(){
+        JGroupsViewIndex currentIndex = this.viewIndex;
+        if(currentIndex.isEmpty() && getIPCChannel() != null && getIPCChannel().getView() != null){
+            synchronized (this.currentScannedMembershipLock) {
+                if(this.viewIndex.isEmpty()) {
+                    this.viewIndex = buildViewIndex(getIPCChannel().getView().getMembers());
+                }
+                currentIndex = this.viewIndex;
+            }
+        }
+        return(currentIndex);
+    }
+
+    protected JGroupsViewIndex buildViewIndex(List<Address> members){
+        JGroupsViewIndex newIndex = JGroupsViewIndex.build(members, this::deriveIntegrationPointSubsystemName, this::deriveIntegrationPointLocality);
+        return(newIndex);
+    }
+
+    protected JGroupsTargetSelectionPolicy getTargetSelectionPolicy(){
+        if(this.targetSelectionPolicy == null){
+            this.targetSelectionPolicy = specifyTargetSelectionPolicy();
+        }
+        return(this.targetSelectionPolicy);
+    }
+
+    protected String getLocalLocality(){
+        if(this.localLocality == null){
+            Address myAddress = getMyAddress();
+            if(myAddress != null){
+                this.localLocality = deriveIntegrationPointLocality(myAddress.toString());
+            }
+        }
+        return(this.localLocality);
+    }
+
+    public int getOutstandingRequestCount(Address targetAddress){
+        Semaphore inFlightWindow = rpcInFlightWindows.get(targetAddress);
+        if(inFlightWindow == null){
+            return(0);
+        }
+        return(Math.max(0, getRPCMaxInFlightPerTarget() - inFlightWindow.availablePermits()));
+    }
+
     protected Address getMyAddress(){
         if(getIPCChannel() != null){
             Address myAddress = getIPCChannel().getAddress();
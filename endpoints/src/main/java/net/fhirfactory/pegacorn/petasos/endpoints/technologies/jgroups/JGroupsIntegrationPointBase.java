@@ -49,18 +49,17 @@ import net.fhirfactory.pegacorn.petasos.oam.metrics.PetasosMetricAgentFactory;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.agents.EndpointMetricsAgent;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.agents.ProcessingPlantMetricsAgent;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.agents.ProcessingPlantMetricsAgentAccessor;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.apache.commons.lang3.StringUtils;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public abstract class JGroupsIntegrationPointBase extends JGroupsIntegrationPointAdapterBase {
 
@@ -103,6 +102,9 @@ public abstract class JGroupsIntegrationPointBase extends JGroupsIntegrationPoin
     @Inject
     private ProcessingPlantRoleSupportInterface processingPlantCapabilityStatement;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // Constructor
     //
@@ -204,6 +206,23 @@ public abstract class JGroupsIntegrationPointBase extends JGroupsIntegrationPoin
 
     }
 
+    //
+    // Remote Procedure Call Timing
+    //
+
+    @Override
+    public <T> CompletableFuture<T> callRemoteMethodAsync(Address targetAddress, String methodName, Object[] objectSet, Class[] classSet, long timeoutInMilliseconds){
+        long dispatchTime = System.nanoTime();
+        CompletableFuture<T> responseFuture = super.callRemoteMethodAsync(targetAddress, methodName, objectSet, classSet, timeoutInMilliseconds);
+        responseFuture.whenComplete((response, error) -> {
+            EndpointMetricsAgent endpointMetricsAgent = getMetricsAgent();
+            if(endpointMetricsAgent != null){
+                endpointMetricsAgent.recordRemoteProcedureCallDuration(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dispatchTime));
+            }
+        });
+        return(responseFuture);
+    }
+
     //
     // Getters (and Setters)
     //
@@ -269,12 +288,9 @@ public abstract class JGroupsIntegrationPointBase extends JGroupsIntegrationPoin
             Class classSet[] = new Class[1];
             objectSet[0] = query;
             classSet[0] = JGroupsIntegrationPointProbeQuery.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
             Address endpointAddress = getTargetMemberAddress(targetIntegrationPoint.getChannelName());
             JGroupsIntegrationPointProbeReport report = null;
-            synchronized(getIPCChannelLock()) {
-                report = getRPCDispatcher().callRemoteMethod(endpointAddress, "probeJGroupsIntegrationPointHandler", objectSet, classSet, requestOptions);
-            }
+            report = callRemoteMethod(endpointAddress, "probeJGroupsIntegrationPointHandler", objectSet, classSet);
             getLogger().debug(".probeJGroupsIntegrationPoint(): Exit, report->{}", report);
             return(report);
         } catch (NoSuchMethodException e) {
@@ -314,6 +330,20 @@ public abstract class JGroupsIntegrationPointBase extends JGroupsIntegrationPoin
         return(serviceName);
     }
 
+    @Override
+    protected String deriveIntegrationPointLocality(String endpointName) {
+        if(StringUtils.isEmpty(endpointName)){
+            return(null);
+        }
+        String site = getComponentNameUtilities().getEndpointSiteFromChannelName(endpointName);
+        String zone = getComponentNameUtilities().getEndpointZoneFromChannelName(endpointName);
+        if(site == null && zone == null){
+            return(null);
+        }
+        String locality = site + getComponentNameUtilities().getChannelNameSeparator() + zone;
+        return(locality);
+    }
+
     //
     // JGroups Integration Point Status Check
     //
@@ -514,21 +544,16 @@ public abstract class JGroupsIntegrationPointBase extends JGroupsIntegrationPoin
         if (endpointCheckScheduled) {
             // do nothing, it is already scheduled
         } else {
-            TimerTask endpointValidationTask = new TimerTask() {
-                public void run() {
-                    getLogger().debug(".endpointValidationTask(): Entry");
-                    boolean doAgain = performEndpointValidationCheck();
-                    getLogger().debug(".endpointValidationTask(): doAgain ->{}", doAgain);
-                    if (!doAgain) {
-                        cancel();
-                        endpointCheckScheduled = false;
-                    }
-                    getLogger().debug(".endpointValidationTask(): Exit");
+            sharedScheduler.scheduleUntilComplete("EndpointValidationWatchdogTask", () -> {
+                getLogger().debug(".endpointValidationTask(): Entry");
+                boolean doAgain = performEndpointValidationCheck();
+                getLogger().debug(".endpointValidationTask(): doAgain ->{}", doAgain);
+                if (!doAgain) {
+                    endpointCheckScheduled = false;
                 }
-            };
-            String timerName = "EndpointValidationWatchdogTask";
-            Timer timer = new Timer(timerName);
-            timer.schedule(endpointValidationTask, getJgroupsParticipantInformationService().getEndpointValidationStartDelay(), getJgroupsParticipantInformationService().getEndpointValidationPeriod());
+                getLogger().debug(".endpointValidationTask(): Exit");
+                return(doAgain);
+            }, getJgroupsParticipantInformationService().getEndpointValidationStartDelay(), getJgroupsParticipantInformationService().getEndpointValidationPeriod());
             endpointCheckScheduled = true;
         }
         getLogger().debug(".scheduleEndpointValidation(): Exit");
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets;
+
+import org.jgroups.Address;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An immutable index of a JGroups view: its members by Address name and by (integration point) subsystem name. A new
+ * index is built each time the view changes and is then read without locking.
+ */
+public class JGroupsViewIndex {
+    private static final JGroupsViewIndex EMPTY_INDEX = new JGroupsViewIndex(Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final List<Address> members;
+    private final Map<String, JGroupsViewMember> membersByAddressName;
+    private final Map<String, List<JGroupsViewMember>> membersBySubsystemName;
+
+    //
+    // Constructor(s)
+    //
+
+    private JGroupsViewIndex(List<Address> members, Map<String, JGroupsViewMember> membersByAddressName, Map<String, List<JGroupsViewMember>> membersBySubsystemName){
+        this.members = members;
+        this.membersByAddressName = membersByAddressName;
+        this.membersBySubsystemName = membersBySubsystemName;
+    }
+
+    public static JGroupsViewIndex emptyIndex(){
+        return(EMPTY_INDEX);
+    }
+
+    /**
+     * Builds an index of the given view members.
+     *
+     * @param members the members of the view
+     * @param subsystemNameFunction derives the subsystem name from an Address name (may return null)
+     * @param localityFunction derives the locality (e.g. site and zone) from an Address name (may return null)
+     * @return the index
+     */
+    public static JGroupsViewIndex build(List<Address> members, Function<String, String> subsystemNameFunction, Function<String, String> localityFunction){
+        if(members == null || members.isEmpty()){
+            return(EMPTY_INDEX);
+        }
+        Map<String, JGroupsViewMember> membersByAddressName = new HashMap<>();
+        Map<String, List<JGroupsViewMember>> membersBySubsystemName = new HashMap<>();
+        for(Address currentAddress: members){
+            String addressName = currentAddress.toString();
+            String subsystemName = subsystemNameFunction.apply(addressName);
+            String locality = localityFunction.apply(addressName);
+            JGroupsViewMember member = new JGroupsViewMember(currentAddress, addressName, subsystemName, locality);
+            membersByAddressName.putIfAbsent(addressName, member);
+            if(subsystemName != null){
+                membersBySubsystemName.computeIfAbsent(subsystemName, name -> new ArrayList<>()).add(member);
+            }
+        }
+        for(Map.Entry<String, List<JGroupsViewMember>> currentEntry: membersBySubsystemName.entrySet()){
+            currentEntry.setValue(Collections.unmodifiableList(currentEntry.getValue()));
+        }
+        return(new JGroupsViewIndex(Collections.unmodifiableList(new ArrayList<>(members)), membersByAddressName, membersBySubsystemName));
+    }
+
+    //
+    // Lookups
+    //
+
+    public List<Address> getMembers(){
+        return(members);
+    }
+
+    public boolean isEmpty(){
+        return(members.isEmpty());
+    }
+
+    public JGroupsViewMember getMember(String addressName){
+        if(addressName == null){
+            return(null);
+        }
+        return(membersByAddressName.get(addressName));
+    }
+
+    public List<JGroupsViewMember> getSubsystemMembers(String subsystemName){
+        if(subsystemName == null){
+            return(Collections.emptyList());
+        }
+        List<JGroupsViewMember> subsystemMembers = membersBySubsystemName.get(subsystemName);
+        if(subsystemMembers == null){
+            return(Collections.emptyList());
+        }
+        return(subsystemMembers);
+    }
+}
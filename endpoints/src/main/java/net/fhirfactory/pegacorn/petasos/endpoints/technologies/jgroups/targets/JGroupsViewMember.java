@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets;
+
+import org.jgroups.Address;
+
+/**
+ * A member of a JGroups view, together with the names derived from its Address. These are worked out once, when
+ * the view changes, rather than on every target resolution.
+ */
+public class JGroupsViewMember {
+    private final Address address;
+    private final String addressName;
+    private final String subsystemName;
+    private final String locality;
+
+    //
+    // Constructor(s)
+    //
+
+    public JGroupsViewMember(Address address, String addressName, String subsystemName, String locality){
+        this.address = address;
+        this.addressName = addressName;
+        this.subsystemName = subsystemName;
+        this.locality = locality;
+    }
+
+    //
+    // Getters
+    //
+
+    public Address getAddress() {
+        return address;
+    }
+
+    public String getAddressName() {
+        return addressName;
+    }
+
+    public String getSubsystemName() {
+        return subsystemName;
+    }
+
+    public String getLocality() {
+        return locality;
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "JGroupsViewMember{" +
+                "addressName='" + addressName + '\'' +
+                ", subsystemName='" + subsystemName + '\'' +
+                ", locality='" + locality + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets;
+
+import org.jgroups.Address;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Chooses the member with the fewest requests currently in flight to it. Ties are broken round robin, so that idle
+ * members share the load rather than the first of them taking all of it.
+ */
+public class LeastOutstandingRequestsTargetSelectionPolicy extends RoundRobinTargetSelectionPolicy {
+    private final ToIntFunction<Address> outstandingRequestCounter;
+
+    public LeastOutstandingRequestsTargetSelectionPolicy(ToIntFunction<Address> outstandingRequestCounter){
+        super();
+        this.outstandingRequestCounter = outstandingRequestCounter;
+    }
+
+    @Override
+    public Address selectTarget(String targetServiceName, List<JGroupsViewMember> candidates) {
+        int candidateCount = candidates.size();
+        if(candidateCount == 1){
+            return(candidates.get(0).getAddress());
+        }
+        int startPosition = nextPosition(targetServiceName, candidateCount);
+        Address selectedAddress = null;
+        int selectedOutstandingCount = Integer.MAX_VALUE;
+        for(int offset = 0; offset < candidateCount; offset++){
+            Address currentAddress = candidates.get((startPosition + offset) % candidateCount).getAddress();
+            int currentOutstandingCount = outstandingRequestCounter.applyAsInt(currentAddress);
+            if(currentOutstandingCount < selectedOutstandingCount){
+                selectedAddress = currentAddress;
+                selectedOutstandingCount = currentOutstandingCount;
+                if(currentOutstandingCount == 0){
+                    break;
+                }
+            }
+        }
+        return(selectedAddress);
+    }
+}
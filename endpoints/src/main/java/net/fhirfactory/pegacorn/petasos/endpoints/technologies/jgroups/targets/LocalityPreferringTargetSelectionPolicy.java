@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets;
+
+import org.jgroups.Address;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Restricts the choice to the members in the same locality (e.g. site and zone) as this member whenever there are
+ * any, and otherwise considers all of them. The actual choice is delegated to another policy.
+ */
+public class LocalityPreferringTargetSelectionPolicy implements JGroupsTargetSelectionPolicy {
+    private final Supplier<String> localLocalitySupplier;
+    private final JGroupsTargetSelectionPolicy delegatePolicy;
+
+    public LocalityPreferringTargetSelectionPolicy(Supplier<String> localLocalitySupplier, JGroupsTargetSelectionPolicy delegatePolicy){
+        this.localLocalitySupplier = localLocalitySupplier;
+        this.delegatePolicy = delegatePolicy;
+    }
+
+    @Override
+    public Address selectTarget(String targetServiceName, List<JGroupsViewMember> candidates) {
+        String localLocality = localLocalitySupplier.get();
+        if(localLocality == null){
+            return(delegatePolicy.selectTarget(targetServiceName, candidates));
+        }
+        List<JGroupsViewMember> localCandidates = new ArrayList<>(candidates.size());
+        for(JGroupsViewMember currentCandidate: candidates){
+            if(localLocality.equals(currentCandidate.getLocality())){
+                localCandidates.add(currentCandidate);
+            }
+        }
+        if(localCandidates.isEmpty() || localCandidates.size() == candidates.size()){
+            return(delegatePolicy.selectTarget(targetServiceName, candidates));
+        }
+        return(delegatePolicy.selectTarget(targetServiceName, localCandidates));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.endpoints.technologies.jgroups.targets;
+
+import org.jgroups.Address;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cycles through the members of each subsystem in turn.
+ */
+public class RoundRobinTargetSelectionPolicy implements JGroupsTargetSelectionPolicy {
+    private final ConcurrentHashMap<String, AtomicInteger> nextIndexMap;
+
+    public RoundRobinTargetSelectionPolicy(){
+        this.nextIndexMap = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Address selectTarget(String targetServiceName, List<JGroupsViewMember> candidates) {
+        int position = nextPosition(targetServiceName, candidates.size());
+        return(candidates.get(position).getAddress());
+    }
+
+    protected int nextPosition(String targetServiceName, int candidateCount){
+        AtomicInteger nextIndex = nextIndexMap.computeIfAbsent(targetServiceName, name -> new AtomicInteger(0));
+        return(Math.floorMod(nextIndex.getAndIncrement(), candidateCount));
+    }
+}
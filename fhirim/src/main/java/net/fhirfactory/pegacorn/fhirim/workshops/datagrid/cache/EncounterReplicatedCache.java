@@ -22,6 +22,12 @@
 package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.cache;
 
 import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.cache.common.BaseResourceReplicatedCache;
+import org.hl7.fhir.r4.model.ResourceType;
 
 public abstract class EncounterReplicatedCache  extends BaseResourceReplicatedCache {
+
+    @Override
+    protected ResourceType specifyResourceType() {
+        return (ResourceType.Encounter);
+    }
 }
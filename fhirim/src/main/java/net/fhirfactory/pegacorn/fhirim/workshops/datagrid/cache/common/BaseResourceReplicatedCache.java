@@ -25,12 +25,116 @@ import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceId
 import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceType;
 import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DatagridPersistenceServiceRegistrationType;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
+import org.hl7.fhir.r4.model.ResourceType;
 import org.infinispan.Cache;
+import org.slf4j.Logger;
 
+import javax.annotation.PostConstruct;
+
+/**
+ * The datagrid cache for a single resource type. Entries are keyed on DataGridResourceIdType.getKey() and the
+ * cache mode (distributed/replicated, sync/async, number of owners) comes from the resource type's configuration in
+ * BaseResourceReplicatedCacheServices.
+ */
 public abstract class BaseResourceReplicatedCache {
 
-    private Cache<DataGridResourceIdType, DataGridResourceType> resourceCache;
+    private Cache<String, DataGridResourceType> resourceCache;
     private Object resourceCacheLock;
+    private boolean initialised;
 
     private Cache<DataParcelTypeDescriptor, DatagridPersistenceServiceRegistrationType> taskPersistenceServiceCache;
+
+    //
+    // Constructor(s)
+    //
+
+    public BaseResourceReplicatedCache(){
+        this.resourceCacheLock = new Object();
+        this.initialised = false;
+    }
+
+    //
+    // Abstract Methods
+    //
+
+    abstract protected Logger getLogger();
+    abstract protected BaseResourceReplicatedCacheServices getCacheServices();
+    abstract protected ResourceType specifyResourceType();
+
+    //
+    // Post Construct
+    //
+
+    @PostConstruct
+    public void initialise(){
+        getLogger().debug(".initialise(): Entry");
+        synchronized (resourceCacheLock) {
+            if (!initialised) {
+                String resourceTypeName = specifyResourceType().toString();
+                String cacheName = resourceTypeName + "ResourceCache";
+                getCacheServices().getCacheManager().defineConfiguration(cacheName, getCacheServices().buildResourceCacheConfiguration(resourceTypeName));
+                resourceCache = getCacheServices().getCacheManager().getCache(cacheName);
+                initialised = true;
+            }
+        }
+        getLogger().debug(".initialise(): Exit");
+    }
+
+    //
+    // Business Methods
+    //
+
+    public DataGridResourceType getEntry(String key){
+        if(key == null){
+            return(null);
+        }
+        DataGridResourceType entry = getResourceCache().get(key);
+        return(entry);
+    }
+
+    public DataGridResourceType getEntry(DataGridResourceIdType resourceId){
+        if(resourceId == null){
+            return(null);
+        }
+        return(getEntry(resourceId.getKey()));
+    }
+
+    public void putEntry(DataGridResourceType entry){
+        getLogger().debug(".putEntry(): Entry, entry->{}", entry);
+        if(entry == null || entry.getGridResourceId() == null || entry.getGridResourceId().getKey() == null){
+            getLogger().debug(".putEntry(): Exit, entry has no key, not cached");
+            return;
+        }
+        getResourceCache().put(entry.getGridResourceId().getKey(), entry);
+        getLogger().debug(".putEntry(): Exit");
+    }
+
+    public void removeEntry(String key){
+        if(key == null){
+            return;
+        }
+        getResourceCache().remove(key);
+    }
+
+    public boolean hasEntry(String key){
+        if(key == null){
+            return(false);
+        }
+        return(getResourceCache().containsKey(key));
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    protected Cache<String, DataGridResourceType> getResourceCache(){
+        if(!initialised){
+            initialise();
+        }
+        return(resourceCache);
+    }
+
+    public ResourceType getResourceType(){
+        return(specifyResourceType());
+    }
 }
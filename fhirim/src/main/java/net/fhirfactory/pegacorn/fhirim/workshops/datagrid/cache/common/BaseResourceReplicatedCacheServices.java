@@ -22,6 +22,8 @@
 package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.cache.common;
 
 import net.fhirfactory.pegacorn.core.interfaces.topology.ProcessingPlantInterface;
+import net.fhirfactory.pegacorn.util.PegacornEnvironmentProperties;
+import org.apache.commons.lang3.StringUtils;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -32,10 +34,16 @@ import org.slf4j.Logger;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.util.Locale;
 
 
 public abstract class BaseResourceReplicatedCacheServices {
 
+    private static final String CACHE_MODE_PROPERTY_SUFFIX = "_CACHE_MODE";
+    private static final String CACHE_OWNERS_PROPERTY_SUFFIX = "_CACHE_OWNERS";
+    private static final CacheMode DEFAULT_CACHE_MODE = CacheMode.DIST_SYNC;
+    private static final Integer DEFAULT_CACHE_OWNERS = 2;
+
     private boolean initialised;
 
     private DefaultCacheManager cacheManager;
@@ -45,6 +53,9 @@ public abstract class BaseResourceReplicatedCacheServices {
     @Inject
     private ProcessingPlantInterface processingPlant;
 
+    @Inject
+    private PegacornEnvironmentProperties environmentProperties;
+
     //
     // Constructor(s)
     //
@@ -85,9 +96,11 @@ public abstract class BaseResourceReplicatedCacheServices {
                     .addProperty("configurationFile", configurationFileName)
                     .build();
             cacheManager = new DefaultCacheManager(globalConfig);
-            // Create a distributed cache with synchronous replication.
+            // The default is a distributed cache with a bounded number of owners (rather than every resource
+            // being synchronously replicated to every node), resource types can override it - see
+            // buildResourceCacheConfiguration()
             cacheConfigurationBuilder = new ConfigurationBuilder();
-            cacheConfigurationBuilder.clustering().cacheMode(CacheMode.REPL_SYNC);
+            cacheConfigurationBuilder.clustering().cacheMode(DEFAULT_CACHE_MODE).hash().numOwners(DEFAULT_CACHE_OWNERS);
             cacheConfigurationBuild = cacheConfigurationBuilder.build();
             getLogger().info(".initialise(): [Initialising Infinispan Cache Manager] End");
 
@@ -96,6 +109,43 @@ public abstract class BaseResourceReplicatedCacheServices {
         }
     }
 
+    //
+    // Per Resource Type Cache Configuration
+    //
+
+    /**
+     * Builds the cache configuration for a resource type. The cache mode and (for the distributed modes) the number
+     * of owners of each entry are taken from the FHIRIM_<RESOURCETYPE>_CACHE_MODE (LOCAL, DIST_SYNC, DIST_ASYNC,
+     * REPL_SYNC or REPL_ASYNC) and FHIRIM_<RESOURCETYPE>_CACHE_OWNERS properties, defaulting to DIST_SYNC with 2
+     * owners.
+     *
+     * @param resourceType the FHIR resource type (e.g. Patient)
+     * @return the cache configuration
+     */
+    public Configuration buildResourceCacheConfiguration(String resourceType){
+        getLogger().debug(".buildResourceCacheConfiguration(): Entry, resourceType->{}", resourceType);
+        String propertyPrefix = "FHIRIM_" + resourceType.toUpperCase(Locale.ROOT);
+        CacheMode cacheMode = DEFAULT_CACHE_MODE;
+        int numberOfOwners = DEFAULT_CACHE_OWNERS;
+        if(environmentProperties != null){
+            String cacheModeName = environmentProperties.getProperty(propertyPrefix + CACHE_MODE_PROPERTY_SUFFIX, DEFAULT_CACHE_MODE.name());
+            try {
+                cacheMode = CacheMode.valueOf(StringUtils.trim(cacheModeName).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex){
+                getLogger().warn(".buildResourceCacheConfiguration(): Unknown cache mode {} for {}, using {}", cacheModeName, resourceType, DEFAULT_CACHE_MODE);
+            }
+            numberOfOwners = environmentProperties.getIntegerProperty(propertyPrefix + CACHE_OWNERS_PROPERTY_SUFFIX, DEFAULT_CACHE_OWNERS);
+        }
+        ConfigurationBuilder resourceCacheConfigurationBuilder = new ConfigurationBuilder();
+        resourceCacheConfigurationBuilder.clustering().cacheMode(cacheMode);
+        if(cacheMode.isDistributed()){
+            resourceCacheConfigurationBuilder.clustering().hash().numOwners(Math.max(1, numberOfOwners));
+        }
+        Configuration resourceCacheConfiguration = resourceCacheConfigurationBuilder.build();
+        getLogger().info(".buildResourceCacheConfiguration(): Exit, resourceType->{}, cacheMode->{}, numberOfOwners->{}", resourceType, cacheMode, numberOfOwners);
+        return(resourceCacheConfiguration);
+    }
+
     //
     // Getters (and Setters)
     //
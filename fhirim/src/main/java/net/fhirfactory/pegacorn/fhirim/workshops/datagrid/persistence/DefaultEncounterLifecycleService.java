@@ -21,12 +21,37 @@
  */
 package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence;
 
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common.DefaultResourceLifecycleServiceBase;
 import net.fhirfactory.pegacorn.platform.edge.ask.EncounterFHIRClientService;
+import net.fhirfactory.pegacorn.platform.edge.ask.base.ResourceFHIRClientService;
+import org.hl7.fhir.r4.model.ResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 
-public abstract class DefaultEncounterLifecycleService {
+public abstract class DefaultEncounterLifecycleService extends DefaultResourceLifecycleServiceBase {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultEncounterLifecycleService.class);
 
     @Inject
     private EncounterFHIRClientService encounterFHIRClient;
+
+    //
+    // Implemented Methods
+    //
+
+    @Override
+    protected ResourceFHIRClientService getResourceFHIRClient() {
+        return (encounterFHIRClient);
+    }
+
+    @Override
+    protected Logger getLogger() {
+        return (LOG);
+    }
+
+    @Override
+    protected ResourceType specifyResourceType() {
+        return (ResourceType.Encounter);
+    }
 }
@@ -21,5 +21,37 @@
  */
 package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence;
 
-public abstract class DefaultPatientLifecycleService {
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common.DefaultResourceLifecycleServiceBase;
+import net.fhirfactory.pegacorn.platform.edge.ask.PatientFHIRClientService;
+import net.fhirfactory.pegacorn.platform.edge.ask.base.ResourceFHIRClientService;
+import org.hl7.fhir.r4.model.ResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+
+public abstract class DefaultPatientLifecycleService extends DefaultResourceLifecycleServiceBase {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultPatientLifecycleService.class);
+
+    @Inject
+    private PatientFHIRClientService patientFHIRClient;
+
+    //
+    // Implemented Methods
+    //
+
+    @Override
+    protected ResourceFHIRClientService getResourceFHIRClient() {
+        return (patientFHIRClient);
+    }
+
+    @Override
+    protected Logger getLogger() {
+        return (LOG);
+    }
+
+    @Override
+    protected ResourceType specifyResourceType() {
+        return (ResourceType.Patient);
+    }
 }
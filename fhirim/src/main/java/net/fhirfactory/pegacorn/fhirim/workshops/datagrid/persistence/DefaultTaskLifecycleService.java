@@ -21,5 +21,37 @@
  */
 package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence;
 
-public abstract class DefaultTaskLifecycleService {
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common.DefaultResourceLifecycleServiceBase;
+import net.fhirfactory.pegacorn.platform.edge.ask.TaskFHIRClientService;
+import net.fhirfactory.pegacorn.platform.edge.ask.base.ResourceFHIRClientService;
+import org.hl7.fhir.r4.model.ResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+
+public abstract class DefaultTaskLifecycleService extends DefaultResourceLifecycleServiceBase {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultTaskLifecycleService.class);
+
+    @Inject
+    private TaskFHIRClientService taskFHIRClient;
+
+    //
+    // Implemented Methods
+    //
+
+    @Override
+    protected ResourceFHIRClientService getResourceFHIRClient() {
+        return (taskFHIRClient);
+    }
+
+    @Override
+    protected Logger getLogger() {
+        return (LOG);
+    }
+
+    @Override
+    protected ResourceType specifyResourceType() {
+        return (ResourceType.Task);
+    }
 }
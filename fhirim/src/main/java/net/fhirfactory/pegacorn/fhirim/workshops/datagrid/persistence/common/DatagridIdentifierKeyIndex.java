@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used, identifier -> datagrid key index for a resource type.
+ *
+ * It is local to this node and only a hint: a key found here must still be checked against the (distributed)
+ * cache entry it points to, and a miss falls back to the cache and the backing store. So it can safely forget
+ * entries (when it is full, or when the key it points to is re-keyed or removed).
+ */
+public class DatagridIdentifierKeyIndex {
+
+    private final LinkedHashMap<String, String> identifierKeys;
+    private int maximumSize;
+
+    //
+    // Constructor(s)
+    //
+
+    public DatagridIdentifierKeyIndex(int maximumSize){
+        this.identifierKeys = new LinkedHashMap<>(16, 0.75f, true);
+        this.maximumSize = Math.max(1, maximumSize);
+    }
+
+    //
+    // Business Methods
+    //
+
+    public synchronized String get(String identifierKey){
+        return(identifierKeys.get(identifierKey));
+    }
+
+    public synchronized void put(String identifierKey, String key){
+        identifierKeys.put(identifierKey, key);
+        trimToSize();
+    }
+
+    public synchronized void remove(String identifierKey, String key){
+        identifierKeys.remove(identifierKey, key);
+    }
+
+    public synchronized void removeKey(String key){
+        identifierKeys.values().removeIf(key::equals);
+    }
+
+    private void trimToSize(){
+        Iterator<Map.Entry<String, String>> eldestEntries = identifierKeys.entrySet().iterator();
+        while(identifierKeys.size() > maximumSize && eldestEntries.hasNext()){
+            eldestEntries.next();
+            eldestEntries.remove();
+        }
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    public synchronized int size(){
+        return(identifierKeys.size());
+    }
+
+    public synchronized int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public synchronized void setMaximumSize(int maximumSize) {
+        this.maximumSize = Math.max(1, maximumSize);
+        trimToSize();
+    }
+}
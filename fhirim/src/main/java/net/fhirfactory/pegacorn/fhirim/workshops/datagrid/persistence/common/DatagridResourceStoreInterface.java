@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common;
+
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceType;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.ResourceType;
+
+import java.util.List;
+
+/**
+ * The backing (persistent) store behind a datagrid resource cache: the source of read-through loads and the
+ * destination of write-behind saves. Resources are addressed by their datagrid key (see
+ * DataGridResourceIdType.getKey()).
+ *
+ * A resource saved without an id is given the id the store assigns it (see
+ * BaseDatagridResourceStore.assignResourceId()), so its datagrid key changes from the identifier form to
+ * ResourceType/id once it has been saved.
+ */
+public interface DatagridResourceStoreInterface {
+    public DataGridResourceType loadResource(String key);
+    public DataGridResourceType loadResource(ResourceType resourceType, Identifier identifier);
+    public void saveResources(List<DataGridResourceType> resources);
+    public void deleteResource(String key);
+}
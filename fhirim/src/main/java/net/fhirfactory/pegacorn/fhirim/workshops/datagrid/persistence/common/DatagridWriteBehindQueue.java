@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common;
+
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceType;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resources waiting to be written (behind) to the backing store, in the order they were first queued.
+ *
+ * Repeated saves of the same resource (i.e. the same DataGridResourceIdType key) before it is written are coalesced
+ * into a single write of the latest version, keeping its original place in the queue. A batch that fails to be
+ * written is put back at the front of the queue, except for those resources that have been saved again since (the
+ * newer version wins).
+ */
+public class DatagridWriteBehindQueue {
+
+    private LinkedHashMap<String, DataGridResourceType> pendingSaves;
+    private long enqueuedCount;
+    private long coalescedCount;
+
+    //
+    // Constructor(s)
+    //
+
+    public DatagridWriteBehindQueue(){
+        this.pendingSaves = new LinkedHashMap<>();
+        this.enqueuedCount = 0;
+        this.coalescedCount = 0;
+    }
+
+    //
+    // Business Methods
+    //
+
+    public synchronized void enqueue(DataGridResourceType entry){
+        String key = entry.getGridResourceId().getKey();
+        if(pendingSaves.containsKey(key)){
+            coalescedCount += 1;
+        }
+        pendingSaves.put(key, entry);
+        enqueuedCount += 1;
+    }
+
+    public synchronized DataGridResourceType peek(String key){
+        return(pendingSaves.get(key));
+    }
+
+    public synchronized DataGridResourceType remove(String key){
+        return(pendingSaves.remove(key));
+    }
+
+    public synchronized List<DataGridResourceType> drain(int maximumBatchSize){
+        List<DataGridResourceType> batch = new ArrayList<>();
+        Iterator<Map.Entry<String, DataGridResourceType>> entryIterator = pendingSaves.entrySet().iterator();
+        while(batch.size() < maximumBatchSize && entryIterator.hasNext()){
+            batch.add(entryIterator.next().getValue());
+            entryIterator.remove();
+        }
+        return(batch);
+    }
+
+    public synchronized void requeue(List<DataGridResourceType> failedBatch){
+        LinkedHashMap<String, DataGridResourceType> requeuedSaves = new LinkedHashMap<>();
+        for(DataGridResourceType currentEntry: failedBatch){
+            String key = currentEntry.getGridResourceId().getKey();
+            if(!pendingSaves.containsKey(key)){
+                requeuedSaves.put(key, currentEntry);
+            }
+        }
+        requeuedSaves.putAll(pendingSaves);
+        pendingSaves = requeuedSaves;
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    public synchronized int size(){
+        return(pendingSaves.size());
+    }
+
+    public synchronized boolean isEmpty(){
+        return(pendingSaves.isEmpty());
+    }
+
+    public synchronized long getEnqueuedCount() {
+        return enqueuedCount;
+    }
+
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public synchronized String toString() {
+        return "DatagridWriteBehindQueue{" +
+                "size=" + pendingSaves.size() +
+                ", enqueuedCount=" + enqueuedCount +
+                ", coalescedCount=" + coalescedCount +
+                '}';
+    }
+}
@@ -24,18 +24,62 @@ package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common;
 import net.fhirfactory.pegacorn.core.interfaces.datagrid.DatagridElementKeyInterface;
 import net.fhirfactory.pegacorn.core.interfaces.datagrid.DatagridEntryLoadRequestInterface;
 import net.fhirfactory.pegacorn.core.interfaces.datagrid.DatagridEntrySaveRequestInterface;
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceIdType;
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceType;
+import net.fhirfactory.pegacorn.core.model.datagrid.valuesets.DatagridPersistenceResourceStatusEnum;
 import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.cache.common.BaseResourceReplicatedCache;
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.store.BaseDatagridResourceStore;
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.store.FHIRServerDatagridResourceStore;
 import net.fhirfactory.pegacorn.platform.edge.ask.base.ResourceFHIRClientService;
+import net.fhirfactory.pegacorn.util.PegacornEnvironmentProperties;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornScheduledActivity;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.hl7.fhir.r4.model.Identifier;
-import org.hl7.fhir.r4.model.Resource;
 import org.hl7.fhir.r4.model.ResourceType;
 import org.slf4j.Logger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+/**
+ * The loader/saver for a resource type's datagrid cache.
+ *
+ * Reads are read-through: a cache miss is loaded from the backing store (see specifyResourceStore()) and added to
+ * the cache, with concurrent misses for the same resource sharing a single load. Saves are write-behind: the
+ * resource is put in the cache straight away and queued, and the queue is written to the backing store in batches
+ * by a scheduled activity, with repeated saves of the same resource in between coalesced into one write.
+ */
 public abstract class DefaultResourceLifecycleServiceBase implements DatagridEntryLoadRequestInterface, DatagridEntrySaveRequestInterface {
 
+    private static final String WRITE_BEHIND_PERIOD_PROPERTY = "FHIRIM_WRITE_BEHIND_PERIOD";
+    private static final String WRITE_BEHIND_BATCH_SIZE_PROPERTY = "FHIRIM_WRITE_BEHIND_BATCH_SIZE";
+    private static final Integer DEFAULT_WRITE_BEHIND_PERIOD = 1000; // milliseconds
+    private static final Integer DEFAULT_WRITE_BEHIND_BATCH_SIZE = 100;
+    private static final String IDENTIFIER_INDEX_SIZE_PROPERTY = "FHIRIM_IDENTIFIER_INDEX_SIZE";
+    private static final Integer DEFAULT_IDENTIFIER_INDEX_SIZE = 10000;
+
     private boolean initialised;
+    private DatagridResourceStoreInterface resourceStore;
+    private DatagridWriteBehindQueue writeBehindQueue;
+    private DatagridIdentifierKeyIndex identifierKeyIndex;
+    private ConcurrentHashMap<String, CompletableFuture<DataGridResourceType>> pendingLoads;
+    private PegacornScheduledActivity writeBehindActivity;
+    private int writeBehindBatchSize;
+    private Object writeBehindLock;
+
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
+    @Inject
+    private PegacornEnvironmentProperties environmentProperties;
 
     //
     // Constructor(s)
@@ -43,6 +87,11 @@ public abstract class DefaultResourceLifecycleServiceBase implements DatagridEnt
 
     public DefaultResourceLifecycleServiceBase(){
         this.initialised = false;
+        this.writeBehindQueue = new DatagridWriteBehindQueue();
+        this.identifierKeyIndex = new DatagridIdentifierKeyIndex(DEFAULT_IDENTIFIER_INDEX_SIZE);
+        this.pendingLoads = new ConcurrentHashMap<>();
+        this.writeBehindBatchSize = DEFAULT_WRITE_BEHIND_BATCH_SIZE;
+        this.writeBehindLock = new Object();
     }
 
     //
@@ -54,6 +103,14 @@ public abstract class DefaultResourceLifecycleServiceBase implements DatagridEnt
     abstract protected BaseResourceReplicatedCache getResourceReplicatedCache();
     abstract protected ResourceType specifyResourceType();
 
+    /**
+     * The backing store for the resource type, by default the FHIR server behind getResourceFHIRClient(). Override
+     * to use another store (e.g. a LocalFileDatagridResourceStore for testing).
+     */
+    protected DatagridResourceStoreInterface specifyResourceStore(){
+        return(new FHIRServerDatagridResourceStore(getResourceFHIRClient()));
+    }
+
     //
     // PostConstructor
     //
@@ -65,31 +122,238 @@ public abstract class DefaultResourceLifecycleServiceBase implements DatagridEnt
             getLogger().debug(".initialise(): Already initialised, nothing to do");
             // do nothing
         } else {
-
-
+            this.resourceStore = specifyResourceStore();
+            long writeBehindPeriod = DEFAULT_WRITE_BEHIND_PERIOD;
+            if(environmentProperties != null){
+                writeBehindPeriod = environmentProperties.getIntegerProperty(WRITE_BEHIND_PERIOD_PROPERTY, DEFAULT_WRITE_BEHIND_PERIOD);
+                writeBehindBatchSize = Math.max(1, environmentProperties.getIntegerProperty(WRITE_BEHIND_BATCH_SIZE_PROPERTY, DEFAULT_WRITE_BEHIND_BATCH_SIZE));
+                identifierKeyIndex.setMaximumSize(environmentProperties.getIntegerProperty(IDENTIFIER_INDEX_SIZE_PROPERTY, DEFAULT_IDENTIFIER_INDEX_SIZE));
+            }
+            if(sharedScheduler != null) {
+                writeBehindActivity = sharedScheduler.schedule(getResourceType().toString() + "DatagridWriteBehind", this::flushWriteBehindQueue, writeBehindPeriod, writeBehindPeriod);
+            }
             this.initialised = true;
         }
         getLogger().debug(".initialise(): Exit");
     }
 
+    @PreDestroy
+    public void shutdown(){
+        getLogger().debug(".shutdown(): Entry");
+        if(writeBehindActivity != null){
+            writeBehindActivity.cancel();
+        }
+        flushWriteBehindQueue();
+        if(!writeBehindQueue.isEmpty()){
+            getLogger().warn(".shutdown(): {} {} resources could not be written to the backing store", writeBehindQueue.size(), getResourceType());
+        }
+        getLogger().debug(".shutdown(): Exit");
+    }
+
     //
     // Implemented Methods
     //
 
-
     @Override
     public void requestDatagridEntryLoad(DatagridElementKeyInterface elementId) {
-
+        getLogger().debug(".requestDatagridEntryLoad(): Entry, elementId->{}", elementId);
+        getResource(elementId.getKey());
+        getLogger().debug(".requestDatagridEntryLoad(): Exit");
     }
 
     @Override
     public void requestDatagridEntryLoad(Identifier elementIdentifier) {
-        Resource resourceByIdentifier = getResourceFHIRClient().findResourceByIdentifier(getResourceType(), elementIdentifier);
+        getLogger().debug(".requestDatagridEntryLoad(): Entry, elementIdentifier->{}", elementIdentifier);
+        getResource(elementIdentifier);
+        getLogger().debug(".requestDatagridEntryLoad(): Exit");
     }
 
     @Override
     public void requestDatagridEntrySave(DatagridElementKeyInterface element) {
+        getLogger().debug(".requestDatagridEntrySave(): Entry, element->{}", element);
+        DataGridResourceType gridResource = getResourceReplicatedCache().getEntry(element.getKey());
+        if(gridResource == null){
+            getLogger().warn(".requestDatagridEntrySave(): Exit, no datagrid entry for {}", element.getKey());
+            return;
+        }
+        saveResource(gridResource);
+        getLogger().debug(".requestDatagridEntrySave(): Exit");
+    }
+
+    //
+    // Read Through
+    //
+
+    public DataGridResourceType getResource(DataGridResourceIdType resourceId){
+        return(getResource(resourceId.getKey()));
+    }
 
+    public DataGridResourceType getResource(String key){
+        getLogger().debug(".getResource(): Entry, key->{}", key);
+        if(key == null){
+            return(null);
+        }
+        DataGridResourceType gridResource = getResourceReplicatedCache().getEntry(key);
+        if(gridResource == null){
+            // a save that hasn't been written yet is newer than whatever is in the backing store
+            gridResource = writeBehindQueue.peek(key);
+        }
+        if(gridResource == null){
+            gridResource = loadThrough(key, () -> resourceStore.loadResource(key));
+        }
+        getLogger().debug(".getResource(): Exit, found->{}", gridResource != null);
+        return(gridResource);
+    }
+
+    /**
+     * Looks the resource up via the (node-local) identifier index, then under its identifier-form datagrid key (for a
+     * resource that hasn't been given an id yet), and finally in the backing store.
+     */
+    public DataGridResourceType getResource(Identifier identifier){
+        getLogger().debug(".getResource(): Entry, identifier->{}", identifier);
+        String identifierKey = BaseDatagridResourceStore.buildIdentifierKey(getResourceType().toString(), identifier);
+        DataGridResourceType gridResource = null;
+        String key = identifierKeyIndex.get(identifierKey);
+        if(key != null){
+            gridResource = getResource(key);
+            if(!BaseDatagridResourceStore.hasIdentifier(gridResource, identifier)){
+                // the index entry is stale (the resource was re-keyed, removed or changed)
+                identifierKeyIndex.remove(identifierKey, key);
+                gridResource = null;
+            }
+        }
+        if(gridResource == null){
+            String identifierFormKey = getResourceType().toString() + "?identifier=" + identifier.getSystem() + "|" + identifier.getValue();
+            gridResource = getResourceReplicatedCache().getEntry(identifierFormKey);
+            if(gridResource == null){
+                gridResource = writeBehindQueue.peek(identifierFormKey);
+            }
+        }
+        if(gridResource == null){
+            gridResource = loadThrough(identifierKey, () -> resourceStore.loadResource(getResourceType(), identifier));
+        }
+        getLogger().debug(".getResource(): Exit, found->{}", gridResource != null);
+        return(gridResource);
+    }
+
+    protected DataGridResourceType loadThrough(String loadKey, Supplier<DataGridResourceType> loader){
+        CompletableFuture<DataGridResourceType> newLoad = new CompletableFuture<>();
+        CompletableFuture<DataGridResourceType> pendingLoad = pendingLoads.putIfAbsent(loadKey, newLoad);
+        if(pendingLoad != null){
+            try {
+                return(pendingLoad.join());
+            } catch (CompletionException ex) {
+                getLogger().warn(".loadThrough(): Load of {} failed, error->{}", loadKey, ex.getMessage());
+                return(null);
+            }
+        }
+        DataGridResourceType gridResource = null;
+        try {
+            gridResource = loader.get();
+            if(gridResource != null){
+                gridResource.getGridResourceId().setGridLoadInstant(Instant.now());
+                gridResource.getGridResourceId().setGridResourcePersistenceStatus(DatagridPersistenceResourceStatusEnum.RESOURCE_ACTIVE);
+                getResourceReplicatedCache().putEntry(gridResource);
+                indexIdentifiers(gridResource);
+            }
+            newLoad.complete(gridResource);
+        } catch (Exception ex) {
+            getLogger().warn(".loadThrough(): Load of {} failed, error->{}", loadKey, ex.getMessage());
+            newLoad.completeExceptionally(ex);
+        } finally {
+            pendingLoads.remove(loadKey, newLoad);
+        }
+        return(gridResource);
+    }
+
+    //
+    // Write Behind
+    //
+
+    public void saveResource(DataGridResourceType gridResource){
+        getLogger().debug(".saveResource(): Entry, gridResource->{}", gridResource);
+        if(gridResource.getGridResourceId() == null || gridResource.getGridResourceId().getKey() == null){
+            throw(new IllegalArgumentException(".saveResource(): gridResource has no datagrid key"));
+        }
+        gridResource.getGridResourceId().setGridResourcePersistenceStatus(DatagridPersistenceResourceStatusEnum.RESOURCE_SAVE_REQUESTED);
+        getResourceReplicatedCache().putEntry(gridResource);
+        indexIdentifiers(gridResource);
+        writeBehindQueue.enqueue(gridResource);
+        getLogger().debug(".saveResource(): Exit, writeBehindQueue->{}", writeBehindQueue);
+    }
+
+    /**
+     * Writes the queued saves to the backing store, writeBehindBatchSize at a time. A batch that fails is put back
+     * on the queue and retried on the next run.
+     */
+    public void flushWriteBehindQueue(){
+        synchronized (writeBehindLock) {
+            while (true) {
+                List<DataGridResourceType> batch = writeBehindQueue.drain(writeBehindBatchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<String> batchKeys = new ArrayList<>();
+                for (DataGridResourceType currentGridResource : batch) {
+                    batchKeys.add(currentGridResource.getGridResourceId().getKey());
+                }
+                try {
+                    resourceStore.saveResources(batch);
+                } catch (Exception ex) {
+                    getLogger().warn(".flushWriteBehindQueue(): Unable to write {} {} resources, will retry, error->{}", batch.size(), getResourceType(), ex.getMessage());
+                    writeBehindQueue.requeue(batch);
+                    break;
+                }
+                Instant savedInstant = Instant.now();
+                for (int counter = 0; counter < batch.size(); counter += 1) {
+                    DataGridResourceType currentGridResource = batch.get(counter);
+                    currentGridResource.getGridResourceId().setCheckInstant(savedInstant);
+                    currentGridResource.getGridResourceId().setGridResourcePersistenceStatus(DatagridPersistenceResourceStatusEnum.RESOURCE_ACTIVE);
+                    String previousKey = batchKeys.get(counter);
+                    if (!previousKey.equals(currentGridResource.getGridResourceId().getKey())) {
+                        rekeyCreatedResource(previousKey, currentGridResource);
+                    }
+                }
+                getLogger().debug(".flushWriteBehindQueue(): Wrote {} {} resources", batch.size(), getResourceType());
+            }
+        }
+    }
+
+    /**
+     * A resource saved without an id has been given one by the backing store, so move it from its identifier-form
+     * key to ResourceType/id - in the cache, the identifier index and (for a save queued since the batch was drained)
+     * the write-behind queue - so that later saves of it are updates rather than further creates.
+     */
+    protected void rekeyCreatedResource(String previousKey, DataGridResourceType createdResource){
+        getLogger().debug(".rekeyCreatedResource(): Entry, previousKey->{}", previousKey);
+        String idPart = createdResource.getGridResourceId().getResourceId().getIdPart();
+        DataGridResourceType latestResource = createdResource;
+        DataGridResourceType newerSave = writeBehindQueue.remove(previousKey);
+        if(newerSave != null){
+            BaseDatagridResourceStore.assignResourceId(newerSave, idPart);
+            writeBehindQueue.enqueue(newerSave);
+            latestResource = newerSave;
+        }
+        getResourceReplicatedCache().removeEntry(previousKey);
+        getResourceReplicatedCache().putEntry(latestResource);
+        identifierKeyIndex.removeKey(previousKey);
+        indexIdentifiers(latestResource);
+        getLogger().debug(".rekeyCreatedResource(): Exit, key->{}", latestResource.getGridResourceId().getKey());
+    }
+
+    //
+    // Helpers
+    //
+
+    protected void indexIdentifiers(DataGridResourceType gridResource){
+        String key = gridResource.getGridResourceId().getKey();
+        String resourceType = getResourceType().toString();
+        if(gridResource.getGridResourceId().getPrimaryBusinessIdentifier() != null){
+            identifierKeyIndex.put(BaseDatagridResourceStore.buildIdentifierKey(resourceType, gridResource.getGridResourceId().getPrimaryBusinessIdentifier()), key);
+        }
+        for(Identifier currentIdentifier: BaseDatagridResourceStore.getIdentifiers(gridResource.getGridResource())){
+            identifierKeyIndex.put(BaseDatagridResourceStore.buildIdentifierKey(resourceType, currentIdentifier), key);
+        }
     }
 
     //
@@ -99,4 +363,12 @@ public abstract class DefaultResourceLifecycleServiceBase implements DatagridEnt
     protected ResourceType getResourceType(){
         return(specifyResourceType());
     }
+
+    protected DatagridResourceStoreInterface getResourceStore(){
+        return(resourceStore);
+    }
+
+    public DatagridWriteBehindQueue getWriteBehindQueue(){
+        return(writeBehindQueue);
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.store;
+
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceIdType;
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceType;
+import net.fhirfactory.pegacorn.core.model.datagrid.valuesets.DatagridPersistenceResourceStatusEnum;
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common.DatagridResourceStoreInterface;
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Property;
+import org.hl7.fhir.r4.model.Resource;
+import org.slf4j.Logger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public abstract class BaseDatagridResourceStore implements DatagridResourceStoreInterface {
+
+    //
+    // Abstract Methods
+    //
+
+    abstract protected Logger getLogger();
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Wraps a resource read from the store as a datagrid entry, keyed on its resource id (and with its first
+     * identifier as the primary business identifier).
+     */
+    protected DataGridResourceType newDataGridResource(Resource resource){
+        DataGridResourceIdType gridResourceId = new DataGridResourceIdType();
+        gridResourceId.setResourceType(resource.getResourceType().toString());
+        if(resource.hasIdElement() && resource.getIdElement().hasIdPart()){
+            gridResourceId.addId(new IdType(resource.getResourceType().toString(), resource.getIdElement().getIdPart()), gridResourceId.getDefaultSourceSystemMapEntry());
+        }
+        List<Identifier> identifiers = getIdentifiers(resource);
+        if(!identifiers.isEmpty()){
+            gridResourceId.setPrimaryBusinessIdentifier(identifiers.get(0));
+        }
+        gridResourceId.setGridLoadInstant(Instant.now());
+        gridResourceId.setGridResourcePersistenceStatus(DatagridPersistenceResourceStatusEnum.RESOURCE_ACTIVE);
+        DataGridResourceType gridResource = new DataGridResourceType(gridResourceId, resource);
+        return(gridResource);
+    }
+
+    /**
+     * Gives a resource the id the store assigned it when it was created, on both the resource and its
+     * DataGridResourceIdType (so its datagrid key becomes ResourceType/id).
+     */
+    public static void assignResourceId(DataGridResourceType gridResource, String idPart){
+        String resourceType = gridResource.getGridResource().getResourceType().toString();
+        IdType resourceId = new IdType(resourceType, idPart);
+        gridResource.getGridResource().setIdElement(resourceId);
+        gridResource.getGridResourceId().addId(resourceId, gridResource.getGridResourceId().getDefaultSourceSystemMapEntry());
+    }
+
+    public static boolean hasIdentifier(DataGridResourceType gridResource, Identifier identifier){
+        if(gridResource == null || identifier == null){
+            return(false);
+        }
+        Identifier primaryIdentifier = gridResource.getGridResourceId().getPrimaryBusinessIdentifier();
+        if(primaryIdentifier != null && isSameIdentifier(primaryIdentifier, identifier)){
+            return(true);
+        }
+        for(Identifier currentIdentifier: getIdentifiers(gridResource.getGridResource())){
+            if(isSameIdentifier(currentIdentifier, identifier)){
+                return(true);
+            }
+        }
+        return(false);
+    }
+
+    protected static boolean isSameIdentifier(Identifier first, Identifier second){
+        boolean sameSystem = Objects.equals(first.getSystem(), second.getSystem());
+        boolean sameValue = Objects.equals(first.getValue(), second.getValue());
+        return(sameSystem && sameValue);
+    }
+
+    public static List<Identifier> getIdentifiers(Resource resource){
+        List<Identifier> identifiers = new ArrayList<>();
+        if(resource == null){
+            return(identifiers);
+        }
+        Property identifierProperty = resource.getNamedProperty("identifier");
+        if(identifierProperty == null || !identifierProperty.hasValues()){
+            return(identifiers);
+        }
+        for(Base currentValue: identifierProperty.getValues()){
+            if(currentValue instanceof Identifier){
+                identifiers.add((Identifier)currentValue);
+            }
+        }
+        return(identifiers);
+    }
+
+    public static String buildIdentifierKey(String resourceType, Identifier identifier){
+        String identifierKey = resourceType + "|" + identifier.getSystem() + "|" + identifier.getValue();
+        return(identifierKey);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.store;
+
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.server.exceptions.ResourceGoneException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceType;
+import net.fhirfactory.pegacorn.platform.edge.ask.base.FHIRResourceTransaction;
+import net.fhirfactory.pegacorn.platform.edge.ask.base.ResourceFHIRClientService;
+import org.apache.commons.lang3.StringUtils;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.ResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * A datagrid backing store that reads from, and writes to, the FHIR server behind a ResourceFHIRClientService. Each
+ * batch of saves is submitted as a single transaction.
+ */
+public class FHIRServerDatagridResourceStore extends BaseDatagridResourceStore {
+    private static final Logger LOG = LoggerFactory.getLogger(FHIRServerDatagridResourceStore.class);
+
+    private static final String IDENTIFIER_KEY_SEPARATOR = "?identifier=";
+
+    private final ResourceFHIRClientService fhirClient;
+
+    //
+    // Constructor(s)
+    //
+
+    public FHIRServerDatagridResourceStore(ResourceFHIRClientService fhirClient){
+        this.fhirClient = fhirClient;
+    }
+
+    //
+    // Business Methods
+    //
+
+    @Override
+    public DataGridResourceType loadResource(String key) {
+        getLogger().debug(".loadResource(): Entry, key->{}", key);
+        Resource resource = null;
+        if(key.contains(IDENTIFIER_KEY_SEPARATOR)){
+            String resourceType = StringUtils.substringBefore(key, IDENTIFIER_KEY_SEPARATOR);
+            String systemAndValue = StringUtils.substringAfter(key, IDENTIFIER_KEY_SEPARATOR);
+            String identifierSystem = StringUtils.substringBefore(systemAndValue, "|");
+            String identifierValue = StringUtils.substringAfter(systemAndValue, "|");
+            resource = fhirClient.findResourceByIdentifier(resourceType, identifierSystem, null, identifierValue);
+        } else {
+            IdType resourceId = new IdType(key);
+            try {
+                resource = (Resource) fhirClient.getClient().read()
+                        .resource(resourceId.getResourceType())
+                        .withId(resourceId.getIdPart())
+                        .execute();
+            } catch (ResourceNotFoundException | ResourceGoneException ex) {
+                resource = null;
+            }
+        }
+        if(resource == null){
+            getLogger().debug(".loadResource(): Exit, no such resource");
+            return(null);
+        }
+        DataGridResourceType gridResource = newDataGridResource(resource);
+        getLogger().debug(".loadResource(): Exit");
+        return(gridResource);
+    }
+
+    @Override
+    public DataGridResourceType loadResource(ResourceType resourceType, Identifier identifier) {
+        Resource resource = fhirClient.findResourceByIdentifier(resourceType.toString(), identifier);
+        if(resource == null){
+            return(null);
+        }
+        return(newDataGridResource(resource));
+    }
+
+    @Override
+    public void saveResources(List<DataGridResourceType> resources) {
+        getLogger().debug(".saveResources(): Entry, resources->{}", resources.size());
+        FHIRResourceTransaction transaction = new FHIRResourceTransaction();
+        for(DataGridResourceType currentGridResource: resources){
+            Resource resource = currentGridResource.getGridResource();
+            Identifier primaryIdentifier = currentGridResource.getGridResourceId().getPrimaryBusinessIdentifier();
+            if(resource.hasIdElement() && resource.getIdElement().hasIdPart()){
+                transaction.addUpdate(resource);
+            } else if(primaryIdentifier != null) {
+                // conditional, so that a batch re-tried after a lost response doesn't create the resource twice
+                transaction.addConditionalCreate(resource, primaryIdentifier);
+            } else {
+                transaction.addCreate(resource);
+            }
+        }
+        List<MethodOutcome> outcomes = fhirClient.executeTransaction(transaction);
+        if(outcomes.size() != resources.size()){
+            throw(new IllegalStateException("Expected " + resources.size() + " transaction outcomes, got " + outcomes.size()));
+        }
+        for(MethodOutcome currentOutcome: outcomes){
+            if(currentOutcome.getId() == null){
+                // executeTransaction() reports a failed transaction as outcomes without ids
+                throw(new IllegalStateException("Unable to save " + resources.size() + " resources to the FHIR server"));
+            }
+        }
+        // The outcomes are in the same order as the resources, so give each new resource its server-assigned id
+        for(int counter = 0; counter < resources.size(); counter += 1){
+            DataGridResourceType currentGridResource = resources.get(counter);
+            Resource resource = currentGridResource.getGridResource();
+            if(!resource.hasIdElement() || !resource.getIdElement().hasIdPart()){
+                assignResourceId(currentGridResource, outcomes.get(counter).getId().getIdPart());
+            }
+        }
+        getLogger().debug(".saveResources(): Exit");
+    }
+
+    @Override
+    public void deleteResource(String key) {
+        fhirClient.getClient().delete()
+                .resourceById(new IdType(key))
+                .execute();
+    }
+
+    @Override
+    protected Logger getLogger(){
+        return(LOG);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.store;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceType;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.ResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A datagrid backing store that keeps each resource as a JSON file (named after its datagrid key) in a local
+ * directory. It is intended for testing and for single-plant deployments without a FHIR server behind them.
+ *
+ * Identifier lookups use an in-memory identifier -> key index, which is rebuilt from the files when the store is
+ * created.
+ */
+public class LocalFileDatagridResourceStore extends BaseDatagridResourceStore {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalFileDatagridResourceStore.class);
+
+    private static final String FILE_EXTENSION = ".json";
+
+    private final Path storeDirectory;
+    private final FhirContext fhirContext;
+    private final ConcurrentHashMap<String, String> identifierKeyIndex;
+
+    //
+    // Constructor(s)
+    //
+
+    public LocalFileDatagridResourceStore(Path storeDirectory, FhirContext fhirContext){
+        this.storeDirectory = storeDirectory;
+        this.fhirContext = fhirContext;
+        this.identifierKeyIndex = new ConcurrentHashMap<>();
+        try {
+            Files.createDirectories(storeDirectory);
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to create the datagrid store directory " + storeDirectory, ex));
+        }
+        rebuildIdentifierIndex();
+    }
+
+    //
+    // Business Methods
+    //
+
+    @Override
+    public DataGridResourceType loadResource(String key) {
+        getLogger().debug(".loadResource(): Entry, key->{}", key);
+        Path resourceFile = getResourceFile(key);
+        if(!Files.exists(resourceFile)){
+            getLogger().debug(".loadResource(): Exit, no such resource");
+            return(null);
+        }
+        Resource resource = readResource(resourceFile);
+        DataGridResourceType gridResource = newDataGridResource(resource);
+        getLogger().debug(".loadResource(): Exit");
+        return(gridResource);
+    }
+
+    @Override
+    public DataGridResourceType loadResource(ResourceType resourceType, Identifier identifier) {
+        String key = identifierKeyIndex.get(buildIdentifierKey(resourceType.toString(), identifier));
+        if(key == null){
+            return(null);
+        }
+        return(loadResource(key));
+    }
+
+    @Override
+    public void saveResources(List<DataGridResourceType> resources) {
+        getLogger().debug(".saveResources(): Entry, resources->{}", resources.size());
+        IParser jsonParser = fhirContext.newJsonParser();
+        for(DataGridResourceType currentGridResource: resources){
+            Resource resource = currentGridResource.getGridResource();
+            String previousKey = null;
+            if(!resource.hasIdElement() || !resource.getIdElement().hasIdPart()){
+                // as a FHIR server would, give a new resource an id (re-using the one of a resource already saved
+                // with the same identifier)
+                previousKey = currentGridResource.getGridResourceId().getKey();
+                assignResourceId(currentGridResource, findOrCreateIdPart(currentGridResource));
+            }
+            String key = currentGridResource.getGridResourceId().getKey();
+            Path resourceFile = getResourceFile(key);
+            Path temporaryFile = resourceFile.resolveSibling(resourceFile.getFileName().toString() + ".tmp");
+            try {
+                Files.writeString(temporaryFile, jsonParser.encodeResourceToString(resource), StandardCharsets.UTF_8);
+                Files.move(temporaryFile, resourceFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                throw(new UncheckedIOException("Unable to save resource " + key, ex));
+            }
+            indexIdentifiers(key, resource);
+            if(previousKey != null && !previousKey.equals(key)){
+                try {
+                    Files.deleteIfExists(getResourceFile(previousKey));
+                } catch (IOException ex) {
+                    throw(new UncheckedIOException("Unable to delete resource " + previousKey, ex));
+                }
+            }
+        }
+        getLogger().debug(".saveResources(): Exit");
+    }
+
+    @Override
+    public void deleteResource(String key) {
+        try {
+            Files.deleteIfExists(getResourceFile(key));
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to delete resource " + key, ex));
+        }
+        identifierKeyIndex.values().removeIf(key::equals);
+    }
+
+    //
+    // Helpers
+    //
+
+    protected Path getResourceFile(String key){
+        String fileName = URLEncoder.encode(key, StandardCharsets.UTF_8) + FILE_EXTENSION;
+        return(storeDirectory.resolve(fileName));
+    }
+
+    protected Resource readResource(Path resourceFile){
+        try {
+            String resourceJSON = Files.readString(resourceFile, StandardCharsets.UTF_8);
+            Resource resource = (Resource) fhirContext.newJsonParser().parseResource(resourceJSON);
+            return(resource);
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to read resource file " + resourceFile, ex));
+        }
+    }
+
+    protected String findOrCreateIdPart(DataGridResourceType gridResource){
+        String resourceType = gridResource.getGridResource().getResourceType().toString();
+        Identifier primaryIdentifier = gridResource.getGridResourceId().getPrimaryBusinessIdentifier();
+        if(primaryIdentifier != null){
+            String existingKey = identifierKeyIndex.get(buildIdentifierKey(resourceType, primaryIdentifier));
+            if(existingKey != null && existingKey.startsWith(resourceType + "/")){
+                return(existingKey.substring(resourceType.length() + 1));
+            }
+        }
+        return(UUID.randomUUID().toString());
+    }
+
+    protected void indexIdentifiers(String key, Resource resource){
+        String resourceType = resource.getResourceType().toString();
+        for(Identifier currentIdentifier: getIdentifiers(resource)){
+            identifierKeyIndex.put(buildIdentifierKey(resourceType, currentIdentifier), key);
+        }
+    }
+
+    protected void rebuildIdentifierIndex(){
+        identifierKeyIndex.clear();
+        try (DirectoryStream<Path> resourceFiles = Files.newDirectoryStream(storeDirectory, "*" + FILE_EXTENSION)) {
+            for(Path currentFile: resourceFiles){
+                String fileName = currentFile.getFileName().toString();
+                String key = URLDecoder.decode(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()), StandardCharsets.UTF_8);
+                try {
+                    indexIdentifiers(key, readResource(currentFile));
+                } catch (Exception ex) {
+                    getLogger().warn(".rebuildIdentifierIndex(): Unable to index {}, error->{}", currentFile, ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to read the datagrid store directory " + storeDirectory, ex));
+        }
+        getLogger().info(".rebuildIdentifierIndex(): Indexed {} identifiers in {}", identifierKeyIndex.size(), storeDirectory);
+    }
+
+    @Override
+    protected Logger getLogger(){
+        return(LOG);
+    }
+}
@@ -0,0 +1,276 @@
+package net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.common;
+
+import ca.uhn.fhir.context.FhirContext;
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceIdType;
+import net.fhirfactory.pegacorn.core.model.datagrid.datatypes.DataGridResourceType;
+import net.fhirfactory.pegacorn.core.model.datagrid.valuesets.DatagridPersistenceResourceStatusEnum;
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.cache.common.BaseResourceReplicatedCache;
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.cache.common.BaseResourceReplicatedCacheServices;
+import net.fhirfactory.pegacorn.fhirim.workshops.datagrid.persistence.store.LocalFileDatagridResourceStore;
+import net.fhirfactory.pegacorn.platform.edge.ask.base.ResourceFHIRClientService;
+import org.hl7.fhir.r4.model.Enumerations.AdministrativeGender;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultResourceLifecycleServiceBaseTest {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultResourceLifecycleServiceBaseTest.class);
+    private static final FhirContext FHIR_CONTEXT = FhirContext.forR4();
+    private static final String IDENTIFIER_SYSTEM = "urn:test:mrn";
+
+    @TempDir
+    Path storeDirectory;
+
+    private TestResourceStore resourceStore;
+    private MapBackedCache resourceCache;
+    private TestLifecycleService lifecycleService;
+
+    //
+    // Test Fixtures
+    //
+
+    private static class TestResourceStore extends LocalFileDatagridResourceStore {
+        int loadCount;
+        List<Integer> savedBatchSizes = new ArrayList<>();
+        boolean failNextSave;
+
+        TestResourceStore(Path storeDirectory){
+            super(storeDirectory, FHIR_CONTEXT);
+        }
+
+        @Override
+        public DataGridResourceType loadResource(String key) {
+            loadCount += 1;
+            return(super.loadResource(key));
+        }
+
+        @Override
+        public void saveResources(List<DataGridResourceType> resources) {
+            if(failNextSave){
+                failNextSave = false;
+                throw(new IllegalStateException("store unavailable"));
+            }
+            super.saveResources(resources);
+            savedBatchSizes.add(resources.size());
+        }
+    }
+
+    private static class MapBackedCache extends BaseResourceReplicatedCache {
+        Map<String, DataGridResourceType> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public DataGridResourceType getEntry(String key) {
+            return(key == null ? null : entries.get(key));
+        }
+
+        @Override
+        public void putEntry(DataGridResourceType entry) {
+            entries.put(entry.getGridResourceId().getKey(), entry);
+        }
+
+        @Override
+        public void removeEntry(String key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public boolean hasEntry(String key) {
+            return(entries.containsKey(key));
+        }
+
+        @Override
+        protected Logger getLogger() {
+            return(LOG);
+        }
+
+        @Override
+        protected BaseResourceReplicatedCacheServices getCacheServices() {
+            return(null);
+        }
+
+        @Override
+        protected ResourceType specifyResourceType() {
+            return(ResourceType.Patient);
+        }
+    }
+
+    private class TestLifecycleService extends DefaultResourceLifecycleServiceBase {
+        @Override
+        protected ResourceFHIRClientService getResourceFHIRClient() {
+            return(null);
+        }
+
+        @Override
+        protected Logger getLogger() {
+            return(LOG);
+        }
+
+        @Override
+        protected BaseResourceReplicatedCache getResourceReplicatedCache() {
+            return(resourceCache);
+        }
+
+        @Override
+        protected ResourceType specifyResourceType() {
+            return(ResourceType.Patient);
+        }
+
+        @Override
+        protected DatagridResourceStoreInterface specifyResourceStore() {
+            return(resourceStore);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        resourceStore = new TestResourceStore(storeDirectory);
+        resourceCache = new MapBackedCache();
+        lifecycleService = new TestLifecycleService();
+        lifecycleService.initialise();
+    }
+
+    private static DataGridResourceType newPatient(String mrn){
+        Identifier identifier = new Identifier().setSystem(IDENTIFIER_SYSTEM).setValue(mrn);
+        Patient patient = new Patient();
+        patient.addIdentifier(identifier);
+        DataGridResourceIdType gridResourceId = new DataGridResourceIdType();
+        gridResourceId.setResourceType(ResourceType.Patient.toString());
+        gridResourceId.setPrimaryBusinessIdentifier(identifier);
+        return(new DataGridResourceType(gridResourceId, patient));
+    }
+
+    private long countStoredFiles() throws IOException {
+        try (Stream<Path> storedFiles = Files.list(storeDirectory)) {
+            return(storedFiles.filter(file -> file.toString().endsWith(".json")).count());
+        }
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    @DisplayName("A cache miss is loaded from the store once and then served from the cache")
+    void readThrough() {
+        DataGridResourceType storedPatient = newPatient("1001");
+        resourceStore.saveResources(List.of(storedPatient));
+        String key = storedPatient.getGridResourceId().getKey();
+        resourceStore.loadCount = 0;
+
+        DataGridResourceType firstRead = lifecycleService.getResource(key);
+        DataGridResourceType secondRead = lifecycleService.getResource(key);
+
+        assertNotNull(firstRead);
+        assertSame(firstRead, secondRead);
+        assertEquals(1, resourceStore.loadCount);
+        assertTrue(resourceCache.hasEntry(key));
+        assertSame(firstRead, lifecycleService.getResource(new Identifier().setSystem(IDENTIFIER_SYSTEM).setValue("1001")));
+        assertNull(lifecycleService.getResource("Patient/unknown"));
+    }
+
+    @Test
+    @DisplayName("Repeated saves of a resource before a flush are written once, as the latest version")
+    void coalescing() {
+        DataGridResourceType patient = newPatient("1002");
+        resourceStore.saveResources(List.of(patient));
+        resourceStore.savedBatchSizes.clear();
+
+        for(int counter = 0; counter < 3; counter += 1){
+            ((Patient)patient.getGridResource()).setGender(counter % 2 == 0 ? AdministrativeGender.MALE : AdministrativeGender.FEMALE);
+            lifecycleService.saveResource(patient);
+        }
+        assertEquals(1, lifecycleService.getWriteBehindQueue().size());
+        assertEquals(2, lifecycleService.getWriteBehindQueue().getCoalescedCount());
+
+        lifecycleService.flushWriteBehindQueue();
+
+        assertEquals(List.of(1), resourceStore.savedBatchSizes);
+        assertTrue(lifecycleService.getWriteBehindQueue().isEmpty());
+        Patient storedPatient = (Patient) resourceStore.loadResource(patient.getGridResourceId().getKey()).getGridResource();
+        assertEquals(AdministrativeGender.MALE, storedPatient.getGender());
+    }
+
+    @Test
+    @DisplayName("A batch that fails to be written is requeued and written on the next flush")
+    void requeueOnFailure() {
+        DataGridResourceType patient = newPatient("1003");
+        lifecycleService.saveResource(patient);
+        resourceStore.failNextSave = true;
+
+        lifecycleService.flushWriteBehindQueue();
+
+        assertEquals(1, lifecycleService.getWriteBehindQueue().size());
+        assertEquals(DatagridPersistenceResourceStatusEnum.RESOURCE_SAVE_REQUESTED, patient.getGridResourceId().getGridResourcePersistenceStatus());
+
+        lifecycleService.flushWriteBehindQueue();
+
+        assertTrue(lifecycleService.getWriteBehindQueue().isEmpty());
+        assertEquals(DatagridPersistenceResourceStatusEnum.RESOURCE_ACTIVE, patient.getGridResourceId().getGridResourcePersistenceStatus());
+    }
+
+    @Test
+    @DisplayName("A resource created without an id is re-keyed to its assigned id, so a later save is an update")
+    void createThenUpdate() throws IOException {
+        DataGridResourceType patient = newPatient("1004");
+        String identifierKey = patient.getGridResourceId().getKey();
+        assertTrue(identifierKey.contains("?identifier="));
+
+        lifecycleService.saveResource(patient);
+        lifecycleService.flushWriteBehindQueue();
+
+        String assignedKey = patient.getGridResourceId().getKey();
+        assertTrue(assignedKey.startsWith("Patient/"));
+        assertTrue(patient.getGridResource().getIdElement().hasIdPart());
+        assertFalse(resourceCache.hasEntry(identifierKey));
+        assertSame(patient, resourceCache.getEntry(assignedKey));
+
+        ((Patient)patient.getGridResource()).addName().setFamily("Citizen");
+        lifecycleService.saveResource(patient);
+        lifecycleService.flushWriteBehindQueue();
+
+        assertEquals(assignedKey, patient.getGridResourceId().getKey());
+        assertEquals(1, countStoredFiles());
+        Patient storedPatient = (Patient) resourceStore.loadResource(assignedKey).getGridResource();
+        assertEquals("Citizen", storedPatient.getNameFirstRep().getFamily());
+        assertSame(patient, lifecycleService.getResource(new Identifier().setSystem(IDENTIFIER_SYSTEM).setValue("1004")));
+    }
+
+    @Test
+    @DisplayName("The identifier index is bounded and stale entries fall back to the store")
+    void boundedIdentifierIndex() {
+        DatagridIdentifierKeyIndex identifierKeyIndex = new DatagridIdentifierKeyIndex(2);
+        identifierKeyIndex.put("a", "Patient/1");
+        identifierKeyIndex.put("b", "Patient/2");
+        identifierKeyIndex.get("a");
+        identifierKeyIndex.put("c", "Patient/3");
+
+        assertEquals(2, identifierKeyIndex.size());
+        assertEquals("Patient/1", identifierKeyIndex.get("a"));
+        assertNull(identifierKeyIndex.get("b"));
+
+        identifierKeyIndex.removeKey("Patient/1");
+        assertNull(identifierKeyIndex.get("a"));
+    }
+}
@@ -1,7 +1,10 @@
 package net.fhirfactory.pegacorn.freemarker;
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,18 +30,48 @@ public abstract class BaseFreemarkerContent {
 	}
 
 	/**
-     * 
+     * Renders the template into a String.
      */
     public String getContent() throws IOException, TemplateException {
-        StringWriter st = new StringWriter();
+        ReusableStringWriter writer = ReusableStringWriter.acquire();
 
-        Configuration config = TemplateConfiguration.getConfiguration(basePath);
+        try {
+            writeContent(writer);
+
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Renders the template directly into the supplied Writer (which is not flushed or closed).
+     * 
+     * @param out
+     */
+    public void writeContent(Writer out) throws IOException, TemplateException {
+        getTemplate().process(params, out);
+    }
+
+    /**
+     * Renders the template directly into the supplied OutputStream using the given charset (the stream is flushed
+     * but not closed).
+     * 
+     * @param out
+     * @param charset
+     */
+    public void writeContent(OutputStream out, Charset charset) throws IOException, TemplateException {
+        Writer writer = new OutputStreamWriter(out, charset);
+
+        writeContent(writer);
 
-        Template template = config.getTemplate(getTemplateName());
+        writer.flush();
+    }
 
-        template.process(params, st);
+    protected Template getTemplate() throws IOException {
+        Configuration config = TemplateConfiguration.getConfiguration(basePath);
 
-        return st.getBuffer().toString();
+        return config.getTemplate(getTemplateName());
     }
 
     /**
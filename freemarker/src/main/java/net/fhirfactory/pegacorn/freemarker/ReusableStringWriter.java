@@ -0,0 +1,105 @@
+package net.fhirfactory.pegacorn.freemarker;
+
+import java.io.Writer;
+
+/**
+ * An unsynchronized, per-thread reusable Writer for rendering content into a String, so each render doesn't allocate
+ * (and grow) a fresh StringWriter/StringBuffer.
+ *
+ * A writer is acquired for a single render and must be released afterwards. A nested render on the same thread (e.g.
+ * from within a template) simply gets a new, non-pooled, writer. Buffers which have grown beyond
+ * MAX_RETAINED_CAPACITY are not kept.
+ */
+class ReusableStringWriter extends Writer {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<ReusableStringWriter> pool = ThreadLocal.withInitial(() -> new ReusableStringWriter(true));
+
+    private final StringBuilder buffer;
+    private final boolean pooled;
+    private boolean inUse;
+
+    private ReusableStringWriter(boolean pooled) {
+        this.buffer = new StringBuilder(INITIAL_CAPACITY);
+        this.pooled = pooled;
+        this.inUse = false;
+    }
+
+    static ReusableStringWriter acquire() {
+        ReusableStringWriter writer = pool.get();
+
+        if (writer.inUse) {
+            return new ReusableStringWriter(false);
+        }
+
+        writer.inUse = true;
+
+        return writer;
+    }
+
+    void release() {
+        if (!pooled) {
+            return;
+        }
+
+        inUse = false;
+
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            pool.remove();
+        } else {
+            buffer.setLength(0);
+        }
+    }
+
+    @Override
+    public void write(int c) {
+        buffer.append((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        buffer.append(cbuf, off, len);
+    }
+
+    @Override
+    public void write(String str) {
+        buffer.append(str);
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        buffer.append(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+        buffer.append(csq);
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) {
+        buffer.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) {
+        buffer.append(c);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+}
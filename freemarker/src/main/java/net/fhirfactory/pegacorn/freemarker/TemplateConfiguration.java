@@ -2,37 +2,123 @@ package net.fhirfactory.pegacorn.freemarker;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import freemarker.cache.FileTemplateLoader;
+import freemarker.cache.MruCacheStorage;
 import freemarker.template.Configuration;
 
 /**
  * Configures the Freemarker templating engine.
- * 
+ *
+ * There is one (thread-safe) configuration per template base path, each with a bounded template cache. Cached
+ * templates are checked against their file's modification time at most every TEMPLATE_UPDATE_DELAY milliseconds, so
+ * edited templates are picked up without a restart.
+ *
  * @author Brendan Douglas
  *
  */
 public class TemplateConfiguration {
-    private static Configuration cfg;
+    private static final Logger LOG = LoggerFactory.getLogger(TemplateConfiguration.class);
+
+    public static final long TEMPLATE_UPDATE_DELAY = 5000L; // milliseconds
+    private static final int TEMPLATE_CACHE_STRONG_SIZE = 100;
+    private static final int TEMPLATE_CACHE_SOFT_SIZE = 500;
+    private static final String[] TEMPLATE_FILE_EXTENSIONS = {".ftl", ".ftlh", ".ftlx"};
+
+    private static final ConcurrentHashMap<String, Configuration> configurations = new ConcurrentHashMap<>();
 
     private TemplateConfiguration() {
         // Hide the constructor.
     }
 
-    private static void configure(String basePath) throws IOException {
-    	   	
-    	File file = new File(basePath);
-   	
-        cfg = new Configuration(Configuration.VERSION_2_3_29);
+    private static Configuration configure(String basePath) {
+        File file = new File(basePath);
+
+        Configuration cfg = new Configuration(Configuration.VERSION_2_3_29);
+
+        try {
+            cfg.setTemplateLoader(new FileTemplateLoader(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        cfg.setCacheStorage(new MruCacheStorage(TEMPLATE_CACHE_STRONG_SIZE, TEMPLATE_CACHE_SOFT_SIZE));
+        cfg.setTemplateUpdateDelayMilliseconds(TEMPLATE_UPDATE_DELAY);
 
-        cfg.setTemplateLoader(new FileTemplateLoader(file));
+        return cfg;
     }
 
     public static Configuration getConfiguration(String basePath) throws IOException {
+        Configuration cfg = configurations.get(basePath);
+
         if (cfg == null) {
-            configure(basePath);
+            try {
+                cfg = configurations.computeIfAbsent(basePath, TemplateConfiguration::configure);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
         }
 
         return cfg;
     }
+
+    /**
+     * Parses (and caches) every template under the base path, so the first render of each template doesn't pay for
+     * the lookup and parse. Templates which fail to parse are logged and skipped. This is called at application
+     * start-up by TemplatePrecompiler for each configured base path.
+     *
+     * @param basePath
+     * @return the number of templates compiled
+     * @throws IOException
+     */
+    public static int precompileTemplates(String basePath) throws IOException {
+        Configuration cfg = getConfiguration(basePath);
+
+        Path basePathDirectory = new File(basePath).toPath();
+
+        List<Path> templateFiles;
+
+        try (Stream<Path> paths = Files.walk(basePathDirectory)) {
+            templateFiles = paths.filter(Files::isRegularFile).filter(TemplateConfiguration::isTemplateFile).collect(Collectors.toList());
+        }
+
+        int compiledCount = 0;
+
+        for (Path templateFile : templateFiles) {
+            String templateName = basePathDirectory.relativize(templateFile).toString().replace(File.separatorChar, '/');
+
+            try {
+                cfg.getTemplate(templateName);
+                compiledCount++;
+            } catch (IOException e) {
+                LOG.warn(".precompileTemplates(): Unable to compile template, templateName->{}, reason->{}", templateName, e.getMessage());
+            }
+        }
+
+        LOG.info(".precompileTemplates(): Compiled {} of {} templates, basePath->{}", compiledCount, templateFiles.size(), basePath);
+
+        return compiledCount;
+    }
+
+    private static boolean isTemplateFile(Path path) {
+        String fileName = path.getFileName().toString();
+
+        for (String extension : TEMPLATE_FILE_EXTENSIONS) {
+            if (fileName.endsWith(extension)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,78 @@
+package net.fhirfactory.pegacorn.freemarker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Precompiles the Freemarker templates when the application starts, so the first render of each template doesn't pay
+ * for the lookup and parse.
+ *
+ * The template base paths are taken from the FREEMARKER_TEMPLATE_BASE_PATHS environment variable (or the
+ * freemarker.template.base.paths system property) as a comma separated list. Nothing is precompiled if neither is
+ * set, and a base path which can't be read is logged and skipped rather than failing the deployment.
+ */
+@ApplicationScoped
+public class TemplatePrecompiler {
+    private static final Logger LOG = LoggerFactory.getLogger(TemplatePrecompiler.class);
+
+    public static final String TEMPLATE_BASE_PATHS_ENVIRONMENT_VARIABLE = "FREEMARKER_TEMPLATE_BASE_PATHS";
+    public static final String TEMPLATE_BASE_PATHS_SYSTEM_PROPERTY = "freemarker.template.base.paths";
+
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        precompile(getTemplateBasePaths());
+    }
+
+    /**
+     * Precompiles the templates under each of the base paths.
+     *
+     * @param basePaths
+     * @return the total number of templates compiled
+     */
+    public int precompile(List<String> basePaths) {
+        int compiledCount = 0;
+
+        for (String basePath : basePaths) {
+            try {
+                compiledCount += TemplateConfiguration.precompileTemplates(basePath);
+            } catch (IOException e) {
+                LOG.warn(".precompile(): Unable to precompile templates, basePath->{}, reason->{}", basePath, e.getMessage());
+            }
+        }
+
+        return compiledCount;
+    }
+
+    protected List<String> getTemplateBasePaths() {
+        String basePaths = System.getenv(TEMPLATE_BASE_PATHS_ENVIRONMENT_VARIABLE);
+
+        if (basePaths == null || basePaths.isBlank()) {
+            basePaths = System.getProperty(TEMPLATE_BASE_PATHS_SYSTEM_PROPERTY);
+        }
+
+        return parseBasePaths(basePaths);
+    }
+
+    static List<String> parseBasePaths(String basePaths) {
+        List<String> parsedBasePaths = new ArrayList<>();
+
+        if (basePaths == null) {
+            return parsedBasePaths;
+        }
+
+        for (String basePath : basePaths.split(",")) {
+            if (!basePath.isBlank()) {
+                parsedBasePaths.add(basePath.trim());
+            }
+        }
+
+        return parsedBasePaths;
+    }
+}
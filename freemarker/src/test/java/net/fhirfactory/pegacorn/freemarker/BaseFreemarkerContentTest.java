@@ -0,0 +1,99 @@
+package net.fhirfactory.pegacorn.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import freemarker.template.TemplateException;
+
+class BaseFreemarkerContentTest {
+
+    @TempDir
+    Path templateDirectory;
+
+    //
+    // Test Fixtures
+    //
+
+    private class TestContent extends BaseFreemarkerContent {
+        private final String templateName;
+
+        TestContent(String templateName) {
+            super(templateDirectory.toString());
+            this.templateName = templateName;
+        }
+
+        @Override
+        public String getTemplateName() {
+            return templateName;
+        }
+
+        @Override
+        public String toString() {
+            try {
+                return getContent();
+            } catch (IOException | TemplateException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @BeforeEach
+    void writeTemplates() throws IOException {
+        Files.writeString(templateDirectory.resolve("greeting.ftl"), "Kia ora ${name}!", StandardCharsets.UTF_8);
+        Files.writeString(templateDirectory.resolve("outer.ftl"), "[${inner}|${name}]", StandardCharsets.UTF_8);
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    void rendersIntoAString() throws IOException, TemplateException {
+        TestContent content = new TestContent("greeting.ftl");
+        content.addParam("name", "Māui");
+
+        assertEquals("Kia ora Māui!", content.getContent());
+        // the pooled writer is reset between renders
+        assertEquals("Kia ora Māui!", content.getContent());
+    }
+
+    @Test
+    void streamsIntoAWriterAndAnOutputStream() throws IOException, TemplateException {
+        TestContent content = new TestContent("greeting.ftl");
+        content.addParam("name", "Māui");
+
+        StringWriter writer = new StringWriter();
+        content.writeContent(writer);
+        assertEquals("Kia ora Māui!", writer.toString());
+
+        ByteArrayOutputStream utf8 = new ByteArrayOutputStream();
+        content.writeContent(utf8, StandardCharsets.UTF_8);
+        assertEquals("Kia ora Māui!", new String(utf8.toByteArray(), StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream utf16 = new ByteArrayOutputStream();
+        content.writeContent(utf16, StandardCharsets.UTF_16);
+        assertEquals("Kia ora Māui!", new String(utf16.toByteArray(), StandardCharsets.UTF_16));
+    }
+
+    @Test
+    void rendersNestedContent() throws IOException, TemplateException {
+        TestContent inner = new TestContent("greeting.ftl");
+        inner.addParam("name", "inner");
+
+        TestContent outer = new TestContent("outer.ftl");
+        outer.addParam("inner", inner);
+        outer.addParam("name", "outer");
+
+        assertEquals("[Kia ora inner!|outer]", outer.getContent());
+    }
+}
@@ -0,0 +1,88 @@
+package net.fhirfactory.pegacorn.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+class ReusableStringWriterTest {
+
+    @Test
+    void reusesTheWriterOnceReleased() {
+        ReusableStringWriter writer = ReusableStringWriter.acquire();
+        writer.write("first");
+        assertEquals("first", writer.toString());
+        writer.release();
+
+        ReusableStringWriter reacquired = ReusableStringWriter.acquire();
+
+        try {
+            assertSame(writer, reacquired);
+            assertEquals("", reacquired.toString());
+        } finally {
+            reacquired.release();
+        }
+    }
+
+    @Test
+    void nestedAcquireGetsAFreshWriter() {
+        ReusableStringWriter outer = ReusableStringWriter.acquire();
+
+        try {
+            outer.write("outer");
+
+            ReusableStringWriter inner = ReusableStringWriter.acquire();
+            assertNotSame(outer, inner);
+            inner.write("inner");
+            inner.release();
+
+            assertEquals("outer", outer.toString());
+            assertEquals("inner", inner.toString());
+        } finally {
+            outer.release();
+        }
+
+        ReusableStringWriter reacquired = ReusableStringWriter.acquire();
+
+        try {
+            assertSame(outer, reacquired);
+        } finally {
+            reacquired.release();
+        }
+    }
+
+    @Test
+    void oversizedBuffersAreNotRetained() {
+        ReusableStringWriter writer = ReusableStringWriter.acquire();
+        writer.write("x".repeat(128 * 1024));
+        writer.release();
+
+        ReusableStringWriter reacquired = ReusableStringWriter.acquire();
+
+        try {
+            assertNotSame(writer, reacquired);
+            assertEquals("", reacquired.toString());
+        } finally {
+            reacquired.release();
+        }
+    }
+
+    @Test
+    void appendsEveryWriteVariant() throws IOException {
+        ReusableStringWriter writer = ReusableStringWriter.acquire();
+
+        try {
+            writer.write('a');
+            writer.write(new char[] { 'x', 'b', 'c', 'x' }, 1, 2);
+            writer.write("d");
+            writer.write("xefx", 1, 2);
+            writer.append("g").append("xhix", 1, 3).append('j');
+            assertEquals("abcdefghij", writer.toString());
+        } finally {
+            writer.release();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.fhirfactory.pegacorn.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+
+class TemplateConfigurationTest {
+
+    @TempDir
+    Path templateDirectory;
+
+    //
+    // Test Fixtures
+    //
+
+    private Path writeTemplate(String name, String content) throws IOException {
+        Path templateFile = templateDirectory.resolve(name);
+        Files.createDirectories(templateFile.getParent());
+        Files.writeString(templateFile, content);
+        return templateFile;
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    void sharesOneConfigurationPerBasePath() throws IOException {
+        Path otherDirectory = Files.createDirectory(templateDirectory.resolve("other"));
+
+        Configuration cfg = TemplateConfiguration.getConfiguration(templateDirectory.toString());
+
+        assertSame(cfg, TemplateConfiguration.getConfiguration(templateDirectory.toString()));
+        assertNotSame(cfg, TemplateConfiguration.getConfiguration(otherDirectory.toString()));
+        assertEquals(TemplateConfiguration.TEMPLATE_UPDATE_DELAY, cfg.getTemplateUpdateDelayMilliseconds());
+    }
+
+    @Test
+    void rejectsAMissingBasePath() {
+        String missingDirectory = templateDirectory.resolve("missing").toString();
+
+        assertThrows(IOException.class, () -> TemplateConfiguration.getConfiguration(missingDirectory));
+    }
+
+    @Test
+    void precompilesTemplatesAndSkipsBrokenOnes() throws IOException {
+        writeTemplate("plain.ftl", "Hello ${name}");
+        writeTemplate("nested/html.ftlh", "<p>${name}</p>");
+        writeTemplate("nested/xml.ftlx", "<name>${name}</name>");
+        writeTemplate("broken.ftl", "<#if name>unclosed");
+        writeTemplate("notes.txt", "not a template");
+
+        assertEquals(3, TemplateConfiguration.precompileTemplates(templateDirectory.toString()));
+    }
+
+    @Test
+    void servesCachedTemplatesUntilTheFileChanges() throws IOException, TemplateException {
+        Path templateFile = writeTemplate("greeting.ftl", "Hello");
+
+        Configuration cfg = TemplateConfiguration.getConfiguration(templateDirectory.toString());
+        cfg.setTemplateUpdateDelayMilliseconds(0);
+
+        Template template = cfg.getTemplate("greeting.ftl");
+        assertSame(template, cfg.getTemplate("greeting.ftl"));
+
+        Files.writeString(templateFile, "Goodbye");
+        Files.setLastModifiedTime(templateFile, FileTime.fromMillis(Files.getLastModifiedTime(templateFile).toMillis() + 10000L));
+
+        Template reloadedTemplate = cfg.getTemplate("greeting.ftl");
+        assertNotSame(template, reloadedTemplate);
+        StringWriter rendered = new StringWriter();
+        reloadedTemplate.process(null, rendered);
+        assertEquals("Goodbye", rendered.toString());
+    }
+}
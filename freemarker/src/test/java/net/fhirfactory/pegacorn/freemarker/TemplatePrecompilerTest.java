@@ -0,0 +1,36 @@
+package net.fhirfactory.pegacorn.freemarker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TemplatePrecompilerTest {
+
+    @TempDir
+    Path templateDirectory;
+
+    @Test
+    void parsesCommaSeparatedBasePaths() {
+        assertEquals(Arrays.asList("/a", "/b/c"), TemplatePrecompiler.parseBasePaths(" /a, ,/b/c ,"));
+        assertTrue(TemplatePrecompiler.parseBasePaths(null).isEmpty());
+        assertTrue(TemplatePrecompiler.parseBasePaths("  ").isEmpty());
+    }
+
+    @Test
+    void precompilesEachBasePathAndSkipsUnreadableOnes() throws IOException {
+        Files.writeString(templateDirectory.resolve("first.ftl"), "first");
+        Files.writeString(templateDirectory.resolve("second.ftlh"), "second");
+
+        List<String> basePaths = Arrays.asList(templateDirectory.toString(), templateDirectory.resolve("missing").toString());
+
+        assertEquals(2, new TemplatePrecompiler().precompile(basePaths));
+    }
+}
@@ -38,6 +38,7 @@ import net.fhirfactory.pegacorn.internals.SerializableObject;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.cache.PetasosLocalMetricsDM;
 import net.fhirfactory.pegacorn.services.oam.agent.common.AgentWorkerBase;
 import net.fhirfactory.pegacorn.services.oam.endpoint.PetasosOAMMetricsAgentEndpoint;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +82,9 @@ public class PetasosMetricsAgentWorker extends AgentWorkerBase {
     @Inject
     private PetasosComponentMetricSetFactory componentMetricSetFactory;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // Constructor(s)
     //
@@ -225,16 +229,11 @@ public class PetasosMetricsAgentWorker extends AgentWorkerBase {
         if(isBackgroundCheckInitiated()){
             // do nothing
         } else {
-            TimerTask MetricsCacheSynchronisation = new TimerTask() {
-                public void run() {
-                    getLogger().debug(".MetricsCacheSynchronisation(): Entry");
-                    metricsSynchronisationDaemon();
-                    getLogger().debug(".MetricsCacheSynchronisation(): Exit");
-                }
-            };
-            String timerName = "MetricsCacheSynchronisation";
-            Timer timer = new Timer(timerName);
-            timer.schedule(MetricsCacheSynchronisation, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
+            sharedScheduler.schedule("MetricsCacheSynchronisation", () -> {
+                getLogger().debug(".MetricsCacheSynchronisation(): Entry");
+                metricsSynchronisationDaemon();
+                getLogger().debug(".MetricsCacheSynchronisation(): Exit");
+            }, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
             setBackgroundCheckInitiated(true);
         }
         getLogger().debug(".scheduleMetricsSynchronisation(): Exit");
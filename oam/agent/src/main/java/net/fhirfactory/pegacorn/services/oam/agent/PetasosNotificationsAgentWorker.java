@@ -30,9 +30,13 @@ import net.fhirfactory.pegacorn.core.interfaces.topology.ProcessingPlantInterfac
 import net.fhirfactory.pegacorn.core.interfaces.capabilities.CapabilityUtilisationBrokerInterface;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.reporting.factories.PetasosComponentMetricSetFactory;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.PetasosComponentITOpsNotification;
+import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.valuesets.PetasosComponentITOpsNotificationTypeEnum;
 import net.fhirfactory.pegacorn.deployment.names.subsystems.SubsystemNames;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.cache.PetasosLocalMetricsDM;
 import net.fhirfactory.pegacorn.services.oam.agent.common.AgentWorkerBase;
+import net.fhirfactory.pegacorn.services.oam.agent.common.ITOpsNotificationCoalescingWindow;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,15 +44,35 @@ import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
-import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Collects the ITOps notifications raised within this ProcessingPlant and forwards them to the ITOps server.
+ *
+ * Notifications are coalesced, per component and notification type, into a window that is closed (and forwarded)
+ * by each run of the forwarder daemon: a window holding a single notification is forwarded as-is, a window holding
+ * many is forwarded as one summary notification (count, time range and a few samples). The number of open windows is
+ * bounded - once the bound is reached, notifications for new windows are dropped (and counted), with a small reserve
+ * kept for failure notifications. Notification content is only rendered for the notifications actually forwarded, and
+ * each run delivers its notifications in batches rather than one RPC per notification.
+ */
 @ApplicationScoped
 public class PetasosNotificationsAgentWorker extends AgentWorkerBase implements PetasosITOpsNotificationAgentInterface {
     private static final Logger LOG = LoggerFactory.getLogger(PetasosNotificationsAgentWorker.class);
 
-    Queue<PetasosComponentITOpsNotification> notificationQueue;
-    private Object notificationQueueLock;
+    private ConcurrentHashMap<String, ITOpsNotificationCoalescingWindow> coalescingWindows;
+    private LongAdder receivedNotificationCount;
+    private LongAdder coalescedNotificationCount;
+    private LongAdder droppedNotificationCount;
+    private LongAdder forwardedNotificationCount;
+
+    private static final int MAXIMUM_COALESCING_WINDOWS = 1000;
+    private static final int FAILURE_NOTIFICATION_WINDOW_RESERVE = 100;
+    private static final int MAXIMUM_SAMPLES_PER_WINDOW = 3;
+    private static final int MAXIMUM_NOTIFICATION_BATCH_SIZE = 50;
 
     private static long SYNCHRONIZATION_CHECK_PERIOD = 15000L;
     private static long INITIAL_CHECK_DELAY_PERIOD= 60000L;
@@ -79,15 +103,21 @@ public class PetasosNotificationsAgentWorker extends AgentWorkerBase implements
     @Inject
     private PetasosComponentMetricSetFactory componentMetricSetFactory;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // Constructor(s)
     //
 
     public PetasosNotificationsAgentWorker(){
         super();
-        this.notificationQueueLock = new Object();
         this.initialised = false;
-        this.notificationQueue = new ConcurrentLinkedQueue<>();
+        this.coalescingWindows = new ConcurrentHashMap<>();
+        this.receivedNotificationCount = new LongAdder();
+        this.coalescedNotificationCount = new LongAdder();
+        this.droppedNotificationCount = new LongAdder();
+        this.forwardedNotificationCount = new LongAdder();
         this.daemonLastRunTime = Instant.now();
         this.daemonIsStillRunning = true;
         this.jsonMapper = new ObjectMapper();
@@ -129,18 +159,17 @@ public class PetasosNotificationsAgentWorker extends AgentWorkerBase implements
 
     protected void forwardLocalNotificationsToServer(){
         LOG.debug(".forwardLocalNotificationsToServer(): Entry");
-        while(hasMoreNotifications()) {
-            PetasosComponentITOpsNotification nextNotification = null;
-            synchronized (notificationQueueLock) {
-                nextNotification = getNextNotification();
-            }
-            if(nextNotification != null) {
-                LOG.debug(".forwardLocalNotificationsToServer(): Loaded metrics form local cache, forwarding");
-                LOG.debug(".forwardLocalMetricsToServer(): Sending notification for Participant->{}", nextNotification.getParticipantName());
-                notificationBroker.sendNotification(nextNotification);
-            }
+        List<PetasosComponentITOpsNotification> outgoingNotifications = drainNotifications();
+        int batchStart = 0;
+        while(batchStart < outgoingNotifications.size()) {
+            int batchEnd = Math.min(batchStart + MAXIMUM_NOTIFICATION_BATCH_SIZE, outgoingNotifications.size());
+            List<PetasosComponentITOpsNotification> batch = new ArrayList<>(outgoingNotifications.subList(batchStart, batchEnd));
+            LOG.debug(".forwardLocalNotificationsToServer(): Sending notification batch, size->{}", batch.size());
+            notificationBroker.sendNotifications(batch);
+            forwardedNotificationCount.add(batch.size());
+            batchStart = batchEnd;
         }
-        LOG.debug(".forwardLocalNotificationsToServer(): Exit");
+        LOG.debug(".forwardLocalNotificationsToServer(): Exit, forwarded->{}", outgoingNotifications.size());
     }
 
     //
@@ -150,24 +179,18 @@ public class PetasosNotificationsAgentWorker extends AgentWorkerBase implements
     protected void scheduleNotificationsSynchronisation() {
 
         getLogger().debug(".scheduleNotificationSynchronisation(): Entry");
-        TimerTask NotificationForwarderDaemon = new TimerTask() {
-            public void run() {
-                getLogger().debug(".NotificationForwarderDaemon(): Entry");
-                if(!isDaemonIsStillRunning()){
+        sharedScheduler.schedule("NotificationForwarderDaemon", () -> {
+            getLogger().debug(".NotificationForwarderDaemon(): Entry");
+            if(!isDaemonIsStillRunning()){
+                notificationSynchronisationDaemon();
+            } else {
+                Long ageSinceRun = Instant.now().getEpochSecond() - getDaemonLastRunTime().getEpochSecond();
+                if (ageSinceRun > getNotificationSynchronisationResetPeriod()) {
                     notificationSynchronisationDaemon();
-                } else {
-                    Long ageSinceRun = Instant.now().getEpochSecond() - getDaemonLastRunTime().getEpochSecond();
-                    if (ageSinceRun > getNotificationSynchronisationResetPeriod()) {
-                        notificationSynchronisationDaemon();
-                    }
                 }
-                notificationSynchronisationDaemon();
-                getLogger().debug(".NotificationForwarderDaemon(): Exit");
             }
-        };
-        String timerName = "NotificationForwarderDaemonTimer";
-        Timer timer = new Timer(timerName);
-        timer.schedule(NotificationForwarderDaemon, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
+            getLogger().debug(".NotificationForwarderDaemon(): Exit");
+        }, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
         getLogger().debug(".scheduleNotificationSynchronisation(): Exit");
     }
 
@@ -218,12 +241,24 @@ public class PetasosNotificationsAgentWorker extends AgentWorkerBase implements
         return processingPlant;
     }
 
-    protected Object getNotificationQueueLock() {
-        return notificationQueueLock;
+    protected ConcurrentHashMap<String, ITOpsNotificationCoalescingWindow> getCoalescingWindows() {
+        return coalescingWindows;
+    }
+
+    public long getReceivedNotificationCount() {
+        return receivedNotificationCount.sum();
     }
 
-    public Queue<PetasosComponentITOpsNotification> getNotificationQueue() {
-        return notificationQueue;
+    public long getCoalescedNotificationCount() {
+        return coalescedNotificationCount.sum();
+    }
+
+    public long getDroppedNotificationCount() {
+        return droppedNotificationCount.sum();
+    }
+
+    public long getForwardedNotificationCount() {
+        return forwardedNotificationCount.sum();
     }
 
     protected boolean isDaemonIsStillRunning() {
@@ -247,20 +282,125 @@ public class PetasosNotificationsAgentWorker extends AgentWorkerBase implements
         if(notification == null){
             return;
         }
-        getNotificationQueue().add(notification);
+        receivedNotificationCount.increment();
+        String windowKey = getCoalescingWindowKey(notification);
+        while(true) {
+            ITOpsNotificationCoalescingWindow window = getCoalescingWindows().get(windowKey);
+            if (window == null) {
+                if (!hasCapacityForNewWindow(notification)) {
+                    droppedNotificationCount.increment();
+                    getLogger().debug(".addNotification(): Exit, no capacity for a new coalescing window, notification dropped");
+                    return;
+                }
+                ITOpsNotificationCoalescingWindow newWindow = new ITOpsNotificationCoalescingWindow(windowKey, MAXIMUM_SAMPLES_PER_WINDOW);
+                window = getCoalescingWindows().putIfAbsent(windowKey, newWindow);
+                if (window == null) {
+                    window = newWindow;
+                }
+            }
+            long windowCount = window.add(notification);
+            if (windowCount > 0) {
+                if (windowCount > 1) {
+                    coalescedNotificationCount.increment();
+                }
+                getLogger().debug(".addNotification(): Exit, added to window->{}", windowKey);
+                return;
+            }
+            // the window was closed (drained) between the get() and the add(), so open a new one
+            getCoalescingWindows().remove(windowKey, window);
+        }
     }
 
-    public PetasosComponentITOpsNotification getNextNotification(){
-        getLogger().debug(".getNextNotification(): Entry");
-        if(getNotificationQueue().isEmpty()){
-            return(null);
+    /**
+     * Closes all the current coalescing windows and converts each into the notification to be forwarded.
+     *
+     * @return the notifications to be forwarded (with their content rendered)
+     */
+    public List<PetasosComponentITOpsNotification> drainNotifications(){
+        getLogger().debug(".drainNotifications(): Entry");
+        List<PetasosComponentITOpsNotification> outgoingNotifications = new ArrayList<>();
+        for(String windowKey: new ArrayList<>(getCoalescingWindows().keySet())){
+            ITOpsNotificationCoalescingWindow window = getCoalescingWindows().remove(windowKey);
+            if(window == null){
+                continue;
+            }
+            window.close();
+            PetasosComponentITOpsNotification outgoingNotification = buildWindowNotification(window);
+            if(outgoingNotification != null){
+                outgoingNotifications.add(outgoingNotification);
+            }
         }
-        PetasosComponentITOpsNotification nextNotification = getNotificationQueue().poll();
-        return(nextNotification);
+        getLogger().debug(".drainNotifications(): Exit, outgoingNotifications.size->{}", outgoingNotifications.size());
+        return(outgoingNotifications);
     }
 
     public boolean hasMoreNotifications(){
-        boolean hasMore = (getNotificationQueue().isEmpty() != true);
+        boolean hasMore = (getCoalescingWindows().isEmpty() != true);
         return(hasMore);
     }
+
+    protected boolean hasCapacityForNewWindow(PetasosComponentITOpsNotification notification){
+        int windowLimit = MAXIMUM_COALESCING_WINDOWS;
+        if(PetasosComponentITOpsNotificationTypeEnum.FAILURE_NOTIFICATION_TYPE.equals(notification.getNotificationType())){
+            windowLimit = windowLimit + FAILURE_NOTIFICATION_WINDOW_RESERVE;
+        }
+        boolean hasCapacity = getCoalescingWindows().size() < windowLimit;
+        return(hasCapacity);
+    }
+
+    protected String getCoalescingWindowKey(PetasosComponentITOpsNotification notification){
+        String componentKey = null;
+        if(notification.getComponentId() != null && notification.getComponentId().hasId()){
+            componentKey = notification.getComponentId().getId();
+        } else {
+            componentKey = notification.getParticipantName();
+        }
+        String windowKey = componentKey + ":" + notification.getNotificationType();
+        return(windowKey);
+    }
+
+    protected PetasosComponentITOpsNotification buildWindowNotification(ITOpsNotificationCoalescingWindow window){
+        List<PetasosComponentITOpsNotification> sampleList = window.getSampleList();
+        if(sampleList.isEmpty()){
+            return(null);
+        }
+        for(PetasosComponentITOpsNotification currentSample: sampleList){
+            currentSample.renderContent();
+        }
+        PetasosComponentITOpsNotification firstSample = sampleList.get(0);
+        long notificationCount = window.getNotificationCount();
+        if(notificationCount == 1){
+            return(firstSample);
+        }
+        PetasosComponentITOpsNotification summaryNotification = new PetasosComponentITOpsNotification();
+        summaryNotification.setComponentId(firstSample.getComponentId());
+        summaryNotification.setParticipantName(firstSample.getParticipantName());
+        summaryNotification.setComponentType(firstSample.getComponentType());
+        summaryNotification.setNotificationType(firstSample.getNotificationType());
+        String heading = firstSample.getContentHeading();
+        if(StringUtils.isEmpty(heading)){
+            heading = "ITOpsNotification(" + firstSample.getParticipantName() + ")";
+        }
+        summaryNotification.setContentHeading(heading + " x" + notificationCount);
+
+        String summaryLine = notificationCount + " notifications between " + window.getFirstNotificationInstant() + " and " + window.getLastNotificationInstant() + " (showing the first " + sampleList.size() + ")";
+        StringBuilder unformattedMessageBuilder = new StringBuilder();
+        unformattedMessageBuilder.append("--- " + summaryLine + " ---\n");
+        StringBuilder formattedMessageBuilder = new StringBuilder();
+        formattedMessageBuilder.append("<p>" + summaryLine + "</p>");
+        for(PetasosComponentITOpsNotification currentSample: sampleList){
+            if(StringUtils.isNotEmpty(currentSample.getContent())) {
+                unformattedMessageBuilder.append(currentSample.getContent());
+                unformattedMessageBuilder.append("\n");
+            }
+            if(StringUtils.isNotEmpty(currentSample.getFormattedContent())){
+                formattedMessageBuilder.append(currentSample.getFormattedContent());
+            } else if(StringUtils.isNotEmpty(currentSample.getContent())){
+                formattedMessageBuilder.append("<pre>" + currentSample.getContent() + "</pre>");
+            }
+        }
+        summaryNotification.setContent(unformattedMessageBuilder.toString());
+        summaryNotification.setFormattedContent(formattedMessageBuilder.toString());
+        return(summaryNotification);
+    }
 }
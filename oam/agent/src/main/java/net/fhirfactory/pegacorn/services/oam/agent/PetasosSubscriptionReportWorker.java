@@ -32,6 +32,7 @@ import net.fhirfactory.pegacorn.petasos.endpoints.services.subscriptions.Petasos
 import net.fhirfactory.pegacorn.petasos.oam.subscriptions.PetasosSubscriptionReportingAgent;
 import net.fhirfactory.pegacorn.petasos.oam.subscriptions.cache.PetasosLocalSubscriptionReportingDM;
 import net.fhirfactory.pegacorn.services.oam.agent.common.AgentWorkerBase;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,8 +40,6 @@ import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
-import java.util.Timer;
-import java.util.TimerTask;
 
 @ApplicationScoped
 public class PetasosSubscriptionReportWorker extends AgentWorkerBase {
@@ -69,6 +68,9 @@ public class PetasosSubscriptionReportWorker extends AgentWorkerBase {
     @Inject
     private ProcessingPlantInterface processingPlant;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     public PetasosSubscriptionReportWorker() {
         super();
         this.initialised = false;
@@ -123,16 +125,11 @@ public class PetasosSubscriptionReportWorker extends AgentWorkerBase {
         if(isBackgroundCheckInitiated()){
             // do nothing
         } else {
-            TimerTask ITOpsPubSubCacheSynchronisationDaemon = new TimerTask() {
-                public void run() {
-                    getLogger().debug(".ITOpsPubSubCacheSynchronisationDaemon(): Entry");
-                    forwardPubSubReports();
-                    getLogger().debug(".ITOpsPubSubCacheSynchronisationDaemon(): Exit");
-                }
-            };
-            String timerName = "ITOpsPubSubCacheSynchronisationDaemon";
-            Timer timer = new Timer(timerName);
-            timer.schedule(ITOpsPubSubCacheSynchronisationDaemon, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
+            sharedScheduler.schedule("ITOpsPubSubCacheSynchronisationDaemon", () -> {
+                getLogger().debug(".ITOpsPubSubCacheSynchronisationDaemon(): Entry");
+                forwardPubSubReports();
+                getLogger().debug(".ITOpsPubSubCacheSynchronisationDaemon(): Exit");
+            }, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
             setBackgroundCheckInitiated(true);
         }
         getLogger().debug(".scheduleSubscriptionMapForwarding(): Exit");
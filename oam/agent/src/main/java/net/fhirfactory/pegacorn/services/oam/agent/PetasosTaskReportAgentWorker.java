@@ -31,6 +31,7 @@ import net.fhirfactory.pegacorn.core.interfaces.capabilities.CapabilityUtilisati
 import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.PetasosComponentITOpsNotification;
 import net.fhirfactory.pegacorn.deployment.names.subsystems.SubsystemNames;
 import net.fhirfactory.pegacorn.services.oam.agent.common.AgentWorkerBase;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,8 +40,6 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
 import java.util.Queue;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 @ApplicationScoped
@@ -73,6 +72,9 @@ public class PetasosTaskReportAgentWorker extends AgentWorkerBase implements Pet
     @Inject
     private PetasosITOpsTaskReportingBrokerInterface brokerInterface;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // Constructor(s)
     //
@@ -144,24 +146,19 @@ public class PetasosTaskReportAgentWorker extends AgentWorkerBase implements Pet
     protected void scheduleTaskReportSynchronisation() {
 
         getLogger().debug(".scheduleTaskReportSynchronisation(): Entry");
-        TimerTask TaskReportForwarderDaemon = new TimerTask() {
-            public void run() {
-                getLogger().debug(".TaskReportForwarderDaemon(): Entry");
-                if(!isDaemonIsStillRunning()){
+        sharedScheduler.schedule("TaskReportForwarderDaemon", () -> {
+            getLogger().debug(".TaskReportForwarderDaemon(): Entry");
+            if(!isDaemonIsStillRunning()){
+                taskReportSynchronisationDaemon();
+            } else {
+                Long ageSinceRun = Instant.now().getEpochSecond() - getDaemonLastRunTime().getEpochSecond();
+                if (ageSinceRun > getNotificationSynchronisationResetPeriod()) {
                     taskReportSynchronisationDaemon();
-                } else {
-                    Long ageSinceRun = Instant.now().getEpochSecond() - getDaemonLastRunTime().getEpochSecond();
-                    if (ageSinceRun > getNotificationSynchronisationResetPeriod()) {
-                        taskReportSynchronisationDaemon();
-                    }
                 }
-                taskReportSynchronisationDaemon();
-                getLogger().debug(".TaskReportForwarderDaemon(): Exit");
             }
-        };
-        String timerName = "TaskReportForwarderDaemonTimer";
-        Timer timer = new Timer(timerName);
-        timer.schedule(TaskReportForwarderDaemon, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
+            taskReportSynchronisationDaemon();
+            getLogger().debug(".TaskReportForwarderDaemon(): Exit");
+        }, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
         getLogger().debug(".scheduleTaskReportSynchronisation(): Exit");
     }
 
@@ -31,14 +31,13 @@ import net.fhirfactory.pegacorn.core.model.petasos.oam.topology.reporting.Petaso
 import net.fhirfactory.pegacorn.petasos.oam.topology.PetasosMonitoredTopologyReportingAgent;
 import net.fhirfactory.pegacorn.petasos.oam.topology.cache.PetasosLocalTopologyReportingDM;
 import net.fhirfactory.pegacorn.services.oam.agent.common.AgentWorkerBase;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import java.util.Timer;
-import java.util.TimerTask;
 
 @ApplicationScoped
 public class PetasosTopologyReportWorker extends AgentWorkerBase {
@@ -64,6 +63,9 @@ public class PetasosTopologyReportWorker extends AgentWorkerBase {
     @Inject
     private ProcessingPlantInterface processingPlant;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     public PetasosTopologyReportWorker(){
         super();
         this.initialised = false;
@@ -129,16 +131,11 @@ public class PetasosTopologyReportWorker extends AgentWorkerBase {
         if(isBackgroundCheckInitiated()){
             // do nothing
         } else {
-            TimerTask ITOpsTopologyCacheSynchronisationCheck = new TimerTask() {
-                public void run() {
-                    getLogger().debug(".ITOpsTopologyCacheSynchronisationCheck(): Entry");
-                    forwardTopologyDetails();
-                    getLogger().debug(".ITOpsTopologyCacheSynchronisationCheck(): Exit");
-                }
-            };
-            String timerName = "ITOpsTopologyCacheSynchronisationCheck";
-            Timer timer = new Timer(timerName);
-            timer.schedule(ITOpsTopologyCacheSynchronisationCheck, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
+            sharedScheduler.schedule("ITOpsTopologyCacheSynchronisationCheck", () -> {
+                getLogger().debug(".ITOpsTopologyCacheSynchronisationCheck(): Entry");
+                forwardTopologyDetails();
+                getLogger().debug(".ITOpsTopologyCacheSynchronisationCheck(): Exit");
+            }, getInitialCheckDelayPeriod(), getSynchronizationCheckPeriod());
             setBackgroundCheckInitiated(true);
         }
         getLogger().debug(".scheduleTopologyGraphForwarding(): Exit");
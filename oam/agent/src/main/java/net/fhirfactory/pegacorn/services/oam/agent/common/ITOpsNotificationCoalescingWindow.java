@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.oam.agent.common;
+
+import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.PetasosComponentITOpsNotification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates the notifications raised by a single component (of a single notification type) between two forwarding
+ * runs of the PetasosNotificationsAgentWorker. Only the first few notifications are kept (as samples), the rest are
+ * just counted, so a busy component costs a fixed amount of memory regardless of its task rate.
+ *
+ * A window is closed when it is drained; a closed window rejects further notifications so that the caller can open
+ * a new one.
+ */
+public class ITOpsNotificationCoalescingWindow {
+    private final String windowKey;
+    private final int maximumSampleCount;
+    private final List<PetasosComponentITOpsNotification> sampleList;
+    private long notificationCount;
+    private Instant firstNotificationInstant;
+    private Instant lastNotificationInstant;
+    private boolean closed;
+
+    //
+    // Constructor(s)
+    //
+
+    public ITOpsNotificationCoalescingWindow(String windowKey, int maximumSampleCount){
+        this.windowKey = windowKey;
+        this.maximumSampleCount = Math.max(1, maximumSampleCount);
+        this.sampleList = new ArrayList<>();
+        this.notificationCount = 0;
+        this.firstNotificationInstant = null;
+        this.lastNotificationInstant = null;
+        this.closed = false;
+    }
+
+    //
+    // Business Methods
+    //
+
+    /**
+     * Adds a notification to the window.
+     *
+     * @param notification the notification
+     * @return the number of notifications now in the window, or 0 if the window has already been closed (and so the
+     * notification was not added)
+     */
+    public synchronized long add(PetasosComponentITOpsNotification notification){
+        if(closed){
+            return(0);
+        }
+        Instant now = Instant.now();
+        if(firstNotificationInstant == null){
+            firstNotificationInstant = now;
+        }
+        lastNotificationInstant = now;
+        notificationCount += 1;
+        if(sampleList.size() < maximumSampleCount){
+            sampleList.add(notification);
+        }
+        return(notificationCount);
+    }
+
+    /**
+     * Closes the window, after which it accepts no more notifications.
+     */
+    public synchronized void close(){
+        this.closed = true;
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    public String getWindowKey() {
+        return windowKey;
+    }
+
+    public synchronized List<PetasosComponentITOpsNotification> getSampleList() {
+        List<PetasosComponentITOpsNotification> samples = new ArrayList<>(sampleList);
+        return(samples);
+    }
+
+    public synchronized long getNotificationCount() {
+        return notificationCount;
+    }
+
+    public synchronized Instant getFirstNotificationInstant() {
+        return firstNotificationInstant;
+    }
+
+    public synchronized Instant getLastNotificationInstant() {
+        return lastNotificationInstant;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public synchronized String toString() {
+        return "ITOpsNotificationCoalescingWindow{" +
+                "windowKey='" + windowKey + '\'' +
+                ", notificationCount=" + notificationCount +
+                ", sampleCount=" + sampleList.size() +
+                ", firstNotificationInstant=" + firstNotificationInstant +
+                ", lastNotificationInstant=" + lastNotificationInstant +
+                ", closed=" + closed +
+                '}';
+    }
+}
@@ -37,14 +37,14 @@ import net.fhirfactory.pegacorn.petasos.endpoints.technologies.datatypes.Petasos
 import net.fhirfactory.pegacorn.petasos.endpoints.services.metrics.PetasosOAMMetricsEndpointBase;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @ApplicationScoped
 public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBase
@@ -55,6 +55,8 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
         PetasosITOpsTaskReportingBrokerInterface {
     private static final Logger LOG = LoggerFactory.getLogger(PetasosOAMMetricsAgentEndpoint.class);
 
+    private volatile boolean batchNotificationsSupported;
+
     @Inject
     private PetasosTopologyReportingServiceProviderNameInterface topologyReportingProvider;
 
@@ -64,6 +66,7 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
 
     public PetasosOAMMetricsAgentEndpoint(){
         super();
+        this.batchNotificationsSupported = true;
     }
 
     //
@@ -109,8 +112,7 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
             classSet[0] = PetasosComponentMetricSet.class;
             objectSet[1] = myIntegrationPoint;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            Instant response = getRPCDispatcher().callRemoteMethod(targetAddress, "captureMetrics", objectSet, classSet, requestOptions);
+            Instant response = callRemoteMethod(targetAddress, "captureMetrics", objectSet, classSet);
             getLogger().debug(".replicateMetricSetToServer(): Exit, response->{}", response);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getProcessingPlantMetricsAgent().touchLastActivityInstant();
@@ -148,8 +150,7 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
             classSet[0] = PetasosComponentMetric.class;
             objectSet[1] = myIntegrationPoint;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            Instant responseInstant = getRPCDispatcher().callRemoteMethod(targetAddress, "captureMetric", objectSet, classSet, requestOptions);
+            Instant responseInstant = callRemoteMethod(targetAddress, "captureMetric", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".replicateMetricToServer(): Exit, responseInstant->{}", responseInstant);
             return(responseInstant);
@@ -185,8 +186,7 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
             classSet[0] = PetasosSubscriptionSummaryReport.class;
             objectSet[1] = myIntegrationPoint;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            Instant responseInstant = getRPCDispatcher().callRemoteMethod(targetAddress, "replicateSubscriptionSummaryReportHandler", objectSet, classSet, requestOptions);
+            Instant responseInstant = callRemoteMethod(targetAddress, "replicateSubscriptionSummaryReportHandler", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".shareLocalSubscriptionSummaries(): Exit, responseInstant->{}", responseInstant);
             return(responseInstant);
@@ -226,8 +226,7 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
             classSet[0] = PetasosMonitoredTopologyGraph.class;
             objectSet[1] = myIntegrationPoint;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            Instant responseInstant = getRPCDispatcher().callRemoteMethod(targetAddress, "topologyGraphHandler", objectSet, classSet, requestOptions);
+            Instant responseInstant = callRemoteMethod(targetAddress, "topologyGraphHandler", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".shareLocalTopologyGraph(): Exit, responseInstant->{}", responseInstant);
             return(responseInstant);
@@ -251,6 +250,7 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
     @Override
     public void sendNotification(PetasosComponentITOpsNotification notification) {
         getLogger().debug(".sendNotification(): Entry, notification->{}", notification);
+        notification.renderContent();
         JGroupsIntegrationPointSummary myIntegrationPoint = createSummary(getJGroupsIntegrationPoint());
         Address targetAddress = getCandidateTargetServiceAddress(topologyReportingProvider.getPetasosTopologyReportingServiceProviderName());
         if(targetAddress == null){
@@ -264,8 +264,7 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
             classSet[0] = PetasosComponentITOpsNotification.class;
             objectSet[1] = myIntegrationPoint;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            getRPCDispatcher().callRemoteMethod(targetAddress, "receiveNotification", objectSet, classSet, requestOptions);
+            callRemoteMethod(targetAddress, "receiveNotification", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".sendNotification(): Exit, responseInstant");
             return;
@@ -283,6 +282,62 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
         }
     }
 
+    /**
+     * Sends a batch of notifications to the ITOps server in a single RPC. If the server doesn't (yet) support the
+     * batch handler, the notifications are sent one-by-one (and the batch handler isn't tried again).
+     *
+     * @param notificationList the notifications to send
+     */
+    @Override
+    public void sendNotifications(List<PetasosComponentITOpsNotification> notificationList) {
+        getLogger().debug(".sendNotifications(): Entry, notificationList.size->{}", (notificationList == null ? 0 : notificationList.size()));
+        if(notificationList == null || notificationList.isEmpty()){
+            getLogger().debug(".sendNotifications(): Exit, nothing to send");
+            return;
+        }
+        if(!batchNotificationsSupported || notificationList.size() == 1){
+            for(PetasosComponentITOpsNotification currentNotification: notificationList){
+                sendNotification(currentNotification);
+            }
+            getLogger().debug(".sendNotifications(): Exit, sent individually");
+            return;
+        }
+        JGroupsIntegrationPointSummary myIntegrationPoint = createSummary(getJGroupsIntegrationPoint());
+        Address targetAddress = getCandidateTargetServiceAddress(topologyReportingProvider.getPetasosTopologyReportingServiceProviderName());
+        if(targetAddress == null){
+            for(PetasosComponentITOpsNotification currentNotification: notificationList) {
+                getLogger().warn(".sendNotifications(): ITOpsServer Unreachable: Fallback Logging Of Notification: Participant->{}, message->{}", currentNotification.getParticipantName(), currentNotification.getContent());
+            }
+            return;
+        }
+        try {
+            Object objectSet[] = new Object[2];
+            Class classSet[] = new Class[2];
+            objectSet[0] = new ArrayList<>(notificationList);
+            classSet[0] = List.class;
+            objectSet[1] = myIntegrationPoint;
+            classSet[1] = JGroupsIntegrationPointSummary.class;
+            callRemoteMethod(targetAddress, "receiveNotifications", objectSet, classSet);
+            getMetricsAgent().incrementRemoteProcedureCallCount();
+            getLogger().debug(".sendNotifications(): Exit, batch sent");
+            return;
+        } catch (NoSuchMethodException e) {
+            getLogger().warn(".sendNotifications(): ITOpsServer does not support batched notifications, reverting to individual delivery");
+            batchNotificationsSupported = false;
+            for(PetasosComponentITOpsNotification currentNotification: notificationList){
+                sendNotification(currentNotification);
+            }
+            return;
+        } catch (Exception e) {
+            getMetricsAgent().incrementRemoteProcedureCallFailureCount();
+            getLogger().error(".sendNotifications(): Error (GeneralException) ->{}", e.getMessage());
+            for(PetasosComponentITOpsNotification currentNotification: notificationList) {
+                getLogger().error(".sendNotifications(): Error (GeneralException): Fallback Logging Of Notification: Participant->{}, message->{}", currentNotification.getParticipantName(), currentNotification.getContent());
+            }
+            return;
+        }
+    }
+
     //
     // TaskReport Service
     //
@@ -304,8 +359,7 @@ public class PetasosOAMMetricsAgentEndpoint extends PetasosOAMMetricsEndpointBas
             classSet[0] = PetasosComponentITOpsNotification.class;
             objectSet[1] = myIntegrationPoint;
             classSet[1] = JGroupsIntegrationPointSummary.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            getRPCDispatcher().callRemoteMethod(targetAddress, "processTaskReport", objectSet, classSet, requestOptions);
+            callRemoteMethod(targetAddress, "processTaskReport", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".sendTaskReport(): Exit, responseInstant");
             return;
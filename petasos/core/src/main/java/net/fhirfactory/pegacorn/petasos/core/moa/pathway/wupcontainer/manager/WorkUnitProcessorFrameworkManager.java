@@ -51,6 +51,11 @@ import java.util.Locale;
 public class WorkUnitProcessorFrameworkManager {
     private static final Logger LOG = LoggerFactory.getLogger(WorkUnitProcessorFrameworkManager.class);
 
+    //
+    // Set to "true" (on the WUP or on the ProcessingPlant) to run the WUP container's framework steps as a single,
+    // fused processor chain (see StandardWUPContainerRoute.configureFusedFramework())
+    public static final String WUP_FRAMEWORK_FUSED_MODE_PARAMETER_NAME = "WUP_FRAMEWORK_FUSED_MODE";
+
     @Inject
     private CamelContext camelctx;
 
@@ -69,7 +74,7 @@ public class WorkUnitProcessorFrameworkManager {
             switch (wupArchetype) {
                 case WUP_NATURE_STIMULI_TRIGGERED_WORKFLOW: {
                     LOG.trace(".buildWUPFramework(): Building a WUP_NATURE_STIMULI_TRIGGERED_BEHAVIOUR route");
-                    StandardWUPContainerRoute standardWUPRoute = new StandardWUPContainerRoute(camelctx, wupNode, auditBroker, false, getSedaParameters(), metricsAgent);
+                    StandardWUPContainerRoute standardWUPRoute = new StandardWUPContainerRoute(camelctx, wupNode, auditBroker, false, getSedaParameters(), metricsAgent, isFusedFrameworkEnabled(wupNode));
                     LOG.trace(".buildWUPFramework(): Route created, now adding it to he CamelContext!");
                     camelctx.addRoutes(standardWUPRoute);
                     break;
@@ -83,14 +88,14 @@ public class WorkUnitProcessorFrameworkManager {
                 case WUP_NATURE_LADON_BEHAVIOUR_WRAPPER:
                 case WUP_NATURE_LADON_STANDARD_MOA: {
                     LOG.trace(".buildWUPFramework(): Building a WUP_NATURE_LADON_STANDARD_MOA route");
-                    StandardWUPContainerRoute standardWUPRoute = new StandardWUPContainerRoute(camelctx, wupNode, auditBroker, true, getSedaParameters(), metricsAgent);
+                    StandardWUPContainerRoute standardWUPRoute = new StandardWUPContainerRoute(camelctx, wupNode, auditBroker, true, getSedaParameters(), metricsAgent, isFusedFrameworkEnabled(wupNode));
                     LOG.trace(".buildWUPFramework(): Route created, now adding it to he CamelContext!");
                     camelctx.addRoutes(standardWUPRoute);
                     break;
                 }
                 case WUP_NATURE_MESSAGE_WORKER: {
                     LOG.trace(".buildWUPFramework(): Building a WUP_NATURE_MESSAGE_WORKER route");
-                    StandardWUPContainerRoute standardWUPRoute = new StandardWUPContainerRoute(camelctx, wupNode, auditBroker, metricsAgent);
+                    StandardWUPContainerRoute standardWUPRoute = new StandardWUPContainerRoute(camelctx, wupNode, auditBroker, false, null, metricsAgent, isFusedFrameworkEnabled(wupNode));
                     LOG.trace(".buildWUPFramework(): Route created, now adding it to he CamelContext!");
                     camelctx.addRoutes(standardWUPRoute);
                     break;
@@ -113,7 +118,7 @@ public class WorkUnitProcessorFrameworkManager {
                     break;
                 case WUP_NATURE_MESSAGE_EXTERNAL_EGRESS_POINT: {
                     LOG.trace(".buildWUPFramework(): Building a WUP_NATURE_MESSAGE_EXTERNAL_EGRESS_POINT route");
-                    StandardWUPContainerRoute standardWUPRoute = new StandardWUPContainerRoute(camelctx, wupNode, auditBroker, false, getSedaParameters(), metricsAgent);
+                    StandardWUPContainerRoute standardWUPRoute = new StandardWUPContainerRoute(camelctx, wupNode, auditBroker, false, getSedaParameters(), metricsAgent, isFusedFrameworkEnabled(wupNode));
                     camelctx.addRoutes(standardWUPRoute);
                     break;
                 }
@@ -148,4 +153,14 @@ public class WorkUnitProcessorFrameworkManager {
         String sedaParameters = "?blockWhenFull="+sedaBlockOnFull.toLowerCase(Locale.ROOT);
         return(sedaParameters);
     }
+
+    private boolean isFusedFrameworkEnabled(WorkUnitProcessorSoftwareComponent wupNode){
+        String fusedMode = wupNode.getOtherConfigurationParameter(WUP_FRAMEWORK_FUSED_MODE_PARAMETER_NAME);
+        if(StringUtils.isEmpty(fusedMode)){
+            fusedMode = processingPlant.getMeAsASoftwareComponent().getOtherConfigurationParameter(WUP_FRAMEWORK_FUSED_MODE_PARAMETER_NAME);
+        }
+        boolean fusedModeEnabled = Boolean.parseBoolean(fusedMode);
+        LOG.debug(".isFusedFrameworkEnabled(): wupNode->{}, fusedModeEnabled->{}", wupNode.getComponentID(), fusedModeEnabled);
+        return(fusedModeEnabled);
+    }
 }
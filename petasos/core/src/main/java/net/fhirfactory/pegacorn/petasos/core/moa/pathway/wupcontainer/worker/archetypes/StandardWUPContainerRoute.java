@@ -29,13 +29,21 @@ import net.fhirfactory.pegacorn.petasos.core.moa.pathway.common.BasePetasosConta
 import net.fhirfactory.pegacorn.petasos.core.moa.pathway.naming.RouteElementNames;
 import net.fhirfactory.pegacorn.petasos.core.moa.pathway.wupcontainer.worker.buildingblocks.*;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.agents.WorkUnitProcessorMetricsAgent;
+import net.fhirfactory.pegacorn.petasos.core.tasks.accessors.PetasosFulfillmentTaskSharedInstance;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.Processor;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
+import org.apache.camel.support.AsyncProcessorSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
 /**
  * @author Mark A. Hunter
  * @since 2020-07-1
@@ -50,6 +58,7 @@ public class StandardWUPContainerRoute extends BasePetasosContainerRoute {
 	private WorkUnitProcessorSoftwareComponent wupTopologyNode;
 	private RouteElementNames nameSet;
 	private WorkUnitProcessorMetricsAgent metricsAgent;
+	private boolean fusedFramework;
 
 	//
 	// Constructor(s)
@@ -71,6 +80,11 @@ public class StandardWUPContainerRoute extends BasePetasosContainerRoute {
 		this.metricsAgent = metricsAgent;
 	}
 
+	public StandardWUPContainerRoute(CamelContext camelCTX, WorkUnitProcessorSoftwareComponent wupTopologyNode, PetasosFulfillmentTaskAuditServicesBroker auditTrailBroker, boolean requiresDirect, String sedaParameters, WorkUnitProcessorMetricsAgent metricsAgent, boolean fusedFramework) {
+		this(camelCTX, wupTopologyNode, auditTrailBroker, requiresDirect, sedaParameters, metricsAgent);
+		this.fusedFramework = fusedFramework;
+	}
+
 	//
 	// Business Methods (Routes)
 	//
@@ -92,12 +106,18 @@ public class StandardWUPContainerRoute extends BasePetasosContainerRoute {
 		specifyCamelExecutionExceptionHandler();
 
 		NodeDetailInjector nodeDetailInjector = new NodeDetailInjector();
+		IngresContentAsyncProcessor ingresContentAsyncProcessor = new IngresContentAsyncProcessor();
+
+		if(isFusedFramework()){
+			configureFusedFramework(nodeDetailInjector, ingresContentAsyncProcessor);
+			return;
+		}
 
 		fromWithStandardExceptionHandling(nameSet.getEndPointWUPContainerIngresProcessorIngres())
 				.routeId(nameSet.getRouteWUPContainerIngressProcessor())
 				.log(LoggingLevel.DEBUG, "Processing Task->${body}")
 				.process(nodeDetailInjector)
-				.bean(WUPContainerIngresProcessor.class, "ingresContentProcessor(*, Exchange)")
+				.process(ingresContentAsyncProcessor)
 				.to(nameSet.getEndPointWUPContainerIngresProcessorEgress());
 
 		fromWithStandardExceptionHandling(nameSet.getEndPointWUPContainerIngresProcessorEgress())
@@ -143,6 +163,45 @@ public class StandardWUPContainerRoute extends BasePetasosContainerRoute {
 
 	}
 
+	/**
+	 * Builds the "fused" form of the container: the framework steps either side of the WUP run as a single processor
+	 * chain on the consuming thread, rather than as a chain of separate routes joined by direct endpoints. Queueing
+	 * is left only at the container ingres (the WUPContainer.IngresProcessor.Ingres endpoint), at the WUP boundary,
+	 * and at the task outcome collection queue.
+	 *
+	 * The exchange properties are injected once on each side of the WUP, rather than at every step. As with the
+	 * standard form, the chain after the ingres processor resumes on that processor's continuation pool.
+	 *
+	 * @param nodeDetailInjector the injector for the WUP topology node & metrics agent exchange properties
+	 * @param ingresContentAsyncProcessor the (asynchronous) ingres processor
+	 */
+	protected void configureFusedFramework(NodeDetailInjector nodeDetailInjector, IngresContentAsyncProcessor ingresContentAsyncProcessor){
+		getLogger().debug(".configureFusedFramework(): Entry, wupNode --> {}", this.wupTopologyNode);
+
+		fromWithStandardExceptionHandling(nameSet.getEndPointWUPContainerIngresProcessorIngres())
+				.routeId(nameSet.getRouteWUPContainerIngressProcessor())
+				.log(LoggingLevel.DEBUG, "Processing Task->${body}")
+				.process(nodeDetailInjector)
+				.process(ingresContentAsyncProcessor)
+				.choice()
+					.when(method(WUPContainerIngresGatekeeper.class, "isToBeForwardedIntoWUP(*, Exchange)"))
+						.bean(WUPIngresConduit.class, "forwardIntoWUP(*, Exchange)")
+						.to(nameSet.getEndPointWUPIngres())
+					.otherwise()
+						.to(PetasosPropertyConstants.TASK_OUTCOME_COLLECTION_QUEUE)
+				.end();
+
+		fromWithStandardExceptionHandling(nameSet.getEndPointWUPEgress())
+				.routeId(nameSet.getRouteWUPEgress2WUPEgressConduitEgress())
+				.process(nodeDetailInjector)
+				.bean(WUPEgressConduit.class, "receiveFromWUP(*, Exchange)")
+				.bean(WUPContainerEgressProcessor.class, "egressContentProcessor(*, Exchange)")
+				.bean(WUPContainerEgressGatekeeper.class, "egressGatekeeper(*, Exchange)")
+				.to(PetasosPropertyConstants.TASK_OUTCOME_COLLECTION_QUEUE);
+
+		getLogger().debug(".configureFusedFramework(): Exit");
+	}
+
 	//
 	// Content Injectors
 	//
@@ -165,6 +224,79 @@ public class StandardWUPContainerRoute extends BasePetasosContainerRoute {
 		}
 	}
 
+	//
+	// Asynchronous Processors
+	//
+
+	/**
+	 * Hands the Exchange to WUPContainerIngresProcessor.ingresContentProcessorAsync() so that the ingres consumer
+	 * thread isn't held while the task waits for execution privileges. Once privileges are granted (or the task is
+	 * cancelled) the Exchange is resumed on a Camel-managed continuation pool - not on the thread that completed the
+	 * wait, which would otherwise run the rest of the (direct: chained or fused) route, and so the WUP itself, on a
+	 * privilege worker.
+	 */
+	protected class IngresContentAsyncProcessor extends AsyncProcessorSupport {
+		private WUPContainerIngresProcessor ingresProcessor;
+		private ExecutorService continuationExecutor;
+
+		@Override
+		public boolean process(Exchange exchange, AsyncCallback callback) {
+			getLogger().debug("IngresContentAsyncProcessor.process(): Entry");
+			CompletableFuture<PetasosFulfillmentTaskSharedInstance> ingresFuture;
+			try {
+				PetasosFulfillmentTaskSharedInstance fulfillmentTask = exchange.getIn().getBody(PetasosFulfillmentTaskSharedInstance.class);
+				ingresFuture = getIngresProcessor(exchange).ingresContentProcessorAsync(fulfillmentTask, exchange);
+			} catch (Exception ex) {
+				exchange.setException(ex);
+				callback.done(true);
+				return (true);
+			}
+			if (ingresFuture.isDone()) {
+				completeExchange(exchange, ingresFuture);
+				callback.done(true);
+				return (true);
+			}
+			ingresFuture.whenCompleteAsync((fulfillmentTask, error) -> {
+				completeExchange(exchange, ingresFuture);
+				callback.done(false);
+			}, getContinuationExecutor(exchange));
+			return (false);
+		}
+
+		private void completeExchange(Exchange exchange, CompletableFuture<PetasosFulfillmentTaskSharedInstance> ingresFuture){
+			try {
+				exchange.getIn().setBody(ingresFuture.join());
+			} catch (CompletionException ex) {
+				exchange.setException(ex.getCause() != null ? ex.getCause() : ex);
+			} catch (Exception ex) {
+				exchange.setException(ex);
+			}
+		}
+
+		private WUPContainerIngresProcessor getIngresProcessor(Exchange exchange){
+			if(this.ingresProcessor == null){
+				this.ingresProcessor = exchange.getContext().getRegistry().findSingleByType(WUPContainerIngresProcessor.class);
+			}
+			return(this.ingresProcessor);
+		}
+
+		private synchronized ExecutorService getContinuationExecutor(Exchange exchange){
+			if(this.continuationExecutor == null){
+				// Unbounded queue, so a continuation is never rejected back onto the completing thread
+				int poolSize = exchange.getContext().getExecutorServiceManager().getDefaultThreadPoolProfile().getPoolSize();
+				this.continuationExecutor = exchange.getContext().getExecutorServiceManager().newThreadPool(this,
+						nameSet.getRouteWUPContainerIngressProcessor() + ".Continuation",
+						new ThreadPoolProfileBuilder(nameSet.getRouteWUPContainerIngressProcessor() + ".Continuation")
+								.poolSize(poolSize)
+								.maxPoolSize(poolSize)
+								.maxQueueSize(-1)
+								.allowCoreThreadTimeOut(true)
+								.build());
+			}
+			return(this.continuationExecutor);
+		}
+	}
+
 	//
 	// Getters (and Setters)
 	//
@@ -180,4 +312,8 @@ public class StandardWUPContainerRoute extends BasePetasosContainerRoute {
 	protected RouteElementNames getNameSet() {
 		return nameSet;
 	}
+
+	public boolean isFusedFramework() {
+		return fusedFramework;
+	}
 }
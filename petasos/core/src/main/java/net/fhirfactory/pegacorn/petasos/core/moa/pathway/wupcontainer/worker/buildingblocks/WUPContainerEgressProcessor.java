@@ -97,6 +97,7 @@ public class WUPContainerEgressProcessor {
                 metricsAgent.touchLastActivityFinishInstant();
                 createFailureNotification = true;
         }
+        metricsAgent.recordTaskProcessingDuration(fulfillmentTask.getTaskFulfillment().getStartInstant(), fulfillmentTask.getTaskFulfillment().getFinishInstant());
         fulfillmentTask.update();
         metricsAgent.touchLastActivityInstant();
 
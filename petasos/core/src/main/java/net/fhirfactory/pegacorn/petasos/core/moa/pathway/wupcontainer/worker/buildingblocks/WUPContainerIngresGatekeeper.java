@@ -65,16 +65,12 @@ public class WUPContainerIngresGatekeeper {
         // Get Route Names
         TopologyNodeFunctionFDNToken wupToken = fulfillmentTask.getTaskFulfillment().getFulfillerWorkUnitProcessor().getNodeFunctionFDN().getFunctionToken();
         getLogger().trace(".ingresGatekeeper(): wupFunctionToken (NodeElementFunctionToken) for this activity --> {}", wupToken);
-        //
-        // Get out metricsAgent & do add some metrics
-        WorkUnitProcessorMetricsAgent metricsAgent = camelExchange.getProperty(PetasosPropertyConstants.WUP_METRICS_AGENT_EXCHANGE_PROPERTY, WorkUnitProcessorMetricsAgent.class);
         // Now, continue with business logic
         RouteElementNames nameSet = new RouteElementNames(wupToken);
         ArrayList<String> targetList = new ArrayList<String>();
         getLogger().trace(".ingresGatekeeper(): So, we will now determine if the Packet should be forwarded or discarded");
-        if (fulfillmentTask.getTaskFulfillment().isToBeDiscarded()) {
+        if (!isToBeForwardedIntoWUP(fulfillmentTask, camelExchange)) {
             getLogger().debug(".ingresGatekeeper(): Returning null, as message is to be discarded (isToBeDiscarded == true)");
-            metricsAgent.touchLastActivityFinishInstant();
             targetList.add(PetasosPropertyConstants.TASK_OUTCOME_COLLECTION_QUEUE);
             return (targetList);
         } else {
@@ -85,4 +81,21 @@ public class WUPContainerIngresGatekeeper {
             return (targetList);
         }
     }
+
+    /**
+     * Checks whether the task is to be passed into the WUP, or is to be discarded (sent straight to the task outcome
+     * collection queue) because WUPJobCard.isToBeDiscarded is set.
+     *
+     * @param fulfillmentTask The PetasosFulfillmentTask that is about to be forwarded into the WUP
+     * @param camelExchange The Apache Camel Exchange object, holding the WUP's metrics agent
+     * @return true if the task should be forwarded into the WUP, false if it is to be discarded
+     */
+    public boolean isToBeForwardedIntoWUP(PetasosFulfillmentTaskSharedInstance fulfillmentTask, Exchange camelExchange) {
+        if (fulfillmentTask.getTaskFulfillment().isToBeDiscarded()) {
+            WorkUnitProcessorMetricsAgent metricsAgent = camelExchange.getProperty(PetasosPropertyConstants.WUP_METRICS_AGENT_EXCHANGE_PROPERTY, WorkUnitProcessorMetricsAgent.class);
+            metricsAgent.touchLastActivityFinishInstant();
+            return (false);
+        }
+        return (true);
+    }
 }
@@ -48,11 +48,15 @@ import javax.inject.Inject;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @ApplicationScoped
 public class WUPContainerIngresProcessor {
     private static final Logger LOG = LoggerFactory.getLogger(WUPContainerIngresProcessor.class);
 
+    private static final long EXECUTION_PRIVILEGE_WAIT_TIMEOUT_MILLISECONDS = 5000L;
+
     private DateTimeFormatter timeFormatter;
 
     @Inject
@@ -114,8 +118,8 @@ public class WUPContainerIngresProcessor {
      * assign a "failed" status to both the WUPJobCard and ParcelStatusElement, and trigger a discard of this Parcel (for a retry) via setting the
      * WUPJobCard.isToBeDiscarded attribute to true.
      *
-     * Finally, if all is going OK, but this WUP-Thread does not have the Cluster Focus (or SystemWide Focus), it waits in a sleep/loop until a condition
-     * changes.
+     * Finally, if all is going OK, but this WUP-Thread does not have the Cluster Focus (or SystemWide Focus), it waits until a condition
+     * changes (see ingresContentProcessorAsync()).
      *
      * @param fulfillmentTask The WorkUnitTransportPacket that is to be forwarded to the Intersection (if all is OK)
      * @param camelExchange The Apache Camel Exchange object, used to store a Semaphors and Attributes
@@ -125,18 +129,60 @@ public class WUPContainerIngresProcessor {
         if(getLogger().isInfoEnabled()) {
             getLogger().info(".ingresContentProcessor(): Entry, fulfillmentTaskId/ActionableTaskId->{}/{}", fulfillmentTask.getTaskId(), fulfillmentTask.getActionableTaskId());
         }
+        try {
+            return (ingresContentProcessorAsync(fulfillmentTask, camelExchange).join());
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw ((RuntimeException) ex.getCause());
+            }
+            throw ex;
+        }
+    }
 
-        //
-        // Now, set out wait-loop sleep period
-        long waitTime = PetasosPropertyConstants.WUP_SLEEP_INTERVAL_MILLISECONDS;
+    /**
+     * Asynchronous form of ingresContentProcessor(). Rather than sleeping between execution privilege requests, the
+     * thread registers interest in the PetasosTaskJobCard and is released: the returned future completes (on a
+     * ParticipantTaskExecutionController worker thread) once the task is granted execution privileges or is cancelled.
+     *
+     * @param fulfillmentTask The PetasosFulfillmentTask that is to be forwarded to the Intersection (if all is OK)
+     * @param camelExchange The Apache Camel Exchange object, used to store a Semaphors and Attributes
+     * @return A future holding the PetasosFulfillmentTask that is forwarded onto the WUP Ingres Gatekeeper.
+     */
+    public CompletableFuture<PetasosFulfillmentTaskSharedInstance> ingresContentProcessorAsync(PetasosFulfillmentTaskSharedInstance fulfillmentTask, Exchange camelExchange) {
+        getLogger().debug(".ingresContentProcessorAsync(): Entry, fulfillmentTaskId/ActionableTaskId->{}/{}", fulfillmentTask.getTaskId(), fulfillmentTask.getActionableTaskId());
+        WorkUnitProcessorMetricsAgent metricsAgent = registerIngresTask(fulfillmentTask, camelExchange);
+        CompletableFuture<PetasosFulfillmentTaskSharedInstance> ingresFuture = resolveExecutionPrivilege(fulfillmentTask)
+                .thenApply(willExecute -> {
+                    //
+                    // Write Some Metrics
+                    if(willExecute){
+                        getLogger().debug(".ingresContentProcessorAsync(): Will be executing!");
+                        metricsAgent.incrementStartedTasks();
+                        metricsAgent.touchLastActivityStartInstant();
+                        metricsAgent.recordTaskQueueWaitDuration(fulfillmentTask.getTaskFulfillment().getRegistrationInstant(), fulfillmentTask.getTaskFulfillment().getStartInstant());
+                    } else {
+                        metricsAgent.incrementCancelledTasks();
+                    }
+                    //
+                    // Do some Logging
+                    if(getLogger().isInfoEnabled()){
+                        getLogger().info(".ingresContentProcessorAsync(): Exit, fulfillmentTask.getTaskJobCard().getCurrentStatus()->{}", fulfillmentTask.getTaskJobCard().getCurrentStatus());
+                    }
+                    getLogger().debug(".ingresContentProcessorAsync(): Exit, newTransportPacket --> {}", fulfillmentTask);
+                    //
+                    // Now We are Doing!
+                    return (fulfillmentTask);
+                });
+        return(ingresFuture);
+    }
 
-        //
-        // Set our wait-loop check state
-        boolean waitState = true;
+    //
+    // Helpers
+    //
 
+    protected WorkUnitProcessorMetricsAgent registerIngresTask(PetasosFulfillmentTaskSharedInstance fulfillmentTask, Exchange camelExchange){
         TopologyNodeFunctionFDNToken wupFunctionToken = fulfillmentTask.getTaskFulfillment().getFulfillerWorkUnitProcessor().getNodeFunctionFDN().getFunctionToken();
-        getLogger().trace(".receiveFromWUP(): wupFunctionToken (NodeElementFunctionToken) for this activity --> {}", wupFunctionToken);
-
+        getLogger().trace(".registerIngresTask(): wupFunctionToken (NodeElementFunctionToken) for this activity --> {}", wupFunctionToken);
         //
         // Now, continue with business logic
         RouteElementNames elementNames = new RouteElementNames(wupFunctionToken);
@@ -150,117 +196,122 @@ public class WUPContainerIngresProcessor {
         metricsAgent.touchLastActivityInstant();
 
         //
-        // Add some notifications
+        // Add some notifications (only the values are captured here, the text is rendered if/when it is sent)
+        Instant receivedInstant = Instant.now();
+        String fulfillmentTaskId = fulfillmentTask.getTaskId().getId();
+        String actionableTaskId = fulfillmentTask.getActionableTaskId().getId();
+        UoWPayload payload = null;
+        if(fulfillmentTask.hasTaskWorkItem() && fulfillmentTask.getTaskWorkItem().hasIngresContent()) {
+            payload = fulfillmentTask.getTaskWorkItem().getIngresContent();
+        }
+        UoWPayload notificationPayload = payload;
+        metricsAgent.sendITOpsNotification(() -> buildIngresNotificationContent(receivedInstant, currentQueueSize, fulfillmentTaskId, actionableTaskId, notificationPayload));
+
+        //
+        // Write an AuditEvent
+        auditServicesBroker.logActivity(fulfillmentTask.getInstance());
+        return(metricsAgent);
+    }
+
+    protected ITOpsNotificationContent buildIngresNotificationContent(Instant receivedInstant, int currentQueueSize, String fulfillmentTaskId, String actionableTaskId, UoWPayload payload){
         ITOpsNotificationContent notificationContent = new ITOpsNotificationContent();
-        if(fulfillmentTask.hasTaskWorkItem()) {
-            if(fulfillmentTask.getTaskWorkItem().hasIngresContent()) {
-                UoWPayload payload = fulfillmentTask.getTaskWorkItem().getIngresContent();
-
-                StringBuilder unformattedMessageBuilder = new StringBuilder();
-                unformattedMessageBuilder.append("--- Received Task (PetasosFulfillmentTask): Ingres Queue Size: "+currentQueueSize+" ---");
-                unformattedMessageBuilder.append(" ("+ getTimeFormatter().format(Instant.now())+ ") ---\n");
-                unformattedMessageBuilder.append("Task ID (FulfillmentTask) --> " + fulfillmentTask.getTaskId().getId() + "\n");
-                unformattedMessageBuilder.append("Task ID (ActionableTask) --> " + fulfillmentTask.getActionableTaskId().getId() + "\n");
-                unformattedMessageBuilder.append(notificationContentFactory.newNotificationContentFromUoWPayload(payload));
-                notificationContent.setContent(unformattedMessageBuilder.toString());
-
-                StringBuilder formattedMessageBuilder = new StringBuilder();
-                formattedMessageBuilder.append("<table>");
-                formattedMessageBuilder.append("<tr>");
-                formattedMessageBuilder.append("<th>Ingres Task</th><th>"+getTimeFormatter().format(Instant.now())+", QueueSize:"+currentQueueSize+"</th>");
-                formattedMessageBuilder.append("</tr>");
-                formattedMessageBuilder.append("<tr>");
-                formattedMessageBuilder.append("<td>FulfillmentTaskId</td><td>"+fulfillmentTask.getTaskId().getId()+"</td>");
-                formattedMessageBuilder.append("</tr>");
-                formattedMessageBuilder.append("<tr>");
-                formattedMessageBuilder.append("<td>ActionableTask</td><td>"+fulfillmentTask.getActionableTaskId().getId()+"</td>");
-                formattedMessageBuilder.append("</tr>");
-                formattedMessageBuilder.append("<tr>");
-                formattedMessageBuilder.append("<td>Payload</td>"+notificationContentFactory.payloadTypeFromUoW(payload)+"</td>");
-                formattedMessageBuilder.append("</tr>");
-                formattedMessageBuilder.append("</table>");
-                notificationContent.setFormattedContent(formattedMessageBuilder.toString());
-            }
+        if(payload != null) {
+            String receivedTime = getTimeFormatter().format(receivedInstant);
+
+            StringBuilder unformattedMessageBuilder = new StringBuilder();
+            unformattedMessageBuilder.append("--- Received Task (PetasosFulfillmentTask): Ingres Queue Size: "+currentQueueSize+" ---");
+            unformattedMessageBuilder.append(" ("+ receivedTime + ") ---\n");
+            unformattedMessageBuilder.append("Task ID (FulfillmentTask) --> " + fulfillmentTaskId + "\n");
+            unformattedMessageBuilder.append("Task ID (ActionableTask) --> " + actionableTaskId + "\n");
+            unformattedMessageBuilder.append(notificationContentFactory.newNotificationContentFromUoWPayload(payload));
+            notificationContent.setContent(unformattedMessageBuilder.toString());
+
+            StringBuilder formattedMessageBuilder = new StringBuilder();
+            formattedMessageBuilder.append("<table>");
+            formattedMessageBuilder.append("<tr>");
+            formattedMessageBuilder.append("<th>Ingres Task</th><th>"+receivedTime+", QueueSize:"+currentQueueSize+"</th>");
+            formattedMessageBuilder.append("</tr>");
+            formattedMessageBuilder.append("<tr>");
+            formattedMessageBuilder.append("<td>FulfillmentTaskId</td><td>"+fulfillmentTaskId+"</td>");
+            formattedMessageBuilder.append("</tr>");
+            formattedMessageBuilder.append("<tr>");
+            formattedMessageBuilder.append("<td>ActionableTask</td><td>"+actionableTaskId+"</td>");
+            formattedMessageBuilder.append("</tr>");
+            formattedMessageBuilder.append("<tr>");
+            formattedMessageBuilder.append("<td>Payload</td>"+notificationContentFactory.payloadTypeFromUoW(payload)+"</td>");
+            formattedMessageBuilder.append("</tr>");
+            formattedMessageBuilder.append("</table>");
+            notificationContent.setFormattedContent(formattedMessageBuilder.toString());
         }
         if(StringUtils.isEmpty(notificationContent.getContent())){
             notificationContent.setContent("Task Received (Metadata) \n" +
-            "Task Id (FulfillmentTask)--> " + fulfillmentTask.getTaskId().getId() + "\n" +
-            "Task Id (ActionableTask)--> " + fulfillmentTask.getActionableTaskId().getId());
+            "Task Id (FulfillmentTask)--> " + fulfillmentTaskId + "\n" +
+            "Task Id (ActionableTask)--> " + actionableTaskId);
         }
-        metricsAgent.sendITOpsNotification(notificationContent.getContent(), notificationContent.getFormattedContent());
+        return(notificationContent);
+    }
 
-        //
-        // Write an AuditEvent
-        auditServicesBroker.logActivity(fulfillmentTask.getInstance());
-        //
-        // Now check status
-        boolean willExecute = false;
-        boolean willBeCancelled = false;
-        while (waitState) {
-            if(getLogger().isDebugEnabled()){
-                getLogger().debug(".ingresContentProcessor(): jobCard.getCurrentStatus --> {}",fulfillmentTask.getTaskJobCard().getCurrentStatus());
-            }
-            //
-            // A bit of defensive programming //TODO Find out why this is needed
-            if(fulfillmentTask.getExecutionStatus() == null){
-                fulfillmentTask.setExecutionStatus(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING);
-            }
-            if(fulfillmentTask.getExecutionStatus().equals(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING)){
-                PetasosTaskExecutionStatusEnum petasosTaskExecutionStatusEnum = fulfillmentActivityController.requestFulfillmentTaskExecutionPrivilege(fulfillmentTask);
-                if (petasosTaskExecutionStatusEnum == PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_EXECUTING) {
-                    fulfillmentTask.setExecutionStatus(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_EXECUTING);
-                    fulfillmentTask.setUpdateInstant(Instant.now());
-                    fulfillmentTask.getTaskFulfillment().setStartInstant(Instant.now());
-                    fulfillmentTask.getTaskFulfillment().setStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_ACTIVE);
-                    fulfillmentTask.getTaskFulfillment().setToBeDiscarded(false);
-                    fulfillmentTask.update();
-                    fulfillmentActivityController.notifyFulfillmentTaskExecutionStart(fulfillmentTask);
-                    waitState = false;
-                    willExecute = true;
-                    break;
-                }
-            } else {
-                fulfillmentTask.setExecutionStatus(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_CANCELLED);
-                fulfillmentTask.setUpdateInstant(Instant.now());
-                fulfillmentTask.getTaskFulfillment().setStartInstant(Instant.now());
-                fulfillmentTask.getTaskFulfillment().setStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_CANCELLED);
-                fulfillmentActivityController.notifyFulfillmentTaskExecutionCancellation(fulfillmentTask);
-                fulfillmentTask.getTaskFulfillment().setToBeDiscarded(true);
-                if(getLogger().isDebugEnabled()) {
-                    getLogger().debug(".ingresContentProcessor(): jobcard->{}", fulfillmentTask.getTaskJobCard());
-                }
-                waitState = false;
-                willBeCancelled = true;
-            }
-            if (waitState) {
-                try {
-                    Thread.sleep(waitTime);
-                } catch (InterruptedException e) {
-                    getLogger().trace(".ingresContentProcessor(): Something interrupted my nap! reason --> {}", e.getMessage());
-                }
-            }
-            if(getLogger().isInfoEnabled()){
-                getLogger().debug(".ingresContentProcessor(): Looping, current fulfillmentTask.getTaskJobCard().getCurrentStatus()->{}", fulfillmentTask.getTaskJobCard().getCurrentStatus());
-            }
+    /**
+     * Requests execution privileges until the task is either granted them or is cancelled. Each request waits (without
+     * holding a thread) for up to EXECUTION_PRIVILEGE_WAIT_TIMEOUT_MILLISECONDS for the PetasosTaskJobCard to change,
+     * and then the task's own execution status is re-checked before asking again.
+     *
+     * @param fulfillmentTask the PetasosFulfillmentTask awaiting execution
+     * @return a future holding true if the task is to be executed, false if it has been cancelled
+     */
+    protected CompletableFuture<Boolean> resolveExecutionPrivilege(PetasosFulfillmentTaskSharedInstance fulfillmentTask){
+        if(getLogger().isDebugEnabled()){
+            getLogger().debug(".resolveExecutionPrivilege(): jobCard.getCurrentStatus --> {}",fulfillmentTask.getTaskJobCard().getCurrentStatus());
         }
         //
-        // Write Some Metrics
-        if(willExecute){
-            getLogger().debug(".ingresContentProcessor(): Will be executing!");
-            metricsAgent.incrementStartedTasks();
-            metricsAgent.touchLastActivityStartInstant();
+        // A bit of defensive programming //TODO Find out why this is needed
+        if(fulfillmentTask.getExecutionStatus() == null){
+            fulfillmentTask.setExecutionStatus(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING);
         }
-        if(willBeCancelled){
-            metricsAgent.incrementCancelledTasks();
+        if(!fulfillmentTask.getExecutionStatus().equals(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING)){
+            cancelTask(fulfillmentTask);
+            return(CompletableFuture.completedFuture(false));
         }
-        //
-        // Do some Logging
-        if(getLogger().isInfoEnabled()){
-            getLogger().info(".ingresContentProcessor(): Exit, fulfillmentTask.getTaskJobCard().getCurrentStatus()->{}", fulfillmentTask.getTaskJobCard().getCurrentStatus());
+        CompletableFuture<Boolean> willExecuteFuture = fulfillmentActivityController.requestFulfillmentTaskExecutionPrivilegeAsync(fulfillmentTask, EXECUTION_PRIVILEGE_WAIT_TIMEOUT_MILLISECONDS)
+                .thenCompose(petasosTaskExecutionStatusEnum -> {
+                    switch (petasosTaskExecutionStatusEnum) {
+                        case PETASOS_TASK_ACTIVITY_STATUS_EXECUTING: {
+                            startTask(fulfillmentTask);
+                            return (CompletableFuture.completedFuture(true));
+                        }
+                        case PETASOS_TASK_ACTIVITY_STATUS_WAITING: {
+                            getLogger().debug(".resolveExecutionPrivilege(): Still waiting, current fulfillmentTask.getTaskJobCard().getCurrentStatus()->{}", fulfillmentTask.getTaskJobCard().getCurrentStatus());
+                            return (resolveExecutionPrivilege(fulfillmentTask));
+                        }
+                        default: {
+                            // The PetasosTaskJobCard is no longer executable by anyone, so there is nothing to wait for
+                            cancelTask(fulfillmentTask);
+                            return (CompletableFuture.completedFuture(false));
+                        }
+                    }
+                });
+        return(willExecuteFuture);
+    }
+
+    protected void startTask(PetasosFulfillmentTaskSharedInstance fulfillmentTask){
+        fulfillmentTask.setExecutionStatus(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_EXECUTING);
+        fulfillmentTask.setUpdateInstant(Instant.now());
+        fulfillmentTask.getTaskFulfillment().setStartInstant(Instant.now());
+        fulfillmentTask.getTaskFulfillment().setStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_ACTIVE);
+        fulfillmentTask.getTaskFulfillment().setToBeDiscarded(false);
+        fulfillmentTask.update();
+        fulfillmentActivityController.notifyFulfillmentTaskExecutionStart(fulfillmentTask);
+    }
+
+    protected void cancelTask(PetasosFulfillmentTaskSharedInstance fulfillmentTask){
+        fulfillmentTask.setExecutionStatus(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_CANCELLED);
+        fulfillmentTask.setUpdateInstant(Instant.now());
+        fulfillmentTask.getTaskFulfillment().setStartInstant(Instant.now());
+        fulfillmentTask.getTaskFulfillment().setStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_CANCELLED);
+        fulfillmentActivityController.notifyFulfillmentTaskExecutionCancellation(fulfillmentTask);
+        fulfillmentTask.getTaskFulfillment().setToBeDiscarded(true);
+        if(getLogger().isDebugEnabled()) {
+            getLogger().debug(".cancelTask(): jobcard->{}", fulfillmentTask.getTaskJobCard());
         }
-        getLogger().debug(".ingresContentProcessor(): Exit, newTransportPacket --> {}", fulfillmentTask);
-        //
-        // Now We are Doing!
-        return (fulfillmentTask);
     }
 }
@@ -23,11 +23,11 @@
 package net.fhirfactory.pegacorn.petasos.core.moa.pathway.wupcontainer.worker.buildingblocks;
 
 import net.fhirfactory.pegacorn.core.constants.petasos.PetasosPropertyConstants;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.work.datatypes.TaskWorkItemType;
 import net.fhirfactory.pegacorn.core.model.petasos.uow.UoW;
 import net.fhirfactory.pegacorn.petasos.core.moa.pathway.naming.PetasosPathwayExchangePropertyNames;
 import net.fhirfactory.pegacorn.petasos.core.tasks.accessors.PetasosFulfillmentTaskSharedInstance;
 import org.apache.camel.Exchange;
-import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,8 +65,8 @@ public class WUPIngresConduit {
         }
         getLogger().debug(".forwardIntoWUP(): Entry, fulfillmentTask->{}", fulfillmentTask);
         //
-        // Extract and Clone the UoW
-        UoW theUoW = SerializationUtils.clone(fulfillmentTask.getTaskWorkItem());
+        // Extract and Copy the UoW
+        UoW theUoW = new TaskWorkItemType(fulfillmentTask.getTaskWorkItem());
         //
         // Inject the fulfillment task into the Camel Exchange for extraction on the other side of the WUP
         camelExchange.setProperty(PetasosPropertyConstants.WUP_PETASOS_FULFILLMENT_TASK_EXCHANGE_PROPERTY, fulfillmentTask);
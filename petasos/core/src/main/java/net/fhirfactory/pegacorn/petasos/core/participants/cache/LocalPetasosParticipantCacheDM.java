@@ -48,6 +48,7 @@ public class LocalPetasosParticipantCacheDM {
 
 	private ConcurrentHashMap<ComponentIdType, PetasosParticipantRegistration> participantCache;
 	private Object participantCacheLock;
+	private volatile long participantCacheVersion;
 
 	@Inject
 	private ProcessingPlantInterface myProcessingPlant;
@@ -59,6 +60,7 @@ public class LocalPetasosParticipantCacheDM {
     public LocalPetasosParticipantCacheDM(){
         this.participantCache = new ConcurrentHashMap<ComponentIdType, PetasosParticipantRegistration>();
         this.participantCacheLock = new Object();
+        this.participantCacheVersion = 0L;
     }
 
 	//
@@ -86,6 +88,7 @@ public class LocalPetasosParticipantCacheDM {
 			if(!inCache) {
 				getParticipantCache().put(cacheEntry.getComponentID(), registration);
 			}
+			participantCacheVersion += 1;
 		}
 		getLogger().debug(".addPetasosParticipant(): Exit, registration->{}", registration);
 		return(registration);
@@ -99,6 +102,7 @@ public class LocalPetasosParticipantCacheDM {
 		synchronized (getParticipantCacheLock()){
 			if(getParticipantCache().containsKey(participant.getComponentID())){
 				getParticipantCache().remove(participant.getComponentID());
+				participantCacheVersion += 1;
 			}
 		}
 		getLogger().debug(".removePetasosParticipant(): Exit");
@@ -126,6 +130,7 @@ public class LocalPetasosParticipantCacheDM {
 			if(!inCache) {
 				getParticipantCache().put(cacheEntry.getComponentID(), registration);
 			}
+			participantCacheVersion += 1;
 		}
 		getLogger().debug(".updatePetasosParticipant(): Exit, registration->{}", registration);
 	}
@@ -158,6 +163,7 @@ public class LocalPetasosParticipantCacheDM {
 			if(!inCache) {
 				getParticipantCache().put(cacheEntry.getComponentID(), registration);
 			}
+			participantCacheVersion += 1;
 		}
 		getLogger().debug(".updatePetasosParticipantRegistration(): Exit, localRegistration->{}", localRegistration);
 	}
@@ -269,4 +275,14 @@ public class LocalPetasosParticipantCacheDM {
 	protected Object getParticipantCacheLock() {
 		return participantCacheLock;
 	}
+
+	/**
+	 * A counter which changes whenever a participant (and so possibly its subscriptions) is added, updated or
+	 * removed - allowing derived structures (e.g. subscription indexes) to know when they need rebuilding.
+	 *
+	 * @return the current version of the participant cache
+	 */
+	public long getParticipantCacheVersion() {
+		return participantCacheVersion;
+	}
 }
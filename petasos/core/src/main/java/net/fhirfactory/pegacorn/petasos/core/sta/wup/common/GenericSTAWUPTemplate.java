@@ -1,6 +1,5 @@
 package net.fhirfactory.pegacorn.petasos.core.sta.wup.common;
 
-import ca.uhn.fhir.parser.IParser;
 import net.fhirfactory.pegacorn.core.interfaces.topology.PegacornTopologyFactoryInterface;
 import net.fhirfactory.pegacorn.core.interfaces.topology.ProcessingPlantInterface;
 import net.fhirfactory.pegacorn.core.model.componentid.PegacornSystemComponentTypeTypeEnum;
@@ -23,8 +22,6 @@ public abstract class GenericSTAWUPTemplate {
     private PetasosTaskJobCard wupJobCard;
     private boolean isInitialised;
 
-    private IParser parserR4;
-
     @Inject
     STAServicesAuditBroker servicesBroker;
 
@@ -51,7 +48,6 @@ public abstract class GenericSTAWUPTemplate {
         getLogger().debug(".initialise(): Entry");
         if (!isInitialised) {
             getLogger().trace(".initialise(): AccessBase is NOT initialised");
-            this.parserR4 = fhirContextUtility.getJsonParser();
             this.wup = buildSTAClientNode();
             this.isInitialised = true;
         }
@@ -73,6 +73,7 @@ public class PetasosFulfillmentTaskSharedInstance extends PetasosTaskSharedInsta
         synchronized (getTaskCache().getTaskLock(getLocalInstance().getTaskId())) {
             PetasosFulfillmentTask cacheInstance = (PetasosFulfillmentTask) getTaskCache().getTask(getLocalInstance().getTaskId());
             cacheInstance.update(getLocalInstance());
+            getTaskCache().reindexTask(cacheInstance.getTaskId());
         }
     }
 
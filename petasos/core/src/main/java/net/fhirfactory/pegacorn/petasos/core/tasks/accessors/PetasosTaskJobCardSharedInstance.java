@@ -29,7 +29,6 @@ import net.fhirfactory.pegacorn.core.model.petasos.wup.valuesets.PetasosTaskExec
 import net.fhirfactory.pegacorn.core.model.topology.mode.ConcurrencyModeEnum;
 import net.fhirfactory.pegacorn.core.model.topology.mode.ResilienceModeEnum;
 import net.fhirfactory.pegacorn.petasos.core.tasks.caches.shared.ParticipantSharedTaskJobCardCache;
-import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,10 +68,10 @@ public class PetasosTaskJobCardSharedInstance {
                 cachedJobCard = getJobCardCache().getJobCard(jobCard.getActionableTaskId());
             }
             if(cachedJobCard != null){
-                this.localJobCard = SerializationUtils.clone(cachedJobCard);
+                this.localJobCard = new PetasosTaskJobCard(cachedJobCard);
             } else {
                 getJobCardCache().registerJobCard(jobCard);
-                this.localJobCard = SerializationUtils.clone(jobCard);
+                this.localJobCard = new PetasosTaskJobCard(jobCard);
             }
         }
     }
@@ -281,7 +280,12 @@ public class PetasosTaskJobCardSharedInstance {
     public void refresh(){
         TaskIdType actionableTaskId = getActionableTaskId();
         synchronized (getJobCardCache().getJobCardLock(actionableTaskId)){
-            this.localJobCard = SerializationUtils.clone(getJobCardCache().getJobCard(actionableTaskId));
+            PetasosTaskJobCard cachedJobCard = getJobCardCache().getJobCard(actionableTaskId);
+            if(cachedJobCard != null) {
+                this.localJobCard = new PetasosTaskJobCard(cachedJobCard);
+            } else {
+                this.localJobCard = null;
+            }
         }
     }
 
@@ -289,7 +293,7 @@ public class PetasosTaskJobCardSharedInstance {
         TaskIdType taskId = getLocalJobCard().getActionableTaskId();
         PetasosTaskJobCard cachedJobCard = getJobCardCache().getJobCard(taskId);
         cachedJobCard.update(getLocalJobCard());
-        this.localJobCard = SerializationUtils.clone(cachedJobCard);
+        this.localJobCard = new PetasosTaskJobCard(cachedJobCard);
     }
 
     public void lockAndUpdate(){
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.core.tasks.caches.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A concurrently maintained secondary index over a task cache, mapping an attribute value (e.g. an execution status,
+ * or the id of the WUP fulfilling the task) to the keys of the cache entries that currently have that value.
+ *
+ * Each key is held against at most one attribute value. Index updates for a key are expected to be made while
+ * holding that key's (per-entry) lock, so the index for different keys can be updated in parallel. Lookups never
+ * block, but (as with any index maintained alongside a ConcurrentHashMap) they can briefly return a key whose entry
+ * has just been removed or changed, so callers re-check the entry they retrieve.
+ *
+ * @param <A> the attribute (index key) type
+ * @param <K> the cache key type
+ */
+public class TaskCacheIndex<A, K> {
+
+    private final ConcurrentHashMap<A, Set<K>> attributeIndex;
+    private final ConcurrentHashMap<K, A> currentAttributeMap;
+
+    //
+    // Constructor(s)
+    //
+
+    public TaskCacheIndex(){
+        this.attributeIndex = new ConcurrentHashMap<>();
+        this.currentAttributeMap = new ConcurrentHashMap<>();
+    }
+
+    //
+    // Business Methods
+    //
+
+    /**
+     * Indexes the key against the attribute value, removing it from its previous value (if any). A null attribute
+     * value removes the key from the index.
+     */
+    public void index(K key, A attribute){
+        if(key == null){
+            return;
+        }
+        if(attribute == null){
+            remove(key);
+            return;
+        }
+        A previousAttribute = currentAttributeMap.put(key, attribute);
+        if(attribute.equals(previousAttribute)){
+            return;
+        }
+        if(previousAttribute != null){
+            removeFromAttribute(previousAttribute, key);
+        }
+        attributeIndex.compute(attribute, (currentAttribute, keySet) -> {
+            Set<K> updatedKeySet = keySet;
+            if(updatedKeySet == null){
+                updatedKeySet = ConcurrentHashMap.newKeySet();
+            }
+            updatedKeySet.add(key);
+            return(updatedKeySet);
+        });
+    }
+
+    public void remove(K key){
+        if(key == null){
+            return;
+        }
+        A previousAttribute = currentAttributeMap.remove(key);
+        if(previousAttribute != null){
+            removeFromAttribute(previousAttribute, key);
+        }
+    }
+
+    public List<K> getKeys(A attribute){
+        if(attribute == null){
+            return(Collections.emptyList());
+        }
+        Set<K> keySet = attributeIndex.get(attribute);
+        if(keySet == null){
+            return(Collections.emptyList());
+        }
+        List<K> keyList = new ArrayList<>(keySet);
+        return(keyList);
+    }
+
+    public A getAttribute(K key){
+        if(key == null){
+            return(null);
+        }
+        return(currentAttributeMap.get(key));
+    }
+
+    public int size(){
+        return(currentAttributeMap.size());
+    }
+
+    //
+    // Helpers
+    //
+
+    private void removeFromAttribute(A attribute, K key){
+        attributeIndex.computeIfPresent(attribute, (currentAttribute, keySet) -> {
+            keySet.remove(key);
+            if(keySet.isEmpty()){
+                return(null);
+            }
+            return(keySet);
+        });
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.core.tasks.caches.common;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An expiry-ordered index of the entries within a task cache, used by the cleanup watchdogs to find the entries that
+ * are old enough to be considered for retirement without scanning the whole cache.
+ *
+ * Each entry is held against a "retirement reference instant" - normally its creation instant, or Instant.EPOCH once
+ * it is known to be finalised. A watchdog with a minimum retirement age of N seconds polls for the entries whose
+ * reference instant is at or before (now - N). Polling removes the entries it returns, so a cache polled by more than
+ * one watchdog must give each its own schedule.
+ *
+ * The schedule is a binary min-heap with lazy deletion: re-scheduling or cancelling an entry only updates the
+ * current-reference map, and stale heap nodes are discarded when they reach the top (or when they come to outnumber
+ * the live entries, at which point the heap is rebuilt).
+ *
+ * @param <K> the cache key type
+ */
+public class TaskRetirementSchedule<K> {
+
+    private static final int MINIMUM_COMPACTION_SIZE = 1024;
+
+    private final PriorityQueue<ScheduleEntry<K>> scheduleHeap;
+    private final Map<K, Long> currentReferenceMap;
+    private final Object scheduleLock;
+
+    //
+    // Constructor(s)
+    //
+
+    public TaskRetirementSchedule(){
+        this.scheduleHeap = new PriorityQueue<>();
+        this.currentReferenceMap = new HashMap<>();
+        this.scheduleLock = new Object();
+    }
+
+    //
+    // Business Methods
+    //
+
+    public void schedule(K key, Instant referenceInstant){
+        if(key == null){
+            return;
+        }
+        long referenceMillis = referenceInstant != null ? referenceInstant.toEpochMilli() : System.currentTimeMillis();
+        synchronized (scheduleLock) {
+            Long existingReference = currentReferenceMap.put(key, referenceMillis);
+            if(existingReference != null && existingReference == referenceMillis){
+                return;
+            }
+            scheduleHeap.add(new ScheduleEntry<>(key, referenceMillis));
+            compactIfRequired();
+        }
+    }
+
+    public void cancel(K key){
+        if(key == null){
+            return;
+        }
+        synchronized (scheduleLock) {
+            currentReferenceMap.remove(key);
+            compactIfRequired();
+        }
+    }
+
+    /**
+     * Removes (and returns) up to maximumCount entries whose reference instant is at or before the cutoff, oldest
+     * first. A returned entry is no longer scheduled: the caller either retires it or re-schedules it.
+     *
+     * @param cutoffInstant the latest reference instant to return
+     * @param maximumCount the maximum number of entries to return
+     * @return the due entries
+     */
+    public List<K> pollDue(Instant cutoffInstant, int maximumCount){
+        List<K> dueList = new ArrayList<>();
+        if(cutoffInstant == null){
+            return(dueList);
+        }
+        long cutoffMillis = cutoffInstant.toEpochMilli();
+        synchronized (scheduleLock) {
+            while(dueList.size() < maximumCount && !scheduleHeap.isEmpty()){
+                ScheduleEntry<K> head = scheduleHeap.peek();
+                if(head.referenceMillis > cutoffMillis){
+                    break;
+                }
+                scheduleHeap.poll();
+                Long currentReference = currentReferenceMap.get(head.key);
+                if(currentReference != null && currentReference == head.referenceMillis){
+                    currentReferenceMap.remove(head.key);
+                    dueList.add(head.key);
+                }
+            }
+        }
+        return(dueList);
+    }
+
+    public int size(){
+        synchronized (scheduleLock) {
+            return(currentReferenceMap.size());
+        }
+    }
+
+    //
+    // Helpers
+    //
+
+    private void compactIfRequired(){
+        if(scheduleHeap.size() < MINIMUM_COMPACTION_SIZE || scheduleHeap.size() <= 2 * currentReferenceMap.size()){
+            return;
+        }
+        scheduleHeap.clear();
+        for(Map.Entry<K, Long> currentEntry: currentReferenceMap.entrySet()){
+            scheduleHeap.add(new ScheduleEntry<>(currentEntry.getKey(), currentEntry.getValue()));
+        }
+    }
+
+    //
+    // Internal Types
+    //
+
+    private static class ScheduleEntry<K> implements Comparable<ScheduleEntry<K>> {
+        private final K key;
+        private final long referenceMillis;
+
+        ScheduleEntry(K key, long referenceMillis){
+            this.key = key;
+            this.referenceMillis = referenceMillis;
+        }
+
+        @Override
+        public int compareTo(ScheduleEntry<K> other) {
+            return(Long.compare(referenceMillis, other.referenceMillis));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.core.tasks.caches.payloads;
+
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosTask;
+import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWPayload;
+import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWPayloadHandle;
+import net.fhirfactory.pegacorn.core.model.petasos.uow.UoWPayloadStoreInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The content-addressed, reference-counted store through which task payload bodies are shared (see
+ * UoWPayloadStoreInterface), so that heap use during subscriber fan-out scales with the number of distinct payloads
+ * rather than the number of subscribers.
+ *
+ * Each task held in the ParticipantSharedActionableTaskCache retains its ingres payload's body, and releases it when
+ * the task is retired. A body with no retaining task is only weakly held - it stays resolvable while any UoWPayload
+ * still refers to it, and its entry is dropped once it has been garbage collected.
+ */
+@ApplicationScoped
+public class SharedTaskPayloadStore implements UoWPayloadStoreInterface {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedTaskPayloadStore.class);
+
+    private static final int DEFAULT_MINIMUM_SHARED_PAYLOAD_SIZE = 1024; // characters
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final ConcurrentHashMap<String, PayloadEntry> payloadMap;
+    private final ReferenceQueue<String> collectedPayloads;
+    private int minimumSharedPayloadSize;
+
+    //
+    // Constructor(s)
+    //
+
+    public SharedTaskPayloadStore(){
+        this.payloadMap = new ConcurrentHashMap<>();
+        this.collectedPayloads = new ReferenceQueue<>();
+        this.minimumSharedPayloadSize = DEFAULT_MINIMUM_SHARED_PAYLOAD_SIZE;
+    }
+
+    //
+    // Post Construct
+    //
+
+    @PostConstruct
+    public void initialise(){
+        getLogger().debug(".initialise(): Entry");
+        UoWPayload.setSharedPayloadStore(this);
+        getLogger().debug(".initialise(): Exit");
+    }
+
+    //
+    // Business Methods
+    //
+
+    @Override
+    public UoWPayloadHandle share(String content) {
+        if(content == null || content.length() < getMinimumSharedPayloadSize()){
+            return(null);
+        }
+        expungeCollectedPayloads();
+        UoWPayloadHandle handle = new UoWPayloadHandle(digest(content), content.length());
+        payloadMap.compute(handle.getContentDigest(), (digest, entry) -> {
+            if(entry != null && entry.get() != null){
+                return(entry);
+            }
+            PayloadEntry newEntry = new PayloadEntry(digest, content, collectedPayloads);
+            if(entry != null){
+                // the body was collected while still retained (can't happen while the retaining tasks hold it)
+                newEntry.retainCount = entry.retainCount;
+                if(newEntry.retainCount > 0){
+                    newEntry.retainedContent = content;
+                }
+            }
+            return(newEntry);
+        });
+        return(handle);
+    }
+
+    @Override
+    public String resolve(UoWPayloadHandle handle) {
+        if(handle == null || handle.getContentDigest() == null){
+            return(null);
+        }
+        PayloadEntry entry = payloadMap.get(handle.getContentDigest());
+        if(entry == null){
+            return(null);
+        }
+        return(entry.get());
+    }
+
+    @Override
+    public void retain(UoWPayloadHandle handle) {
+        if(handle == null || handle.getContentDigest() == null){
+            return;
+        }
+        payloadMap.computeIfPresent(handle.getContentDigest(), (digest, entry) -> {
+            String content = entry.get();
+            if(content != null){
+                entry.retainCount += 1;
+                entry.retainedContent = content;
+            }
+            return(entry);
+        });
+    }
+
+    @Override
+    public void release(UoWPayloadHandle handle) {
+        if(handle == null || handle.getContentDigest() == null){
+            return;
+        }
+        payloadMap.computeIfPresent(handle.getContentDigest(), (digest, entry) -> {
+            entry.retainCount -= 1;
+            if(entry.retainCount <= 0){
+                entry.retainCount = 0;
+                entry.retainedContent = null;
+            }
+            return(entry);
+        });
+    }
+
+    /**
+     * Shares the payload's body through this store (the bean's initialisation registers this store with UoWPayload).
+     *
+     * @param payload
+     * @return true if the payload's body is shared
+     */
+    public boolean sharePayload(UoWPayload payload){
+        if(payload == null){
+            return(false);
+        }
+        return(payload.sharePayload());
+    }
+
+    public void retainTaskPayload(PetasosTask task){
+        UoWPayloadHandle handle = getIngresPayloadHandle(task);
+        if(handle != null){
+            retain(handle);
+        }
+    }
+
+    public void releaseTaskPayload(PetasosTask task){
+        UoWPayloadHandle handle = getIngresPayloadHandle(task);
+        if(handle != null){
+            release(handle);
+        }
+    }
+
+    public int getSharedPayloadCount(){
+        expungeCollectedPayloads();
+        return(payloadMap.size());
+    }
+
+    public int getRetainedPayloadCount(){
+        int count = 0;
+        for(PayloadEntry currentEntry: payloadMap.values()){
+            if(currentEntry.retainCount > 0){
+                count += 1;
+            }
+        }
+        return(count);
+    }
+
+    //
+    // Getters and Setters
+    //
+
+    public int getMinimumSharedPayloadSize() {
+        return minimumSharedPayloadSize;
+    }
+
+    public void setMinimumSharedPayloadSize(int minimumSharedPayloadSize) {
+        this.minimumSharedPayloadSize = minimumSharedPayloadSize;
+    }
+
+    protected Logger getLogger(){
+        return(LOG);
+    }
+
+    //
+    // Helpers
+    //
+
+    protected UoWPayloadHandle getIngresPayloadHandle(PetasosTask task){
+        if(task == null || !task.hasTaskWorkItem()){
+            return(null);
+        }
+        UoWPayload ingresContent = task.getTaskWorkItem().getIngresContent();
+        if(ingresContent == null){
+            return(null);
+        }
+        return(ingresContent.getPayloadHandle());
+    }
+
+    private void expungeCollectedPayloads(){
+        Reference<? extends String> collectedReference;
+        while((collectedReference = collectedPayloads.poll()) != null){
+            PayloadEntry collectedEntry = (PayloadEntry) collectedReference;
+            payloadMap.computeIfPresent(collectedEntry.digest, (digest, entry) -> {
+                if(entry == collectedEntry && entry.retainCount <= 0){
+                    return(null);
+                }
+                return(entry);
+            });
+        }
+    }
+
+    protected static String digest(String content){
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] digestBytes = messageDigest.digest(content.getBytes(StandardCharsets.UTF_8));
+            char[] digestChars = new char[digestBytes.length * 2];
+            for(int index = 0; index < digestBytes.length; index += 1){
+                digestChars[index * 2] = HEX_DIGITS[(digestBytes[index] >> 4) & 0x0F];
+                digestChars[index * 2 + 1] = HEX_DIGITS[digestBytes[index] & 0x0F];
+            }
+            return(new String(digestChars));
+        } catch (NoSuchAlgorithmException e) {
+            throw(new IllegalStateException("SHA-256 is not available", e));
+        }
+    }
+
+    //
+    // Internal Types
+    //
+
+    // Weakly references the body, and strongly references it (retainedContent) while any task retains it. The
+    // mutable fields are only changed within payloadMap.compute()/computeIfPresent().
+    private static class PayloadEntry extends WeakReference<String> {
+        private final String digest;
+        private String retainedContent;
+        private int retainCount;
+
+        PayloadEntry(String digest, String content, ReferenceQueue<String> referenceQueue){
+            super(content, referenceQueue);
+            this.digest = digest;
+            this.retainedContent = null;
+            this.retainCount = 0;
+        }
+    }
+}
@@ -27,16 +27,18 @@ import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosFulfillmentTask;
 import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosTask;
 import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.fulfillment.valuesets.FulfillmentExecutionStatusEnum;
 import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.common.TaskCacheIndex;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.common.TaskRetirementSchedule;
 import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.enterprise.context.ApplicationScoped;
 import java.time.Instant;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * This class acts as the Data Manager for the PetasosFulfillmentTask set within the local
@@ -55,7 +57,10 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
 
     private ConcurrentHashMap<TaskIdType, PetasosFulfillmentTask> fulfillmentTaskCache;
     private ConcurrentHashMap<TaskIdType, Object> fulfillmentTaskCacheLockMap;
-    private Object cacheLock;
+    private TaskRetirementSchedule<TaskIdType> retirementSchedule;
+    private TaskCacheIndex<FulfillmentExecutionStatusEnum, TaskIdType> executionStatusIndex;
+    private TaskCacheIndex<TaskIdType, TaskIdType> actionableTaskIdIndex;
+    private TaskCacheIndex<ComponentIdType, TaskIdType> fulfillerWUPIndex;
 
     //
     // Constructor(s)
@@ -64,7 +69,10 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
     public LocalFulfillmentTaskCache() {
         fulfillmentTaskCache = new ConcurrentHashMap<TaskIdType, PetasosFulfillmentTask>();
         fulfillmentTaskCacheLockMap = new ConcurrentHashMap<>();
-        this.cacheLock = new Object();
+        this.retirementSchedule = new TaskRetirementSchedule<>();
+        this.executionStatusIndex = new TaskCacheIndex<>();
+        this.actionableTaskIdIndex = new TaskCacheIndex<>();
+        this.fulfillerWUPIndex = new TaskCacheIndex<>();
     }
 
     //
@@ -90,21 +98,13 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
         }
         PetasosFulfillmentTask fulfillmentTask = (PetasosFulfillmentTask) task;
         TaskIdType taskId = task.getTaskId();
-        PetasosFulfillmentTask clonedTask = null;
-        synchronized (getCacheLock()) {
-            if (!getFulfillmentTaskCacheLockMap().containsKey(taskId)) {
-                getFulfillmentTaskCacheLockMap().put(task.getTaskId(), new Object());
-            }
-            synchronized (getFulfillmentTaskCacheLockMap().get(taskId)) {
-                if (getFulfillmentTaskCache().containsKey(taskId)) {
-                    getFulfillmentTaskCache().remove(taskId);
-                }
-                getFulfillmentTaskCache().put(taskId, fulfillmentTask);
-                fulfillmentTask.getTaskFulfillment().setRegistrationInstant(Instant.now());
-                fulfillmentTask.getTaskFulfillment().setStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_REGISTERED);
-                clonedTask = SerializationUtils.clone(fulfillmentTask);
-            }
-        }
+        PetasosFulfillmentTask clonedTask = executeUnderTaskLock(taskId, () -> {
+            getFulfillmentTaskCache().put(taskId, fulfillmentTask);
+            fulfillmentTask.getTaskFulfillment().setRegistrationInstant(Instant.now());
+            fulfillmentTask.getTaskFulfillment().setStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_REGISTERED);
+            indexTask(fulfillmentTask);
+            return(SerializationUtils.clone(fulfillmentTask));
+        });
 
         getLogger().debug(".registerTask(): Exit, clonedTask->{}", clonedTask);
         return(clonedTask);
@@ -114,7 +114,7 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
     public PetasosTask getTask(TaskIdType taskId) {
         getLogger().debug(".getTask(): Entry, taskId --> {}", taskId);
         PetasosFulfillmentTask task = null;
-        if (getFulfillmentTaskCache().containsKey(taskId)) {
+        if (taskId != null) {
             task = getFulfillmentTaskCache().get(taskId);
         }
         getLogger().debug(".getTask(): Exit, task->{}", task);
@@ -125,7 +125,7 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
     public Object getTaskLock(TaskIdType taskId) {
         getLogger().debug(".getTaskLock(): Entry, taskId --> {}", taskId);
         Object lockObject = null;
-        if (getFulfillmentTaskCacheLockMap().containsKey(taskId)) {
+        if (taskId != null) {
             lockObject = getFulfillmentTaskCacheLockMap().get(taskId);
         }
         getLogger().debug(".getTaskLock(): Exit, lockObject->{}", lockObject);
@@ -135,10 +135,7 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
     @Override
     public void addTaskLock(TaskIdType taskId){
         if(taskId != null){
-            Object lockObject = getFulfillmentTaskCacheLockMap().get(taskId);
-            if(lockObject == null){
-                getFulfillmentTaskCacheLockMap().put(taskId, new Object());
-            }
+            getOrCreateTaskLock(taskId);
         }
     }
 
@@ -149,17 +146,23 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
             return(null);
         }
         PetasosFulfillmentTask task = null;
-        synchronized (getCacheLock()) {
-            if (this.getFulfillmentTaskCache().containsKey(taskId)) {
-                synchronized (getFulfillmentTaskCacheLockMap().get(taskId)) {
-                    task = getFulfillmentTaskCache().get(taskId);
+        Object taskLock = getFulfillmentTaskCacheLockMap().get(taskId);
+        while (taskLock != null) {
+            synchronized (taskLock) {
+                // only remove under the lock that is still current, see executeUnderTaskLock()
+                if (getFulfillmentTaskCacheLockMap().get(taskId) == taskLock) {
                     getLogger().trace(".removeTask(): Removing task from map/cache");
-                    this.getFulfillmentTaskCache().remove(taskId);
+                    task = getFulfillmentTaskCache().remove(taskId);
+                    unindexTask(taskId);
+                    getFulfillmentTaskCacheLockMap().remove(taskId, taskLock);
+                    break;
                 }
-                this.getFulfillmentTaskCacheLockMap().remove(taskId);
-            } else {
-                getLogger().trace(".removeTask(): taks is not in map/cache, cannot remove it!");
             }
+            taskLock = getFulfillmentTaskCacheLockMap().get(taskId);
+        }
+        if (taskLock == null) {
+            getLogger().trace(".removeTask(): taks is not in map/cache, cannot remove it!");
+            getRetirementSchedule().cancel(taskId);
         }
         getLogger().debug(".removeTask(): Exit");
         return(task);
@@ -183,17 +186,11 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
             throw (new IllegalArgumentException(".synchroniseTask(): fulfillmentTask is null"));
         }
         PetasosFulfillmentTask fulfillmentTask = (PetasosFulfillmentTask) task;
-        if(!getFulfillmentTaskCacheLockMap().containsKey(fulfillmentTask.getTaskId())){
-            getFulfillmentTaskCacheLockMap().put(fulfillmentTask.getTaskId(), new Object());
-        }
-        PetasosFulfillmentTask clonedTask = null;
-        synchronized (getFulfillmentTaskCacheLockMap().get(fulfillmentTask.getTaskId())) {
-            if (fulfillmentTaskCache.containsKey(fulfillmentTask.getTaskId())) {
-                fulfillmentTaskCache.remove(fulfillmentTask.getTaskId());
-            }
+        PetasosFulfillmentTask clonedTask = executeUnderTaskLock(fulfillmentTask.getTaskId(), () -> {
             fulfillmentTaskCache.put(fulfillmentTask.getTaskId(), fulfillmentTask);
-            clonedTask = SerializationUtils.clone(fulfillmentTask);
-        }
+            indexTask(fulfillmentTask);
+            return(SerializationUtils.clone(fulfillmentTask));
+        });
         getLogger().debug(".synchroniseTask(): Exit");
         return(clonedTask);
     }
@@ -205,43 +202,49 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
             throw (new IllegalArgumentException(".refreshTask(): fulfillmentTask is null"));
         }
         PetasosFulfillmentTask fulfillmentTask = (PetasosFulfillmentTask) task;
-        if(!fulfillmentTaskCacheLockMap.containsKey(fulfillmentTask.getTaskId())){
-            fulfillmentTaskCacheLockMap.put(fulfillmentTask.getTaskId(), new Object());
-            fulfillmentTaskCache.put(fulfillmentTask.getTaskId(), fulfillmentTask);
-        }
-        PetasosFulfillmentTask cacheFulfillmentTask = null;
-        PetasosTask cacheTask = getTask(task.getTaskId());
-        if(cacheTask != null) {
-            cacheFulfillmentTask = SerializationUtils.clone((PetasosFulfillmentTask) getTask(task.getTaskId()));
-        }
+        PetasosFulfillmentTask cacheFulfillmentTask = executeUnderTaskLock(fulfillmentTask.getTaskId(), () -> {
+            PetasosFulfillmentTask cacheTask = fulfillmentTaskCache.putIfAbsent(fulfillmentTask.getTaskId(), fulfillmentTask);
+            if (cacheTask == null) {
+                cacheTask = fulfillmentTask;
+                indexTask(fulfillmentTask);
+            }
+            return(SerializationUtils.clone(cacheTask));
+        });
         getLogger().debug(".refreshTask(): Exit");
         return(cacheFulfillmentTask);
     }
 
+    /**
+     * Re-evaluates the cache's indexes (and retirement schedule) for a task that has been modified in-place, e.g. via
+     * PetasosFulfillmentTaskSharedInstance.update(). The caller should hold the task's lock.
+     *
+     * @param taskId the id of the modified task
+     */
+    @Override
+    public void reindexTask(TaskIdType taskId){
+        if(taskId == null){
+            return;
+        }
+        PetasosFulfillmentTask task = getFulfillmentTaskCache().get(taskId);
+        if(task != null){
+            indexTask(task);
+        }
+    }
+
     public List<PetasosFulfillmentTask> getFulfillmentTaskList() {
         getLogger().debug(".getFulfillmentTaskList(): Entry");
-        List<PetasosFulfillmentTask> parcelList = new LinkedList<PetasosFulfillmentTask>();
-        synchronized (getCacheLock()) {
-            fulfillmentTaskCache.entrySet().forEach(entry -> parcelList.add(entry.getValue()));
-        }
+        List<PetasosFulfillmentTask> parcelList = new ArrayList<>(fulfillmentTaskCache.values());
         getLogger().debug(".getFulfillmentTaskList(): Exit");
         return (parcelList);
     }
 
     public List<PetasosFulfillmentTask> getFulfillmentTaskByExecutionStatus(FulfillmentExecutionStatusEnum status) {
         getLogger().debug(".getFulfillmentTaskByStatus(): Entry, status->{}", status);
-        List<PetasosFulfillmentTask> taskList = new LinkedList<>();
-        Iterator<PetasosFulfillmentTask> parcelListIterator = getFulfillmentTaskList().iterator();
-        synchronized (getCacheLock()) {
-            while (parcelListIterator.hasNext()) {
-                PetasosFulfillmentTask currentParcel = parcelListIterator.next();
-                if (currentParcel.hasTaskFulfillment()) {
-                    if (currentParcel.getTaskFulfillment().hasStatus()) {
-                        if (currentParcel.getTaskFulfillment().getStatus().equals(status)) {
-                            taskList.add(currentParcel);
-                        }
-                    }
-                }
+        List<PetasosFulfillmentTask> taskList = new ArrayList<>();
+        for (TaskIdType currentTaskId : getExecutionStatusIndex().getKeys(status)) {
+            PetasosFulfillmentTask currentTask = getFulfillmentTaskCache().get(currentTaskId);
+            if (currentTask != null && status.equals(getExecutionStatus(currentTask))) {
+                taskList.add(currentTask);
             }
         }
         getLogger().debug(".getFulfillmentTaskByStatus(): Exit");
@@ -270,7 +273,7 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
 
     public List<PetasosFulfillmentTask> getLocalInProgressFulfillmentTasks() {
         getLogger().debug(".getInProgressParcelSet(): Entry");
-        List<PetasosFulfillmentTask> parcelList = new LinkedList<PetasosFulfillmentTask>();
+        List<PetasosFulfillmentTask> parcelList = new ArrayList<PetasosFulfillmentTask>();
         parcelList.addAll(getFulfillmentTaskByExecutionStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_ACTIVE));
         parcelList.addAll(getFulfillmentTaskByExecutionStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_INITIATED));
         parcelList.addAll(getFulfillmentTaskByExecutionStatus(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_REGISTERED));
@@ -279,17 +282,12 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
     }
 
     public List<PetasosFulfillmentTask> getFulfillmentTaskByActionableTaskId(TaskIdType taskId) {
-        getLogger().debug(".getFulfillmentTaskByActionableTaskId(): Entry, taskId --> {}" + taskId);
-        List<PetasosFulfillmentTask> parcelList = new LinkedList<PetasosFulfillmentTask>();
-        synchronized (getCacheLock()) {
-            Iterator<PetasosFulfillmentTask> parcelListIterator = getFulfillmentTaskList().iterator();
-            while (parcelListIterator.hasNext()) {
-                PetasosFulfillmentTask currentParcel = parcelListIterator.next();
-                if (currentParcel.hasActionableTaskId()) {
-                    if (currentParcel.getActionableTaskId().equals(taskId)) {
-                        parcelList.add(currentParcel);
-                    }
-                }
+        getLogger().debug(".getFulfillmentTaskByActionableTaskId(): Entry, taskId --> {}", taskId);
+        List<PetasosFulfillmentTask> parcelList = new ArrayList<PetasosFulfillmentTask>();
+        for (TaskIdType currentTaskId : getActionableTaskIdIndex().getKeys(taskId)) {
+            PetasosFulfillmentTask currentTask = getFulfillmentTaskCache().get(currentTaskId);
+            if (currentTask != null && currentTask.hasActionableTaskId() && currentTask.getActionableTaskId().equals(taskId)) {
+                parcelList.add(currentTask);
             }
         }
         getLogger().debug(".getFulfillmentTaskByActionableTaskId(): Exit");
@@ -298,24 +296,118 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
 
     public PetasosFulfillmentTask getCurrentFulfillmetTaskForWUP(ComponentIdType wupComponentId) {
         getLogger().debug(".getCurrentFulfillmetTaskForWUP(): Entry, wupComponentId->{}",wupComponentId);
-        List<PetasosFulfillmentTask> taskList = new LinkedList<>();
-        synchronized (getCacheLock()) {
-            Iterator<PetasosFulfillmentTask> taskListIterator = getFulfillmentTaskList().iterator();
-            while (taskListIterator.hasNext()) {
-                PetasosFulfillmentTask currentParcel = taskListIterator.next();
-                if (currentParcel.hasTaskFulfillment()) {
-                    if (currentParcel.getTaskFulfillment().hasFulfillerWorkUnitProcessor()) {
-                        if (currentParcel.getTaskFulfillment().getFulfillerWorkUnitProcessor().getComponentID().equals(wupComponentId)) {
-                            return (currentParcel);
-                        }
-                    }
-                }
+        for (TaskIdType currentTaskId : getFulfillerWUPIndex().getKeys(wupComponentId)) {
+            PetasosFulfillmentTask currentTask = getFulfillmentTaskCache().get(currentTaskId);
+            if (currentTask != null && wupComponentId.equals(getFulfillerWUPComponentId(currentTask))) {
+                getLogger().debug(".getCurrentFulfillmetTaskForWUP(): Exit, found task->{}", currentTaskId);
+                return (currentTask);
             }
         }
         getLogger().debug(".getCurrentFulfillmetTaskForWUP(): Exit");
         return (null);
     }
 
+    //
+    // Secondary Indexes
+    //
+
+    protected void indexTask(PetasosFulfillmentTask task){
+        TaskIdType taskId = task.getTaskId();
+        getExecutionStatusIndex().index(taskId, getExecutionStatus(task));
+        if(task.hasActionableTaskId()){
+            getActionableTaskIdIndex().index(taskId, task.getActionableTaskId());
+        } else {
+            getActionableTaskIdIndex().remove(taskId);
+        }
+        getFulfillerWUPIndex().index(taskId, getFulfillerWUPComponentId(task));
+        getRetirementSchedule().schedule(taskId, getRetirementReferenceInstant(task));
+    }
+
+    protected void unindexTask(TaskIdType taskId){
+        getExecutionStatusIndex().remove(taskId);
+        getActionableTaskIdIndex().remove(taskId);
+        getFulfillerWUPIndex().remove(taskId);
+        getRetirementSchedule().cancel(taskId);
+    }
+
+    protected FulfillmentExecutionStatusEnum getExecutionStatus(PetasosFulfillmentTask task){
+        if(task.hasTaskFulfillment() && task.getTaskFulfillment().hasStatus()){
+            return(task.getTaskFulfillment().getStatus());
+        }
+        return(null);
+    }
+
+    protected ComponentIdType getFulfillerWUPComponentId(PetasosFulfillmentTask task){
+        if(task.hasTaskFulfillment() && task.getTaskFulfillment().hasFulfillerWorkUnitProcessor()){
+            return(task.getTaskFulfillment().getFulfillerWorkUnitProcessor().getComponentID());
+        }
+        return(null);
+    }
+
+    protected Object getOrCreateTaskLock(TaskIdType taskId){
+        return(getFulfillmentTaskCacheLockMap().computeIfAbsent(taskId, key -> new Object()));
+    }
+
+    /**
+     * Runs the action while holding the task's lock. removeTask() drops the lock object (while holding it), so a
+     * thread that was blocked on that lock re-checks it is still the current one once acquired, and otherwise retries
+     * with the lock created since - rather than running alongside the thread that holds the new lock.
+     *
+     * @param taskId the id of the task to lock
+     * @param action the work to do under the lock
+     * @return the action's result
+     */
+    protected <T> T executeUnderTaskLock(TaskIdType taskId, Supplier<T> action){
+        while (true) {
+            Object taskLock = getOrCreateTaskLock(taskId);
+            synchronized (taskLock) {
+                if (getFulfillmentTaskCacheLockMap().get(taskId) == taskLock) {
+                    return(action.get());
+                }
+            }
+        }
+    }
+
+    //
+    // Retirement Schedule
+    //
+
+    /**
+     * Returns (and removes from the retirement schedule) the ids of the tasks whose retirement reference instant
+     * (their creation instant, or Instant.EPOCH once finalised) is at or before the cutoff. Any task that is not
+     * then retired must be re-scheduled via deferRetirementCheck().
+     *
+     * @param cutoffInstant now less the caller's minimum age for task retirement
+     * @param maximumCount the maximum number of task ids to return
+     * @return the ids of the tasks due a retirement check
+     */
+    public List<TaskIdType> pollRetirementCandidates(Instant cutoffInstant, int maximumCount){
+        return(getRetirementSchedule().pollDue(cutoffInstant, maximumCount));
+    }
+
+    public void deferRetirementCheck(TaskIdType taskId, Instant referenceInstant){
+        if(taskId == null || !getFulfillmentTaskCache().containsKey(taskId)){
+            return;
+        }
+        getRetirementSchedule().schedule(taskId, referenceInstant);
+    }
+
+    protected Instant getRetirementReferenceInstant(PetasosFulfillmentTask task){
+        if(task.hasTaskFulfillment() && task.getTaskFulfillment().hasStatus()){
+            switch(task.getTaskFulfillment().getStatus()){
+                case FULFILLMENT_EXECUTION_STATUS_FINALISED:
+                case FULFILLMENT_EXECUTION_STATUS_FINALISED_ELSEWHERE:
+                    return(Instant.EPOCH);
+                default:
+                    break;
+            }
+        }
+        if(task.getCreationInstant() != null){
+            return(task.getCreationInstant());
+        }
+        return(Instant.now());
+    }
+
     //
     // Getters (and Setters)
     //
@@ -332,7 +424,19 @@ public class LocalFulfillmentTaskCache implements PetasosTaskCacheServiceInterfa
         return(this.fulfillmentTaskCacheLockMap);
     }
 
-    protected Object getCacheLock(){
-        return(this.cacheLock);
+    protected TaskRetirementSchedule<TaskIdType> getRetirementSchedule(){
+        return(this.retirementSchedule);
+    }
+
+    protected TaskCacheIndex<FulfillmentExecutionStatusEnum, TaskIdType> getExecutionStatusIndex(){
+        return(this.executionStatusIndex);
+    }
+
+    protected TaskCacheIndex<TaskIdType, TaskIdType> getActionableTaskIdIndex(){
+        return(this.actionableTaskIdIndex);
+    }
+
+    protected TaskCacheIndex<ComponentIdType, TaskIdType> getFulfillerWUPIndex(){
+        return(this.fulfillerWUPIndex);
     }
 }
@@ -25,16 +25,22 @@ package net.fhirfactory.pegacorn.petasos.core.tasks.caches.shared;
 import net.fhirfactory.pegacorn.core.interfaces.tasks.PetasosTaskCacheServiceInterface;
 import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
 import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.fulfillment.valuesets.FulfillmentExecutionStatusEnum;
 import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.common.TaskRetirementSchedule;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.payloads.SharedTaskPayloadStore;
 import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 
 /**
  * This class is the Cache Data Manager (CacheDM) for the ServiceModule WorkUnitActivity Episode ID
@@ -64,6 +70,11 @@ public class ParticipantSharedActionableTaskCache implements PetasosTaskCacheSer
     private ConcurrentHashMap<TaskIdType, PetasosActionableTask> taskCache;
     private ConcurrentHashMap<TaskIdType, Object> taskSpecificLockMap;
     private Object taskCacheLock;
+    // <Consumer (Watchdog) Name, Retirement Schedule> polling is destructive, so each watchdog has its own
+    private ConcurrentHashMap<String, TaskRetirementSchedule<TaskIdType>> retirementSchedules;
+
+    @Inject
+    private SharedTaskPayloadStore payloadStore;
 
     //
     // Constructor(s)
@@ -72,6 +83,7 @@ public class ParticipantSharedActionableTaskCache implements PetasosTaskCacheSer
         taskCache = new ConcurrentHashMap<>();
         taskSpecificLockMap = new ConcurrentHashMap<>();
         taskCacheLock = new Object();
+        retirementSchedules = new ConcurrentHashMap<>();
     }
 
     //
@@ -97,12 +109,7 @@ public class ParticipantSharedActionableTaskCache implements PetasosTaskCacheSer
         }
         PetasosActionableTask actionableTask = (PetasosActionableTask) task;
         synchronized (getTaskCacheLock()){
-            if(getTaskCache().containsKey(actionableTask.getTaskId())){
-                getTaskCache().remove(actionableTask.getTaskId());
-                getTaskSpecificLockMap().remove(actionableTask.getTaskId());
-            }
-            getTaskSpecificLockMap().put(actionableTask.getTaskId(), new Object());
-            getTaskCache().put(actionableTask.getTaskId(), actionableTask);
+            putTaskInstance(actionableTask);
         }
         getLogger().debug(".registerActionableTask(): Exit, actionableTask->{}", actionableTask);
         return(actionableTask);
@@ -134,7 +141,9 @@ public class ParticipantSharedActionableTaskCache implements PetasosTaskCacheSer
                 unregisteredActionableTask = getTaskCache().get(taskId);
                 getTaskCache().remove(taskId);
                 getTaskSpecificLockMap().remove(taskId);
+                getPayloadStore().releaseTaskPayload(unregisteredActionableTask);
             }
+            cancelRetirement(taskId);
         }
         getLogger().debug(".unregisterActionableTask(): Exit, unregisteredActionableTask->{}", unregisteredActionableTask);
         return(unregisteredActionableTask);
@@ -207,17 +216,16 @@ public class ParticipantSharedActionableTaskCache implements PetasosTaskCacheSer
     @Override
     public PetasosTask refreshTask(PetasosTask task) {
         PetasosActionableTask actionableTask = (PetasosActionableTask) task;
-        if(!getTaskCache().containsKey(actionableTask.getTaskId())){
-            synchronized (getTaskCacheLock()) {
-                getTaskCache().put(actionableTask.getTaskId(), actionableTask);
-                getTaskSpecificLockMap().put(actionableTask.getTaskId(), new Object());
+        PetasosActionableTask cacheTaskInstance = null;
+        synchronized (getTaskCacheLock()) {
+            cacheTaskInstance = getTaskCache().get(actionableTask.getTaskId());
+            if(cacheTaskInstance == null){
+                putTaskInstance(actionableTask);
+                cacheTaskInstance = actionableTask;
             }
-            PetasosActionableTask clonedTask = SerializationUtils.clone(actionableTask);
-            return(clonedTask);
-        } else {
-            PetasosActionableTask cacheTask = SerializationUtils.clone(getTask(task.getTaskId()));
-            return (cacheTask);
         }
+        PetasosActionableTask clonedTask = SerializationUtils.clone(cacheTaskInstance);
+        return(clonedTask);
     }
 
     /**
@@ -231,18 +239,25 @@ public class ParticipantSharedActionableTaskCache implements PetasosTaskCacheSer
     public PetasosTask synchroniseTask(PetasosTask task) {
         getLogger().debug(".synchroniseTask(): Entry, task->{}", task);
         PetasosActionableTask actionableTask = (PetasosActionableTask) task;
+        TaskIdType taskId = actionableTask.getTaskId();
         PetasosActionableTask clonedTask = null;
-        if(!getTaskCache().containsKey(actionableTask.getTaskId())){
-            synchronized (getTaskCacheLock()) {
-                getTaskCache().put(actionableTask.getTaskId(), actionableTask);
-                getTaskSpecificLockMap().put(actionableTask.getTaskId(), new Object());
+        PetasosActionableTask cacheTaskInstance = null;
+        Object taskLock = null;
+        synchronized (getTaskCacheLock()) {
+            cacheTaskInstance = getTaskCache().get(taskId);
+            if(cacheTaskInstance == null){
+                putTaskInstance(actionableTask);
                 clonedTask = SerializationUtils.clone(actionableTask);
+            } else {
+                taskLock = getTaskSpecificLockMap().get(taskId);
             }
-        } else {
-            TaskIdType taskId = actionableTask.getTaskId();
-            synchronized (getTaskSpecificLockMap().get(taskId)) {
-                PetasosActionableTask cacheTaskInstance = getTaskCache().get(taskId);
+        }
+        if(clonedTask == null){
+            synchronized (taskLock) {
                 PetasosActionableTask updatedTask = (PetasosActionableTask) cacheTaskInstance.update(actionableTask);
+                if(isFinalised(updatedTask)){
+                    scheduleRetirement(taskId, Instant.EPOCH);
+                }
                 clonedTask = SerializationUtils.clone( updatedTask);
             }
         }
@@ -250,6 +265,108 @@ public class ParticipantSharedActionableTaskCache implements PetasosTaskCacheSer
         return(clonedTask);
     }
 
+    /**
+     * Puts the task into the cache - retaining its payload, releasing that of any task instance it replaces, and
+     * giving it a new task lock - and schedules its retirement. The caller must hold the task cache lock.
+     *
+     * @param actionableTask the task to cache
+     */
+    protected void putTaskInstance(PetasosActionableTask actionableTask){
+        TaskIdType taskId = actionableTask.getTaskId();
+        getPayloadStore().retainTaskPayload(actionableTask);
+        PetasosActionableTask replacedTask = getTaskCache().put(taskId, actionableTask);
+        if(replacedTask != null){
+            getPayloadStore().releaseTaskPayload(replacedTask);
+        }
+        getTaskSpecificLockMap().put(taskId, new Object());
+        scheduleRetirement(taskId, getRetirementReferenceInstant(actionableTask));
+    }
+
+    /**
+     * Brings the retirement schedule up to date for a task that has been modified in-place (rather than via
+     * synchroniseTask()), so that a task finalised in-place becomes immediately eligible for retirement.
+     *
+     * @param taskId the id of the modified task
+     */
+    @Override
+    public void reindexTask(TaskIdType taskId){
+        if(taskId == null){
+            return;
+        }
+        PetasosActionableTask cacheTaskInstance = getTaskCache().get(taskId);
+        if(cacheTaskInstance != null && isFinalised(cacheTaskInstance)){
+            scheduleRetirement(taskId, Instant.EPOCH);
+        }
+    }
+
+    //
+    // Retirement Schedule
+    //
+
+    /**
+     * Returns (and removes from the consumer's retirement schedule) the ids of the tasks whose retirement reference
+     * instant (their creation instant, or Instant.EPOCH once finalised) is at or before the cutoff. Any task that is
+     * not then retired must be re-scheduled via deferRetirementCheck().
+     *
+     * Each consumer (watchdog) has its own schedule - created, with every task currently in the cache, on its first
+     * poll - so that one consumer polling (and deferring) a task doesn't hide it from the others.
+     *
+     * @param consumerName the name of the polling watchdog
+     * @param cutoffInstant now less the caller's minimum age for task retirement
+     * @param maximumCount the maximum number of task ids to return
+     * @return the ids of the tasks due a retirement check
+     */
+    public List<TaskIdType> pollRetirementCandidates(String consumerName, Instant cutoffInstant, int maximumCount){
+        return(getRetirementSchedule(consumerName).pollDue(cutoffInstant, maximumCount));
+    }
+
+    public void deferRetirementCheck(String consumerName, TaskIdType taskId, Instant referenceInstant){
+        if(taskId == null || !getTaskCache().containsKey(taskId)){
+            return;
+        }
+        getRetirementSchedule(consumerName).schedule(taskId, referenceInstant);
+    }
+
+    public int getRetirementScheduleSize(String consumerName){
+        return(getRetirementSchedule(consumerName).size());
+    }
+
+    protected void scheduleRetirement(TaskIdType taskId, Instant referenceInstant){
+        for(TaskRetirementSchedule<TaskIdType> currentSchedule: retirementSchedules.values()){
+            currentSchedule.schedule(taskId, referenceInstant);
+        }
+    }
+
+    protected void cancelRetirement(TaskIdType taskId){
+        for(TaskRetirementSchedule<TaskIdType> currentSchedule: retirementSchedules.values()){
+            currentSchedule.cancel(taskId);
+        }
+    }
+
+    protected Instant getRetirementReferenceInstant(PetasosActionableTask task){
+        if(isFinalised(task)){
+            return(Instant.EPOCH);
+        }
+        if(task.getCreationInstant() != null){
+            return(task.getCreationInstant());
+        }
+        return(Instant.now());
+    }
+
+    protected boolean isFinalised(PetasosActionableTask task){
+        if(task == null){
+            return(false);
+        }
+        if(task.hasTaskCompletionSummary() && task.getTaskCompletionSummary().isFinalised()){
+            return(true);
+        }
+        if(task.hasTaskFulfillment() && task.getTaskFulfillment().hasStatus()){
+            FulfillmentExecutionStatusEnum status = task.getTaskFulfillment().getStatus();
+            return(status.equals(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_FINALISED) || status.equals(FulfillmentExecutionStatusEnum.FULFILLMENT_EXECUTION_STATUS_FINALISED_ELSEWHERE));
+        }
+        return(false);
+    }
+
     //
     // Getters (and Setters)
     //
@@ -266,6 +383,22 @@ public class ParticipantSharedActionableTaskCache implements PetasosTaskCacheSer
         return(this.taskCacheLock);
     }
 
+    protected TaskRetirementSchedule<TaskIdType> getRetirementSchedule(String consumerName){
+        return(retirementSchedules.computeIfAbsent(consumerName, name -> {
+            TaskRetirementSchedule<TaskIdType> newSchedule = new TaskRetirementSchedule<>();
+            synchronized (getTaskCacheLock()) {
+                for (PetasosActionableTask currentTask : getTaskCache().values()) {
+                    newSchedule.schedule(currentTask.getTaskId(), getRetirementReferenceInstant(currentTask));
+                }
+            }
+            return(newSchedule);
+        }));
+    }
+
+    protected SharedTaskPayloadStore getPayloadStore(){
+        return(this.payloadStore);
+    }
+
     protected Logger getLogger(){
         return(LOG);
     }
@@ -23,6 +23,7 @@ package net.fhirfactory.pegacorn.petasos.core.tasks.caches.shared;
 
 import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
 import net.fhirfactory.pegacorn.core.model.petasos.wup.PetasosTaskJobCard;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.common.TaskRetirementSchedule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +41,7 @@ public class ParticipantSharedTaskJobCardCache {
     // ActionableTaskId, FulfillmentTask JobCard Set (will be across ALL processing plants) Map
     private ConcurrentHashMap<TaskIdType, PetasosTaskJobCard> actionableTaskJobCardMap;
     private ConcurrentHashMap<TaskIdType, Object> actionableTaskJobCardLockMap;
+    private TaskRetirementSchedule<TaskIdType> retirementSchedule;
     //
     // Whole cache lock
     private Object cacheLock;
@@ -52,6 +54,7 @@ public class ParticipantSharedTaskJobCardCache {
         this.actionableTaskJobCardMap = new ConcurrentHashMap<>();
         this.actionableTaskJobCardLockMap = new ConcurrentHashMap<>();
         this.cacheLock = new Object();
+        this.retirementSchedule = new TaskRetirementSchedule<>();
     }
 
     //
@@ -90,6 +93,7 @@ public class ParticipantSharedTaskJobCardCache {
             }
             jobCard.setLastActivityCheckInstant(Instant.now());
             getActionableTaskJobCardMap().put(jobCard.getActionableTaskId(), jobCard);
+            getRetirementSchedule().schedule(actionableTaskId, jobCard.getCreationInstant());
         }
         getLogger().debug(".registerJobCard(): Exit");
     }
@@ -113,6 +117,7 @@ public class ParticipantSharedTaskJobCardCache {
                 getActionableTaskJobCardLockMap().remove(jobCard.getActionableTaskId());
                 getActionableTaskJobCardMap().remove(jobCard.getActionableTaskId());
             }
+            getRetirementSchedule().cancel(jobCard.getActionableTaskId());
         }
 
         getLogger().debug(".removeJobCard(): Exit");
@@ -150,6 +155,22 @@ public class ParticipantSharedTaskJobCardCache {
         return(taskIdList);
     }
 
+    /**
+     * Returns (and removes from the retirement schedule) the actionable task ids of the job cards created at or
+     * before the cutoff.
+     *
+     * @param cutoffInstant now less the caller's minimum age for job card retirement
+     * @param maximumCount the maximum number of task ids to return
+     * @return the actionable task ids of the job cards due for retirement
+     */
+    public List<TaskIdType> pollRetirementCandidates(Instant cutoffInstant, int maximumCount){
+        return(getRetirementSchedule().pollDue(cutoffInstant, maximumCount));
+    }
+
+    public int getJobCardCacheSize(){
+        return(getActionableTaskJobCardMap().size());
+    }
+
     //
     // Getters (and Setters)
     //
@@ -169,4 +190,8 @@ public class ParticipantSharedTaskJobCardCache {
     public Object getCacheLock(){
         return(this.cacheLock);
     }
+
+    protected TaskRetirementSchedule<TaskIdType> getRetirementSchedule(){
+        return(this.retirementSchedule);
+    }
 }
@@ -209,7 +209,10 @@ public class LocalPetasosActionableTaskActivityController implements PetasosTask
         //
         // Update the Task Work Item
         UoWPayloadSet egressContent = fulfillmentTask.getTaskWorkItem().getEgressContent();
-        UoWPayloadSet clonedEgressContent = SerializationUtils.clone(egressContent);
+        UoWPayloadSet clonedEgressContent = null;
+        if(egressContent != null) {
+            clonedEgressContent = new UoWPayloadSet(egressContent);
+        }
         actionableTask.getTaskWorkItem().setEgressContent(clonedEgressContent);
         actionableTask.getTaskWorkItem().setProcessingOutcome(fulfillmentTask.getTaskWorkItem().getProcessingOutcome());
 
@@ -269,7 +272,10 @@ public class LocalPetasosActionableTaskActivityController implements PetasosTask
         //
         // Update the Task Work Item
         UoWPayloadSet egressContent = fulfillmentTask.getTaskWorkItem().getEgressContent();
-        UoWPayloadSet clonedEgressContent = SerializationUtils.clone(egressContent);
+        UoWPayloadSet clonedEgressContent = null;
+        if(egressContent != null) {
+            clonedEgressContent = new UoWPayloadSet(egressContent);
+        }
         actionableTask.getTaskWorkItem().setEgressContent(clonedEgressContent);
         actionableTask.getTaskWorkItem().setProcessingOutcome(fulfillmentTask.getTaskWorkItem().getProcessingOutcome());
         if(StringUtils.isNotEmpty(fulfillmentTask.getTaskWorkItem().getFailureDescription())){
@@ -334,7 +340,10 @@ public class LocalPetasosActionableTaskActivityController implements PetasosTask
         //
         // Update the Task Work Item
         UoWPayloadSet egressContent = fulfillmentTask.getTaskWorkItem().getEgressContent();
-        UoWPayloadSet clonedEgressContent = SerializationUtils.clone(egressContent);
+        UoWPayloadSet clonedEgressContent = null;
+        if(egressContent != null) {
+            clonedEgressContent = new UoWPayloadSet(egressContent);
+        }
         actionableTask.getTaskWorkItem().setEgressContent(clonedEgressContent);
         actionableTask.getTaskWorkItem().setProcessingOutcome(fulfillmentTask.getTaskWorkItem().getProcessingOutcome());
         if(StringUtils.isNotEmpty(fulfillmentTask.getTaskWorkItem().getFailureDescription())){
@@ -40,6 +40,7 @@ import org.slf4j.LoggerFactory;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Mark A. Hunter
@@ -125,6 +126,22 @@ public class LocalPetasosFulfilmentTaskActivityController {
         return(petasosTaskExecutionStatus);
     }
 
+    public CompletableFuture<PetasosTaskExecutionStatusEnum> requestFulfillmentTaskExecutionPrivilegeAsync(PetasosFulfillmentTaskSharedInstance fulfillmentTask, long timeoutInMilliseconds){
+        getLogger().trace(".requestFulfillmentTaskExecutionPrivilegeAsync(): Entry, fulfillmentTask->{}", fulfillmentTask);
+        if(getLogger().isDebugEnabled()){
+            getLogger().debug(".requestFulfillmentTaskExecutionPrivilegeAsync(): Entry, WUP Component Id->{}", fulfillmentTask.getTaskFulfillment().getFulfillerWorkUnitProcessor().getComponentID());
+        }
+        CompletableFuture<PetasosTaskExecutionStatusEnum> grantedStatusFuture = taskExecutionController.requestTaskExecutionPrivilegeAsync(fulfillmentTask.getInstance(), timeoutInMilliseconds)
+                .thenApply(petasosTaskExecutionStatus -> {
+                    fulfillmentTask.getTaskJobCard().setGrantedStatus(petasosTaskExecutionStatus);
+                    fulfillmentTask.update();
+                    getLogger().debug(".requestFulfillmentTaskExecutionPrivilegeAsync(): Completed, petasosTaskExecutionStatus->{}", petasosTaskExecutionStatus);
+                    return(petasosTaskExecutionStatus);
+                });
+        getLogger().debug(".requestFulfillmentTaskExecutionPrivilegeAsync(): Exit");
+        return(grantedStatusFuture);
+    }
+
     //
     // Notifications
     //
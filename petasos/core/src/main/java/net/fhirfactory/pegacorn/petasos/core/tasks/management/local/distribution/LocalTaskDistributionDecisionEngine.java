@@ -50,10 +50,18 @@ public class LocalTaskDistributionDecisionEngine {
     @Inject
     private ProcessingPlantInterface processingPlant;
 
+    private volatile LocalTaskDistributionSubscriptionIndex subscriptionIndex;
+    private Object subscriptionIndexLock;
+
     //
     // Constructor(s)
     //
 
+    public LocalTaskDistributionDecisionEngine(){
+        this.subscriptionIndex = null;
+        this.subscriptionIndexLock = new Object();
+    }
+
     //
     // Getters (and Setters)
     //
@@ -192,11 +200,12 @@ public class LocalTaskDistributionDecisionEngine {
         }
         List<PetasosParticipant> subscriberList = new ArrayList<>();
 
-        Set<PetasosParticipant> participants = getLocalPetasosParticipantCacheDM().getAllPetasosParticipants();
+        LocalTaskDistributionSubscriptionIndex currentIndex = getSubscriptionIndex();
 
         List<String> alreadySubscribedSubsystemParticipants = new ArrayList<>();
 
-        for(PetasosParticipant currentParticipant: participants) {
+        for(LocalTaskDistributionSubscriptionIndex.CandidateParticipant currentCandidate: currentIndex.getCandidates(parcelManifest)) {
+            PetasosParticipant currentParticipant = currentCandidate.getParticipant();
             boolean passFirstPhaseTest = false;
             if(isRemoteParticipant(currentParticipant)){
                 if(alreadySubscribedSubsystemParticipants.contains(currentParticipant.getSubsystemParticipantName())){
@@ -209,7 +218,7 @@ public class LocalTaskDistributionDecisionEngine {
             }
             if (passFirstPhaseTest) {
                 getLogger().debug(".deriveSubscriberList(): Processing participant->{}/{}", currentParticipant.getParticipantName(), currentParticipant.getSubsystemParticipantName());
-                for (TaskWorkItemSubscriptionType currentSubscription : currentParticipant.getSubscriptions()) {
+                for (TaskWorkItemSubscriptionType currentSubscription : currentCandidate.getSubscriptions()) {
                     if (applySubscriptionFilter(currentSubscription, parcelManifest)) {
                         if (!subscriberList.contains(currentParticipant)) {
                             subscriberList.add(currentParticipant);
@@ -228,6 +237,31 @@ public class LocalTaskDistributionDecisionEngine {
         return(subscriberList);
     }
 
+    /**
+     * Returns the subscription index for the current content of the LocalPetasosParticipantCacheDM, rebuilding it
+     * if the cache has changed since the index was last built. The cache version is read before the participants,
+     * so a change made during a rebuild is picked up by the next lookup.
+     *
+     * @return the current subscription index
+     */
+    protected LocalTaskDistributionSubscriptionIndex getSubscriptionIndex(){
+        long cacheVersion = getLocalPetasosParticipantCacheDM().getParticipantCacheVersion();
+        LocalTaskDistributionSubscriptionIndex currentIndex = subscriptionIndex;
+        if(currentIndex != null && currentIndex.getParticipantCacheVersion() == cacheVersion){
+            return(currentIndex);
+        }
+        synchronized (subscriptionIndexLock){
+            currentIndex = subscriptionIndex;
+            if(currentIndex == null || currentIndex.getParticipantCacheVersion() != cacheVersion){
+                Set<PetasosParticipant> participants = getLocalPetasosParticipantCacheDM().getAllPetasosParticipants();
+                currentIndex = new LocalTaskDistributionSubscriptionIndex(cacheVersion, participants);
+                subscriptionIndex = currentIndex;
+                getLogger().debug(".getSubscriptionIndex(): Rebuilt, cacheVersion->{}, participants->{}, subscriptions->{}", cacheVersion, currentIndex.getParticipantCount(), currentIndex.getSubscriptionCount());
+            }
+        }
+        return(currentIndex);
+    }
+
     protected boolean isRemoteParticipant(PetasosParticipant participant){
         if(participant == null){
             return(false);
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.core.tasks.management.local.distribution;
+
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
+import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
+import net.fhirfactory.pegacorn.core.model.petasos.participant.PetasosParticipant;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.work.datatypes.TaskWorkItemSubscriptionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, pre-compiled index of the subscriptions held by a set of PetasosParticipants, used to find the
+ * subscriptions which could possibly match a DataParcelManifest without testing every subscription.
+ *
+ * Subscriptions are first bucketed on the qualifiers which must match exactly (DataParcelType, flow direction and
+ * inter-subsystem distributability) and then placed in a trie keyed on the eight DataParcelTypeDescriptor elements
+ * (definer, category, subcategory, resource, segment, attribute, discriminator type and value). A subscription
+ * element of "*" is stored on the wildcard branch, so a lookup follows at most the exact and the wildcard branch at
+ * each level - mirroring DataParcelTypeDescriptor.isEqualWithWildcardsInOther().
+ *
+ * A subscription is indexed by its content descriptor and by its container descriptor (as it can match on either),
+ * so a lookup returns a superset of the matching subscriptions: the candidates must still be checked with the full
+ * subscription filter.
+ */
+public class LocalTaskDistributionSubscriptionIndex {
+
+    private static final int DESCRIPTOR_DEPTH = 8;
+
+    private final long participantCacheVersion;
+    private final Map<List<Object>, DescriptorTrieNode> contentIndex;
+    private final Map<List<Object>, DescriptorTrieNode> containerIndex;
+    private final int participantCount;
+    private final int subscriptionCount;
+
+    //
+    // Constructor(s)
+    //
+
+    public LocalTaskDistributionSubscriptionIndex(long participantCacheVersion, Collection<PetasosParticipant> participants){
+        this.participantCacheVersion = participantCacheVersion;
+        this.contentIndex = new HashMap<>();
+        this.containerIndex = new HashMap<>();
+        int ordinal = 0;
+        int subscriptions = 0;
+        for(PetasosParticipant currentParticipant: participants){
+            for(TaskWorkItemSubscriptionType currentSubscription: currentParticipant.getSubscriptions()){
+                SubscriptionEntry entry = new SubscriptionEntry(ordinal, currentParticipant, currentSubscription);
+                List<Object> qualifierKey = qualifierKey(currentSubscription);
+                if(currentSubscription.hasContentDescriptor()){
+                    contentIndex.computeIfAbsent(qualifierKey, key -> new DescriptorTrieNode()).add(currentSubscription.getContentDescriptor(), entry);
+                }
+                if(currentSubscription.hasContainerDescriptor()){
+                    containerIndex.computeIfAbsent(qualifierKey, key -> new DescriptorTrieNode()).add(currentSubscription.getContainerDescriptor(), entry);
+                }
+                subscriptions += 1;
+            }
+            ordinal += 1;
+        }
+        this.participantCount = ordinal;
+        this.subscriptionCount = subscriptions;
+    }
+
+    //
+    // Business Methods
+    //
+
+    /**
+     * Returns the candidate subscriptions for the manifest, grouped by participant, in the order the participants
+     * were supplied when the index was built.
+     *
+     * @param manifest the published DataParcelManifest
+     * @return the candidate subscriptions for each participant
+     */
+    public List<CandidateParticipant> getCandidates(DataParcelManifest manifest){
+        List<CandidateParticipant> candidates = new ArrayList<>();
+        if(manifest == null){
+            return(candidates);
+        }
+        List<SubscriptionEntry> entries = new ArrayList<>();
+        List<Object> qualifierKey = qualifierKey(manifest);
+        if(manifest.hasContentDescriptor()){
+            DescriptorTrieNode contentRoot = contentIndex.get(qualifierKey);
+            if(contentRoot != null){
+                contentRoot.collect(manifest.getContentDescriptor(), entries);
+            }
+        }
+        if(manifest.hasContainerDescriptor()){
+            DescriptorTrieNode containerRoot = containerIndex.get(qualifierKey);
+            if(containerRoot != null){
+                containerRoot.collect(manifest.getContainerDescriptor(), entries);
+            }
+        }
+        if(entries.isEmpty()){
+            return(candidates);
+        }
+        entries.sort(Comparator.comparingInt(SubscriptionEntry::getParticipantOrdinal));
+        CandidateParticipant currentCandidate = null;
+        Set<TaskWorkItemSubscriptionType> addedSubscriptions = java.util.Collections.newSetFromMap(new IdentityHashMap<>());
+        for(SubscriptionEntry currentEntry: entries){
+            if(currentCandidate == null || currentCandidate.getParticipantOrdinal() != currentEntry.getParticipantOrdinal()){
+                currentCandidate = new CandidateParticipant(currentEntry.getParticipantOrdinal(), currentEntry.getParticipant());
+                candidates.add(currentCandidate);
+            }
+            if(addedSubscriptions.add(currentEntry.getSubscription())){
+                currentCandidate.getSubscriptions().add(currentEntry.getSubscription());
+            }
+        }
+        return(candidates);
+    }
+
+    //
+    // Helpers
+    //
+
+    private static List<Object> qualifierKey(TaskWorkItemSubscriptionType subscription){
+        return(Arrays.asList(subscription.getDataParcelType(), subscription.getDataParcelFlowDirection(), subscription.isInterSubsystemDistributable()));
+    }
+
+    private static List<Object> qualifierKey(DataParcelManifest manifest){
+        return(Arrays.asList(manifest.getDataParcelType(), manifest.getDataParcelFlowDirection(), manifest.isInterSubsystemDistributable()));
+    }
+
+    private static String descriptorElement(DataParcelTypeDescriptor descriptor, int level){
+        switch(level){
+            case 0: return(descriptor.getDataParcelDefiner());
+            case 1: return(descriptor.getDataParcelCategory());
+            case 2: return(descriptor.getDataParcelSubCategory());
+            case 3: return(descriptor.getDataParcelResource());
+            case 4: return(descriptor.getDataParcelSegment());
+            case 5: return(descriptor.getDataParcelAttribute());
+            case 6: return(descriptor.getDataParcelDiscriminatorType());
+            default: return(descriptor.getDataParcelDiscriminatorValue());
+        }
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    public long getParticipantCacheVersion() {
+        return participantCacheVersion;
+    }
+
+    public int getParticipantCount() {
+        return participantCount;
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptionCount;
+    }
+
+    //
+    // Internal Types
+    //
+
+    private static class DescriptorTrieNode {
+        private final Map<String, DescriptorTrieNode> children = new HashMap<>();
+        private DescriptorTrieNode wildcardChild;
+        private List<SubscriptionEntry> entries;
+
+        void add(DataParcelTypeDescriptor descriptor, SubscriptionEntry entry){
+            DescriptorTrieNode currentNode = this;
+            for(int level = 0; level < DESCRIPTOR_DEPTH; level++){
+                String element = descriptorElement(descriptor, level);
+                if(DataParcelManifest.WILDCARD_CHARACTER.equals(element)){
+                    if(currentNode.wildcardChild == null){
+                        currentNode.wildcardChild = new DescriptorTrieNode();
+                    }
+                    currentNode = currentNode.wildcardChild;
+                } else {
+                    currentNode = currentNode.children.computeIfAbsent(element, key -> new DescriptorTrieNode());
+                }
+            }
+            if(currentNode.entries == null){
+                currentNode.entries = new ArrayList<>();
+            }
+            currentNode.entries.add(entry);
+        }
+
+        void collect(DataParcelTypeDescriptor descriptor, List<SubscriptionEntry> matches){
+            collect(descriptor, 0, matches);
+        }
+
+        private void collect(DataParcelTypeDescriptor descriptor, int level, List<SubscriptionEntry> matches){
+            if(level == DESCRIPTOR_DEPTH){
+                if(entries != null){
+                    matches.addAll(entries);
+                }
+                return;
+            }
+            DescriptorTrieNode exactChild = children.get(descriptorElement(descriptor, level));
+            if(exactChild != null){
+                exactChild.collect(descriptor, level + 1, matches);
+            }
+            if(wildcardChild != null){
+                wildcardChild.collect(descriptor, level + 1, matches);
+            }
+        }
+    }
+
+    private static class SubscriptionEntry {
+        private final int participantOrdinal;
+        private final PetasosParticipant participant;
+        private final TaskWorkItemSubscriptionType subscription;
+
+        SubscriptionEntry(int participantOrdinal, PetasosParticipant participant, TaskWorkItemSubscriptionType subscription){
+            this.participantOrdinal = participantOrdinal;
+            this.participant = participant;
+            this.subscription = subscription;
+        }
+
+        int getParticipantOrdinal() {
+            return participantOrdinal;
+        }
+
+        PetasosParticipant getParticipant() {
+            return participant;
+        }
+
+        TaskWorkItemSubscriptionType getSubscription() {
+            return subscription;
+        }
+    }
+
+    public static class CandidateParticipant {
+        private final int participantOrdinal;
+        private final PetasosParticipant participant;
+        private final List<TaskWorkItemSubscriptionType> subscriptions;
+
+        CandidateParticipant(int participantOrdinal, PetasosParticipant participant){
+            this.participantOrdinal = participantOrdinal;
+            this.participant = participant;
+            this.subscriptions = new ArrayList<>();
+        }
+
+        int getParticipantOrdinal() {
+            return participantOrdinal;
+        }
+
+        public PetasosParticipant getParticipant() {
+            return participant;
+        }
+
+        public List<TaskWorkItemSubscriptionType> getSubscriptions() {
+            return subscriptions;
+        }
+    }
+}
@@ -32,6 +32,7 @@ import net.fhirfactory.pegacorn.deployment.topology.manager.TopologyIM;
 import net.fhirfactory.pegacorn.petasos.core.tasks.accessors.PetasosActionableTaskSharedInstance;
 import net.fhirfactory.pegacorn.petasos.core.tasks.accessors.PetasosActionableTaskSharedInstanceAccessorFactory;
 import net.fhirfactory.pegacorn.petasos.core.tasks.accessors.PetasosTaskJobCardSharedInstanceAccessorFactory;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.payloads.SharedTaskPayloadStore;
 import net.fhirfactory.pegacorn.petasos.core.tasks.caches.shared.ParticipantSharedActionableTaskCache;
 import net.fhirfactory.pegacorn.petasos.core.tasks.factories.PetasosActionableTaskFactory;
 import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
@@ -83,6 +84,9 @@ public class TaskOutcome2NewTasksBean {
     @Inject
     private PetasosTaskJobCardFactory jobCardFactory;
 
+    @Inject
+    private SharedTaskPayloadStore payloadStore;
+
     /**
      * This method performs tree key tasks:
      *
@@ -132,6 +136,8 @@ public class TaskOutcome2NewTasksBean {
                     getLogger().debug(".collectOutcomesAndCreateNewTasks(): number of subscribers for egressPayload->{} is count->{}", payloadManifest, subscriberList.size());
                 }
                 if (!subscriberList.isEmpty()) {
+                    // share the body once, so every subscriber's task (and each clone of it) refers to the same copy
+                    payloadStore.sharePayload(currentPayload);
                     for(PetasosParticipant currentSubscriber: subscriberList) {
                         TaskWorkItemType newWorkItem = new TaskWorkItemType(currentPayload);
                         getLogger().trace(".collectOutcomesAndCreateNewTasks(): newWorkItem->{}", newWorkItem);
@@ -28,20 +28,44 @@ import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datat
 import net.fhirfactory.pegacorn.core.model.petasos.wup.valuesets.PetasosTaskExecutionStatusEnum;
 import net.fhirfactory.pegacorn.deployment.properties.reference.petasos.PetasosDefaultProperties;
 import net.fhirfactory.pegacorn.petasos.core.tasks.accessors.*;
+import net.fhirfactory.pegacorn.util.PegacornEnvironmentProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ApplicationScoped
 public class ParticipantTaskExecutionController {
     private static final Logger LOG = LoggerFactory.getLogger(ParticipantTaskExecutionController.class);
 
+    private static final String EXECUTION_PRIVILEGE_WORKER_COUNT_PROPERTY = "PETASOS_EXECUTION_PRIVILEGE_WORKER_COUNT";
+    private static final String EXECUTION_PRIVILEGE_QUEUE_SIZE_PROPERTY = "PETASOS_EXECUTION_PRIVILEGE_QUEUE_SIZE";
+    private static final Integer DEFAULT_EXECUTION_PRIVILEGE_WORKER_COUNT = 4;
+    private static final Integer DEFAULT_EXECUTION_PRIVILEGE_QUEUE_SIZE = 1000;
+
     private boolean initialised;
 
+    private ConcurrentHashMap<TaskIdType, List<TaskExecutionPrivilegeWaiter>> executionPrivilegeWaiters;
+    private ScheduledExecutorService executionPrivilegeTimer;
+    private ExecutorService executionPrivilegeWorkers;
+
     @Inject
     private PetasosActionableTaskSharedInstanceAccessorFactory actionableTaskSharedInstanceAccessorFactory;
 
@@ -57,12 +81,16 @@ public class ParticipantTaskExecutionController {
     @Inject
     private PetasosDefaultProperties petasosDefaultProperties;
 
+    @Inject
+    private PegacornEnvironmentProperties environmentProperties;
+
     //
     // Constructor(s)
     //
 
     public ParticipantTaskExecutionController(){
         this.initialised = false;
+        this.executionPrivilegeWaiters = new ConcurrentHashMap<>();
     }
 
     //
@@ -71,7 +99,43 @@ public class ParticipantTaskExecutionController {
 
     @PostConstruct
     public void initialise(){
+        getLogger().debug(".initialise(): Entry");
+        if(!this.initialised) {
+            this.executionPrivilegeTimer = Executors.newSingleThreadScheduledExecutor(newDaemonThreadFactory("PetasosTaskExecutionPrivilegeTimer"));
+            int workerCount = DEFAULT_EXECUTION_PRIVILEGE_WORKER_COUNT;
+            int queueSize = DEFAULT_EXECUTION_PRIVILEGE_QUEUE_SIZE;
+            if(environmentProperties != null){
+                workerCount = environmentProperties.getIntegerProperty(EXECUTION_PRIVILEGE_WORKER_COUNT_PROPERTY, DEFAULT_EXECUTION_PRIVILEGE_WORKER_COUNT);
+                queueSize = environmentProperties.getIntegerProperty(EXECUTION_PRIVILEGE_QUEUE_SIZE_PROPERTY, DEFAULT_EXECUTION_PRIVILEGE_QUEUE_SIZE);
+            }
+            // A fixed number of workers, taking evaluations (and completions) in arrival order. When the queue is full
+            // the submitting thread runs the evaluation itself - so a burst slows its producers down rather than
+            // creating more threads.
+            workerCount = Math.max(1, workerCount);
+            this.executionPrivilegeWorkers = new ThreadPoolExecutor(workerCount, workerCount, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, queueSize)),
+                    newDaemonThreadFactory("PetasosTaskExecutionPrivilegeWorker"),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            getLogger().info(".initialise(): Execution privilege workers started, workerCount->{}, queueSize->{}", workerCount, queueSize);
+            this.initialised = true;
+        }
+        getLogger().debug(".initialise(): Exit");
+    }
 
+    @PreDestroy
+    public void shutdown(){
+        getLogger().debug(".shutdown(): Entry");
+        if(this.initialised) {
+            for (List<TaskExecutionPrivilegeWaiter> currentWaiterList : executionPrivilegeWaiters.values()) {
+                for (TaskExecutionPrivilegeWaiter currentWaiter : currentWaiterList) {
+                    currentWaiter.complete(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_CANCELLED);
+                }
+            }
+            this.executionPrivilegeTimer.shutdownNow();
+            this.executionPrivilegeWorkers.shutdown();
+            this.initialised = false;
+        }
+        getLogger().debug(".shutdown(): Exit");
     }
 
     //
@@ -200,6 +264,7 @@ public class ParticipantTaskExecutionController {
                 }
             }
         }
+        signalTaskExecutionPrivilegeWaiters(fulfillmentTask.getActionableTaskId());
         getLogger().debug(".reportTaskExecutionStart(): Exit, grantedStatus->{}", grantedStatus);
         return (grantedStatus);
     }
@@ -250,6 +315,7 @@ public class ParticipantTaskExecutionController {
                 }
             }
         }
+        signalTaskExecutionPrivilegeWaiters(fulfillmentTask.getActionableTaskId());
         getLogger().debug(".reportTaskExecutionFinish(): Exit, grantedStatus->{}", grantedStatus);
         return(grantedStatus);
     }
@@ -288,6 +354,7 @@ public class ParticipantTaskExecutionController {
                 }
             }
         }
+        signalTaskExecutionPrivilegeWaiters(fulfillmentTask.getActionableTaskId());
         getLogger().debug(".reportTaskExecutionFailure(): Exit, localJobCard->{}", grantedStatus);
         return(grantedStatus);
     }
@@ -326,10 +393,203 @@ public class ParticipantTaskExecutionController {
                 }
             }
         }
+        signalTaskExecutionPrivilegeWaiters(fulfillmentTask.getActionableTaskId());
         getLogger().debug(".reportTaskCancellation(): Exit, localJobCard->{}", grantedStatus);
         return(grantedStatus);
     }
 
+    //
+    // Execution Privilege Waiters
+    //
+
+    /**
+     * Asynchronous form of requestTaskExecutionPrivilege(). If the privilege can be decided now, the returned future
+     * is already complete. Otherwise a waiter is registered against the ActionableTask and the future completes when
+     * the PetasosTaskJobCard changes (see signalTaskExecutionPrivilegeWaiters()), when the node-affinity reallocation
+     * period expires, or - with PETASOS_TASK_ACTIVITY_STATUS_WAITING - when the timeout elapses.
+     *
+     * Completion normally happens on the controller's (bounded) worker threads; if they are saturated the thread that
+     * triggered the evaluation (or the timeout) runs it, which pushes back on the producers instead of growing the
+     * pool, and the returned future may then already be complete. Either way the completing thread isn't the caller's
+     * to keep - callers must hand any real work (e.g. resuming an Exchange) to their own executor, using the
+     * *Async() forms of the CompletableFuture continuations, rather than run it inline.
+     *
+     * @param fulfillmentTask the PetasosFulfillmentTask requesting execution privileges
+     * @param timeoutInMilliseconds how long to wait before completing with PETASOS_TASK_ACTIVITY_STATUS_WAITING
+     * @return a future holding the granted status
+     */
+    public CompletableFuture<PetasosTaskExecutionStatusEnum> requestTaskExecutionPrivilegeAsync(PetasosFulfillmentTask fulfillmentTask, long timeoutInMilliseconds){
+        getLogger().debug(".requestTaskExecutionPrivilegeAsync(): Entry, fulfillmentTask->{}, timeoutInMilliseconds->{}", fulfillmentTask, timeoutInMilliseconds);
+        PetasosTaskExecutionStatusEnum grantedStatus = requestTaskExecutionPrivilege(fulfillmentTask);
+        if(grantedStatus != PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING){
+            getLogger().debug(".requestTaskExecutionPrivilegeAsync(): Exit, decided immediately, grantedStatus->{}", grantedStatus);
+            return(CompletableFuture.completedFuture(grantedStatus));
+        }
+        TaskIdType actionableTaskId = fulfillmentTask.getActionableTaskId();
+        TaskExecutionPrivilegeWaiter waiter = new TaskExecutionPrivilegeWaiter(fulfillmentTask);
+        executionPrivilegeWaiters.compute(actionableTaskId, (key, waiterList) -> {
+            List<TaskExecutionPrivilegeWaiter> updatedWaiterList = waiterList;
+            if(updatedWaiterList == null){
+                updatedWaiterList = new CopyOnWriteArrayList<>();
+            }
+            updatedWaiterList.add(waiter);
+            return(updatedWaiterList);
+        });
+        waiter.getFuture().whenComplete((status, error) -> removeExecutionPrivilegeWaiter(actionableTaskId, waiter));
+        //
+        // Re-check at the point the node-affinity preference lapses, and complete with WAITING at the timeout
+        long reallocationDelay = getReallocationDelayInMilliseconds(actionableTaskId);
+        if(reallocationDelay >= 0 && reallocationDelay < timeoutInMilliseconds){
+            waiter.addScheduledCheck(executionPrivilegeTimer.schedule(() -> dispatchEvaluation(waiter), reallocationDelay, TimeUnit.MILLISECONDS));
+        }
+        waiter.addScheduledCheck(executionPrivilegeTimer.schedule(() -> executionPrivilegeWorkers.execute(() -> waiter.complete(PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING)), timeoutInMilliseconds, TimeUnit.MILLISECONDS));
+        //
+        // Close the window between the first evaluation and the waiter registration
+        dispatchEvaluation(waiter);
+        getLogger().debug(".requestTaskExecutionPrivilegeAsync(): Exit, waiter registered");
+        return(waiter.getFuture());
+    }
+
+    /**
+     * Re-evaluates the execution privilege requests waiting on the given ActionableTask. Called whenever the
+     * PetasosTaskJobCard of the ActionableTask is changed.
+     *
+     * @param actionableTaskId the ActionableTask whose PetasosTaskJobCard has changed
+     */
+    public void signalTaskExecutionPrivilegeWaiters(TaskIdType actionableTaskId){
+        getLogger().debug(".signalTaskExecutionPrivilegeWaiters(): Entry, actionableTaskId->{}", actionableTaskId);
+        if(actionableTaskId == null){
+            return;
+        }
+        List<TaskExecutionPrivilegeWaiter> waiterList = executionPrivilegeWaiters.get(actionableTaskId);
+        if(waiterList != null){
+            for(TaskExecutionPrivilegeWaiter currentWaiter: waiterList){
+                dispatchEvaluation(currentWaiter);
+            }
+        }
+        getLogger().debug(".signalTaskExecutionPrivilegeWaiters(): Exit");
+    }
+
+    public int getExecutionPrivilegeWaiterCount(){
+        int count = 0;
+        for(List<TaskExecutionPrivilegeWaiter> currentWaiterList: executionPrivilegeWaiters.values()){
+            count += currentWaiterList.size();
+        }
+        return(count);
+    }
+
+    private void dispatchEvaluation(TaskExecutionPrivilegeWaiter waiter){
+        if(waiter.isDone()){
+            return;
+        }
+        executionPrivilegeWorkers.execute(() -> evaluateWaiter(waiter));
+    }
+
+    private void evaluateWaiter(TaskExecutionPrivilegeWaiter waiter){
+        getLogger().debug(".evaluateWaiter(): Entry, waiter->{}", waiter);
+        if(waiter.isDone()){
+            return;
+        }
+        // Only one evaluation per waiter at a time, so a grant can't be made twice
+        synchronized (waiter) {
+            if (waiter.isDone()) {
+                return;
+            }
+            try {
+                PetasosTaskExecutionStatusEnum grantedStatus = requestTaskExecutionPrivilege(waiter.getFulfillmentTask());
+                if (grantedStatus != PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING) {
+                    waiter.complete(grantedStatus);
+                }
+            } catch (Exception ex) {
+                getLogger().warn(".evaluateWaiter(): Could not evaluate execution privilege, message->{}", ex.getMessage());
+                waiter.completeExceptionally(ex);
+            }
+        }
+        getLogger().debug(".evaluateWaiter(): Exit");
+    }
+
+    private void removeExecutionPrivilegeWaiter(TaskIdType actionableTaskId, TaskExecutionPrivilegeWaiter waiter){
+        waiter.cancelScheduledChecks();
+        executionPrivilegeWaiters.computeIfPresent(actionableTaskId, (key, waiterList) -> {
+            waiterList.remove(waiter);
+            if(waiterList.isEmpty()){
+                return(null);
+            }
+            return(waiterList);
+        });
+    }
+
+    private long getReallocationDelayInMilliseconds(TaskIdType actionableTaskId){
+        PetasosActionableTaskSharedInstance actionableTask = getActionableTaskSharedInstanceAccessorFactory().getActionableTaskSharedInstance(actionableTaskId);
+        if(actionableTask == null || actionableTask.getCreationInstant() == null){
+            return(-1);
+        }
+        // requestTaskExecutionPrivilege() compares whole seconds, so check just after the next second boundary
+        long reallocationEpochSecond = actionableTask.getCreationInstant().getEpochSecond() + getPetasosDefaultProperties().getPetasosTaskWaitTimeExecutionReallocation() + 1;
+        return(Math.max(0L, (reallocationEpochSecond * 1000L) - Instant.now().toEpochMilli()));
+    }
+
+    private static ThreadFactory newDaemonThreadFactory(String threadNamePrefix){
+        AtomicInteger threadCount = new AtomicInteger(0);
+        return(runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return(thread);
+        });
+    }
+
+    private static class TaskExecutionPrivilegeWaiter {
+        private final PetasosFulfillmentTask fulfillmentTask;
+        private final CompletableFuture<PetasosTaskExecutionStatusEnum> future;
+        private final List<ScheduledFuture<?>> scheduledChecks;
+
+        TaskExecutionPrivilegeWaiter(PetasosFulfillmentTask fulfillmentTask){
+            this.fulfillmentTask = fulfillmentTask;
+            this.future = new CompletableFuture<>();
+            this.scheduledChecks = new CopyOnWriteArrayList<>();
+        }
+
+        PetasosFulfillmentTask getFulfillmentTask() {
+            return fulfillmentTask;
+        }
+
+        CompletableFuture<PetasosTaskExecutionStatusEnum> getFuture() {
+            return future;
+        }
+
+        boolean isDone(){
+            return(future.isDone());
+        }
+
+        void complete(PetasosTaskExecutionStatusEnum status){
+            future.complete(status);
+        }
+
+        void completeExceptionally(Throwable error){
+            future.completeExceptionally(error);
+        }
+
+        void addScheduledCheck(ScheduledFuture<?> scheduledCheck){
+            scheduledChecks.add(scheduledCheck);
+            if(future.isDone()){
+                scheduledCheck.cancel(false);
+            }
+        }
+
+        void cancelScheduledChecks(){
+            for(ScheduledFuture<?> currentCheck: scheduledChecks){
+                currentCheck.cancel(false);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "TaskExecutionPrivilegeWaiter{" +
+                    "fulfillmentTaskId=" + fulfillmentTask.getTaskId() +
+                    ", done=" + future.isDone() +
+                    '}';
+        }
+    }
 
     //
     // Getters (and Setters)
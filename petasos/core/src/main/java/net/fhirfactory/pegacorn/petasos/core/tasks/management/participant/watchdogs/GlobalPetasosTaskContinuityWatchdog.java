@@ -25,6 +25,7 @@ import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
 import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
 import net.fhirfactory.pegacorn.petasos.core.tasks.caches.shared.ParticipantSharedActionableTaskCache;
 import net.fhirfactory.pegacorn.petasos.core.tasks.caches.shared.ParticipantSharedTaskJobCardCache;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,17 +33,18 @@ import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
 
 @ApplicationScoped
 public class GlobalPetasosTaskContinuityWatchdog {
     private static final Logger LOG = LoggerFactory.getLogger(GlobalPetasosTaskContinuityWatchdog.class);
+    private static final String RETIREMENT_SCHEDULE_NAME = "GlobalPetasosTaskContinuityWatchdog";
 
     private Long TASK_CONTINUITY_CHECK_INITIAL_DELAY = 60000L; // milliseconds
     private Long TASK_CONTINUITY_CHECK_PERIOD = 15000L; // milliseconds
     private Long MINIMUM_TASK_AGE_FOR_RETIREMENT = 15L; // Seconds
+    private Long TASK_RETIREMENT_RECHECK_PERIOD = 15L; // Seconds
+    private int TASK_RETIREMENT_BATCH_SIZE = 5000;
 
     private Instant actionableTaskCheckInstant;
     private Instant taskJobCardCheckInstant;
@@ -54,6 +56,9 @@ public class GlobalPetasosTaskContinuityWatchdog {
     @Inject
     private ParticipantSharedTaskJobCardCache taskJobCardDM;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // Constructor(s)
     //
@@ -89,15 +94,11 @@ public class GlobalPetasosTaskContinuityWatchdog {
 
     public void scheduleTaskContinuityWatchdog() {
         getLogger().debug(".scheduleTaskContinuityWatchdog(): Entry");
-        TimerTask startupWatchdogTask = new TimerTask() {
-            public void run() {
-                getLogger().debug(".taskContinuityWatchdog(): Entry");
-                taskContinuityWatchdog();
-                getLogger().debug(".taskContinuityWatchdog(): Exit");
-            }
-        };
-        Timer timer = new Timer("taskContinuityWatchdogTimer");
-        timer.schedule(startupWatchdogTask, TASK_CONTINUITY_CHECK_INITIAL_DELAY, TASK_CONTINUITY_CHECK_PERIOD);
+        sharedScheduler.schedule("taskContinuityWatchdog", () -> {
+            getLogger().debug(".taskContinuityWatchdog(): Entry");
+            taskContinuityWatchdog();
+            getLogger().debug(".taskContinuityWatchdog(): Exit");
+        }, TASK_CONTINUITY_CHECK_INITIAL_DELAY, TASK_CONTINUITY_CHECK_PERIOD);
         getLogger().debug(".scheduleTaskContinuityWatchdog(): Exit");
     }
 
@@ -108,14 +109,23 @@ public class GlobalPetasosTaskContinuityWatchdog {
 
     protected void taskContinuityWatchdog(){
         getLogger().debug(".taskContinuityWatchdog(): Entry");
-        Set<TaskIdType> allTaskIds = actionableTaskDM.getAllTaskIds();
-        for(TaskIdType currentTaskId: allTaskIds){
+        Instant retirementCutoff = Instant.now().minusSeconds(MINIMUM_TASK_AGE_FOR_RETIREMENT);
+        Instant deferredRetirementReference = retirementCutoff.plusSeconds(TASK_RETIREMENT_RECHECK_PERIOD);
+        List<TaskIdType> candidateTaskIds = actionableTaskDM.pollRetirementCandidates(RETIREMENT_SCHEDULE_NAME, retirementCutoff, TASK_RETIREMENT_BATCH_SIZE);
+        for(TaskIdType currentTaskId: candidateTaskIds){
             if(getLogger().isInfoEnabled()){
                 getLogger().debug(".taskContinuityWatchdog(): Checking task {}", currentTaskId);
             }
+            Object taskLock = actionableTaskDM.getTaskLock(currentTaskId);
+            if(taskLock == null){
+                continue;
+            }
             boolean unregisterTask = false;
-            synchronized (actionableTaskDM.getTaskLock(currentTaskId)){
+            synchronized (taskLock){
                 PetasosActionableTask currentActionableTask = actionableTaskDM.getTask(currentTaskId);
+                if(currentActionableTask == null){
+                    continue;
+                }
                 if(currentActionableTask.hasTaskCompletionSummary()){
                     if (currentActionableTask.getTaskCompletionSummary().isFinalised()) {
                         unregisterTask = true;
@@ -154,12 +164,14 @@ public class GlobalPetasosTaskContinuityWatchdog {
             if(unregisterTask){
                 getLogger().debug(".taskContinuityWatchdog(): Task {} is finalised, removing from shared cache... start", currentTaskId);
                 PetasosActionableTask unregisteredActionableTask = actionableTaskDM.removeTask(currentTaskId);
-                getLogger().debug(".taskContinuityWatchdog(): Task {} is finalised, removing from shared cache... done...");
-            }
-            if(getLogger().isDebugEnabled()){
-                getLogger().debug(".taskContinuityWatchdog(): Shared ActionableTaskCache size->{}", actionableTaskDM.getAllTaskIds().size());
+                getLogger().debug(".taskContinuityWatchdog(): Task {} is finalised, removing from shared cache... done...", currentTaskId);
+            } else {
+                actionableTaskDM.deferRetirementCheck(RETIREMENT_SCHEDULE_NAME, currentTaskId, deferredRetirementReference);
             }
         }
+        if(getLogger().isDebugEnabled()){
+            getLogger().debug(".taskContinuityWatchdog(): Shared ActionableTaskCache size->{}", actionableTaskDM.getCacheSize());
+        }
         getLogger().debug(".taskContinuityWatchdog(): Exit");
     }
 
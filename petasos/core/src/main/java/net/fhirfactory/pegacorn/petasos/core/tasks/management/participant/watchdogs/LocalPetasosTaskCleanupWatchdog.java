@@ -33,6 +33,7 @@ import net.fhirfactory.pegacorn.petasos.core.tasks.caches.shared.ParticipantShar
 import net.fhirfactory.pegacorn.petasos.core.tasks.management.participant.watchdogs.common.WatchdogBase;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.agents.ProcessingPlantMetricsAgentAccessor;
 import net.fhirfactory.pegacorn.util.PegacornProperties;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,19 +43,19 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.time.Instant;
 import java.util.List;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 
 @ApplicationScoped
 public class LocalPetasosTaskCleanupWatchdog extends WatchdogBase {
     private static final Logger LOG = LoggerFactory.getLogger(LocalPetasosTaskCleanupWatchdog.class);
+    private static final String RETIREMENT_SCHEDULE_NAME = "LocalPetasosTaskCleanupWatchdog";
 
     private Long minimumAgeForTaskRetirement;
 
     private Long TASK_CLEANUP_CHECK_INITIAL_DELAY = 60000L; // milliseconds
-    private Long TASK_CLEANUP_CHECK_PERIOD = 15000L; // milliseconds
+    private Long TASK_CLEANUP_CHECK_PERIOD = 1000L; // milliseconds
     private Long MINIMUM_TASK_AGE_FOR_RETIREMENT = 45L; // Seconds
+    private Long TASK_RETIREMENT_RECHECK_PERIOD = 15L; // Seconds
+    private int TASK_RETIREMENT_BATCH_SIZE = 5000;
 
     private Instant actionableTaskCheckInstant;
     private Instant taskJobCardCheckInstant;
@@ -77,6 +78,9 @@ public class LocalPetasosTaskCleanupWatchdog extends WatchdogBase {
     @Inject
     private ProcessingPlantInterface processingPlant;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // Constructor(s)
     //
@@ -124,43 +128,31 @@ public class LocalPetasosTaskCleanupWatchdog extends WatchdogBase {
 
     public void scheduleActionableTaskCacheWatchdog() {
         getLogger().debug(".scheduleActionableTaskCacheWatchdog(): Entry");
-        TimerTask actionableTaskCleanupActivity = new TimerTask() {
-            public void run() {
-                getLogger().debug(".actionableTaskCleanupActivity(): Entry");
-                actionableTaskCleanup();
-                getLogger().debug(".actionableTaskCleanupActivity(): Exit");
-            }
-        };
-        Timer timer = new Timer("actionableTaskCleanupActivityTimer");
-        timer.schedule(actionableTaskCleanupActivity, TASK_CLEANUP_CHECK_INITIAL_DELAY, TASK_CLEANUP_CHECK_PERIOD);
+        sharedScheduler.schedule("actionableTaskCleanupActivity", () -> {
+            getLogger().debug(".actionableTaskCleanupActivity(): Entry");
+            actionableTaskCleanup();
+            getLogger().debug(".actionableTaskCleanupActivity(): Exit");
+        }, TASK_CLEANUP_CHECK_INITIAL_DELAY, TASK_CLEANUP_CHECK_PERIOD);
         getLogger().debug(".scheduleActionableTaskCacheWatchdog(): Exit");
     }
 
     public void scheduleFulfillmentTaskCacheWatchdog() {
         getLogger().debug(".scheduleFulfillmentTaskCacheWatchdog(): Entry");
-        TimerTask fulfillmentTaskCleanupActivity = new TimerTask() {
-            public void run() {
-                getLogger().debug(".fulfillmentTaskCleanupActivity(): Entry");
-                fulfillmentTaskCleanup();
-                getLogger().debug(".fulfillmentTaskCleanupActivity(): Exit");
-            }
-        };
-        Timer timer = new Timer("fulfillmentTaskCleanupActivityTimer");
-        timer.schedule(fulfillmentTaskCleanupActivity, TASK_CLEANUP_CHECK_INITIAL_DELAY, TASK_CLEANUP_CHECK_PERIOD);
+        sharedScheduler.schedule("fulfillmentTaskCleanupActivity", () -> {
+            getLogger().debug(".fulfillmentTaskCleanupActivity(): Entry");
+            fulfillmentTaskCleanup();
+            getLogger().debug(".fulfillmentTaskCleanupActivity(): Exit");
+        }, TASK_CLEANUP_CHECK_INITIAL_DELAY, TASK_CLEANUP_CHECK_PERIOD);
         getLogger().debug(".scheduleFulfillmentTaskCacheWatchdog(): Exit");
     }
 
      public void scheduleJobCardCacheWatchdog() {
          getLogger().debug(".scheduleJobCardCacheWatchdog(): Entry");
-         TimerTask jobCardCleanupActivity = new TimerTask() {
-             public void run() {
-                 getLogger().debug(".jobCardCleanupActivity(): Entry");
-                 jobCardCleanup();
-                 getLogger().debug(".jobCardCleanupActivity(): Exit");
-             }
-         };
-         Timer timer = new Timer("JobCardTaskCleanupActivityTimer");
-         timer.schedule(jobCardCleanupActivity, TASK_CLEANUP_CHECK_INITIAL_DELAY, TASK_CLEANUP_CHECK_PERIOD);
+         sharedScheduler.schedule("jobCardCleanupActivity", () -> {
+             getLogger().debug(".jobCardCleanupActivity(): Entry");
+             jobCardCleanup();
+             getLogger().debug(".jobCardCleanupActivity(): Exit");
+         }, TASK_CLEANUP_CHECK_INITIAL_DELAY, TASK_CLEANUP_CHECK_PERIOD);
          getLogger().debug(".scheduleJobCardCacheWatchdog(): Exit");
      }
 
@@ -170,15 +162,24 @@ public class LocalPetasosTaskCleanupWatchdog extends WatchdogBase {
 
     protected void actionableTaskCleanup(){
         getLogger().debug(".actionableTaskCleanup(): Entry");
-        Set<TaskIdType> allTaskIds = getActionableTaskDM().getAllTaskIds();
-        processingPlantMetricsAgentAccessor.getMetricsAgent().updateLocalCacheStatus("ActionableTaskCacheSharedCache", allTaskIds.size());
-        for(TaskIdType currentTaskId: allTaskIds){
+        Instant retirementCutoff = Instant.now().minusSeconds(minimumAgeForTaskRetirement);
+        Instant deferredRetirementReference = retirementCutoff.plusSeconds(TASK_RETIREMENT_RECHECK_PERIOD);
+        List<TaskIdType> candidateTaskIds = getActionableTaskDM().pollRetirementCandidates(RETIREMENT_SCHEDULE_NAME, retirementCutoff, TASK_RETIREMENT_BATCH_SIZE);
+        for(TaskIdType currentTaskId: candidateTaskIds){
             if(getLogger().isDebugEnabled()){
                 getLogger().debug(".actionableTaskCleanup(): Checking task {}", currentTaskId);
             }
+            Object taskLock = getActionableTaskDM().getTaskLock(currentTaskId);
+            if(taskLock == null){
+                getLogger().trace(".actionableTaskCleanup(): Task {} has already been removed", currentTaskId);
+                continue;
+            }
             boolean unregisterTask = false;
-            synchronized (actionableTaskDM.getTaskLock(currentTaskId)){
+            synchronized (taskLock){
                 PetasosActionableTask currentActionableTask = getActionableTaskDM().getTask(currentTaskId);
+                if(currentActionableTask == null){
+                    continue;
+                }
                 if(currentActionableTask.hasTaskCompletionSummary()){
                     if (currentActionableTask.getTaskCompletionSummary().isFinalised()) {
                         unregisterTask = true;
@@ -217,12 +218,15 @@ public class LocalPetasosTaskCleanupWatchdog extends WatchdogBase {
             if(unregisterTask){
                 getLogger().debug(".actionableTaskCleanup(): Task {} is finalised, removing from shared cache... start", currentTaskId);
                 PetasosActionableTask unregisteredActionableTask = actionableTaskDM.removeTask(currentTaskId);
-                getLogger().debug(".actionableTaskCleanup(): Task {} is finalised, removing from shared cache... done...");
+                getLogger().debug(".actionableTaskCleanup(): Task {} is finalised, removing from shared cache... done...", currentTaskId);
+            } else {
+                getActionableTaskDM().deferRetirementCheck(RETIREMENT_SCHEDULE_NAME, currentTaskId, deferredRetirementReference);
             }
         }
         // Some metrics for the ActionableTaskCache
         Integer taskCacheSize = getActionableTaskDM().getCacheSize();
         getLogger().debug(".actionableTaskCleanup(): ActionableTaskCacheSize->{}", taskCacheSize);
+        processingPlantMetricsAgentAccessor.getMetricsAgent().updateLocalCacheStatus("ActionableTaskCacheSharedCache", taskCacheSize);
         processingPlantMetricsAgentAccessor.getMetricsAgent().updateLocalCacheStatus("SharedActionableTaskCache", taskCacheSize);
         processingPlantMetricsAgentAccessor.getMetricsAgent().touchWatchDogActivityIndicator("ActionableTaskWatchDog");
         getLogger().debug(".actionableTaskCleanup(): Exit");
@@ -234,23 +238,19 @@ public class LocalPetasosTaskCleanupWatchdog extends WatchdogBase {
 
     protected void jobCardCleanup(){
         getLogger().debug(".jobCardCleanup(): Entry");
-        List<TaskIdType> allTaskIds = getTaskJobCardDM().getJobCardTaskIdList();
-        int size = allTaskIds.size();
-        Long nowInSeconds = Instant.now().getEpochSecond();
-        for(TaskIdType currentTaskId: allTaskIds) {
-            if (getLogger().isInfoEnabled()) {
+        Instant retirementCutoff = Instant.now().minusSeconds(minimumAgeForTaskRetirement);
+        List<TaskIdType> candidateTaskIds = getTaskJobCardDM().pollRetirementCandidates(retirementCutoff, TASK_RETIREMENT_BATCH_SIZE);
+        for(TaskIdType currentTaskId: candidateTaskIds) {
+            if (getLogger().isDebugEnabled()) {
                 getLogger().debug(".jobCardCleanup(): Checking task {}", currentTaskId);
             }
             PetasosTaskJobCard jobCard = getTaskJobCardDM().getJobCard(currentTaskId);
             if(jobCard != null){
-                Long age = nowInSeconds - jobCard.getCreationInstant().getEpochSecond();
-                if(age > minimumAgeForTaskRetirement){
-                    taskJobCardDM.removeJobCard(jobCard);
-                    size -= 1;
-                }
+                taskJobCardDM.removeJobCard(jobCard);
             }
         }
         // Some metrics for the JobCardCache
+        int size = getTaskJobCardDM().getJobCardCacheSize();
         getLogger().debug(".jobCardCleanup(): jobCardCacheSize->{}", size);
         processingPlantMetricsAgentAccessor.getMetricsAgent().updateLocalCacheStatus("TaskJobCardCacheSize", size);
         processingPlantMetricsAgentAccessor.getMetricsAgent().touchWatchDogActivityIndicator("JobCardWatchDog");
@@ -263,9 +263,15 @@ public class LocalPetasosTaskCleanupWatchdog extends WatchdogBase {
 
     protected void fulfillmentTaskCleanup(){
         getLogger().debug(".fulfillmentTaskCleanup(): Entry");
-        List<PetasosFulfillmentTask> allTasks = fulfillmentTaskCache.getFulfillmentTaskList();
-        for(PetasosFulfillmentTask currentTask: allTasks){
-            if(getLogger().isInfoEnabled()){
+        Instant retirementCutoff = Instant.now().minusSeconds(minimumAgeForTaskRetirement);
+        Instant deferredRetirementReference = retirementCutoff.plusSeconds(TASK_RETIREMENT_RECHECK_PERIOD);
+        List<TaskIdType> candidateTaskIds = fulfillmentTaskCache.pollRetirementCandidates(retirementCutoff, TASK_RETIREMENT_BATCH_SIZE);
+        for(TaskIdType currentTaskId: candidateTaskIds){
+            PetasosFulfillmentTask currentTask = (PetasosFulfillmentTask) fulfillmentTaskCache.getTask(currentTaskId);
+            if(currentTask == null){
+                continue;
+            }
+            if(getLogger().isDebugEnabled()){
                 getLogger().debug(".fulfillmentTaskCleanup(): Checking task {}", currentTask);
             }
             boolean unregisterTask = false;
@@ -306,6 +312,8 @@ public class LocalPetasosTaskCleanupWatchdog extends WatchdogBase {
                         taskJobCardDM.removeJobCard(jobCard);
                     }
                 }
+            } else {
+                fulfillmentTaskCache.deferRetirementCheck(currentTaskId, deferredRetirementReference);
             }
         }
         // Some metrics for the FulfillmentCache
@@ -167,35 +167,22 @@ public class EndpointMetricsAgent extends ComponentMetricsAgentBase {
 
     @JsonIgnore
     public void incrementRemoteProcedureCallCount(){
-        getLogger().debug(".incrementRemoteProcedureCallCount(): Entry");
-        synchronized (getMetricsDataLock()){
-            int count = getEndpointMetricsData().getRemoteProcedureCallCount();
-            count += 1;
-            getEndpointMetricsData().setRemoteProcedureCallCount(count);
-        }
-        getLogger().debug(".incrementRemoteProcedureCallCount(): Exit");
+        getEndpointMetricsData().incrementRemoteProcedureCallCount();
     }
 
     @JsonIgnore
     public void incrementRemoteProcedureCallFailureCount(){
-        getLogger().debug(".incrementRemoteProcedureCallFailureCount(): Entry");
-        synchronized (getMetricsDataLock()){
-            int count = getEndpointMetricsData().getRemoteProcedureCallFailureCount();
-            count += 1;
-            getEndpointMetricsData().setRemoteProcedureCallCount(count);
-        }
-        getLogger().debug(".incrementRemoteProcedureCallFailureCount(): Exit");
+        getEndpointMetricsData().incrementRemoteProcedureCallFailureCount();
     }
 
     @JsonIgnore
     public void incrementRemoteProcedureCallHandledCount(){
-        getLogger().debug(".incrementRemoteProcedureCallHandledCount(): Entry");
-        synchronized (getMetricsDataLock()){
-            int count = getEndpointMetricsData().getRemoteProcedureCallCount();
-            count += 1;
-            getEndpointMetricsData().setRemoteProcedureCallCount(count);
-        }
-        getLogger().debug(".incrementRemoteProcedureCallHandledCount(): Exit");
+        getEndpointMetricsData().incrementRemoteProcedureCallHandledCount();
+    }
+
+    @JsonIgnore
+    public void recordRemoteProcedureCallDuration(long durationInMicroseconds){
+        getEndpointMetricsData().getRemoteProcedureCallDurationHistogram().recordMicroseconds(durationInMicroseconds);
     }
 
     @JsonIgnore
@@ -210,42 +197,21 @@ public class EndpointMetricsAgent extends ComponentMetricsAgentBase {
     @JsonIgnore
     public void incrementRPCRequestCount(String targetParticipantName){
         if(StringUtils.isNotEmpty(targetParticipantName)){
-            synchronized (getMetricsDataLock()){
-                if(!getEndpointMetricsData().getRemoteProcedureCallRequestsMap().containsKey(targetParticipantName)){
-                    getEndpointMetricsData().getRemoteProcedureCallRequestsMap().put(targetParticipantName, 0);
-                }
-                Integer count = getEndpointMetricsData().getRemoteProcedureCallRequestsMap().get(targetParticipantName);
-                Integer newValue = count + 1;
-                getEndpointMetricsData().getRemoteProcedureCallRequestsMap().replace(targetParticipantName, newValue);
-            }
+            getEndpointMetricsData().getRemoteProcedureCallRequestsMap().merge(targetParticipantName, 1, Integer::sum);
         }
     }
 
     @JsonIgnore
     public void incrementRPCResponseCount(String targetParticipantName){
         if(StringUtils.isNotEmpty(targetParticipantName)){
-            synchronized (getMetricsDataLock()){
-                if(!getEndpointMetricsData().getRemoteProcedureCallResponsesMap().containsKey(targetParticipantName)){
-                    getEndpointMetricsData().getRemoteProcedureCallResponsesMap().put(targetParticipantName, 0);
-                }
-                Integer count = getEndpointMetricsData().getRemoteProcedureCallResponsesMap().get(targetParticipantName);
-                Integer newValue = count + 1;
-                getEndpointMetricsData().getRemoteProcedureCallResponsesMap().replace(targetParticipantName, newValue);
-            }
+            getEndpointMetricsData().getRemoteProcedureCallResponsesMap().merge(targetParticipantName, 1, Integer::sum);
         }
     }
 
     @JsonIgnore
     public void incrementRPCFailureCount(String targetParticipantName){
         if(StringUtils.isNotEmpty(targetParticipantName)){
-            synchronized (getMetricsDataLock()){
-                if(!getEndpointMetricsData().getRemoteProcedureCallFailuresMap().containsKey(targetParticipantName)){
-                    getEndpointMetricsData().getRemoteProcedureCallFailuresMap().put(targetParticipantName, 0);
-                }
-                Integer count = getEndpointMetricsData().getRemoteProcedureCallFailuresMap().get(targetParticipantName);
-                Integer newValue = count + 1;
-                getEndpointMetricsData().getRemoteProcedureCallFailuresMap().replace(targetParticipantName, newValue);
-            }
+            getEndpointMetricsData().getRemoteProcedureCallFailuresMap().merge(targetParticipantName, 1, Integer::sum);
         }
     }
 
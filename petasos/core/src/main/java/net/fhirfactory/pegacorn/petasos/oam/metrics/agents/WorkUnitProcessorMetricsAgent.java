@@ -26,6 +26,7 @@ import net.fhirfactory.pegacorn.core.interfaces.topology.ProcessingPlantRoleSupp
 import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.WorkUnitProcessorMetricsData;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.metrics.component.common.CommonComponentMetricsData;
+import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.ITOpsNotificationContent;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.PetasosComponentITOpsNotification;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.notifications.valuesets.PetasosComponentITOpsNotificationTypeEnum;
 import net.fhirfactory.pegacorn.core.model.petasos.oam.topology.valuesets.PetasosMonitoredComponentTypeEnum;
@@ -36,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.function.Supplier;
 
 
 public class WorkUnitProcessorMetricsAgent extends ComponentMetricsAgentBase {
@@ -132,6 +134,26 @@ public class WorkUnitProcessorMetricsAgent extends ComponentMetricsAgentBase {
         }
     }
 
+    /**
+     * Sends a notification whose content is only rendered if (and when) it is forwarded to the ITOps server, which
+     * keeps the cost of building the notification text out of the task processing path.
+     *
+     * @param contentRenderer builds the (unformatted and formatted) notification content
+     */
+    public void sendITOpsNotification(Supplier<ITOpsNotificationContent> contentRenderer) {
+        if(getProcessingPlantCapabilityStatement().getProcessingPlantCapability().equals(ProcessingPlantRoleEnum.PETASOS_SERVICE_PROVIDER_ITOPS_MANAGEMENT)){
+            return;
+        }
+        PetasosComponentITOpsNotification notification = new PetasosComponentITOpsNotification();
+        notification.setComponentId(getMetricsData().getComponentID());
+        notification.setParticipantName(getWUPMetricsData().getParticipantName());
+        notification.setComponentType(PetasosMonitoredComponentTypeEnum.PETASOS_MONITORED_COMPONENT_WORK_UNIT_PROCESSOR);
+        notification.setNotificationType(PetasosComponentITOpsNotificationTypeEnum.NORMAL_NOTIFICATION_TYPE);
+        notification.setContentHeading("ITOpsNotification("+this.metricsData.getParticipantName()+")");
+        notification.setContentRenderer(contentRenderer);
+        getNotificationAgent().sendNotification(notification);
+    }
+
     //
     // Some Helper Methods
     //
@@ -140,74 +162,42 @@ public class WorkUnitProcessorMetricsAgent extends ComponentMetricsAgentBase {
 
     @JsonIgnore
     public void incrementIngresMessageCount(){
-        synchronized (getMetricsDataLock()) {
-            int count = getWUPMetricsData().getIngresMessageCount();
-            count += 1;
-            getWUPMetricsData().setIngresMessageCount(count);
-        }
+        getWUPMetricsData().incrementIngresMessageCount();
     }
 
     @JsonIgnore
     public void incrementEgressMessageAttemptCount(){
-        synchronized (getMetricsDataLock()) {
-            int count = getWUPMetricsData().getEgressMessageAttemptCount();
-            count += 1;
-            getWUPMetricsData().setEgressMessageAttemptCount(count);
-        }
+        getWUPMetricsData().incrementEgressMessageAttemptCount();
     }
 
     @JsonIgnore
     public void incrementFinalisedTasks(){
-        synchronized (getMetricsDataLock()) {
-            int count = getWUPMetricsData().getFinalisedTasks();
-            count += 1;
-            getWUPMetricsData().setFinalisedTasks(count);
-        }
+        getWUPMetricsData().incrementFinalisedTasks();
     }
 
     @JsonIgnore
     public void incrementFinishedTasks(){
-        synchronized (getMetricsDataLock()) {
-            int count = getWUPMetricsData().getFinishedTasks();
-            count += 1;
-            getWUPMetricsData().setFinishedTasks(count);
-        }
+        getWUPMetricsData().incrementFinishedTasks();
     }
 
     @JsonIgnore
     public void incrementFailedTasks(){
-        synchronized (getMetricsDataLock()){
-            int count = getWUPMetricsData().getFailedTasks();
-            count += 1;
-            getWUPMetricsData().setFailedTasks(count);
-        }
+        getWUPMetricsData().incrementFailedTasks();
     }
 
     @JsonIgnore
     public void incrementStartedTasks(){
-        synchronized (getMetricsDataLock()){
-            int count = getWUPMetricsData().getStartedTasks();
-            count += 1;
-            getWUPMetricsData().setStartedTasks(count);
-        }
+        getWUPMetricsData().incrementStartedTasks();
     }
 
     @JsonIgnore
     public void incrementRegisteredTasks(){
-        synchronized (getMetricsDataLock()){
-            int count = getWUPMetricsData().getRegisteredTasks();
-            count += 1;
-            getWUPMetricsData().setRegisteredTasks(count);
-        }
+        getWUPMetricsData().incrementRegisteredTasks();
     }
 
     @JsonIgnore
     public void incrementCancelledTasks(){
-        synchronized (getMetricsDataLock()){
-            int count = getWUPMetricsData().getCancelledTasks();
-            count += 1;
-            getWUPMetricsData().setCancelledTasks(count);
-        }
+        getWUPMetricsData().incrementCancelledTasks();
     }
 
     @JsonIgnore
@@ -308,6 +298,16 @@ public class WorkUnitProcessorMetricsAgent extends ComponentMetricsAgentBase {
         updateRollingEventProcessingDuration(duration);
     }
 
+    @JsonIgnore
+    public void recordTaskProcessingDuration(Instant startInstant, Instant finishInstant){
+        getWUPMetricsData().getTaskProcessingDurationHistogram().recordDuration(startInstant, finishInstant);
+    }
+
+    @JsonIgnore
+    public void recordTaskQueueWaitDuration(Instant registrationInstant, Instant startInstant){
+        getWUPMetricsData().getTaskQueueWaitDurationHistogram().recordDuration(registrationInstant, startInstant);
+    }
+
     //
     // Getters (and Setters)
     //
@@ -127,69 +127,38 @@ public abstract class ComponentMetricsAgentBase  {
 
     @JsonIgnore
     public void incrementEgressMessageFailureCount(){
-        synchronized (getMetricsDataLock()){
-            int count = getMetricsData().getEgressMessageFailureCount();
-            count += 1;
-            getMetricsData().setEgressMessageFailureCount(count);
-        }
+        getMetricsData().incrementEgressMessageFailureCount();
     }
 
     @JsonIgnore
     public void incrementIngresMessageCount(){
-        synchronized (getMetricsDataLock()) {
-            int count = getMetricsData().getIngresMessageCount();
-            count += 1;
-            getMetricsData().setIngresMessageCount(count);
-        }
+        getMetricsData().incrementIngresMessageCount();
     }
 
     @JsonIgnore
     public void incrementEgressMessageAttemptCount(){
-        synchronized (getMetricsDataLock()) {
-            int count = getMetricsData().getEgressMessageAttemptCount();
-            count += 1;
-            getMetricsData().setEgressMessageAttemptCount(count);
-        }
+        getMetricsData().incrementEgressMessageAttemptCount();
     }
 
     @JsonIgnore
     public void incrementEgressMessageSuccessCount(){
-        synchronized (getMetricsDataLock()) {
-            int count = getMetricsData().getEgressMessageSuccessCount();
-            count += 1;
-            getMetricsData().setEgressMessageSuccessCount(count);
-        }
+        getMetricsData().incrementEgressMessageSuccessCount();
     }
 
     @JsonIgnore
     public void incrementInternalMessageDistributionCount(){
-        synchronized (getMetricsDataLock()) {
-            int count = getMetricsData().getInternalDistributedMessageCount();
-            count += 1;
-            getMetricsData().setInternalDistributedMessageCount(count);
-        }
+        getMetricsData().incrementInternalDistributedMessageCount();
     }
 
     @JsonIgnore
     public void incrementInternalReceivedMessageCount(){
-        synchronized (getMetricsData()){
-            int count = getMetricsData().getInternalReceivedMessageCount();
-            count += 1;
-            getMetricsData().setInternalReceivedMessageCount(count);
-        }
+        getMetricsData().incrementInternalReceivedMessageCount();
     }
 
     @JsonIgnore
     public void incrementInternalMessageDistributionCount(String targetParticipantName){
         if(StringUtils.isNotEmpty(targetParticipantName)){
-            synchronized (getMetricsDataLock()){
-                if(!getMetricsData().getInternalDistributionCountMap().containsKey(targetParticipantName)){
-                    getMetricsData().getInternalDistributionCountMap().put(targetParticipantName, 0);
-                }
-                Integer count = getMetricsData().getInternalDistributionCountMap().get(targetParticipantName);
-                Integer newValue = count + 1;
-                getMetricsData().getInternalDistributionCountMap().replace(targetParticipantName, newValue);
-            }
+            getMetricsData().incrementInternalDistributionCount(targetParticipantName);
         }
     }
 
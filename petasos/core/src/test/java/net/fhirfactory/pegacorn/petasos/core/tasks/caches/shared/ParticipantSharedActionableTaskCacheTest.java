@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.petasos.core.tasks.caches.shared;
+
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.payloads.SharedTaskPayloadStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParticipantSharedActionableTaskCacheTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    //
+    // Test Fixtures
+    //
+
+    /**
+     * Counts the retains and releases rather than sharing any payloads.
+     */
+    private static class CountingPayloadStore extends SharedTaskPayloadStore {
+        private final AtomicInteger retainCount = new AtomicInteger();
+        private final AtomicInteger releaseCount = new AtomicInteger();
+        private final List<PetasosTask> releasedTasks = new ArrayList<>();
+
+        @Override
+        public void retainTaskPayload(PetasosTask task){
+            retainCount.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void releaseTaskPayload(PetasosTask task){
+            releaseCount.incrementAndGet();
+            releasedTasks.add(task);
+        }
+
+        int getOutstandingRetainCount(){
+            return(retainCount.get() - releaseCount.get());
+        }
+    }
+
+    private static class TestTaskCache extends ParticipantSharedActionableTaskCache {
+        private final CountingPayloadStore payloadStore = new CountingPayloadStore();
+
+        @Override
+        protected CountingPayloadStore getPayloadStore(){
+            return(payloadStore);
+        }
+    }
+
+    private interface TaskCacheOperation {
+        PetasosTask apply(TestTaskCache cache, PetasosActionableTask task);
+    }
+
+    private static PetasosActionableTask newTask(String id){
+        TaskIdType taskId = new TaskIdType();
+        taskId.setId(id);
+        PetasosActionableTask task = new PetasosActionableTask();
+        task.setTaskId(taskId);
+        return(task);
+    }
+
+    /**
+     * Applies the operation to THREAD_COUNT different instances of the same task, all released at once.
+     */
+    private static void applyConcurrently(TestTaskCache cache, TaskCacheOperation operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            List<Future<PetasosTask>> results = new ArrayList<>();
+            for(int counter = 0; counter < THREAD_COUNT; counter += 1){
+                PetasosActionableTask task = newTask("task-1");
+                Callable<PetasosTask> call = () -> {
+                    startLatch.await();
+                    return(operation.apply(cache, task));
+                };
+                results.add(executor.submit(call));
+            }
+            startLatch.countDown();
+            for(Future<PetasosTask> currentResult: results){
+                assertNotNull(currentResult.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    void concurrentRefreshesRetainThePayloadOnce() throws Exception {
+        for(int round = 0; round < 20; round += 1){
+            TestTaskCache cache = new TestTaskCache();
+            applyConcurrently(cache, (taskCache, task) -> taskCache.refreshTask(task));
+            assertEquals(1, cache.getCacheSize());
+            assertEquals(1, cache.getPayloadStore().getOutstandingRetainCount());
+        }
+    }
+
+    @Test
+    void concurrentSynchronisesRetainThePayloadOnce() throws Exception {
+        for(int round = 0; round < 20; round += 1){
+            TestTaskCache cache = new TestTaskCache();
+            applyConcurrently(cache, (taskCache, task) -> taskCache.synchroniseTask(task));
+            assertEquals(1, cache.getCacheSize());
+            assertEquals(1, cache.getPayloadStore().getOutstandingRetainCount());
+            assertNotNull(cache.getTaskLock(newTask("task-1").getTaskId()));
+        }
+    }
+
+    @Test
+    void refreshReturnsACopyOfTheCachedInstance(){
+        TestTaskCache cache = new TestTaskCache();
+        PetasosActionableTask cachedTask = newTask("task-1");
+        cache.registerTask(cachedTask);
+
+        PetasosTask refreshedTask = cache.refreshTask(newTask("task-1"));
+
+        assertEquals("task-1", refreshedTask.getTaskId().getId());
+        assertTrue(refreshedTask != cachedTask);
+        assertSame(cachedTask, cache.getTask(cachedTask.getTaskId()));
+        assertEquals(1, cache.getPayloadStore().getOutstandingRetainCount());
+    }
+
+    @Test
+    void registerReleasesTheReplacedInstance(){
+        TestTaskCache cache = new TestTaskCache();
+        PetasosActionableTask firstTask = newTask("task-1");
+        PetasosActionableTask secondTask = newTask("task-1");
+
+        cache.registerTask(firstTask);
+        Object firstLock = cache.getTaskLock(firstTask.getTaskId());
+        cache.registerTask(secondTask);
+
+        assertEquals(1, cache.getCacheSize());
+        assertSame(secondTask, cache.getTask(secondTask.getTaskId()));
+        assertEquals(1, cache.getPayloadStore().getOutstandingRetainCount());
+        assertEquals(1, cache.getPayloadStore().releasedTasks.size());
+        assertSame(firstTask, cache.getPayloadStore().releasedTasks.get(0));
+        assertTrue(firstLock != cache.getTaskLock(secondTask.getTaskId()));
+
+        cache.removeTask(secondTask.getTaskId());
+        assertEquals(0, cache.getPayloadStore().getOutstandingRetainCount());
+        assertNull(cache.getTask(secondTask.getTaskId()));
+    }
+}
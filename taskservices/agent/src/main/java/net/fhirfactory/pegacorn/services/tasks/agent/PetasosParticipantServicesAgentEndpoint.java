@@ -28,10 +28,9 @@ import net.fhirfactory.pegacorn.petasos.core.participants.manager.LocalPetasosPa
 import net.fhirfactory.pegacorn.petasos.endpoints.services.subscriptions.PetasosParticipantSubscriptionServicesEndpointBase;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.agents.ProcessingPlantMetricsAgent;
 import net.fhirfactory.pegacorn.petasos.oam.metrics.agents.ProcessingPlantMetricsAgentAccessor;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornSharedScheduler;
 import org.apache.commons.lang3.StringUtils;
 import org.jgroups.Address;
-import org.jgroups.blocks.RequestOptions;
-import org.jgroups.blocks.ResponseMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +57,9 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
     @Inject
     private LocalPetasosParticipantCacheIM localPetasosParticipantCacheIM;
 
+    @Inject
+    private PegacornSharedScheduler sharedScheduler;
+
     //
     // Constructor(s)
     //
@@ -92,25 +94,17 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
         if (synchronisationDaemonInitialised) {
             // do nothing, it is already scheduled
         } else {
-            TimerTask petasosParticipantCacheSynchronisationDaemonScheduler = new TimerTask() {
-                public void run() {
-                    getLogger().debug(".petasosParticipantCacheSynchronisationDaemonScheduler(): Entry");
-                    petasosParticipantCacheSynchronisationDaemon();
-                    getLogger().debug(".petasosParticipantCacheSynchronisationDaemonScheduler(): Exit");
-                }
-            };
-            Timer petasosParticipantCacheSynchronisationTimer = new Timer("PetasosParticipantCacheSynchronisationDaemonSchedule");
-            petasosParticipantCacheSynchronisationTimer.schedule(petasosParticipantCacheSynchronisationDaemonScheduler, PETASOS_PARTICIPANT_MAP_CACHE_SYNCHRONISATION_INITIAL_WAIT, PETASOS_PARTICIPANT_MAP_CACHE_SYNCHRONISATION_PERIOD);
-
-            TimerTask participantExecutionStatusSynchronisationDaemonScheduler = new TimerTask() {
-                public void run() {
-                    getLogger().debug(".participantExecutionStatusSynchronisationDaemonScheduler(): Entry");
-                    participantExecutionStatusSynchronisationDaemon();
-                    getLogger().debug(".participantExecutionStatusSynchronisationDaemonScheduler(): Exit");
-                }
-            };
-            Timer participantExecutionStatusSynchronisationDaemonTimer = new Timer("ParticipantExecutionStatusSynchronisationDaemonSchedule");
-            participantExecutionStatusSynchronisationDaemonTimer.schedule(participantExecutionStatusSynchronisationDaemonScheduler, EXECUTION_STATUS_SYNCHRONISATION_INITIAL_WAIT, EXECUTION_STATUS_SYNCHRONISATION_PERIOD);
+            sharedScheduler.schedule("PetasosParticipantCacheSynchronisationDaemonSchedule", () -> {
+                getLogger().debug(".petasosParticipantCacheSynchronisationDaemonScheduler(): Entry");
+                petasosParticipantCacheSynchronisationDaemon();
+                getLogger().debug(".petasosParticipantCacheSynchronisationDaemonScheduler(): Exit");
+            }, PETASOS_PARTICIPANT_MAP_CACHE_SYNCHRONISATION_INITIAL_WAIT, PETASOS_PARTICIPANT_MAP_CACHE_SYNCHRONISATION_PERIOD);
+
+            sharedScheduler.schedule("ParticipantExecutionStatusSynchronisationDaemonSchedule", () -> {
+                getLogger().debug(".participantExecutionStatusSynchronisationDaemonScheduler(): Entry");
+                participantExecutionStatusSynchronisationDaemon();
+                getLogger().debug(".participantExecutionStatusSynchronisationDaemonScheduler(): Exit");
+            }, EXECUTION_STATUS_SYNCHRONISATION_INITIAL_WAIT, EXECUTION_STATUS_SYNCHRONISATION_PERIOD);
             synchronisationDaemonInitialised = true;
         }
         getLogger().debug(".scheduleSynchronisationDaemons(): Exit");
@@ -218,8 +212,7 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
             Class classSet[] = new Class[1];
             objectSet[0] = participant;
             classSet[0] = PetasosParticipant.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            PetasosParticipantRegistration registration = getRPCDispatcher().callRemoteMethod(taskServicesAddress, "registerPetasosParticipant", objectSet, classSet, requestOptions);
+            PetasosParticipantRegistration registration = callRemoteMethod(taskServicesAddress, "registerPetasosParticipant", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".registerPetasosParticipant(): Exit, registration->{}", registration);
             return(registration);
@@ -259,8 +252,7 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
             Class classSet[] = new Class[1];
             objectSet[0] = producerServiceName;
             classSet[0] = String.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            Set<PetasosParticipant> participantSet = getRPCDispatcher().callRemoteMethod(taskServicesAddress, "getDownstreamTaskPerformersForTaskProducer", objectSet, classSet, requestOptions);
+            Set<PetasosParticipant> participantSet = callRemoteMethod(taskServicesAddress, "getDownstreamTaskPerformersForTaskProducer", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getProcessingPlantMetricsAgent().touchPathwaySynchronisationIndicator(taskServiceProviderName.getPetasosTaskRepositoryServiceProviderName());
             getLogger().debug(".getDownstreamTaskPerformersForTaskProducer(): Exit, participantSet->{}", participantSet);
@@ -296,8 +288,7 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
             Class classSet[] = new Class[1];
             objectSet[0] = participant;
             classSet[0] = PetasosParticipant.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            PetasosParticipantRegistration registration = getRPCDispatcher().callRemoteMethod(taskServicesAddress, "updatePetasosParticipant", objectSet, classSet, requestOptions);
+            PetasosParticipantRegistration registration = callRemoteMethod(taskServicesAddress, "updatePetasosParticipant", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".getTaskPerformersForTaskProducer(): Exit, registration->{}", registration);
             return(registration);
@@ -339,8 +330,7 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
             Class classSet[] = new Class[1];
             objectSet[0] = participant;
             classSet[0] = PetasosParticipant.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            PetasosParticipantRegistration registration = getRPCDispatcher().callRemoteMethod(taskServicesAddress, "deregisterPetasosParticipant", objectSet, classSet, requestOptions);
+            PetasosParticipantRegistration registration = callRemoteMethod(taskServicesAddress, "deregisterPetasosParticipant", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".deregisterPetasosParticipant(): Exit, registration->{}", registration);
             return(registration);
@@ -372,8 +362,7 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
             Class classSet[] = new Class[1];
             objectSet[0] = participantId;
             classSet[0] = ComponentIdType.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            PetasosParticipantRegistration registration = getRPCDispatcher().callRemoteMethod(taskServicesAddress, "getPetasosParticipantRegistration", objectSet, classSet, requestOptions);
+            PetasosParticipantRegistration registration = callRemoteMethod(taskServicesAddress, "getPetasosParticipantRegistration", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".getPetasosParticipantRegistration(): Exit, registration->{}", registration);
             return(registration);
@@ -405,8 +394,7 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
             Class classSet[] = new Class[1];
             objectSet[0] = participantSeviceName;
             classSet[0] = String.class;
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            Set<PetasosParticipantRegistration> participantSet = getRPCDispatcher().callRemoteMethod(taskServicesAddress, "getParticipantRegistrationSetForService", objectSet, classSet, requestOptions);
+            Set<PetasosParticipantRegistration> participantSet = callRemoteMethod(taskServicesAddress, "getParticipantRegistrationSetForService", objectSet, classSet);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".getParticipantRegistrationSetForService(): Exit, participantSet->{}", participantSet);
             return(participantSet);
@@ -431,8 +419,7 @@ public class PetasosParticipantServicesAgentEndpoint extends PetasosParticipantS
             return (new HashSet<>());
         }
         try {
-            RequestOptions requestOptions = new RequestOptions( ResponseMode.GET_FIRST, getRPCUnicastTimeout());
-            Set<PetasosParticipantRegistration> participantSet = getRPCDispatcher().callRemoteMethod(taskServicesAddress, "getAllRegistrations", null, null, requestOptions);
+            Set<PetasosParticipantRegistration> participantSet = callRemoteMethod(taskServicesAddress, "getAllRegistrations", null, null);
             getMetricsAgent().incrementRemoteProcedureCallCount();
             getLogger().debug(".getTaskPerformerServiceRegistration(): Exit, participantSet->{}", participantSet);
             return(participantSet);
@@ -1,6 +1,5 @@
 package net.fhirfactory.pegacorn.services.tasks.metadata.fromhl7v2x;
 
-import ca.uhn.fhir.parser.IParser;
 import io.github.linuxforhealth.hl7.HL7ToFHIRConverter;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
@@ -35,7 +34,6 @@ public class FHIRTaskMetadataResourceSetFromHL7v2x {
 
     private boolean initialised;
     private HL7ToFHIRConverter hl7ToFHIRConverter;
-    private IParser fhirParser;
 
     @Inject
     private FHIRContextUtility fhirContextUtility;
@@ -62,8 +60,6 @@ public class FHIRTaskMetadataResourceSetFromHL7v2x {
         if(initialised) {
             getLogger().debug(".initialise(): Doing nothing, already initialised!");
         } else {
-            fhirParser = fhirContextUtility.getJsonParser();
-
             this.initialised = true;
         }
         getLogger().debug(".initialise(): Exit");
@@ -88,7 +84,7 @@ public class FHIRTaskMetadataResourceSetFromHL7v2x {
         }
         Bundle bundle = null;
         try {
-            bundle = fhirParser.parseResource(Bundle.class, convertedContent);
+            bundle = fhirContextUtility.parseJson(Bundle.class, convertedContent);
         } catch(Exception e){
             getLogger().warn(".extractResourcesForTaskMetadata(): Could not convert JSON string into a Bundle, error->{}", ExceptionUtils.getStackTrace(e));
         }
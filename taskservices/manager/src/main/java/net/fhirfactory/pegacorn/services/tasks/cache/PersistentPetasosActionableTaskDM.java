@@ -0,0 +1,843 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.tasks.cache;
+
+import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
+import net.fhirfactory.pegacorn.core.model.datagrid.valuesets.DatagridPersistenceResourceStatusEnum;
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.performer.datatypes.TaskPerformerTypeType;
+import net.fhirfactory.pegacorn.core.model.petasos.wup.valuesets.PetasosTaskExecutionStatusEnum;
+import net.fhirfactory.pegacorn.core.model.topology.endpoints.edge.jgroups.JGroupsIntegrationPointSummary;
+import net.fhirfactory.pegacorn.petasos.core.tasks.caches.common.TaskCacheIndex;
+import net.fhirfactory.pegacorn.services.tasks.cache.log.ActionableTaskIndexEntry;
+import net.fhirfactory.pegacorn.services.tasks.cache.log.ActionableTaskIndexSnapshot;
+import net.fhirfactory.pegacorn.services.tasks.cache.log.ActionableTaskLogRecord;
+import net.fhirfactory.pegacorn.services.tasks.cache.log.ActionableTaskLogSegment;
+import net.fhirfactory.pegacorn.services.tasks.datatypes.PetasosActionableTaskRegistrationType;
+import net.fhirfactory.pegacorn.util.PegacornEnvironmentProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A PetasosActionableTaskDM backed by an embedded, segmented, append-only log, so that the task manager can hold
+ * very large numbers of actionable tasks without keeping them in heap.
+ *
+ * Every register/update appends the task's latest version (with its registration) to the active log segment, and
+ * only a small index entry (where the record is, the task's execution status and the components it is for) is kept
+ * in memory - indexed on task id, component id and execution status, so getWaitingActionableTasksForComponent() is
+ * an index lookup. Segments are rolled at segmentSize; sealed segments whose live records have dropped below
+ * compactionThreshold of their size are compacted (their live records copied forward, the segment deleted).
+ * Archived tasks are moved to separate cold archive segments and tomb-stoned in the hot log; only a task's latest
+ * tombstone counts as live, and it stops counting once the task is registered again.
+ *
+ * The indexes are snapshotted every snapshotInterval records (and after compaction and on shutdown), so recovery on
+ * restart loads the snapshot and replays only the log written after it, truncating any torn record left at the end
+ * of the log by a crash.
+ */
+@ApplicationScoped
+public class PersistentPetasosActionableTaskDM extends PetasosActionableTaskDM {
+    private static final Logger LOG = LoggerFactory.getLogger(PersistentPetasosActionableTaskDM.class);
+
+    private static final String STORE_DIRECTORY_PROPERTY = "PETASOS_ACTIONABLE_TASK_STORE_DIRECTORY";
+    private static final String DEFAULT_STORE_DIRECTORY = "petasos-actionable-tasks";
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024L * 1024L;
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 50000; // records
+    private static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    private static final String SEGMENT_FILE_PREFIX = "actionable-tasks-";
+    private static final String ARCHIVE_FILE_PREFIX = "actionable-tasks-archive-";
+    private static final String SEGMENT_FILE_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE_NAME = "actionable-tasks.snapshot";
+
+    private Path storeDirectory;
+    private final long segmentSize;
+    private final int snapshotInterval;
+    private final double compactionThreshold;
+
+    private final TreeMap<Integer, ActionableTaskLogSegment> segments;
+    private ActionableTaskLogSegment activeSegment;
+    private ActionableTaskLogSegment activeArchiveSegment;
+
+    private final ConcurrentHashMap<String, ActionableTaskIndexEntry> taskIndex;
+    private final TaskCacheIndex<PetasosTaskExecutionStatusEnum, String> statusIndex;
+    private final ConcurrentHashMap<ComponentIdType, Set<String>> componentIndex;
+    private final HashMap<Integer, Set<String>> segmentMembers;
+    private final HashMap<Integer, Long> segmentLiveBytes;
+    private final HashMap<Integer, List<ActionableTaskIndexEntry>> segmentTombstones;
+    private final HashMap<String, ActionableTaskIndexEntry> tombstoneIndex;
+
+    private final ReentrantReadWriteLock storeLock;
+    private int recordsSinceSnapshot;
+    private boolean compacting;
+    private volatile boolean initialised;
+
+    @Inject
+    private PegacornEnvironmentProperties environmentProperties;
+
+    //
+    // Constructor(s)
+    //
+
+    public PersistentPetasosActionableTaskDM(){
+        this(null, DEFAULT_SEGMENT_SIZE, DEFAULT_SNAPSHOT_INTERVAL, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public PersistentPetasosActionableTaskDM(Path storeDirectory){
+        this(storeDirectory, DEFAULT_SEGMENT_SIZE, DEFAULT_SNAPSHOT_INTERVAL, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public PersistentPetasosActionableTaskDM(Path storeDirectory, long segmentSize, int snapshotInterval, double compactionThreshold){
+        super();
+        this.storeDirectory = storeDirectory;
+        this.segmentSize = segmentSize;
+        this.snapshotInterval = snapshotInterval;
+        this.compactionThreshold = compactionThreshold;
+        this.segments = new TreeMap<>();
+        this.taskIndex = new ConcurrentHashMap<>();
+        this.statusIndex = new TaskCacheIndex<>();
+        this.componentIndex = new ConcurrentHashMap<>();
+        this.segmentMembers = new HashMap<>();
+        this.segmentLiveBytes = new HashMap<>();
+        this.segmentTombstones = new HashMap<>();
+        this.tombstoneIndex = new HashMap<>();
+        this.storeLock = new ReentrantReadWriteLock();
+        this.recordsSinceSnapshot = 0;
+        this.compacting = false;
+        this.initialised = false;
+    }
+
+    //
+    // Post Construct (and Pre Destroy)
+    //
+
+    @PostConstruct
+    public void initialise(){
+        getLogger().debug(".initialise(): Entry");
+        storeLock.writeLock().lock();
+        try {
+            if(initialised){
+                getLogger().debug(".initialise(): Exit, already initialised, nothing to do");
+                return;
+            }
+            if(storeDirectory == null){
+                String directoryName = DEFAULT_STORE_DIRECTORY;
+                if(environmentProperties != null){
+                    directoryName = environmentProperties.getProperty(STORE_DIRECTORY_PROPERTY, DEFAULT_STORE_DIRECTORY);
+                }
+                storeDirectory = Paths.get(directoryName);
+            }
+            recover();
+            initialised = true;
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to open the actionable task store in " + storeDirectory, ex));
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+        getLogger().info(".initialise(): Actionable task store open, storeDirectory->{}, tasks->{}, segments->{}", storeDirectory, taskIndex.size(), segments.size());
+        getLogger().debug(".initialise(): Exit");
+    }
+
+    @PreDestroy
+    public void close(){
+        getLogger().debug(".close(): Entry");
+        storeLock.writeLock().lock();
+        try {
+            if(!initialised){
+                return;
+            }
+            writeSnapshot();
+            for(ActionableTaskLogSegment currentSegment: segments.values()){
+                currentSegment.close();
+            }
+            activeArchiveSegment.sync();
+            activeArchiveSegment.close();
+            segments.clear();
+            initialised = false;
+        } catch (IOException ex) {
+            getLogger().error(".close(): Error closing the actionable task store, error->", ex);
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+        getLogger().debug(".close(): Exit");
+    }
+
+    //
+    // Implemented Methods
+    //
+
+    @Override
+    protected Logger specifyLogger() {
+        return (LOG);
+    }
+
+    @Override
+    public PetasosActionableTaskRegistrationType registerPetasosActionableTask(PetasosActionableTask actionableTask, JGroupsIntegrationPointSummary integrationPoint) {
+        getLogger().debug(".registerPetasosActionableTask(): Entry, actionableTask->{}, integrationPoint->{}", actionableTask, integrationPoint);
+        String taskKey = getTaskKey(actionableTask);
+        if(taskKey == null){
+            getLogger().warn(".registerPetasosActionableTask(): Exit, actionableTask has no taskId, not registered");
+            return(new PetasosActionableTaskRegistrationType());
+        }
+        ensureInitialised();
+        storeLock.writeLock().lock();
+        try {
+            ActionableTaskLogRecord existingRecord = readRecord(taskKey);
+            PetasosActionableTaskRegistrationType registration;
+            if(existingRecord != null){
+                registration = existingRecord.getRegistration();
+            } else {
+                registration = new PetasosActionableTaskRegistrationType();
+                registration.setActionableTaskId(actionableTask.getTaskId());
+                registration.setRegistrationInstant(Instant.now());
+            }
+            PetasosActionableTaskRegistrationType savedRegistration = saveTask(taskKey, actionableTask, registration, integrationPoint);
+            getLogger().debug(".registerPetasosActionableTask(): Exit, registration->{}", savedRegistration);
+            return(savedRegistration);
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to register actionable task " + taskKey, ex));
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public PetasosActionableTaskRegistrationType updatePetasosActionableTask(PetasosActionableTask actionableTask, JGroupsIntegrationPointSummary integrationPoint) {
+        getLogger().debug(".updatePetasosActionableTask(): Entry, actionableTask->{}, integrationPoint->{}", actionableTask, integrationPoint);
+        String taskKey = getTaskKey(actionableTask);
+        if(taskKey == null){
+            getLogger().warn(".updatePetasosActionableTask(): Exit, actionableTask has no taskId, not updated");
+            return(new PetasosActionableTaskRegistrationType());
+        }
+        ensureInitialised();
+        storeLock.writeLock().lock();
+        try {
+            ActionableTaskLogRecord existingRecord = readRecord(taskKey);
+            if(existingRecord == null){
+                getLogger().debug(".updatePetasosActionableTask(): Task not registered, registering it");
+                return(registerPetasosActionableTask(actionableTask, integrationPoint));
+            }
+            PetasosActionableTask updatedTask = existingRecord.getActionableTask();
+            updatedTask.update(actionableTask);
+            PetasosActionableTaskRegistrationType savedRegistration = saveTask(taskKey, updatedTask, existingRecord.getRegistration(), integrationPoint);
+            getLogger().debug(".updatePetasosActionableTask(): Exit, registration->{}", savedRegistration);
+            return(savedRegistration);
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to update actionable task " + taskKey, ex));
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public PetasosActionableTask getPetasosActionableTask(TaskIdType taskId) {
+        getLogger().debug(".getPetasosActionableTask(): Entry, taskId->{}", taskId);
+        String taskKey = getTaskKey(taskId);
+        if(taskKey == null){
+            return(null);
+        }
+        ensureInitialised();
+        List<PetasosActionableTask> tasks = readTasks(List.of(taskKey));
+        PetasosActionableTask actionableTask = null;
+        if(!tasks.isEmpty()){
+            actionableTask = tasks.get(0);
+        }
+        getLogger().debug(".getPetasosActionableTask(): Exit, actionableTask->{}", actionableTask);
+        return(actionableTask);
+    }
+
+    @Override
+    public List<PetasosActionableTask> getPetasosActionableTasksForComponent(ComponentIdType componentId) {
+        getLogger().debug(".getPetasosActionableTasksForComponent(): Entry, componentId->{}", componentId);
+        ensureInitialised();
+        List<PetasosActionableTask> taskList = readTasks(getTaskKeysForComponent(componentId));
+        getLogger().debug(".getPetasosActionableTasksForComponent(): Exit, taskList->{}", taskList.size());
+        return(taskList);
+    }
+
+    @Override
+    public List<PetasosActionableTask> getWaitingActionableTasksForComponent(ComponentIdType componentId) {
+        getLogger().debug(".getWaitingActionableTasksForComponent(): Entry, componentId->{}", componentId);
+        ensureInitialised();
+        List<String> waitingTaskKeys = new ArrayList<>();
+        for(String currentTaskKey: getTaskKeysForComponent(componentId)){
+            if(statusIndex.getAttribute(currentTaskKey) == PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING){
+                waitingTaskKeys.add(currentTaskKey);
+            }
+        }
+        List<PetasosActionableTask> taskList = readTasks(waitingTaskKeys);
+        getLogger().debug(".getWaitingActionableTasksForComponent(): Exit, taskList->{}", taskList.size());
+        return(taskList);
+    }
+
+    @Override
+    public boolean archivePetasosActionableTask(PetasosActionableTask actionableTask) {
+        if(actionableTask == null){
+            return(false);
+        }
+        return(archivePetasosActionableTask(actionableTask.getTaskId()));
+    }
+
+    @Override
+    public boolean archivePetasosActionableTask(TaskIdType taskId) {
+        getLogger().debug(".archivePetasosActionableTask(): Entry, taskId->{}", taskId);
+        String taskKey = getTaskKey(taskId);
+        if(taskKey == null){
+            return(false);
+        }
+        ensureInitialised();
+        storeLock.writeLock().lock();
+        try {
+            ActionableTaskIndexEntry entry = taskIndex.get(taskKey);
+            if(entry == null){
+                getLogger().debug(".archivePetasosActionableTask(): Exit, no such task");
+                return(false);
+            }
+            byte[] payload = segments.get(entry.getSegmentId()).readPayload(entry.getFrameOffset(), entry.getFrameLength());
+            rollArchiveSegmentIfFull(ActionableTaskLogSegment.FRAME_HEADER_SIZE + payload.length);
+            activeArchiveSegment.append(payload);
+            appendRecord(ActionableTaskLogRecord.newArchiveRecord(taskKey));
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to archive actionable task " + taskKey, ex));
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+        getLogger().debug(".archivePetasosActionableTask(): Exit, archived");
+        return(true);
+    }
+
+    //
+    // Business Methods
+    //
+
+    public int getNumberOfTasks(){
+        return(taskIndex.size());
+    }
+
+    public int getNumberOfTombstones(){
+        storeLock.readLock().lock();
+        try {
+            return(tombstoneIndex.size());
+        } finally {
+            storeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the bytes of the given segment still counted as live (current task versions and needed tombstones)
+     */
+    public long getSegmentLiveBytes(int segmentId){
+        storeLock.readLock().lock();
+        try {
+            return(segmentLiveBytes.getOrDefault(segmentId, 0L));
+        } finally {
+            storeLock.readLock().unlock();
+        }
+    }
+
+    public int getNumberOfSegments(){
+        storeLock.readLock().lock();
+        try {
+            return(segments.size());
+        } finally {
+            storeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Snapshots the indexes now (rather than waiting for the next snapshotInterval records).
+     */
+    public void snapshot(){
+        ensureInitialised();
+        storeLock.writeLock().lock();
+        try {
+            writeSnapshot();
+        } catch (IOException ex) {
+            throw(new UncheckedIOException("Unable to snapshot the actionable task store", ex));
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+    //
+    // Log Writing (callers hold the write lock)
+    //
+
+    protected PetasosActionableTaskRegistrationType saveTask(String taskKey, PetasosActionableTask actionableTask, PetasosActionableTaskRegistrationType registration, JGroupsIntegrationPointSummary integrationPoint) throws IOException {
+        if(integrationPoint != null){
+            registration.addFulfillmentProcessingPlant(integrationPoint.getProcessingPlantInstanceId());
+        }
+        registration.addPerformerTypes(actionableTask.getTaskPerformerTypes());
+        registration.setResourceStatus(DatagridPersistenceResourceStatusEnum.RESOURCE_ACTIVE);
+        registration.setCheckInstant(Instant.now());
+        appendRecord(ActionableTaskLogRecord.newPutRecord(taskKey, actionableTask, registration, deriveComponentIds(actionableTask, registration)));
+        return(registration);
+    }
+
+    protected void appendRecord(ActionableTaskLogRecord record) throws IOException {
+        byte[] payload = record.toBytes();
+        int frameLength = ActionableTaskLogSegment.FRAME_HEADER_SIZE + payload.length;
+        rollSegmentIfFull(frameLength);
+        long frameOffset = activeSegment.append(payload);
+        ActionableTaskIndexEntry entry = new ActionableTaskIndexEntry(record.getTaskKey(), activeSegment.getSegmentId(), frameOffset, frameLength, record.getExecutionStatus(), record.getComponentIds());
+        if(record.getOperation() == ActionableTaskLogRecord.Operation.PUT){
+            applyPut(entry);
+        } else {
+            applyArchive(entry);
+        }
+        recordsSinceSnapshot += 1;
+        if(recordsSinceSnapshot >= snapshotInterval){
+            writeSnapshot();
+        }
+    }
+
+    protected void rollSegmentIfFull(int frameLength) throws IOException {
+        if(activeSegment.getSize() == 0 || activeSegment.getSize() + frameLength <= segmentSize){
+            return;
+        }
+        activeSegment.sync();
+        int newSegmentId = activeSegment.getSegmentId() + 1;
+        activeSegment = ActionableTaskLogSegment.open(newSegmentId, getSegmentPath(SEGMENT_FILE_PREFIX, newSegmentId));
+        segments.put(newSegmentId, activeSegment);
+        if(!compacting){
+            compactSegments();
+        }
+    }
+
+    protected void rollArchiveSegmentIfFull(int frameLength) throws IOException {
+        if(activeArchiveSegment.getSize() == 0 || activeArchiveSegment.getSize() + frameLength <= segmentSize){
+            return;
+        }
+        activeArchiveSegment.sync();
+        activeArchiveSegment.close();
+        int newSegmentId = activeArchiveSegment.getSegmentId() + 1;
+        activeArchiveSegment = ActionableTaskLogSegment.open(newSegmentId, getSegmentPath(ARCHIVE_FILE_PREFIX, newSegmentId));
+    }
+
+    /**
+     * Compacts the sealed segments whose live records take up less than compactionThreshold of the segment: the
+     * live records are copied (as-is) to the active segment, the indexes are snapshotted and the segment is then
+     * deleted. Tombstones are only carried forward while there is an older segment that could still hold a
+     * version of the archived task.
+     */
+    protected void compactSegments() throws IOException {
+        compacting = true;
+        try {
+            int firstUncompactableSegmentId = activeSegment.getSegmentId();
+            List<ActionableTaskLogSegment> compactedSegments = new ArrayList<>();
+            for(ActionableTaskLogSegment currentSegment: new ArrayList<>(segments.values())){
+                if(currentSegment.getSegmentId() >= firstUncompactableSegmentId){
+                    continue;
+                }
+                long liveBytes = segmentLiveBytes.getOrDefault(currentSegment.getSegmentId(), 0L);
+                if(currentSegment.getSize() == 0 || (double)liveBytes / (double)currentSegment.getSize() < compactionThreshold){
+                    compactSegment(currentSegment);
+                    compactedSegments.add(currentSegment);
+                }
+            }
+            if(compactedSegments.isEmpty()){
+                return;
+            }
+            writeSnapshot();
+            for(ActionableTaskLogSegment currentSegment: compactedSegments){
+                removeSegment(currentSegment);
+            }
+            getLogger().info(".compactSegments(): Compacted {} segments, segments->{}, tasks->{}", compactedSegments.size(), segments.size(), taskIndex.size());
+        } finally {
+            compacting = false;
+        }
+    }
+
+    protected void compactSegment(ActionableTaskLogSegment segment) throws IOException {
+        int segmentId = segment.getSegmentId();
+        boolean hasOlderSegment = segments.firstKey() < segmentId;
+        Set<String> members = segmentMembers.get(segmentId);
+        if(members != null){
+            for(String currentTaskKey: new ArrayList<>(members)){
+                ActionableTaskIndexEntry entry = taskIndex.get(currentTaskKey);
+                ByteBuffer frame = segment.readFrame(entry.getFrameOffset(), entry.getFrameLength());
+                rollSegmentIfFull(entry.getFrameLength());
+                long newFrameOffset = activeSegment.appendFrame(frame);
+                applyPut(entry.relocate(activeSegment.getSegmentId(), newFrameOffset));
+            }
+        }
+        List<ActionableTaskIndexEntry> tombstones = segmentTombstones.get(segmentId);
+        if(tombstones != null && hasOlderSegment){
+            // (tombstones superseded by a later registration or archive have already been dropped)
+            for(ActionableTaskIndexEntry currentTombstone: new ArrayList<>(tombstones)){
+                ByteBuffer frame = segment.readFrame(currentTombstone.getFrameOffset(), currentTombstone.getFrameLength());
+                rollSegmentIfFull(currentTombstone.getFrameLength());
+                long newFrameOffset = activeSegment.appendFrame(frame);
+                addTombstone(currentTombstone.relocate(activeSegment.getSegmentId(), newFrameOffset));
+            }
+        }
+    }
+
+    protected void removeSegment(ActionableTaskLogSegment segment) throws IOException {
+        int segmentId = segment.getSegmentId();
+        segments.remove(segmentId);
+        segmentMembers.remove(segmentId);
+        segmentLiveBytes.remove(segmentId);
+        List<ActionableTaskIndexEntry> tombstones = segmentTombstones.remove(segmentId);
+        if(tombstones != null){
+            for(ActionableTaskIndexEntry currentTombstone: tombstones){
+                tombstoneIndex.remove(currentTombstone.getTaskKey(), currentTombstone);
+            }
+        }
+        segment.delete();
+    }
+
+    protected void writeSnapshot() throws IOException {
+        activeSegment.sync();
+        ActionableTaskIndexSnapshot snapshot = new ActionableTaskIndexSnapshot();
+        snapshot.setCoveredSegmentId(activeSegment.getSegmentId());
+        snapshot.setCoveredOffset(activeSegment.getSize());
+        snapshot.setTaskEntries(new ArrayList<>(taskIndex.values()));
+        List<ActionableTaskIndexEntry> tombstones = new ArrayList<>();
+        for(List<ActionableTaskIndexEntry> currentTombstones: segmentTombstones.values()){
+            tombstones.addAll(currentTombstones);
+        }
+        snapshot.setTombstoneEntries(tombstones);
+        Path snapshotFile = storeDirectory.resolve(SNAPSHOT_FILE_NAME);
+        Path temporaryFile = storeDirectory.resolve(SNAPSHOT_FILE_NAME + ".tmp");
+        try(ObjectOutputStream snapshotStream = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))){
+            snapshotStream.writeObject(snapshot);
+        }
+        Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        recordsSinceSnapshot = 0;
+        getLogger().debug(".writeSnapshot(): snapshot->{}", snapshot);
+    }
+
+    //
+    // Index Maintenance (callers hold the write lock)
+    //
+
+    protected void applyPut(ActionableTaskIndexEntry entry){
+        String taskKey = entry.getTaskKey();
+        ActionableTaskIndexEntry previousEntry = taskIndex.put(taskKey, entry);
+        if(previousEntry != null){
+            releaseEntry(previousEntry);
+        }
+        // a task registered again after being archived no longer needs its tombstone
+        dropTombstone(taskKey);
+        segmentMembers.computeIfAbsent(entry.getSegmentId(), segmentId -> new HashSet<>()).add(taskKey);
+        segmentLiveBytes.merge(entry.getSegmentId(), (long)entry.getFrameLength(), Long::sum);
+        statusIndex.index(taskKey, entry.getExecutionStatus());
+        for(ComponentIdType currentComponentId: entry.getComponentIds()){
+            componentIndex.computeIfAbsent(currentComponentId, componentId -> ConcurrentHashMap.newKeySet()).add(taskKey);
+        }
+    }
+
+    protected void applyArchive(ActionableTaskIndexEntry tombstone){
+        ActionableTaskIndexEntry previousEntry = taskIndex.remove(tombstone.getTaskKey());
+        if(previousEntry != null){
+            releaseEntry(previousEntry);
+            statusIndex.remove(tombstone.getTaskKey());
+        }
+        addTombstone(tombstone);
+    }
+
+    protected void addTombstone(ActionableTaskIndexEntry tombstone){
+        // only the latest tombstone of a task is needed (it supersedes any earlier one, including the one it was
+        // relocated from)
+        dropTombstone(tombstone.getTaskKey());
+        segmentTombstones.computeIfAbsent(tombstone.getSegmentId(), segmentId -> new ArrayList<>()).add(tombstone);
+        segmentLiveBytes.merge(tombstone.getSegmentId(), (long)tombstone.getFrameLength(), Long::sum);
+        tombstoneIndex.put(tombstone.getTaskKey(), tombstone);
+    }
+
+    private void dropTombstone(String taskKey){
+        ActionableTaskIndexEntry tombstone = tombstoneIndex.remove(taskKey);
+        if(tombstone == null){
+            return;
+        }
+        int segmentId = tombstone.getSegmentId();
+        List<ActionableTaskIndexEntry> tombstones = segmentTombstones.get(segmentId);
+        if(tombstones != null){
+            tombstones.removeIf(currentTombstone -> currentTombstone == tombstone);
+            if(tombstones.isEmpty()){
+                segmentTombstones.remove(segmentId);
+            }
+        }
+        segmentLiveBytes.computeIfPresent(segmentId, (key, liveBytes) -> liveBytes - tombstone.getFrameLength());
+    }
+
+    private void releaseEntry(ActionableTaskIndexEntry entry){
+        String taskKey = entry.getTaskKey();
+        Set<String> members = segmentMembers.get(entry.getSegmentId());
+        if(members != null){
+            members.remove(taskKey);
+        }
+        segmentLiveBytes.merge(entry.getSegmentId(), -(long)entry.getFrameLength(), Long::sum);
+        for(ComponentIdType currentComponentId: entry.getComponentIds()){
+            componentIndex.computeIfPresent(currentComponentId, (componentId, taskKeys) -> {
+                taskKeys.remove(taskKey);
+                if(taskKeys.isEmpty()){
+                    return(null);
+                }
+                return(taskKeys);
+            });
+        }
+    }
+
+    //
+    // Recovery (caller holds the write lock)
+    //
+
+    protected void recover() throws IOException {
+        Files.createDirectories(storeDirectory);
+        int archiveSegmentId = 0;
+        try(DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(storeDirectory, "*" + SEGMENT_FILE_SUFFIX)){
+            for(Path currentFile: segmentFiles){
+                String fileName = currentFile.getFileName().toString();
+                if(fileName.startsWith(ARCHIVE_FILE_PREFIX)){
+                    Integer segmentId = parseSegmentId(fileName, ARCHIVE_FILE_PREFIX);
+                    if(segmentId != null){
+                        archiveSegmentId = Math.max(archiveSegmentId, segmentId);
+                    }
+                } else if(fileName.startsWith(SEGMENT_FILE_PREFIX)){
+                    Integer segmentId = parseSegmentId(fileName, SEGMENT_FILE_PREFIX);
+                    if(segmentId != null){
+                        segments.put(segmentId, ActionableTaskLogSegment.open(segmentId, currentFile));
+                    }
+                }
+            }
+        }
+        activeArchiveSegment = ActionableTaskLogSegment.open(archiveSegmentId, getSegmentPath(ARCHIVE_FILE_PREFIX, archiveSegmentId));
+        //
+        // Load the snapshot (if there is a usable one) and work out where replay starts from
+        int replayFromSegmentId = Integer.MIN_VALUE;
+        long replayFromOffset = 0;
+        ActionableTaskIndexSnapshot snapshot = readSnapshot();
+        if(snapshot != null && isSnapshotUsable(snapshot)){
+            for(ActionableTaskIndexEntry currentEntry: snapshot.getTaskEntries()){
+                applyPut(currentEntry);
+            }
+            for(ActionableTaskIndexEntry currentTombstone: snapshot.getTombstoneEntries()){
+                addTombstone(currentTombstone);
+            }
+            replayFromSegmentId = snapshot.getCoveredSegmentId();
+            replayFromOffset = snapshot.getCoveredOffset();
+        } else if(snapshot != null){
+            getLogger().warn(".recover(): Snapshot does not match the log segments, replaying the whole log");
+        }
+        //
+        // Replay the log written after the snapshot
+        int replayedRecords = 0;
+        if(!segments.isEmpty()){
+            int lastSegmentId = segments.lastKey();
+            int[] replayCounter = new int[]{0};
+            for(ActionableTaskLogSegment currentSegment: segments.values()){
+                if(currentSegment.getSegmentId() < replayFromSegmentId){
+                    continue;
+                }
+                long fromOffset = 0;
+                if(currentSegment.getSegmentId() == replayFromSegmentId){
+                    fromOffset = replayFromOffset;
+                }
+                currentSegment.scan(fromOffset, (segment, frameOffset, frameLength, payload) -> {
+                    ActionableTaskLogRecord record = ActionableTaskLogRecord.fromBytes(payload);
+                    ActionableTaskIndexEntry entry = new ActionableTaskIndexEntry(record.getTaskKey(), segment.getSegmentId(), frameOffset, frameLength, record.getExecutionStatus(), record.getComponentIds());
+                    if(record.getOperation() == ActionableTaskLogRecord.Operation.PUT){
+                        applyPut(entry);
+                    } else {
+                        applyArchive(entry);
+                    }
+                    replayCounter[0] += 1;
+                }, currentSegment.getSegmentId() == lastSegmentId);
+            }
+            replayedRecords = replayCounter[0];
+        }
+        //
+        // Remove segments left behind by an interrupted compaction (nothing in them is referenced any more)
+        for(ActionableTaskLogSegment currentSegment: new ArrayList<>(segments.values())){
+            int segmentId = currentSegment.getSegmentId();
+            boolean isReferenced = !segmentMembers.getOrDefault(segmentId, Set.of()).isEmpty() || segmentTombstones.containsKey(segmentId);
+            if(segmentId < replayFromSegmentId && !isReferenced){
+                getLogger().info(".recover(): Removing unreferenced segment {}", currentSegment.getSegmentFile());
+                removeSegment(currentSegment);
+            }
+        }
+        if(segments.isEmpty()){
+            segments.put(0, ActionableTaskLogSegment.open(0, getSegmentPath(SEGMENT_FILE_PREFIX, 0)));
+        }
+        activeSegment = segments.lastEntry().getValue();
+        getLogger().info(".recover(): Recovered {} tasks, snapshot->{}, replayedRecords->{}", taskIndex.size(), snapshot != null, replayedRecords);
+        writeSnapshot();
+    }
+
+    protected ActionableTaskIndexSnapshot readSnapshot(){
+        Path snapshotFile = storeDirectory.resolve(SNAPSHOT_FILE_NAME);
+        if(!Files.exists(snapshotFile)){
+            return(null);
+        }
+        try(ObjectInputStream snapshotStream = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))){
+            return((ActionableTaskIndexSnapshot) snapshotStream.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            getLogger().warn(".readSnapshot(): Unable to read snapshot {}, replaying the whole log, error->{}", snapshotFile, ex.getMessage());
+            return(null);
+        }
+    }
+
+    protected boolean isSnapshotUsable(ActionableTaskIndexSnapshot snapshot){
+        ActionableTaskLogSegment coveredSegment = segments.get(snapshot.getCoveredSegmentId());
+        if(coveredSegment == null || coveredSegment.getSize() < snapshot.getCoveredOffset()){
+            return(false);
+        }
+        for(ActionableTaskIndexEntry currentEntry: snapshot.getTaskEntries()){
+            if(!segments.containsKey(currentEntry.getSegmentId())){
+                return(false);
+            }
+        }
+        return(true);
+    }
+
+    //
+    // Reading
+    //
+
+    protected List<PetasosActionableTask> readTasks(Collection<String> taskKeys){
+        List<byte[]> payloads = new ArrayList<>();
+        storeLock.readLock().lock();
+        try {
+            for(String currentTaskKey: taskKeys){
+                ActionableTaskIndexEntry entry = taskIndex.get(currentTaskKey);
+                if(entry != null){
+                    payloads.add(segments.get(entry.getSegmentId()).readPayload(entry.getFrameOffset(), entry.getFrameLength()));
+                }
+            }
+        } catch (IOException ex) {
+            getLogger().error(".readTasks(): Unable to read actionable tasks, error->", ex);
+        } finally {
+            storeLock.readLock().unlock();
+        }
+        List<PetasosActionableTask> taskList = new ArrayList<>();
+        for(byte[] currentPayload: payloads){
+            try {
+                taskList.add(ActionableTaskLogRecord.fromBytes(currentPayload).getActionableTask());
+            } catch (IOException ex) {
+                getLogger().error(".readTasks(): Unable to decode actionable task, error->", ex);
+            }
+        }
+        return(taskList);
+    }
+
+    protected ActionableTaskLogRecord readRecord(String taskKey) throws IOException {
+        ActionableTaskIndexEntry entry = taskIndex.get(taskKey);
+        if(entry == null){
+            return(null);
+        }
+        byte[] payload = segments.get(entry.getSegmentId()).readPayload(entry.getFrameOffset(), entry.getFrameLength());
+        return(ActionableTaskLogRecord.fromBytes(payload));
+    }
+
+    //
+    // Helpers
+    //
+
+    protected List<String> getTaskKeysForComponent(ComponentIdType componentId){
+        if(componentId == null){
+            return(new ArrayList<>());
+        }
+        Set<String> taskKeys = componentIndex.get(componentId);
+        if(taskKeys == null){
+            return(new ArrayList<>());
+        }
+        return(new ArrayList<>(taskKeys));
+    }
+
+    protected Set<ComponentIdType> deriveComponentIds(PetasosActionableTask actionableTask, PetasosActionableTaskRegistrationType registration){
+        Set<ComponentIdType> componentIds = new HashSet<>(registration.getFulfillmentProcessingPlants());
+        if(actionableTask.hasTaskNodeAffinity()){
+            componentIds.add(actionableTask.getTaskNodeAffinity());
+        }
+        if(actionableTask.hasTaskPerformerTypes()){
+            for(TaskPerformerTypeType currentPerformerType: actionableTask.getTaskPerformerTypes()){
+                if(currentPerformerType.getKnownFulfillerInstance() != null){
+                    componentIds.add(currentPerformerType.getKnownFulfillerInstance());
+                }
+            }
+        }
+        componentIds.remove(null);
+        return(componentIds);
+    }
+
+    protected String getTaskKey(PetasosActionableTask actionableTask){
+        if(actionableTask == null || !actionableTask.hasTaskId()){
+            return(null);
+        }
+        return(getTaskKey(actionableTask.getTaskId()));
+    }
+
+    protected String getTaskKey(TaskIdType taskId){
+        if(taskId == null){
+            return(null);
+        }
+        return(taskId.getId());
+    }
+
+    protected Path getSegmentPath(String filePrefix, int segmentId){
+        return(storeDirectory.resolve(filePrefix + String.format("%08d", segmentId) + SEGMENT_FILE_SUFFIX));
+    }
+
+    protected Integer parseSegmentId(String fileName, String filePrefix){
+        try {
+            return(Integer.parseInt(fileName.substring(filePrefix.length(), fileName.length() - SEGMENT_FILE_SUFFIX.length())));
+        } catch (NumberFormatException ex) {
+            return(null);
+        }
+    }
+
+    private void ensureInitialised(){
+        if(!initialised){
+            initialise();
+        }
+    }
+}
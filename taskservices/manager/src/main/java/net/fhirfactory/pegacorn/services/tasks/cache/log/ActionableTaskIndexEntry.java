@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.tasks.cache.log;
+
+import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
+import net.fhirfactory.pegacorn.core.model.petasos.wup.valuesets.PetasosTaskExecutionStatusEnum;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The in-memory (and snapshotted) index entry for a record in the actionable task log: where the record's frame is
+ * and the attributes the task is indexed on. The task itself stays on disk. Entries are immutable.
+ */
+public class ActionableTaskIndexEntry implements Serializable {
+    private final String taskKey;
+    private final int segmentId;
+    private final long frameOffset;
+    private final int frameLength;
+    private final PetasosTaskExecutionStatusEnum executionStatus;
+    private final HashSet<ComponentIdType> componentIds;
+
+    //
+    // Constructor(s)
+    //
+
+    public ActionableTaskIndexEntry(String taskKey, int segmentId, long frameOffset, int frameLength, PetasosTaskExecutionStatusEnum executionStatus, Set<ComponentIdType> componentIds){
+        this.taskKey = taskKey;
+        this.segmentId = segmentId;
+        this.frameOffset = frameOffset;
+        this.frameLength = frameLength;
+        this.executionStatus = executionStatus;
+        this.componentIds = new HashSet<>();
+        if(componentIds != null){
+            this.componentIds.addAll(componentIds);
+        }
+    }
+
+    public ActionableTaskIndexEntry relocate(int newSegmentId, long newFrameOffset){
+        return(new ActionableTaskIndexEntry(taskKey, newSegmentId, newFrameOffset, frameLength, executionStatus, componentIds));
+    }
+
+    //
+    // Getters
+    //
+
+    public String getTaskKey() {
+        return taskKey;
+    }
+
+    public int getSegmentId() {
+        return segmentId;
+    }
+
+    public long getFrameOffset() {
+        return frameOffset;
+    }
+
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    public PetasosTaskExecutionStatusEnum getExecutionStatus() {
+        return executionStatus;
+    }
+
+    public Set<ComponentIdType> getComponentIds() {
+        return Collections.unmodifiableSet(componentIds);
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "ActionableTaskIndexEntry{" +
+                "taskKey='" + taskKey + '\'' +
+                ", segmentId=" + segmentId +
+                ", frameOffset=" + frameOffset +
+                ", frameLength=" + frameLength +
+                ", executionStatus=" + executionStatus +
+                ", componentIds=" + componentIds +
+                '}';
+    }
+}
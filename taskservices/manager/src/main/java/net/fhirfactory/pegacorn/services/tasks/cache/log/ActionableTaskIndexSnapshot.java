@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.tasks.cache.log;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A point-in-time copy of the actionable task log's indexes, so that recovery only has to replay the log written
+ * after (coveredSegmentId, coveredOffset) rather than the whole log.
+ */
+public class ActionableTaskIndexSnapshot implements Serializable {
+    private int coveredSegmentId;
+    private long coveredOffset;
+    private ArrayList<ActionableTaskIndexEntry> taskEntries;
+    private ArrayList<ActionableTaskIndexEntry> tombstoneEntries;
+
+    //
+    // Constructor(s)
+    //
+
+    public ActionableTaskIndexSnapshot(){
+        this.coveredSegmentId = 0;
+        this.coveredOffset = 0;
+        this.taskEntries = new ArrayList<>();
+        this.tombstoneEntries = new ArrayList<>();
+    }
+
+    //
+    // Getters and Setters
+    //
+
+    public int getCoveredSegmentId() {
+        return coveredSegmentId;
+    }
+
+    public void setCoveredSegmentId(int coveredSegmentId) {
+        this.coveredSegmentId = coveredSegmentId;
+    }
+
+    public long getCoveredOffset() {
+        return coveredOffset;
+    }
+
+    public void setCoveredOffset(long coveredOffset) {
+        this.coveredOffset = coveredOffset;
+    }
+
+    public List<ActionableTaskIndexEntry> getTaskEntries() {
+        return taskEntries;
+    }
+
+    public void setTaskEntries(List<ActionableTaskIndexEntry> taskEntries) {
+        this.taskEntries = new ArrayList<>(taskEntries);
+    }
+
+    public List<ActionableTaskIndexEntry> getTombstoneEntries() {
+        return tombstoneEntries;
+    }
+
+    public void setTombstoneEntries(List<ActionableTaskIndexEntry> tombstoneEntries) {
+        this.tombstoneEntries = new ArrayList<>(tombstoneEntries);
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "ActionableTaskIndexSnapshot{" +
+                "coveredSegmentId=" + coveredSegmentId +
+                ", coveredOffset=" + coveredOffset +
+                ", taskEntries=" + taskEntries.size() +
+                ", tombstoneEntries=" + tombstoneEntries.size() +
+                '}';
+    }
+}
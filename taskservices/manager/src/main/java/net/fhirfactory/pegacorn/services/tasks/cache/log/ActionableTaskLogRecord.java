@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.tasks.cache.log;
+
+import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
+import net.fhirfactory.pegacorn.core.model.petasos.wup.valuesets.PetasosTaskExecutionStatusEnum;
+import net.fhirfactory.pegacorn.services.tasks.datatypes.PetasosActionableTaskRegistrationType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A record in the actionable task log: either the latest version of a task (PUT) or the removal of a task from
+ * the hot log because it has been archived (ARCHIVE). The execution status and component ids are carried with the
+ * record so that the in-memory indexes can be rebuilt on recovery.
+ *
+ * Records are Java-serialised, as the tasks and their registrations already are when they are passed between
+ * processing plants.
+ */
+public class ActionableTaskLogRecord implements Serializable {
+
+    public enum Operation {
+        PUT,
+        ARCHIVE
+    }
+
+    private Operation operation;
+    private String taskKey;
+    private PetasosTaskExecutionStatusEnum executionStatus;
+    private HashSet<ComponentIdType> componentIds;
+    private PetasosActionableTaskRegistrationType registration;
+    private PetasosActionableTask actionableTask;
+
+    //
+    // Constructor(s)
+    //
+
+    public ActionableTaskLogRecord(){
+        this.operation = null;
+        this.taskKey = null;
+        this.executionStatus = null;
+        this.componentIds = new HashSet<>();
+        this.registration = null;
+        this.actionableTask = null;
+    }
+
+    public static ActionableTaskLogRecord newPutRecord(String taskKey, PetasosActionableTask actionableTask, PetasosActionableTaskRegistrationType registration, Set<ComponentIdType> componentIds){
+        ActionableTaskLogRecord record = new ActionableTaskLogRecord();
+        record.setOperation(Operation.PUT);
+        record.setTaskKey(taskKey);
+        record.setActionableTask(actionableTask);
+        record.setRegistration(registration);
+        record.setExecutionStatus(actionableTask.getExecutionStatus());
+        record.getComponentIds().addAll(componentIds);
+        return(record);
+    }
+
+    public static ActionableTaskLogRecord newArchiveRecord(String taskKey){
+        ActionableTaskLogRecord record = new ActionableTaskLogRecord();
+        record.setOperation(Operation.ARCHIVE);
+        record.setTaskKey(taskKey);
+        return(record);
+    }
+
+    //
+    // Serialisation
+    //
+
+    public byte[] toBytes() throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try(ObjectOutputStream objectStream = new ObjectOutputStream(byteStream)){
+            objectStream.writeObject(this);
+        }
+        return(byteStream.toByteArray());
+    }
+
+    public static ActionableTaskLogRecord fromBytes(byte[] payload) throws IOException {
+        try(ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(payload))){
+            return((ActionableTaskLogRecord) objectStream.readObject());
+        } catch (ClassNotFoundException ex) {
+            throw(new IOException("Unable to decode actionable task log record", ex));
+        }
+    }
+
+    //
+    // Getters and Setters
+    //
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    public String getTaskKey() {
+        return taskKey;
+    }
+
+    public void setTaskKey(String taskKey) {
+        this.taskKey = taskKey;
+    }
+
+    public PetasosTaskExecutionStatusEnum getExecutionStatus() {
+        return executionStatus;
+    }
+
+    public void setExecutionStatus(PetasosTaskExecutionStatusEnum executionStatus) {
+        this.executionStatus = executionStatus;
+    }
+
+    public HashSet<ComponentIdType> getComponentIds() {
+        return componentIds;
+    }
+
+    public void setComponentIds(HashSet<ComponentIdType> componentIds) {
+        this.componentIds = componentIds;
+    }
+
+    public PetasosActionableTaskRegistrationType getRegistration() {
+        return registration;
+    }
+
+    public void setRegistration(PetasosActionableTaskRegistrationType registration) {
+        this.registration = registration;
+    }
+
+    public PetasosActionableTask getActionableTask() {
+        return actionableTask;
+    }
+
+    public void setActionableTask(PetasosActionableTask actionableTask) {
+        this.actionableTask = actionableTask;
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "ActionableTaskLogRecord{" +
+                "operation=" + operation +
+                ", taskKey='" + taskKey + '\'' +
+                ", executionStatus=" + executionStatus +
+                ", componentIds=" + componentIds +
+                '}';
+    }
+}
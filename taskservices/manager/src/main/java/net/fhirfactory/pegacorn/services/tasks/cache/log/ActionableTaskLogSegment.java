@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.tasks.cache.log;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A single append-only file of the actionable task log. Each record is written as a frame:
+ *
+ *     [int payloadLength][int crc32(payload)][payload]
+ *
+ * Frames are only ever appended, so a crash can at worst leave a torn frame at the end of the file, which scan()
+ * detects (by length and checksum) and truncates.
+ */
+public class ActionableTaskLogSegment {
+    private static final Logger LOG = LoggerFactory.getLogger(ActionableTaskLogSegment.class);
+
+    public static final int FRAME_HEADER_SIZE = 8;
+
+    private final int segmentId;
+    private final Path segmentFile;
+    private final FileChannel channel;
+    private long size;
+
+    //
+    // Constructor(s)
+    //
+
+    private ActionableTaskLogSegment(int segmentId, Path segmentFile, FileChannel channel, long size){
+        this.segmentId = segmentId;
+        this.segmentFile = segmentFile;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    public static ActionableTaskLogSegment open(int segmentId, Path segmentFile) throws IOException {
+        FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return(new ActionableTaskLogSegment(segmentId, segmentFile, channel, channel.size()));
+    }
+
+    //
+    // Business Methods
+    //
+
+    /**
+     * Appends a record, returning the offset of its frame.
+     */
+    public long append(byte[] payload) throws IOException {
+        CRC32 checksum = new CRC32();
+        checksum.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+        frame.putInt(payload.length);
+        frame.putInt((int) checksum.getValue());
+        frame.put(payload);
+        frame.flip();
+        return(appendFrame(frame));
+    }
+
+    /**
+     * Appends an already framed record (e.g. one copied from another segment), returning its offset.
+     */
+    public long appendFrame(ByteBuffer frame) throws IOException {
+        long frameOffset = size;
+        long position = frameOffset;
+        while(frame.hasRemaining()){
+            position += channel.write(frame, position);
+        }
+        size = position;
+        return(frameOffset);
+    }
+
+    public ByteBuffer readFrame(long frameOffset, int frameLength) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(frameLength);
+        long position = frameOffset;
+        while(frame.hasRemaining()){
+            int bytesRead = channel.read(frame, position);
+            if(bytesRead < 0){
+                throw(new IOException("Unexpected end of segment " + segmentFile + " at " + position));
+            }
+            position += bytesRead;
+        }
+        frame.flip();
+        return(frame);
+    }
+
+    public byte[] readPayload(long frameOffset, int frameLength) throws IOException {
+        ByteBuffer frame = readFrame(frameOffset, frameLength);
+        frame.position(FRAME_HEADER_SIZE);
+        byte[] payload = new byte[frameLength - FRAME_HEADER_SIZE];
+        frame.get(payload);
+        return(payload);
+    }
+
+    /**
+     * Reads the frames from fromOffset onwards, passing each one to the visitor. Reading stops at the first frame
+     * that is incomplete or fails its checksum; if truncateInvalidTail is set the segment is truncated there (which
+     * is what is wanted for the last segment after a crash).
+     *
+     * @return the offset reading stopped at (the end of the last valid frame)
+     */
+    public long scan(long fromOffset, ActionableTaskLogFrameVisitor visitor, boolean truncateInvalidTail) throws IOException {
+        long position = fromOffset;
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        while(position + FRAME_HEADER_SIZE <= size){
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int payloadLength = header.getInt();
+            int expectedChecksum = header.getInt();
+            if(payloadLength < 0 || position + FRAME_HEADER_SIZE + payloadLength > size){
+                break;
+            }
+            byte[] payload = readPayload(position, FRAME_HEADER_SIZE + payloadLength);
+            CRC32 checksum = new CRC32();
+            checksum.update(payload);
+            if((int) checksum.getValue() != expectedChecksum){
+                break;
+            }
+            visitor.visit(this, position, FRAME_HEADER_SIZE + payloadLength, payload);
+            position += FRAME_HEADER_SIZE + payloadLength;
+        }
+        if(position < size){
+            if(truncateInvalidTail){
+                LOG.warn(".scan(): Truncating {} torn/invalid bytes from the end of {}", size - position, segmentFile);
+                channel.truncate(position);
+                size = position;
+            } else {
+                LOG.error(".scan(): Invalid frame in {} at offset {}, the rest of the segment has been ignored", segmentFile, position);
+            }
+        }
+        return(position);
+    }
+
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(segmentFile);
+    }
+
+    //
+    // Getters (and Setters)
+    //
+
+    public int getSegmentId() {
+        return segmentId;
+    }
+
+    public Path getSegmentFile() {
+        return segmentFile;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    //
+    // To String
+    //
+
+    @Override
+    public String toString() {
+        return "ActionableTaskLogSegment{" +
+                "segmentId=" + segmentId +
+                ", segmentFile=" + segmentFile +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2022 Mark A. Hunter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.fhirfactory.pegacorn.services.tasks.cache;
+
+import net.fhirfactory.pegacorn.core.model.componentid.ComponentIdType;
+import net.fhirfactory.pegacorn.core.model.petasos.task.PetasosActionableTask;
+import net.fhirfactory.pegacorn.core.model.petasos.task.datatypes.identity.datatypes.TaskIdType;
+import net.fhirfactory.pegacorn.core.model.petasos.wup.valuesets.PetasosTaskExecutionStatusEnum;
+import net.fhirfactory.pegacorn.services.tasks.datatypes.PetasosActionableTaskRegistrationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentPetasosActionableTaskDMTest {
+    private static final long SMALL_SEGMENT_SIZE = 16L * 1024L;
+    private static final long LARGE_SEGMENT_SIZE = 64L * 1024L * 1024L;
+    private static final int LARGE_SNAPSHOT_INTERVAL = 1000000;
+
+    @TempDir
+    Path storeDirectory;
+
+    private List<PersistentPetasosActionableTaskDM> openStores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown(){
+        for(PersistentPetasosActionableTaskDM currentStore: openStores){
+            currentStore.close();
+        }
+    }
+
+    //
+    // Test Fixtures
+    //
+
+    /**
+     * A store whose snapshot can be made to fail, to simulate a crash part way through compaction.
+     */
+    private static class CrashingTaskDM extends PersistentPetasosActionableTaskDM {
+        boolean failNextSnapshot;
+
+        CrashingTaskDM(Path storeDirectory, long segmentSize, int snapshotInterval, double compactionThreshold){
+            super(storeDirectory, segmentSize, snapshotInterval, compactionThreshold);
+        }
+
+        @Override
+        protected void writeSnapshot() throws IOException {
+            if(failNextSnapshot){
+                failNextSnapshot = false;
+                throw(new IOException("simulated crash"));
+            }
+            super.writeSnapshot();
+        }
+    }
+
+    private PersistentPetasosActionableTaskDM openStore(long segmentSize, int snapshotInterval){
+        PersistentPetasosActionableTaskDM taskDM = new PersistentPetasosActionableTaskDM(storeDirectory, segmentSize, snapshotInterval, 0.5);
+        taskDM.initialise();
+        openStores.add(taskDM);
+        return(taskDM);
+    }
+
+    private static PetasosActionableTask newTask(String taskId, String componentId, PetasosTaskExecutionStatusEnum status, long version){
+        PetasosActionableTask actionableTask = new PetasosActionableTask();
+        TaskIdType taskIdType = new TaskIdType();
+        taskIdType.setId(taskId);
+        actionableTask.setTaskId(taskIdType);
+        actionableTask.setTaskNodeAffinity(newComponentId(componentId));
+        actionableTask.setExecutionStatus(status);
+        actionableTask.setUpdateInstant(Instant.ofEpochSecond(version));
+        return(actionableTask);
+    }
+
+    private static ComponentIdType newComponentId(String componentId){
+        ComponentIdType componentIdType = new ComponentIdType();
+        componentIdType.setId(componentId);
+        return(componentIdType);
+    }
+
+    private static TaskIdType newTaskId(String taskId){
+        TaskIdType taskIdType = new TaskIdType();
+        taskIdType.setId(taskId);
+        return(taskIdType);
+    }
+
+    private Path lastSegmentFile() throws IOException {
+        Path lastSegment = null;
+        try(DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(storeDirectory, "actionable-tasks-0*.log")){
+            for(Path currentFile: segmentFiles){
+                if(lastSegment == null || currentFile.getFileName().toString().compareTo(lastSegment.getFileName().toString()) > 0){
+                    lastSegment = currentFile;
+                }
+            }
+        }
+        return(lastSegment);
+    }
+
+    //
+    // Tests
+    //
+
+    @Test
+    void registerUpdateGetArchiveRoundTrip(){
+        PersistentPetasosActionableTaskDM taskDM = openStore(LARGE_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL);
+        PetasosActionableTaskRegistrationType registration = taskDM.registerPetasosActionableTask(newTask("task-1", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        assertNotNull(registration.getRegistrationInstant());
+
+        PetasosActionableTask storedTask = taskDM.getPetasosActionableTask(newTaskId("task-1"));
+        assertNotNull(storedTask);
+        assertEquals("task-1", storedTask.getTaskId().getId());
+        assertEquals(Instant.ofEpochSecond(1), storedTask.getUpdateInstant());
+
+        PetasosActionableTaskRegistrationType updatedRegistration = taskDM.updatePetasosActionableTask(newTask("task-1", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 2), null);
+        assertEquals(registration.getRegistrationInstant(), updatedRegistration.getRegistrationInstant());
+        assertEquals(Instant.ofEpochSecond(2), taskDM.getPetasosActionableTask(newTaskId("task-1")).getUpdateInstant());
+        assertEquals(1, taskDM.getNumberOfTasks());
+
+        // an update of an unknown task registers it
+        taskDM.updatePetasosActionableTask(newTask("task-2", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        assertNotNull(taskDM.getPetasosActionableTask(newTaskId("task-2")));
+
+        assertTrue(taskDM.archivePetasosActionableTask(newTaskId("task-1")));
+        assertNull(taskDM.getPetasosActionableTask(newTaskId("task-1")));
+        assertFalse(taskDM.archivePetasosActionableTask(newTaskId("task-1")));
+        assertEquals(1, taskDM.getNumberOfTasks());
+    }
+
+    @Test
+    void componentAndStatusIndexLookups(){
+        PersistentPetasosActionableTaskDM taskDM = openStore(LARGE_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL);
+        taskDM.registerPetasosActionableTask(newTask("task-1", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        taskDM.registerPetasosActionableTask(newTask("task-2", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        taskDM.registerPetasosActionableTask(newTask("task-3", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_EXECUTING, 1), null);
+        taskDM.registerPetasosActionableTask(newTask("task-4", "component-b", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+
+        assertEquals(3, taskDM.getPetasosActionableTasksForComponent(newComponentId("component-a")).size());
+        assertEquals(2, taskDM.getWaitingActionableTasksForComponent(newComponentId("component-a")).size());
+        assertEquals(1, taskDM.getWaitingActionableTasksForComponent(newComponentId("component-b")).size());
+        assertTrue(taskDM.getPetasosActionableTasksForComponent(newComponentId("component-c")).isEmpty());
+
+        // a new version moves the task between the status index entries
+        taskDM.registerPetasosActionableTask(newTask("task-1", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_FINISHED, 2), null);
+        List<PetasosActionableTask> waitingTasks = taskDM.getWaitingActionableTasksForComponent(newComponentId("component-a"));
+        assertEquals(1, waitingTasks.size());
+        assertEquals("task-2", waitingTasks.get(0).getTaskId().getId());
+
+        taskDM.archivePetasosActionableTask(newTaskId("task-2"));
+        assertTrue(taskDM.getWaitingActionableTasksForComponent(newComponentId("component-a")).isEmpty());
+        assertEquals(2, taskDM.getPetasosActionableTasksForComponent(newComponentId("component-a")).size());
+    }
+
+    @Test
+    void segmentsRollAndAreCompacted() throws IOException {
+        PersistentPetasosActionableTaskDM taskDM = openStore(SMALL_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL);
+        int maximumSegments = 0;
+        for(int version = 1; version <= 200; version += 1){
+            for(int taskNumber = 0; taskNumber < 5; taskNumber += 1){
+                taskDM.registerPetasosActionableTask(newTask("task-" + taskNumber, "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, version), null);
+            }
+            maximumSegments = Math.max(maximumSegments, taskDM.getNumberOfSegments());
+        }
+        // the log rolled, but the superseded versions were compacted away rather than accumulating
+        assertTrue(maximumSegments > 1);
+        assertTrue(taskDM.getNumberOfSegments() <= 5, "segments->" + taskDM.getNumberOfSegments());
+        try(DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(storeDirectory, "actionable-tasks-0*.log")){
+            int segmentFileCount = 0;
+            for(Path currentFile: segmentFiles){
+                segmentFileCount += 1;
+            }
+            assertEquals(taskDM.getNumberOfSegments(), segmentFileCount);
+        }
+        for(int taskNumber = 0; taskNumber < 5; taskNumber += 1){
+            assertEquals(Instant.ofEpochSecond(200), taskDM.getPetasosActionableTask(newTaskId("task-" + taskNumber)).getUpdateInstant());
+        }
+        assertEquals(5, taskDM.getWaitingActionableTasksForComponent(newComponentId("component-a")).size());
+    }
+
+    @Test
+    void supersededTombstonesAreNotCountedAsLive(){
+        PersistentPetasosActionableTaskDM taskDM = openStore(LARGE_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL);
+        taskDM.registerPetasosActionableTask(newTask("task-1", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        taskDM.archivePetasosActionableTask(newTaskId("task-1"));
+        long liveBytesAfterArchive = taskDM.getSegmentLiveBytes(0);
+        assertTrue(liveBytesAfterArchive > 0);
+        assertEquals(1, taskDM.getNumberOfTombstones());
+
+        // registering it again drops the tombstone, archiving it again adds (only) the new one
+        taskDM.registerPetasosActionableTask(newTask("task-1", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 2), null);
+        assertEquals(0, taskDM.getNumberOfTombstones());
+        taskDM.archivePetasosActionableTask(newTaskId("task-1"));
+        assertEquals(1, taskDM.getNumberOfTombstones());
+        assertEquals(liveBytesAfterArchive, taskDM.getSegmentLiveBytes(0));
+    }
+
+    @Test
+    void recoversFromSnapshotPlusTail(){
+        PersistentPetasosActionableTaskDM taskDM = new PersistentPetasosActionableTaskDM(storeDirectory, LARGE_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL, 0.5);
+        taskDM.initialise();
+        for(int taskNumber = 0; taskNumber < 10; taskNumber += 1){
+            taskDM.registerPetasosActionableTask(newTask("task-" + taskNumber, "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        }
+        taskDM.snapshot();
+        // the tail, written after the snapshot
+        taskDM.registerPetasosActionableTask(newTask("task-10", "component-b", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        taskDM.registerPetasosActionableTask(newTask("task-0", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_FINISHED, 2), null);
+        taskDM.archivePetasosActionableTask(newTaskId("task-1"));
+        // no close(), so no final snapshot - as if the process had died
+
+        PersistentPetasosActionableTaskDM recoveredDM = openStore(LARGE_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL);
+        assertEquals(10, recoveredDM.getNumberOfTasks());
+        assertNull(recoveredDM.getPetasosActionableTask(newTaskId("task-1")));
+        assertNotNull(recoveredDM.getPetasosActionableTask(newTaskId("task-10")));
+        assertEquals(Instant.ofEpochSecond(2), recoveredDM.getPetasosActionableTask(newTaskId("task-0")).getUpdateInstant());
+        assertEquals(8, recoveredDM.getWaitingActionableTasksForComponent(newComponentId("component-a")).size());
+        assertEquals(1, recoveredDM.getPetasosActionableTasksForComponent(newComponentId("component-b")).size());
+    }
+
+    @Test
+    void truncatesTornTail() throws IOException {
+        PersistentPetasosActionableTaskDM taskDM = new PersistentPetasosActionableTaskDM(storeDirectory, LARGE_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL, 0.5);
+        taskDM.initialise();
+        taskDM.registerPetasosActionableTask(newTask("task-1", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        taskDM.registerPetasosActionableTask(newTask("task-2", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        Path segmentFile = lastSegmentFile();
+        long validSize = Files.size(segmentFile);
+        // a frame header promising more payload than was written
+        try(FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND)){
+            ByteBuffer tornFrame = ByteBuffer.allocate(12);
+            tornFrame.putInt(1000);
+            tornFrame.putInt(42);
+            tornFrame.putInt(7);
+            tornFrame.flip();
+            channel.write(tornFrame);
+        }
+
+        PersistentPetasosActionableTaskDM recoveredDM = openStore(LARGE_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL);
+        assertEquals(validSize, Files.size(segmentFile));
+        assertEquals(2, recoveredDM.getNumberOfTasks());
+        // and the log carries on from the end of the last valid record
+        recoveredDM.registerPetasosActionableTask(newTask("task-3", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        assertEquals(3, recoveredDM.getWaitingActionableTasksForComponent(newComponentId("component-a")).size());
+    }
+
+    @Test
+    void recoversFromCrashBetweenCompactionAndSnapshot(){
+        CrashingTaskDM taskDM = new CrashingTaskDM(storeDirectory, SMALL_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL, 0.5);
+        taskDM.initialise();
+        taskDM.registerPetasosActionableTask(newTask("task-4", "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, 1), null);
+        taskDM.archivePetasosActionableTask(newTaskId("task-4"));
+        long[] latestVersions = new long[4];
+        boolean crashed = false;
+        for(int version = 1; version <= 200 && !crashed; version += 1){
+            for(int taskNumber = 0; taskNumber < 4 && !crashed; taskNumber += 1){
+                if(version == 20){
+                    taskDM.failNextSnapshot = true;
+                }
+                try {
+                    taskDM.registerPetasosActionableTask(newTask("task-" + taskNumber, "component-a", PetasosTaskExecutionStatusEnum.PETASOS_TASK_ACTIVITY_STATUS_WAITING, version), null);
+                    latestVersions[taskNumber] = version;
+                } catch (UncheckedIOException ex) {
+                    crashed = true;
+                }
+            }
+        }
+        assertTrue(crashed, "no compaction was attempted");
+        // the compacted segments' records were copied forward but the segments were never removed (and the
+        // snapshot never written), so recovery sees both copies - as if the process had died there
+
+        PersistentPetasosActionableTaskDM recoveredDM = openStore(SMALL_SEGMENT_SIZE, LARGE_SNAPSHOT_INTERVAL);
+        assertEquals(4, recoveredDM.getNumberOfTasks());
+        assertNull(recoveredDM.getPetasosActionableTask(newTaskId("task-4")));
+        for(int taskNumber = 0; taskNumber < 4; taskNumber += 1){
+            assertEquals(Instant.ofEpochSecond(latestVersions[taskNumber]), recoveredDM.getPetasosActionableTask(newTaskId("task-" + taskNumber)).getUpdateInstant());
+        }
+        assertEquals(4, recoveredDM.getWaitingActionableTasksForComponent(newComponentId("component-a")).size());
+    }
+}
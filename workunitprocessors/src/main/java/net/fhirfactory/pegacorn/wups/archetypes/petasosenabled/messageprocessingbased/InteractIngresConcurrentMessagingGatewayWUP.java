@@ -20,7 +20,346 @@
  * SOFTWARE.
  */
 
+
 package net.fhirfactory.pegacorn.wups.archetypes.petasosenabled.messageprocessingbased;
 
-public class InteractIngresConcurrentMessagingGatewayWUP {
+import net.fhirfactory.pegacorn.util.scheduling.PegacornKeyedSerialExecutor;
+import net.fhirfactory.pegacorn.util.scheduling.PegacornKeyedSerialExecutor.KeyedTaskFuture;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.model.RouteDefinition;
+import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An Interact Ingres Messaging Gateway (typically an MLLP server) that hands its messages off to the WUP egress
+ * in parallel, while keeping the messages for any one ordering key (the sending facility by default, see
+ * specifyOrderingKey()) strictly in the order they were received.
+ *
+ * The hand-off runs on a keyed serial executor (see PegacornKeyedSerialExecutor) and completes the route
+ * asynchronously: the receiving (connection) thread doesn't wait for it, and the exchange - and so the ACK - is
+ * completed on the hand-off thread once the message has been handed off to Petasos (a failed hand-off is NACK'd).
+ * So a consumer that routes asynchronously can carry on reading (pipelining) while earlier messages on the same
+ * connection are still being handed off, and messages from different senders on one connection are handed off in
+ * parallel; messages with the same ordering key are still handed off in order.
+ *
+ * The executor bounds the number of messages in flight, in total and per ordering key; when a bound is reached the
+ * connection thread waits (so stops reading from its socket) and, if the wait exceeds specifyHandOffTimeout(), the
+ * message is NACK'd so the sender retries it later. A message whose hand-off hasn't started within
+ * specifyHandOffTimeout() is taken off the queue (so it is never delivered) and NACK'd; one that has started is
+ * always seen through, so a NACK'd message is never also delivered. A slow ordering key can only hold up its own
+ * messages.
+ *
+ * Sub-classes build their route as:
+ *      fromInteractIngresConcurrentService(uri)
+ *          .process(...)   // any per-message transformation
+ *          .process(orderedHandOffToEgress());
+ */
+public abstract class InteractIngresConcurrentMessagingGatewayWUP extends InteractIngresMessagingGatewayWUP {
+
+    public static final String WUP_INTERACT_INGRES_ORDERING_KEY = "WUPInteractIngresOrderingKey";
+
+    private static final String MLLP_REMOTE_ADDRESS_HEADER = "CamelMllpRemoteAddress";
+    private static final int DEFAULT_HAND_OFF_WORKER_COUNT = 8;
+    private static final int DEFAULT_MAXIMUM_IN_FLIGHT_MESSAGES = 256;
+    private static final int DEFAULT_MAXIMUM_IN_FLIGHT_MESSAGES_PER_KEY = 32;
+    private static final long DEFAULT_HAND_OFF_TIMEOUT = 30000L; // milliseconds
+    private static final long SHUTDOWN_WAIT = 10000L; // milliseconds
+
+    private PegacornKeyedSerialExecutor handOffExecutor;
+    private ScheduledThreadPoolExecutor handOffTimer;
+    private ProducerTemplate handOffTemplate;
+
+    public enum OrderingKeyEnum {
+        CONNECTION,             // the remote address of the MLLP connection
+        SENDING_APPLICATION,    // MSH-3
+        SENDING_FACILITY,       // MSH-4
+        PATIENT_IDENTIFIER      // PID-3 (first repetition)
+    }
+
+    //
+    // Constructor(s)
+    //
+
+    public InteractIngresConcurrentMessagingGatewayWUP(){
+        super();
+        this.handOffExecutor = null;
+        this.handOffTimer = null;
+        this.handOffTemplate = null;
+    }
+
+    //
+    // Pre Destroy
+    //
+
+    @PreDestroy
+    public void shutdownHandOffExecutor(){
+        getLogger().debug(".shutdownHandOffExecutor(): Entry");
+        if(handOffExecutor != null){
+            handOffExecutor.shutdown(SHUTDOWN_WAIT);
+        }
+        if(handOffTimer != null){
+            handOffTimer.shutdownNow();
+        }
+        getLogger().debug(".shutdownHandOffExecutor(): Exit");
+    }
+
+    //
+    // Configuration (override as required)
+    //
+
+    protected OrderingKeyEnum specifyOrderingKey(){
+        return(OrderingKeyEnum.SENDING_FACILITY);
+    }
+
+    protected int specifyHandOffWorkerCount(){
+        return(DEFAULT_HAND_OFF_WORKER_COUNT);
+    }
+
+    protected int specifyMaximumInFlightMessages(){
+        return(DEFAULT_MAXIMUM_IN_FLIGHT_MESSAGES);
+    }
+
+    protected int specifyMaximumInFlightMessagesPerKey(){
+        return(DEFAULT_MAXIMUM_IN_FLIGHT_MESSAGES_PER_KEY);
+    }
+
+    protected long specifyHandOffTimeout(){
+        return(DEFAULT_HAND_OFF_TIMEOUT);
+    }
+
+    //
+    // Route Helper Functions
+    //
+
+    /**
+     * @param uri
+     * @return fromInteractIngresService(uri) with the message's ordering key added as an exchange property
+     */
+    protected RouteDefinition fromInteractIngresConcurrentService(String uri){
+        OrderingKeyInjector orderingKeyInjector = new OrderingKeyInjector();
+        RouteDefinition route = fromInteractIngresService(uri);
+        route
+                .process(orderingKeyInjector)
+        ;
+        return(route);
+    }
+
+    protected Processor orderedHandOffToEgress(){
+        return(new OrderedHandOffProcessor(egressFeed()));
+    }
+
+    protected synchronized PegacornKeyedSerialExecutor getHandOffExecutor(){
+        if(handOffExecutor == null){
+            handOffExecutor = new PegacornKeyedSerialExecutor(getClass().getSimpleName() + "-HandOff",
+                    specifyHandOffWorkerCount(),
+                    specifyMaximumInFlightMessages(),
+                    specifyMaximumInFlightMessagesPerKey());
+        }
+        return(handOffExecutor);
+    }
+
+    protected synchronized ScheduledThreadPoolExecutor getHandOffTimer(){
+        if(handOffTimer == null){
+            String timerName = getClass().getSimpleName() + "-HandOffTimer";
+            handOffTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, timerName);
+                thread.setDaemon(true);
+                return(thread);
+            });
+            // a completed hand-off cancels its timeout, so drop it from the queue rather than hold the exchange
+            handOffTimer.setRemoveOnCancelPolicy(true);
+        }
+        return(handOffTimer);
+    }
+
+    protected synchronized ProducerTemplate getHandOffTemplate(){
+        if(handOffTemplate == null){
+            handOffTemplate = getCamelContext().createProducerTemplate();
+        }
+        return(handOffTemplate);
+    }
+
+    //
+    // Ordering Key Derivation
+    //
+
+    protected String deriveOrderingKey(Exchange exchange){
+        String orderingKey = null;
+        OrderingKeyEnum orderingKeyType = specifyOrderingKey();
+        if(orderingKeyType != OrderingKeyEnum.CONNECTION){
+            String message = exchange.getIn().getBody(String.class);
+            switch(orderingKeyType){
+                case SENDING_APPLICATION:
+                    orderingKey = getHL7Field(message, "MSH", 3);
+                    break;
+                case SENDING_FACILITY:
+                    orderingKey = getHL7Field(message, "MSH", 4);
+                    break;
+                case PATIENT_IDENTIFIER:
+                    orderingKey = getHL7Field(message, "PID", 3);
+                    break;
+                default:
+                    break;
+            }
+        }
+        if(StringUtils.isEmpty(orderingKey)){
+            orderingKey = exchange.getIn().getHeader(MLLP_REMOTE_ADDRESS_HEADER, String.class);
+        }
+        if(StringUtils.isEmpty(orderingKey)){
+            orderingKey = getSourceSystemName();
+        }
+        return(orderingKey);
+    }
+
+    /**
+     * Extracts the first component of the first repetition of a field from the first instance of a segment in
+     * an (ER7 encoded) HL7 v2 message, without parsing the message.
+     *
+     * @param message the HL7 v2 message
+     * @param segmentName e.g. "MSH"
+     * @param fieldNumber the HL7 field number (MSH-1 being the field separator itself)
+     * @return the value, or null if it isn't present
+     */
+    protected static String getHL7Field(String message, String segmentName, int fieldNumber){
+        if(message == null || message.length() < 8 || !message.startsWith("MSH")){
+            return(null);
+        }
+        char fieldSeparator = message.charAt(3);
+        char componentSeparator = message.charAt(4);
+        char repetitionSeparator = message.charAt(5);
+        int segmentStart = 0;
+        while(segmentStart < message.length()){
+            int segmentEnd = segmentStart;
+            while(segmentEnd < message.length() && message.charAt(segmentEnd) != '\r' && message.charAt(segmentEnd) != '\n'){
+                segmentEnd += 1;
+            }
+            if(message.startsWith(segmentName, segmentStart) && segmentStart + 3 < segmentEnd && message.charAt(segmentStart + 3) == fieldSeparator){
+                // position is on the separator before field 1 (or, for MSH, on MSH-1 - the separator itself)
+                int fieldIndex = segmentName.equals("MSH") ? fieldNumber - 2 : fieldNumber - 1;
+                int position = segmentStart + 3;
+                for(int currentField = 0; currentField < fieldIndex; currentField += 1){
+                    position = message.indexOf(fieldSeparator, position + 1);
+                    if(position < 0 || position >= segmentEnd){
+                        return(null);
+                    }
+                }
+                int valueStart = position + 1;
+                int valueEnd = valueStart;
+                while(valueEnd < segmentEnd){
+                    char currentChar = message.charAt(valueEnd);
+                    if(currentChar == fieldSeparator || currentChar == componentSeparator || currentChar == repetitionSeparator){
+                        break;
+                    }
+                    valueEnd += 1;
+                }
+                if(valueEnd == valueStart){
+                    return(null);
+                }
+                return(message.substring(valueStart, valueEnd));
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return(null);
+    }
+
+    //
+    // Processors
+    //
+
+    protected class OrderingKeyInjector implements Processor {
+        @Override
+        public void process(Exchange exchange) throws Exception {
+            getLogger().debug("OrderingKeyInjector.process(): Entry");
+            if(exchange.getProperty(WUP_INTERACT_INGRES_ORDERING_KEY, String.class) == null){
+                exchange.setProperty(WUP_INTERACT_INGRES_ORDERING_KEY, deriveOrderingKey(exchange));
+            }
+        }
+    }
+
+    /**
+     * Hands the exchange off to the (direct) egress endpoint on the keyed serial executor, completing the exchange
+     * (and so the route and the ACK) asynchronously once the hand-off is done.
+     */
+    protected class OrderedHandOffProcessor extends AsyncProcessorSupport {
+        private final String egressEndpoint;
+
+        public OrderedHandOffProcessor(String egressEndpoint){
+            this.egressEndpoint = egressEndpoint;
+        }
+
+        @Override
+        public boolean process(Exchange exchange, AsyncCallback callback) {
+            getLogger().debug("OrderedHandOffProcessor.process(): Entry");
+            String orderingKey = exchange.getProperty(WUP_INTERACT_INGRES_ORDERING_KEY, String.class);
+            if(orderingKey == null){
+                orderingKey = deriveOrderingKey(exchange);
+                exchange.setProperty(WUP_INTERACT_INGRES_ORDERING_KEY, orderingKey);
+            }
+            long timeout = specifyHandOffTimeout();
+            long startTime = System.currentTimeMillis();
+            // hand off a copy, so the exchange is never touched by two threads
+            Exchange handOffExchange = exchange.copy();
+            KeyedTaskFuture<Exchange> handOff;
+            try {
+                handOff = getHandOffExecutor().submit(orderingKey, () -> getHandOffTemplate().send(egressEndpoint, handOffExchange), timeout);
+            } catch (RejectedExecutionException ex) {
+                getLogger().warn("OrderedHandOffProcessor.process(): Hand-off queue full, orderingKey->{}, inFlight->{}", orderingKey, getHandOffExecutor().getInFlightCount());
+                exchange.setException(ex);
+                callback.done(true);
+                return(true);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                exchange.setException(ex);
+                callback.done(true);
+                return(true);
+            }
+            if(handOff.isDone()){
+                completeExchange(exchange, handOffExchange, handOff, timeout, orderingKey);
+                callback.done(true);
+                return(true);
+            }
+            String handOffOrderingKey = orderingKey;
+            long remainingTime = Math.max(1L, timeout - (System.currentTimeMillis() - startTime));
+            ScheduledFuture<?> handOffTimeout = getHandOffTimer().schedule(() -> {
+                // only succeeds if the hand-off hasn't started, one that has is always allowed to finish
+                if(!handOff.cancel(false) && !handOff.isDone()){
+                    getLogger().debug("OrderedHandOffProcessor.process(): Hand-off still in progress after {}ms, orderingKey->{}", timeout, handOffOrderingKey);
+                }
+            }, remainingTime, TimeUnit.MILLISECONDS);
+            handOff.whenComplete((result, error) -> {
+                handOffTimeout.cancel(false);
+                completeExchange(exchange, handOffExchange, handOff, timeout, handOffOrderingKey);
+                callback.done(false);
+            });
+            getLogger().debug("OrderedHandOffProcessor.process(): Exit, hand-off queued, orderingKey->{}", orderingKey);
+            return(false);
+        }
+
+        private void completeExchange(Exchange exchange, Exchange handOffExchange, KeyedTaskFuture<Exchange> handOff, long timeout, String orderingKey){
+            try {
+                handOff.join();
+                if(handOffExchange.getException() != null){
+                    exchange.setException(handOffExchange.getException());
+                }
+            } catch (CancellationException ex) {
+                // never delivered, so the sender can safely resend it
+                getLogger().warn("OrderedHandOffProcessor.completeExchange(): Hand-off not started within {}ms, withdrawn, orderingKey->{}", timeout, orderingKey);
+                exchange.setException(new TimeoutException("Hand-off not started within " + timeout + "ms"));
+            } catch (CompletionException ex) {
+                exchange.setException(ex.getCause() != null ? ex.getCause() : ex);
+            }
+        }
+    }
 }
@@ -65,7 +65,6 @@ public abstract class NonResilientWithAuditTrailWUP extends RouteBuilder {
     private WorkUnitProcessorSoftwareComponent topologyNode;
     private PetasosFulfillmentTask currentFulfillmentTask;
     private boolean isInitialised;
-    private IParser parserR4;
 
     @Inject
     private TopologyIM topologyIM;
@@ -128,7 +127,6 @@ public abstract class NonResilientWithAuditTrailWUP extends RouteBuilder {
         getLogger().debug(".initialise(): Entry");
         if (!isInitialised) {
             getLogger().trace(".initialise(): AccessBase is NOT initialised");
-            this.parserR4 = FHIRContextUtility.getJsonParser();
             this.isInitialised = true;
             processingPlant.initialisePlant();
             buildWUPNodeElement();
@@ -177,7 +175,7 @@ public abstract class NonResilientWithAuditTrailWUP extends RouteBuilder {
     }
 
     public IParser getParserR4() {
-        return parserR4;
+        return FHIRContextUtility.getJsonParser();
     }
 
     public FHIRElementTopicFactory getTopicIDBuilder() {
@@ -21,7 +21,6 @@
  */
 package net.fhirfactory.pegacorn.wups.archetypes.unmanaged.audit;
 
-import ca.uhn.fhir.parser.IParser;
 import net.fhirfactory.pegacorn.core.constants.systemwide.DeploymentSystemIdentificationInterface;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelManifest;
 import net.fhirfactory.pegacorn.core.model.dataparcel.DataParcelTypeDescriptor;
@@ -39,7 +38,6 @@ import org.hl7.fhir.r4.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -52,7 +50,6 @@ public class TransactionalWUPAuditEntryManager {
     @Inject 
     private FHIRContextUtility FHIRContextUtility;
     
-    private IParser parserR4;
 
     @Inject
     private FHIRElementTopicFactory topicIDBuilder;
@@ -63,13 +60,6 @@ public class TransactionalWUPAuditEntryManager {
     @Inject
     private DeploymentSystemIdentificationInterface systemIdentificationInterface;
 
-    @PostConstruct
-    protected void initialise() {
-        LOG.debug(".initialise(): Entry");
-        this.parserR4 = FHIRContextUtility.getJsonParser();
-        LOG.debug(".initialise(): Exit");
-    }
-
 
     public TransactionStatusElement beginTransaction(PetasosTaskJobCard jobCard, String auditCommentary, String resourceType, Resource fhirResource, PegacornTransactionTypeEnum action) {
         LOG.debug(".beginTransaction(): Entry, jobCard->{}, auditCommentary->{}, fhriResource->{}, action->{}", jobCard, auditCommentary, fhirResource, action);
@@ -100,8 +90,7 @@ public class TransactionalWUPAuditEntryManager {
             LOG.trace(".beginTransaction(): Converting FHIR element into a (JSON) String");
             String resourceAsString = null;
             try {
-                LOG.trace(".beginTransaction(): Using IParser --> {}", parserR4);
-                resourceAsString = parserR4.encodeResourceToString(fhirResource);
+                resourceAsString = FHIRContextUtility.encodeToJsonString(fhirResource);
                 LOG.trace(".beginTransaction(): Add JSON String (encoded FHIR element) to the UoWPayload");
                 String fullPayloadString = auditTrailPayload + resourceAsString;
                 payload.setPayload(fullPayloadString);
@@ -189,8 +178,7 @@ public class TransactionalWUPAuditEntryManager {
             }
             if(fhirResource != null) {
                 LOG.trace(".endTransaction(): fhirResource.type --> {}", fhirResource.getResourceType());
-                if(parserR4 == null) {LOG.error("Warning Will Robinson!!!!");}
-                auditTrailPayload = auditTrailPayload  + parserR4.encodeResourceToString(fhirResource);
+                auditTrailPayload = auditTrailPayload  + FHIRContextUtility.encodeToJsonString(fhirResource);
             } else {
                 auditTrailPayload = auditTrailPayload + auditEntryString;
             }